@@ -0,0 +1,34 @@
+/*
+ * Copyright 2016 Karl Bennett
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package shiver.me.timbers.spring.security.authority;
+
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.List;
+
+/**
+ * @author Karl Bennett
+ */
+public interface GrantedAuthorityRegistry {
+
+    GrantedAuthority authority(String role);
+
+    /**
+     * The returned list is immutable so that it can be shared between every authentication with the same roles.
+     */
+    List<GrantedAuthority> authorities(List<String> roles);
+}
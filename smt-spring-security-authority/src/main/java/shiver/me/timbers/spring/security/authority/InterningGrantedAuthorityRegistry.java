@@ -0,0 +1,93 @@
+/*
+ * Copyright 2016 Karl Bennett
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package shiver.me.timbers.spring.security.authority;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import static java.util.Collections.unmodifiableList;
+
+/**
+ * A registry that hands out the same authority instance for each role and the same authority list for each list of
+ * roles. Once the registry holds the maximum number of roles or role lists any new ones are converted without being
+ * registered.
+ *
+ * @author Karl Bennett
+ */
+public class InterningGrantedAuthorityRegistry implements GrantedAuthorityRegistry {
+
+    private final int maximumSize;
+    private final ConcurrentMap<String, GrantedAuthority> authorities = new ConcurrentHashMap<>();
+    private final ConcurrentMap<List<String>, List<GrantedAuthority>> authorityLists = new ConcurrentHashMap<>();
+
+    public InterningGrantedAuthorityRegistry(int maximumSize) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("The authority registry maximum size must be greater than zero.");
+        }
+        this.maximumSize = maximumSize;
+    }
+
+    @Override
+    public GrantedAuthority authority(String role) {
+        final GrantedAuthority authority = authorities.get(role);
+        if (authority != null) {
+            return authority;
+        }
+
+        final GrantedAuthority newAuthority = new SimpleGrantedAuthority(role);
+        if (authorities.size() >= maximumSize) {
+            return newAuthority;
+        }
+        final GrantedAuthority existing = authorities.putIfAbsent(role, newAuthority);
+        return existing == null ? newAuthority : existing;
+    }
+
+    @Override
+    public List<GrantedAuthority> authorities(List<String> roles) {
+        final List<GrantedAuthority> authorityList = authorityLists.get(roles);
+        if (authorityList != null) {
+            return authorityList;
+        }
+
+        final List<GrantedAuthority> newAuthorityList = new ArrayList<>(roles.size());
+        for (String role : roles) {
+            newAuthorityList.add(authority(role));
+        }
+        final List<GrantedAuthority> immutableAuthorityList = unmodifiableList(newAuthorityList);
+        if (authorityLists.size() >= maximumSize) {
+            return immutableAuthorityList;
+        }
+        final List<GrantedAuthority> existing = authorityLists.putIfAbsent(
+            unmodifiableList(new ArrayList<>(roles)),
+            immutableAuthorityList
+        );
+        return existing == null ? immutableAuthorityList : existing;
+    }
+
+    int size() {
+        return authorities.size();
+    }
+
+    int listSize() {
+        return authorityLists.size();
+    }
+}
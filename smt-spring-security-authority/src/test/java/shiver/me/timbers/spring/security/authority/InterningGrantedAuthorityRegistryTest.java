@@ -0,0 +1,155 @@
+/*
+ * Copyright 2016 Karl Bennett
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package shiver.me.timbers.spring.security.authority;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static shiver.me.timbers.data.random.RandomStrings.someString;
+import static shiver.me.timbers.matchers.Matchers.hasField;
+
+public class InterningGrantedAuthorityRegistryTest {
+
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+
+    private InterningGrantedAuthorityRegistry registry;
+
+    @Before
+    public void setUp() {
+        registry = new InterningGrantedAuthorityRegistry(2);
+    }
+
+    @Test
+    public void Can_get_the_same_authority_for_the_same_role() {
+
+        // Given
+        final String role = someString();
+
+        // When
+        final GrantedAuthority first = registry.authority(role);
+        final GrantedAuthority second = registry.authority(new String(role));
+
+        // Then
+        assertThat(first, hasField("role", role));
+        assertThat(second, sameInstance(first));
+    }
+
+    @Test
+    public void Can_get_the_same_authorities_for_an_equal_list_of_roles() {
+
+        // Given
+        final String role1 = someString();
+        final String role2 = someString();
+
+        // When
+        final List<GrantedAuthority> first = registry.authorities(asList(role1, role2));
+        final List<GrantedAuthority> second = registry.authorities(new ArrayList<>(asList(role1, role2)));
+
+        // Then
+        assertThat(first, contains(hasField("role", role1), hasField("role", role2)));
+        assertThat(second, sameInstance(first));
+        assertThat(first.get(0), sameInstance(registry.authority(role1)));
+    }
+
+    @Test
+    public void Changing_the_roles_after_registering_them_does_not_change_the_registry() {
+
+        final String role1 = someString();
+        final String role2 = someString();
+        final List<String> roles = new ArrayList<>(asList(role1));
+
+        // Given
+        final List<GrantedAuthority> authorities = registry.authorities(roles);
+        roles.add(role2);
+
+        // When
+        final List<GrantedAuthority> actual = registry.authorities(asList(role1));
+
+        // Then
+        assertThat(actual, sameInstance(authorities));
+        assertThat(actual, contains(hasField("role", role1)));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void Cannot_modify_the_registered_authorities() {
+
+        // When
+        registry.authorities(asList(someString())).clear();
+    }
+
+    @Test
+    public void Will_stop_registering_once_the_registry_is_full() {
+
+        final String role = someString();
+
+        // Given
+        registry.authority(someString());
+        registry.authority(someString());
+
+        // When
+        final GrantedAuthority first = registry.authority(role);
+        final GrantedAuthority second = registry.authority(role);
+
+        // Then
+        assertThat(first, hasField("role", role));
+        assertThat(second, not(sameInstance(first)));
+        assertThat(registry.size(), is(2));
+    }
+
+    @Test
+    public void Will_stop_registering_role_lists_once_the_registry_is_full() {
+
+        final List<String> roles = asList(someString());
+
+        // Given
+        registry.authorities(asList(someString()));
+        registry.authorities(asList(someString()));
+
+        // When
+        final List<GrantedAuthority> first = registry.authorities(roles);
+        final List<GrantedAuthority> second = registry.authorities(roles);
+
+        // Then
+        assertThat(second, is(first));
+        assertThat(second, not(sameInstance(first)));
+        assertThat(registry.listSize(), is(2));
+    }
+
+    @Test
+    public void Cannot_create_an_empty_registry() {
+
+        // Given
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("The authority registry maximum size must be greater than zero.");
+
+        // When
+        new InterningGrantedAuthorityRegistry(0);
+    }
+}
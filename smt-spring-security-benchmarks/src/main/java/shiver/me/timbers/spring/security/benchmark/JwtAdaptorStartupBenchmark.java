@@ -0,0 +1,113 @@
+/*
+ * Copyright 2016 Karl Bennett
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package shiver.me.timbers.spring.security.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.security.config.annotation.ObjectPostProcessor;
+import org.springframework.security.config.annotation.authentication.builders.AuthenticationManagerBuilder;
+import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import shiver.me.timbers.spring.security.JwtSpringSecurityAdaptor;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static java.util.Collections.singletonMap;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Measures the start up cost of applying the JWT adaptor to a number of security chains within one application
+ * context. The shared adaptor builds the JWT beans once for the application context, the unshared adaptor builds them
+ * again for every chain like the adaptor used to.
+ *
+ * @author Karl Bennett
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(MILLISECONDS)
+@Warmup(iterations = 10)
+@Measurement(iterations = 20)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtAdaptorStartupBenchmark {
+
+    private static final String SECRET = "4yU2DQfZzeGCQhVd8bA7tmRkXwLEP3sJcMn6NxuHWvYKg9jqT5pFBrSa2ZhLDe8C";
+
+    private static final ObjectPostProcessor<Object> POST_PROCESSOR = new ObjectPostProcessor<Object>() {
+        @Override
+        public <O> O postProcess(O object) {
+            return object;
+        }
+    };
+
+    @Param({"1", "8"})
+    public int chains;
+
+    @Param({"true", "false"})
+    public boolean shared;
+
+    @Benchmark
+    public ApplicationContext start() throws Exception {
+        final AnnotationConfigApplicationContext parent = new AnnotationConfigApplicationContext();
+        parent.getEnvironment().getPropertySources().addFirst(
+            new MapPropertySource("benchmark", singletonMap("smt.spring.security.jwt.secret", (Object) SECRET))
+        );
+        parent.refresh();
+        try {
+            for (int i = 0; i < chains; i++) {
+                adaptor().init(http(parent));
+            }
+            return parent;
+        } finally {
+            parent.close();
+        }
+    }
+
+    private JwtSpringSecurityAdaptor adaptor() {
+        if (shared) {
+            return JwtSpringSecurityAdaptor.jwt();
+        }
+        return new UnsharedJwtSpringSecurityAdaptor();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static HttpSecurity http(ApplicationContext parent) {
+        final Map<Class<Object>, Object> sharedObjects = new HashMap<>();
+        sharedObjects.put((Class) ApplicationContext.class, parent);
+        return new HttpSecurity(POST_PROCESSOR, new AuthenticationManagerBuilder(POST_PROCESSOR), sharedObjects);
+    }
+
+    @Configuration
+    public static class UnsharedJwtSpringSecurityAdaptor extends JwtSpringSecurityAdaptor {
+
+        @Override
+        protected ApplicationContext jwtContext(ApplicationContext parent) {
+            return createJwtContext(parent);
+        }
+    }
+}
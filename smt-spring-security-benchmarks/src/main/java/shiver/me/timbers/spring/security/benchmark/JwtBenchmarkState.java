@@ -0,0 +1,167 @@
+/*
+ * Copyright 2016 Karl Bennett
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package shiver.me.timbers.spring.security.benchmark;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.SignatureAlgorithm;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import shiver.me.timbers.spring.security.CookieAndHeaderJwtAuthenticationFilter;
+import shiver.me.timbers.spring.security.CookieJwtAuthenticationApplier;
+import shiver.me.timbers.spring.security.DatatypeConverterBase64;
+import shiver.me.timbers.spring.security.ExpiryWindowJwtRefreshPolicy;
+import shiver.me.timbers.spring.security.context.StaticSecurityContextHolder;
+import shiver.me.timbers.spring.security.cookies.CookieBakery;
+import shiver.me.timbers.spring.security.jwt.AuthenticationRequestJwtTokenParser;
+import shiver.me.timbers.spring.security.jwt.CookieJwtTokenFinder;
+import shiver.me.timbers.spring.security.jwt.JJwtBuilderFactory;
+import shiver.me.timbers.spring.security.jwt.JJwtDecryptor;
+import shiver.me.timbers.spring.security.jwt.JJwtEncryptor;
+import shiver.me.timbers.spring.security.jwt.JJwtParserFactory;
+import shiver.me.timbers.spring.security.jwt.JJwtTokenParser;
+import shiver.me.timbers.spring.security.jwt.JcaJwtDecryptor;
+import shiver.me.timbers.spring.security.jwt.JcaJwtEncryptor;
+import shiver.me.timbers.spring.security.jwt.JwtDecryptor;
+import shiver.me.timbers.spring.security.jwt.JwtEncryptor;
+import shiver.me.timbers.spring.security.jwt.JwtPrincipal;
+import shiver.me.timbers.spring.security.jwt.JwtPrincipalAuthenticationConverter;
+import shiver.me.timbers.spring.security.jwt.JwtRolesGrantedAuthorityConverter;
+import shiver.me.timbers.spring.security.jwt.PayloadJwtExpiryReader;
+import shiver.me.timbers.spring.security.jwt.StructuralJwtTokenValidator;
+import shiver.me.timbers.spring.security.keys.ExpiringKeyRing;
+import shiver.me.timbers.spring.security.keys.JwtKey;
+import shiver.me.timbers.spring.security.keys.SecretBase64KeyPairs;
+import shiver.me.timbers.spring.security.signature.JcaSignatureSignerFactory;
+import shiver.me.timbers.spring.security.signature.JcaSignatureVerifierFactory;
+import shiver.me.timbers.spring.security.time.Clock;
+import shiver.me.timbers.spring.security.time.DateClock;
+
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+
+import static java.util.Arrays.asList;
+import static java.util.concurrent.TimeUnit.HOURS;
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static shiver.me.timbers.spring.security.JwtRefreshMode.ALWAYS;
+
+/**
+ * Builds the JWT components the same way the default {@code JwtConfiguration} does, once for every supported
+ * algorithm.
+ *
+ * @author Karl Bennett
+ */
+@State(Scope.Benchmark)
+public class JwtBenchmarkState {
+
+    static final String TOKEN_NAME = "X-AUTH-TOKEN";
+
+    private static final String SECRET = "4yU2DQfZzeGCQhVd8bA7tmRkXwLEP3sJcMn6NxuHWvYKg9jqT5pFBrSa2ZhLDe8C";
+
+    @Param({"HS256", "HS384", "HS512", "RS256", "RS384", "RS512", "ES256", "ES384", "ES512"})
+    public SignatureAlgorithm algorithm;
+
+    JwtPrincipal principal;
+    JwtEncryptor encryptor;
+    JwtEncryptor jcaEncryptor;
+    JwtDecryptor jjwtDecryptor;
+    JwtDecryptor jcaDecryptor;
+    AuthenticationRequestJwtTokenParser<JwtPrincipal> tokenParser;
+    CookieAndHeaderJwtAuthenticationFilter filter;
+    String token;
+
+    @Setup
+    public void setUp() throws IOException, GeneralSecurityException {
+        final KeyPair keyPair = keyPair(algorithm);
+        final Clock clock = new DateClock();
+        final ObjectMapper objectMapper = new ObjectMapper();
+
+        principal = new JwtPrincipal("benchmark", asList("USER", "ADMIN"));
+        encryptor = new JJwtEncryptor(new JJwtBuilderFactory(), algorithm, keyPair, 1, HOURS, clock);
+        jcaEncryptor = new JcaJwtEncryptor(
+            algorithm,
+            new ExpiringKeyRing(new JwtKey(null, keyPair)),
+            new JcaSignatureSignerFactory(),
+            objectMapper,
+            1,
+            HOURS,
+            clock
+        );
+        jjwtDecryptor = new JJwtDecryptor(new JJwtParserFactory(), keyPair, objectMapper);
+        jcaDecryptor = new JcaJwtDecryptor(
+            algorithm,
+            new JcaSignatureVerifierFactory().create(algorithm, keyPair.getPublic()),
+            objectMapper,
+            clock
+        );
+
+        final PayloadJwtExpiryReader expiryReader = new PayloadJwtExpiryReader(new JsonFactory());
+        tokenParser = new AuthenticationRequestJwtTokenParser<>(
+            new CookieJwtTokenFinder(TOKEN_NAME),
+            new StructuralJwtTokenValidator(8192, algorithm, new JsonFactory(), expiryReader, clock),
+            new JwtPrincipalAuthenticationConverter(new JwtRolesGrantedAuthorityConverter()),
+            new JJwtTokenParser<>(JwtPrincipal.class, encryptor, jcaDecryptor)
+        );
+        filter = new CookieAndHeaderJwtAuthenticationFilter(
+            tokenParser,
+            new StaticSecurityContextHolder(),
+            new CookieJwtAuthenticationApplier(
+                TOKEN_NAME,
+                tokenParser,
+                new CookieBakery(1, HOURS, "", "/", false, false)
+            ),
+            new ExpiryWindowJwtRefreshPolicy(
+                ALWAYS,
+                expiryReader,
+                clock,
+                5,
+                MINUTES
+            )
+        );
+
+        token = encryptor.encrypt(principal);
+    }
+
+    private static KeyPair keyPair(SignatureAlgorithm algorithm) throws IOException, GeneralSecurityException {
+        if (algorithm.isHmac()) {
+            return new SecretBase64KeyPairs(new DatatypeConverterBase64(), algorithm).createPair(SECRET);
+        }
+        if (algorithm.isRsa()) {
+            final KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+            generator.initialize(2048);
+            return generator.generateKeyPair();
+        }
+        final KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+        generator.initialize(ecKeySize(algorithm));
+        return generator.generateKeyPair();
+    }
+
+    private static int ecKeySize(SignatureAlgorithm algorithm) {
+        switch (algorithm) {
+            case ES384:
+                return 384;
+            case ES512:
+                return 521;
+            default:
+                return 256;
+        }
+    }
+}
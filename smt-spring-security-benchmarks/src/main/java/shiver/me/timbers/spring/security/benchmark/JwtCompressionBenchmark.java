@@ -0,0 +1,140 @@
+/*
+ * Copyright 2016 Karl Bennett
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package shiver.me.timbers.spring.security.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.CompressionCodec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import shiver.me.timbers.spring.security.DatatypeConverterBase64;
+import shiver.me.timbers.spring.security.compression.BoundedDeflateCompressionCodec;
+import shiver.me.timbers.spring.security.compression.ThresholdCompressionPolicy;
+import shiver.me.timbers.spring.security.jwt.JcaJwtDecryptor;
+import shiver.me.timbers.spring.security.jwt.JcaJwtEncryptor;
+import shiver.me.timbers.spring.security.jwt.JwtDecryptor;
+import shiver.me.timbers.spring.security.jwt.JwtEncryptor;
+import shiver.me.timbers.spring.security.jwt.JwtPrincipal;
+import shiver.me.timbers.spring.security.keys.ExpiringKeyRing;
+import shiver.me.timbers.spring.security.keys.JwtKey;
+import shiver.me.timbers.spring.security.keys.SecretBase64KeyPairs;
+import shiver.me.timbers.spring.security.signature.JcaSignatureSignerFactory;
+import shiver.me.timbers.spring.security.signature.JcaSignatureVerifierFactory;
+import shiver.me.timbers.spring.security.signature.KeyRingSignatureVerifierResolver;
+import shiver.me.timbers.spring.security.time.Clock;
+import shiver.me.timbers.spring.security.time.DateClock;
+
+import java.io.IOException;
+import java.security.KeyPair;
+import java.util.ArrayList;
+import java.util.List;
+
+import static io.jsonwebtoken.SignatureAlgorithm.HS256;
+import static java.util.concurrent.TimeUnit.HOURS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * Compares signing and verifying compressed and uncompressed tokens for principals of increasing size. The length of
+ * each token is printed during the set up so the break even size, where the compressed token becomes shorter and the
+ * extra time is worth it, can be read from the same run.
+ *
+ * @author Karl Bennett
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtCompressionBenchmark {
+
+    private static final String SECRET = "4yU2DQfZzeGCQhVd8bA7tmRkXwLEP3sJcMn6NxuHWvYKg9jqT5pFBrSa2ZhLDe8C";
+
+    @Param({"64", "128", "256", "512", "1024", "2048", "4096"})
+    public int principalSize;
+
+    @Param({"false", "true"})
+    public boolean compressed;
+
+    private JwtPrincipal principal;
+    private JwtEncryptor encryptor;
+    private JwtDecryptor decryptor;
+    private String token;
+
+    @Setup
+    public void setUp() throws IOException {
+        final KeyPair keyPair = new SecretBase64KeyPairs(new DatatypeConverterBase64(), HS256).createPair(SECRET);
+        final ExpiringKeyRing keyRing = new ExpiringKeyRing(new JwtKey(null, keyPair));
+        final CompressionCodec codec = new BoundedDeflateCompressionCodec(65536);
+        final ObjectMapper objectMapper = new ObjectMapper();
+        final Clock clock = new DateClock();
+
+        principal = principal(objectMapper, principalSize);
+        encryptor = new JcaJwtEncryptor(
+            HS256,
+            keyRing,
+            new JcaSignatureSignerFactory(),
+            objectMapper,
+            1,
+            HOURS,
+            clock,
+            compressed ? new ThresholdCompressionPolicy(codec, 0) : null
+        );
+        decryptor = new JcaJwtDecryptor(
+            HS256,
+            new KeyRingSignatureVerifierResolver(HS256, keyRing, new JcaSignatureVerifierFactory()),
+            objectMapper,
+            clock,
+            codec
+        );
+        token = encryptor.encrypt(principal);
+
+        System.out.printf(
+            "%nPrincipal size: %d bytes, compressed: %s, token length: %d characters%n",
+            objectMapper.writeValueAsBytes(principal).length,
+            compressed,
+            token.length()
+        );
+    }
+
+    @Benchmark
+    public String encrypt() {
+        return encryptor.encrypt(principal);
+    }
+
+    @Benchmark
+    public JwtPrincipal decrypt() {
+        return decryptor.decrypt(token, JwtPrincipal.class);
+    }
+
+    // The roles look like the ones a real application would have so that they compress about as well.
+    private static JwtPrincipal principal(ObjectMapper objectMapper, int size) throws IOException {
+        final List<String> roles = new ArrayList<>();
+        for (int i = 0; objectMapper.writeValueAsBytes(new JwtPrincipal("benchmark", roles)).length < size; i++) {
+            roles.add("ROLE_PROJECT_" + i + (i % 2 == 0 ? "_READ" : "_WRITE"));
+        }
+        return new JwtPrincipal("benchmark", roles);
+    }
+}
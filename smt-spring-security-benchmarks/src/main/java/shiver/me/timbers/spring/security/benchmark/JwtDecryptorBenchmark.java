@@ -0,0 +1,49 @@
+/*
+ * Copyright 2016 Karl Bennett
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package shiver.me.timbers.spring.security.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import shiver.me.timbers.spring.security.jwt.JwtPrincipal;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * @author Karl Bennett
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtDecryptorBenchmark {
+
+    @Benchmark
+    public JwtPrincipal jjwtDecrypt(JwtBenchmarkState state) {
+        return state.jjwtDecryptor.decrypt(state.token, JwtPrincipal.class);
+    }
+
+    @Benchmark
+    public JwtPrincipal jcaDecrypt(JwtBenchmarkState state) {
+        return state.jcaDecryptor.decrypt(state.token, JwtPrincipal.class);
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2016 Karl Bennett
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package shiver.me.timbers.spring.security.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import shiver.me.timbers.spring.security.jwt.JwtIdGenerator;
+import shiver.me.timbers.spring.security.jwt.SecureRandomJwtIdGenerator;
+import shiver.me.timbers.spring.security.revocation.MappedBloomRevocationList;
+import shiver.me.timbers.spring.security.time.DateClock;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Date;
+
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * Measures how long it takes to check a token id against a revocation list that already holds a number of revoked
+ * ids, for both ids that have and haven't been revoked. The checks are run on several threads at once to show that
+ * they don't contend with each other.
+ *
+ * @author Karl Bennett
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class JwtRevocationBenchmark {
+
+    @Param({"100", "10000"})
+    public int revoked;
+
+    private File file;
+    private MappedBloomRevocationList revocationList;
+    private String revokedId;
+    private String validId;
+    private Date expiry;
+
+    @Setup
+    public void setUp() throws IOException {
+        final JwtIdGenerator idGenerator = new SecureRandomJwtIdGenerator();
+        file = File.createTempFile("smt-jwt-revocation", ".benchmark");
+        revocationList = new MappedBloomRevocationList(file.toPath(), 30, MINUTES, 4, revoked, new DateClock());
+        expiry = new Date(System.currentTimeMillis() + MINUTES.toMillis(10));
+        for (int i = 0; i < revoked; i++) {
+            revokedId = idGenerator.generate();
+            revocationList.revoke(revokedId, expiry);
+        }
+        validId = idGenerator.generate();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        revocationList.close();
+        if (!file.delete()) {
+            file.deleteOnExit();
+        }
+    }
+
+    @Benchmark
+    public boolean checkValid() {
+        return revocationList.isRevoked(validId, expiry);
+    }
+
+    @Benchmark
+    public boolean checkRevoked() {
+        return revocationList.isRevoked(revokedId, expiry);
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2016 Karl Bennett
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package shiver.me.timbers.spring.security.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.core.Authentication;
+
+import javax.servlet.http.Cookie;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static shiver.me.timbers.spring.security.benchmark.JwtBenchmarkState.TOKEN_NAME;
+
+/**
+ * @author Karl Bennett
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class JwtTokenParserBenchmark {
+
+    private MockHttpServletRequest request;
+
+    @Setup
+    public void setUp(JwtBenchmarkState state) {
+        // The parser doesn't modify the request so it can be shared across invocations.
+        request = new MockHttpServletRequest();
+        request.setCookies(new Cookie(TOKEN_NAME, state.token));
+    }
+
+    @Benchmark
+    public Authentication parse(JwtBenchmarkState state) {
+        return state.tokenParser.parse(request);
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2016 Karl Bennett
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package shiver.me.timbers.spring.security.benchmark;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.Charset;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static java.lang.String.format;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * A local HTTP server that answers the Stormpath API calls made during a login after a fixed delay, so that the login
+ * throughput is bound by the number of connections the Stormpath client can have open at once.
+ *
+ * @author Karl Bennett
+ */
+class MockStormpathServer {
+
+    static final String APPLICATION_ID = "benchmarkApplication";
+    static final String ACCOUNT_ID = "benchmarkAccount";
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final String baseUrl;
+
+    MockStormpathServer(final long latency) throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 1024);
+        executor = Executors.newCachedThreadPool();
+        baseUrl = format("http://127.0.0.1:%d/v1", server.getAddress().getPort());
+        server.setExecutor(executor);
+        server.createContext("/v1/", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                drain(exchange.getRequestBody());
+                try {
+                    MILLISECONDS.sleep(latency);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                respond(exchange, body(exchange.getRequestURI().getPath()));
+            }
+        });
+        server.start();
+    }
+
+    String getBaseUrl() {
+        return baseUrl;
+    }
+
+    String getApplicationHref() {
+        return format("%s/applications/%s", baseUrl, APPLICATION_ID);
+    }
+
+    void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private String body(String path) {
+        if (path.endsWith("/loginAttempts")) {
+            return format(
+                "{\"account\":{\"href\":\"%1$s/accounts/%2$s\",\"username\":\"benchmark\",\"status\":\"ENABLED\"," +
+                    "\"groups\":{\"href\":\"%1$s/accounts/%2$s/groups\"}}}",
+                baseUrl,
+                ACCOUNT_ID
+            );
+        }
+        if (path.endsWith("/groups")) {
+            return format(
+                "{\"href\":\"%s/accounts/%s/groups\",\"offset\":0,\"limit\":25,\"size\":0,\"items\":[]}",
+                baseUrl,
+                ACCOUNT_ID
+            );
+        }
+        return format(
+            "{\"href\":\"%1$s\",\"name\":\"benchmark\",\"status\":\"ENABLED\"," +
+                "\"loginAttempts\":{\"href\":\"%1$s/loginAttempts\"}}",
+            getApplicationHref()
+        );
+    }
+
+    private static void respond(HttpExchange exchange, String body) throws IOException {
+        final byte[] bytes = body.getBytes(UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(bytes);
+        }
+    }
+
+    private static void drain(InputStream input) throws IOException {
+        final byte[] buffer = new byte[1024];
+        while (input.read(buffer) >= 0) {
+            // Read the whole request so the connection can be reused.
+        }
+        input.close();
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2016 Karl Bennett
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package shiver.me.timbers.spring.security.benchmark;
+
+import com.stormpath.sdk.api.ApiKeys;
+import com.stormpath.sdk.application.Application;
+import com.stormpath.sdk.cache.Caches;
+import com.stormpath.sdk.client.Client;
+import com.stormpath.sdk.client.Clients;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import shiver.me.timbers.spring.security.PoolingClientConnectionConfigurer;
+import shiver.me.timbers.spring.security.StormpathAuthenticationProvider;
+import shiver.me.timbers.spring.security.StormpathGroupGrantedAuthorityConverter;
+import shiver.me.timbers.spring.security.StormpathUserDetailsFactory;
+import shiver.me.timbers.spring.security.UsernamePasswordStormpathAuthenticationRequestFactory;
+import shiver.me.timbers.spring.security.UsernamePasswordStormpathRequestBuilderFactory;
+
+import java.io.IOException;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * A load test of concurrent Stormpath logins against a local mock Stormpath server that takes a fixed time to answer
+ * each call. The login throughput should scale with the connection pool size until it reaches the number of threads.
+ *
+ * @author Karl Bennett
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(16)
+@State(Scope.Benchmark)
+public class StormpathLoginBenchmark {
+
+    @Param({"1", "4", "16"})
+    public int poolSize;
+
+    @Param({"20"})
+    public long latency;
+
+    private MockStormpathServer server;
+    private PoolingClientConnectionConfigurer connectionConfigurer;
+    private StormpathAuthenticationProvider provider;
+
+    @Setup
+    public void setUp() throws IOException {
+        server = new MockStormpathServer(latency);
+        connectionConfigurer = new PoolingClientConnectionConfigurer(poolSize, poolSize, 5000, 5000, 60000, -1);
+
+        // The cache is disabled so that every login has to make the same remote calls.
+        final Client client = Clients.builder()
+            .setApiKey(ApiKeys.builder().setId("benchmark").setSecret("benchmark").build())
+            .setBaseUrl(server.getBaseUrl())
+            .setCacheManager(Caches.newDisabledCacheManager())
+            .build();
+        connectionConfigurer.configure(client);
+
+        provider = new StormpathAuthenticationProvider(
+            client.getResource(server.getApplicationHref(), Application.class),
+            new UsernamePasswordStormpathAuthenticationRequestFactory(
+                new UsernamePasswordStormpathRequestBuilderFactory()
+            ),
+            new StormpathUserDetailsFactory(new StormpathGroupGrantedAuthorityConverter())
+        );
+    }
+
+    @TearDown
+    public void tearDown() {
+        connectionConfigurer.close();
+        server.stop();
+    }
+
+    @Benchmark
+    public Authentication login() {
+        return provider.authenticate(new UsernamePasswordAuthenticationToken("benchmark", "password"));
+    }
+}
@@ -33,6 +33,7 @@ import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
 
 import static java.lang.Boolean.TRUE;
+import static shiver.me.timbers.spring.security.jwt.AuthenticationRequestJwtTokenParser.TOKEN_ATTRIBUTE;
 
 /**
  * @author Karl Bennett
@@ -46,14 +47,18 @@ public class CookieAndHeaderJwtAuthenticationFilter extends GenericFilterBean im
     private final JwtTokenParser<Authentication, HttpServletRequest> tokenParser;
     private final SecurityContextHolder securityContextHolder;
     private final JwtAuthenticationApplier authenticationApplier;
+    private final JwtRefreshPolicy refreshPolicy;
 
     public CookieAndHeaderJwtAuthenticationFilter(
         JwtTokenParser<Authentication, HttpServletRequest> tokenParser,
         SecurityContextHolder securityContextHolder,
-        JwtAuthenticationApplier authenticationApplier) {
+        JwtAuthenticationApplier authenticationApplier,
+        JwtRefreshPolicy refreshPolicy
+    ) {
         this.tokenParser = tokenParser;
         this.securityContextHolder = securityContextHolder;
         this.authenticationApplier = authenticationApplier;
+        this.refreshPolicy = refreshPolicy;
     }
 
     @Override
@@ -65,9 +70,12 @@ public class CookieAndHeaderJwtAuthenticationFilter extends GenericFilterBean im
         }
 
         try {
-            final Authentication authentication = tokenParser.parse((HttpServletRequest) request);
+            final HttpServletRequest httpRequest = (HttpServletRequest) request;
+            final Authentication authentication = tokenParser.parse(httpRequest);
             securityContextHolder.getContext().setAuthentication(authentication);
-            authenticationApplier.apply(authentication, (HttpServletResponse) response);
+            if (refreshPolicy.shouldRefresh((String) httpRequest.getAttribute(TOKEN_ATTRIBUTE))) {
+                authenticationApplier.apply(authentication, (HttpServletResponse) response);
+            }
             request.setAttribute(FILTER_APPLIED, TRUE);
         } catch (JwtInvalidTokenException e) {
             log.debug("Failed JWT authentication.", e);
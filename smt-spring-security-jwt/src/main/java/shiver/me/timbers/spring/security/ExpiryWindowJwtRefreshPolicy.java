@@ -0,0 +1,71 @@
+/*
+ * Copyright 2016 Karl Bennett
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package shiver.me.timbers.spring.security;
+
+import shiver.me.timbers.spring.security.jwt.JwtExpiryReader;
+import shiver.me.timbers.spring.security.time.Clock;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author Karl Bennett
+ */
+public class ExpiryWindowJwtRefreshPolicy implements JwtRefreshPolicy {
+
+    private final JwtRefreshMode mode;
+    private final JwtExpiryReader expiryReader;
+    private final Clock clock;
+    private final long windowDuration;
+    private final TimeUnit windowUnit;
+
+    public ExpiryWindowJwtRefreshPolicy(
+        JwtRefreshMode mode,
+        JwtExpiryReader expiryReader,
+        Clock clock,
+        long windowDuration,
+        TimeUnit windowUnit
+    ) {
+        this.mode = mode;
+        this.expiryReader = expiryReader;
+        this.clock = clock;
+        this.windowDuration = windowDuration;
+        this.windowUnit = windowUnit;
+    }
+
+    @Override
+    public boolean shouldRefresh(String token) {
+        switch (mode) {
+            case ALWAYS:
+                return true;
+            case WINDOW:
+                return isInsideWindow(token);
+            default:
+                return false;
+        }
+    }
+
+    private boolean isInsideWindow(String token) {
+        if (token == null) {
+            return true;
+        }
+
+        // A token that never expires will never need to be refreshed.
+        final Date expiry = expiryReader.read(token);
+        return expiry != null && !clock.nowPlus(windowDuration, windowUnit).before(expiry);
+    }
+}
@@ -16,13 +16,22 @@
 
 package shiver.me.timbers.spring.security;
 
+import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.CompressionCodec;
 import io.jsonwebtoken.SignatureAlgorithm;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
 import org.springframework.security.core.Authentication;
+import shiver.me.timbers.spring.security.authority.GrantedAuthorityRegistry;
+import shiver.me.timbers.spring.security.authority.InterningGrantedAuthorityRegistry;
+import shiver.me.timbers.spring.security.cache.ConcurrentExpiringCache;
+import shiver.me.timbers.spring.security.compression.BoundedDeflateCompressionCodec;
+import shiver.me.timbers.spring.security.compression.ThresholdCompressionPolicy;
 import shiver.me.timbers.spring.security.context.SecurityContextHolder;
 import shiver.me.timbers.spring.security.context.StaticSecurityContextHolder;
 import shiver.me.timbers.spring.security.cookies.Bakery;
@@ -31,37 +40,80 @@ import shiver.me.timbers.spring.security.io.FileReader;
 import shiver.me.timbers.spring.security.io.ResourceFileReader;
 import shiver.me.timbers.spring.security.jwt.AuthenticationConverter;
 import shiver.me.timbers.spring.security.jwt.AuthenticationRequestJwtTokenParser;
+import shiver.me.timbers.spring.security.jwt.CachingJwtDecryptor;
+import shiver.me.timbers.spring.security.jwt.CachingJwtEncryptor;
+import shiver.me.timbers.spring.security.jwt.ChainedJwtTokenFinder;
+import shiver.me.timbers.spring.security.jwt.CompactJwtPrincipal;
+import shiver.me.timbers.spring.security.jwt.CompactRolesJwtTokenParser;
+import shiver.me.timbers.spring.security.jwt.CookieJwtTokenFinder;
+import shiver.me.timbers.spring.security.jwt.HeaderJwtKeyIdReader;
+import shiver.me.timbers.spring.security.jwt.HeaderJwtTokenFinder;
 import shiver.me.timbers.spring.security.jwt.JJwtBuilderFactory;
-import shiver.me.timbers.spring.security.jwt.JJwtDecryptor;
-import shiver.me.timbers.spring.security.jwt.JJwtEncryptor;
 import shiver.me.timbers.spring.security.jwt.JJwtParserFactory;
 import shiver.me.timbers.spring.security.jwt.JJwtTokenParser;
+import shiver.me.timbers.spring.security.jwt.JcaJwtDecryptor;
+import shiver.me.timbers.spring.security.jwt.JcaJwtEncryptor;
 import shiver.me.timbers.spring.security.jwt.JwtBuilderFactory;
 import shiver.me.timbers.spring.security.jwt.JwtDecryptor;
 import shiver.me.timbers.spring.security.jwt.JwtEncryptor;
+import shiver.me.timbers.spring.security.jwt.JwtExpiryReader;
+import shiver.me.timbers.spring.security.jwt.JwtIdGenerator;
+import shiver.me.timbers.spring.security.jwt.JwtIdReader;
 import shiver.me.timbers.spring.security.jwt.JwtParserFactory;
 import shiver.me.timbers.spring.security.jwt.JwtPrincipal;
 import shiver.me.timbers.spring.security.jwt.JwtPrincipalAuthenticationConverter;
 import shiver.me.timbers.spring.security.jwt.JwtRolesGrantedAuthorityConverter;
+import shiver.me.timbers.spring.security.jwt.JwtTokenFinder;
 import shiver.me.timbers.spring.security.jwt.JwtTokenParser;
+import shiver.me.timbers.spring.security.jwt.JwtTokenValidator;
+import shiver.me.timbers.spring.security.jwt.PayloadJwtExpiryReader;
+import shiver.me.timbers.spring.security.jwt.PayloadJwtIdReader;
+import shiver.me.timbers.spring.security.jwt.RawCookieJwtTokenFinder;
+import shiver.me.timbers.spring.security.jwt.RoleDictionary;
 import shiver.me.timbers.spring.security.jwt.RolesGrantedAuthorityConverter;
+import shiver.me.timbers.spring.security.jwt.SecureRandomJwtIdGenerator;
+import shiver.me.timbers.spring.security.jwt.StructuralJwtTokenValidator;
 import shiver.me.timbers.spring.security.keys.Base64KeyPairs;
 import shiver.me.timbers.spring.security.keys.BouncyCastlePemKeyPairs;
+import shiver.me.timbers.spring.security.keys.ExpiringKeyRing;
+import shiver.me.timbers.spring.security.keys.JwtKey;
 import shiver.me.timbers.spring.security.keys.KeyParser;
+import shiver.me.timbers.spring.security.keys.KeyRing;
 import shiver.me.timbers.spring.security.keys.PemKeyPairs;
+import shiver.me.timbers.spring.security.keys.ReloadingKeyRing;
 import shiver.me.timbers.spring.security.keys.SecretBase64KeyPairs;
 import shiver.me.timbers.spring.security.keys.SignatureAlgorithmKeyParser;
+import shiver.me.timbers.spring.security.metrics.JwtMetrics;
+import shiver.me.timbers.spring.security.metrics.MetricsJwtAuthenticationApplier;
+import shiver.me.timbers.spring.security.metrics.MetricsJwtEncryptor;
+import shiver.me.timbers.spring.security.metrics.MetricsJwtTokenFinder;
+import shiver.me.timbers.spring.security.metrics.MetricsJwtTokenParser;
+import shiver.me.timbers.spring.security.revocation.RevocationJwtTokenValidator;
+import shiver.me.timbers.spring.security.revocation.RevocationList;
+import shiver.me.timbers.spring.security.revocation.RevokingJwtLogoutHandler;
 import shiver.me.timbers.spring.security.secret.ChoosingSecretKeeper;
+import shiver.me.timbers.spring.security.secret.PathSecretKeeper;
 import shiver.me.timbers.spring.security.secret.SecretKeeper;
+import shiver.me.timbers.spring.security.signature.JcaSignatureSignerFactory;
+import shiver.me.timbers.spring.security.signature.JcaSignatureVerifierFactory;
+import shiver.me.timbers.spring.security.signature.KeyRingSignatureVerifierResolver;
+import shiver.me.timbers.spring.security.signature.SignatureSignerFactory;
+import shiver.me.timbers.spring.security.signature.SignatureVerifierFactory;
 import shiver.me.timbers.spring.security.time.Clock;
 import shiver.me.timbers.spring.security.time.DateClock;
 
 import javax.servlet.http.Cookie;
 import javax.servlet.http.HttpServletRequest;
 import java.io.IOException;
+import java.nio.file.Paths;
 import java.security.KeyPair;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
+import static java.util.Arrays.asList;
+import static javax.xml.bind.DatatypeConverter.parseDateTime;
+
 /**
  * @author Karl Bennett
  */
@@ -72,6 +124,9 @@ public class JwtConfiguration {
     @Value("${smt.spring.security.jwt.tokenName:X-AUTH-TOKEN}")
     private String tokenName;
 
+    @Value("${smt.spring.security.jwt.tokenLookupOrder:COOKIE,HEADER}")
+    private JwtTokenLocation[] tokenLookupOrder;
+
     @Value("${smt.spring.security.jwt.algorithm:HS512}")
     private SignatureAlgorithm algorithm;
 
@@ -81,6 +136,27 @@ public class JwtConfiguration {
     @Value("${smt.spring.security.jwt.token.expiryUnit:MINUTES}")
     private TimeUnit expiryUnit;
 
+    @Value("${smt.spring.security.jwt.token.maximumLength:8192}")
+    private int tokenMaximumLength;
+
+    @Value("${smt.spring.security.jwt.token.reuse.enabled:false}")
+    private boolean reuseEnabled;
+
+    @Value("${smt.spring.security.jwt.token.reuse.maximumSize:1000}")
+    private int reuseMaximumSize;
+
+    @Value("${smt.spring.security.jwt.token.reuse.minimumRemainingLifetime:0.5}")
+    private double reuseMinimumRemainingLifetime;
+
+    @Value("${smt.spring.security.jwt.token.refresh:ALWAYS}")
+    private JwtRefreshMode refreshMode;
+
+    @Value("${smt.spring.security.jwt.token.refreshWindowDuration:5}")
+    private int refreshWindowDuration;
+
+    @Value("${smt.spring.security.jwt.token.refreshWindowUnit:MINUTES}")
+    private TimeUnit refreshWindowUnit;
+
     @Value("${smt.spring.security.jwt.cookie.domain:}")
     private String domain;
 
@@ -93,16 +169,92 @@ public class JwtConfiguration {
     @Value("${smt.spring.security.jwt.cookie.httpOnly:false}")
     private boolean httpOnly;
 
+    @Value("${smt.spring.security.jwt.cookie.rawHeader:false}")
+    private boolean cookieRawHeader;
+
     @Value("${smt.spring.security.jwt.secret:}")
     private String secret;
 
     @Value("${smt.spring.security.jwt.secretFile:}")
     private String secretFile;
 
+    @Value("${smt.spring.security.jwt.secretPath:}")
+    private String secretPath;
+
+    @Value("${smt.spring.security.jwt.secretReload.retiredDuration:60}")
+    private long secretReloadRetiredDuration;
+
+    @Value("${smt.spring.security.jwt.secretReload.retiredUnit:MINUTES}")
+    private TimeUnit secretReloadRetiredUnit;
+
+    @Value("${smt.spring.security.jwt.keyId:}")
+    private String keyId;
+
+    @Value("${smt.spring.security.jwt.retiredKeys:}")
+    private String[] retiredKeyIds;
+
+    @Value("${smt.spring.security.jwt.cache.enabled:false}")
+    private boolean cacheEnabled;
+
+    @Value("${smt.spring.security.jwt.cache.maximumSize:1000}")
+    private int cacheMaximumSize;
+
+    @Value("${smt.spring.security.jwt.cache.timeToLiveDuration:5}")
+    private long cacheTimeToLiveDuration;
+
+    @Value("${smt.spring.security.jwt.cache.timeToLiveUnit:MINUTES}")
+    private TimeUnit cacheTimeToLiveUnit;
+
+    @Value("${smt.spring.security.jwt.roles.dictionary:}")
+    private String[] rolesDictionary;
+
+    @Value("${smt.spring.security.jwt.roles.dictionaryVersion:1}")
+    private int rolesDictionaryVersion;
+
+    @Value("${smt.spring.security.jwt.roles.previousDictionaryVersions:}")
+    private int[] previousRolesDictionaryVersions;
+
+    @Value("${smt.spring.security.jwt.authorities.maximumSize:1000}")
+    private int authoritiesMaximumSize;
+
+    @Value("${smt.spring.security.jwt.compression.enabled:false}")
+    private boolean compressionEnabled;
+
+    @Value("${smt.spring.security.jwt.compression.threshold:512}")
+    private int compressionThreshold;
+
+    @Value("${smt.spring.security.jwt.compression.maximumInflatedSize:65536}")
+    private int compressionMaximumInflatedSize;
+
+    @Autowired(required = false)
+    private JwtMetrics metrics;
+
+    @Autowired(required = false)
+    private RevocationList revocationList;
+
+    private JwtTokenFinder defaultTokenFinder;
+
     @Bean
     @ConditionalOnMissingBean(JwtLogoutHandler.class)
-    public JwtLogoutHandler jwtLogoutHandler(Bakery<Cookie> bakery) {
-        return new CookieJwtLogoutHandler(tokenName, bakery);
+    public JwtLogoutHandler jwtLogoutHandler(
+        Bakery<Cookie> bakery,
+        JwtTokenFinder tokenFinder,
+        JwtTokenParser<Authentication, HttpServletRequest> authenticationRequestJwtTokenParser,
+        JwtIdReader idReader,
+        JwtExpiryReader expiryReader
+    ) {
+        final JwtLogoutHandler logoutHandler = new CookieJwtLogoutHandler(tokenName, bakery);
+        if (revocationList != null) {
+            return new RevokingJwtLogoutHandler(
+                logoutHandler,
+                tokenFinder,
+                authenticationRequestJwtTokenParser,
+                idReader,
+                expiryReader,
+                revocationList
+            );
+        }
+        return logoutHandler;
     }
 
     @Bean
@@ -110,12 +262,26 @@ public class JwtConfiguration {
     public JwtAuthenticationFilter jwtAuthenticationFilter(
         JwtTokenParser<Authentication, HttpServletRequest> authenticationRequestJwtTokenParser,
         SecurityContextHolder securityContextHolder,
-        JwtAuthenticationApplier authenticationApplier
+        JwtAuthenticationApplier authenticationApplier,
+        JwtRefreshPolicy refreshPolicy
     ) {
         return new CookieAndHeaderJwtAuthenticationFilter(
             authenticationRequestJwtTokenParser,
             securityContextHolder,
-            authenticationApplier
+            authenticationApplier,
+            refreshPolicy
+        );
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(JwtRefreshPolicy.class)
+    public JwtRefreshPolicy jwtRefreshPolicy(JwtExpiryReader expiryReader, Clock clock) {
+        return new ExpiryWindowJwtRefreshPolicy(
+            refreshMode,
+            expiryReader,
+            clock,
+            refreshWindowDuration,
+            refreshWindowUnit
         );
     }
 
@@ -133,16 +299,94 @@ public class JwtConfiguration {
         JwtTokenParser<Authentication, HttpServletRequest> authenticationRequestJwtTokenParser,
         Bakery<Cookie> bakery
     ) {
-        return new CookieJwtAuthenticationApplier(tokenName, authenticationRequestJwtTokenParser, bakery);
+        final JwtAuthenticationApplier authenticationApplier = new CookieJwtAuthenticationApplier(
+            tokenName,
+            authenticationRequestJwtTokenParser,
+            bakery
+        );
+        if (metrics != null) {
+            return new MetricsJwtAuthenticationApplier(authenticationApplier, metrics);
+        }
+        return authenticationApplier;
     }
 
     @Bean
     @ConditionalOnMissingBean(AuthenticationRequestJwtTokenParser.class)
     public <T> JwtTokenParser<Authentication, HttpServletRequest> authenticationRequestJwtTokenParser(
+        JwtTokenFinder tokenFinder,
+        JwtTokenValidator tokenValidator,
         AuthenticationConverter<T> authenticationConverter,
         JwtTokenParser<T, String> jwtTokenParser
     ) {
-        return new AuthenticationRequestJwtTokenParser<>(tokenName, authenticationConverter, jwtTokenParser);
+        final JwtTokenParser<Authentication, HttpServletRequest> tokenParser;
+        tokenParser = new AuthenticationRequestJwtTokenParser<>(
+            authenticationTokenFinder(tokenFinder),
+            tokenValidator,
+            authenticationConverter,
+            jwtTokenParser
+        );
+        if (metrics != null) {
+            return new MetricsJwtTokenParser<>(tokenParser, algorithm, metrics);
+        }
+        return tokenParser;
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(JwtTokenValidator.class)
+    public JwtTokenValidator jwtTokenValidator(JwtExpiryReader expiryReader, JwtIdReader idReader, Clock clock) {
+        final JwtTokenValidator tokenValidator;
+        tokenValidator = new StructuralJwtTokenValidator(
+            tokenMaximumLength,
+            algorithm,
+            new JsonFactory(),
+            expiryReader,
+            clock
+        );
+        if (revocationList != null) {
+            return new RevocationJwtTokenValidator(tokenValidator, idReader, expiryReader, revocationList);
+        }
+        return tokenValidator;
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(JwtTokenFinder.class)
+    public JwtTokenFinder jwtTokenFinder() {
+        defaultTokenFinder = chainedTokenFinder(null);
+        return defaultTokenFinder;
+    }
+
+    /**
+     * Only the finder that authenticates the request is measured so that a token isn't counted again when the refresh
+     * policy or the logout handler look it up. A custom token finder is used as it is.
+     */
+    private JwtTokenFinder authenticationTokenFinder(JwtTokenFinder tokenFinder) {
+        if (metrics == null || tokenFinder != defaultTokenFinder) {
+            return tokenFinder;
+        }
+        return chainedTokenFinder(metrics);
+    }
+
+    private JwtTokenFinder chainedTokenFinder(JwtMetrics metrics) {
+        final List<JwtTokenFinder> tokenFinders = new ArrayList<>(tokenLookupOrder.length);
+        for (JwtTokenLocation location : tokenLookupOrder) {
+            final JwtTokenFinder tokenFinder = tokenFinder(location);
+            if (metrics != null) {
+                tokenFinders.add(new MetricsJwtTokenFinder(tokenFinder, location, metrics));
+                continue;
+            }
+            tokenFinders.add(tokenFinder);
+        }
+        return new ChainedJwtTokenFinder(tokenFinders);
+    }
+
+    private JwtTokenFinder tokenFinder(JwtTokenLocation location) {
+        if (JwtTokenLocation.HEADER.equals(location)) {
+            return new HeaderJwtTokenFinder(tokenName);
+        }
+        if (cookieRawHeader) {
+            return new RawCookieJwtTokenFinder(tokenName);
+        }
+        return new CookieJwtTokenFinder(tokenName);
     }
 
     @Bean
@@ -167,28 +411,159 @@ public class JwtConfiguration {
 
     @Bean
     @ConditionalOnMissingBean(JJwtTokenParser.class)
-    public JwtTokenParser<JwtPrincipal, String> jwtTokenParser(JwtEncryptor encryptor, JwtDecryptor decryptor) {
+    public JwtTokenParser<JwtPrincipal, String> jwtTokenParser(
+        JwtEncryptor encryptor,
+        JwtDecryptor decryptor,
+        Environment environment
+    ) {
+        if (rolesDictionary.length > 0) {
+            final List<RoleDictionary> previousDictionaries = new ArrayList<>(previousRolesDictionaryVersions.length);
+            for (int version : previousRolesDictionaryVersions) {
+                previousDictionaries.add(new RoleDictionary(version, asList(environment.getRequiredProperty(
+                    "smt.spring.security.jwt.roles.previousDictionary." + version,
+                    String[].class
+                ))));
+            }
+            return new CompactRolesJwtTokenParser(
+                new RoleDictionary(rolesDictionaryVersion, asList(rolesDictionary)),
+                previousDictionaries,
+                new JJwtTokenParser<>(CompactJwtPrincipal.class, encryptor, decryptor)
+            );
+        }
         return new JJwtTokenParser<>(JwtPrincipal.class, encryptor, decryptor);
     }
 
     @Bean
     @ConditionalOnMissingBean(RolesGrantedAuthorityConverter.class)
-    public RolesGrantedAuthorityConverter rolesGrantedAuthorityConverter() {
-        return new JwtRolesGrantedAuthorityConverter();
+    public RolesGrantedAuthorityConverter rolesGrantedAuthorityConverter(GrantedAuthorityRegistry authorityRegistry) {
+        return new JwtRolesGrantedAuthorityConverter(authorityRegistry);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(GrantedAuthorityRegistry.class)
+    public GrantedAuthorityRegistry grantedAuthorityRegistry() {
+        return new InterningGrantedAuthorityRegistry(authoritiesMaximumSize);
     }
 
     @Bean
     @ConditionalOnMissingBean(JwtEncryptor.class)
-    public JwtEncryptor encryptor(JwtBuilderFactory builderFactory, KeyPair keyPair, Clock clock) {
-        return new JJwtEncryptor(builderFactory, algorithm, keyPair, expiryDuration, expiryUnit, clock);
+    public JwtEncryptor encryptor(
+        SignatureSignerFactory signerFactory,
+        KeyRing keyRing,
+        JwtExpiryReader expiryReader,
+        JwtIdGenerator idGenerator,
+        CompressionCodec compressionCodec,
+        Clock clock
+    ) {
+        // Creating the object mapper here so that this library doesn't pollute the Spring context with such a generic
+        // class.
+        final JwtEncryptor signingEncryptor = new JcaJwtEncryptor(
+            algorithm,
+            keyRing,
+            signerFactory,
+            new ObjectMapper(),
+            expiryDuration,
+            expiryUnit,
+            clock,
+            compressionEnabled
+                ? new ThresholdCompressionPolicy(compressionCodec, compressionThreshold)
+                : null,
+            revocationList != null ? idGenerator : null
+        );
+        // The issued tokens are counted before the cache so that reused tokens aren't counted as issued.
+        final JwtEncryptor encryptor = metrics != null
+            ? new MetricsJwtEncryptor(signingEncryptor, metrics)
+            : signingEncryptor;
+        // Every session must have its own token id when tokens can be revoked, so that logging out of one session
+        // doesn't also revoke the other sessions that were handed the same token.
+        if (reuseEnabled && revocationList == null) {
+            return new CachingJwtEncryptor(
+                encryptor,
+                new ConcurrentExpiringCache<Object, String>(reuseMaximumSize, clock),
+                expiryReader,
+                clock,
+                reuseMinimumRemainingLifetime
+            );
+        }
+        return encryptor;
     }
 
     @Bean
     @ConditionalOnMissingBean(JwtDecryptor.class)
-    public JwtDecryptor decryptor(JwtParserFactory parserFactory, KeyPair keyPair) {
+    public JwtDecryptor decryptor(
+        SignatureVerifierFactory verifierFactory,
+        KeyRing keyRing,
+        JwtExpiryReader expiryReader,
+        CompressionCodec compressionCodec,
+        Base64 base64,
+        Clock clock
+    ) {
         // Creating the object mapper here so that this library doesn't pollute the Spring context with such a generic
         // class.
-        return new JJwtDecryptor(parserFactory, keyPair, new ObjectMapper());
+        final JwtDecryptor decryptor = new JcaJwtDecryptor(
+            algorithm,
+            new KeyRingSignatureVerifierResolver(algorithm, keyRing, verifierFactory),
+            new ObjectMapper(),
+            clock,
+            enabled(compressionCodec)
+        );
+        if (cacheEnabled) {
+            return new CachingJwtDecryptor(
+                decryptor,
+                new ConcurrentExpiringCache<String, Object>(cacheMaximumSize, clock),
+                expiryReader,
+                new HeaderJwtKeyIdReader(new JsonFactory()),
+                keyRing,
+                clock,
+                cacheTimeToLiveDuration,
+                cacheTimeToLiveUnit,
+                base64
+            );
+        }
+        return decryptor;
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(SignatureSignerFactory.class)
+    public SignatureSignerFactory signatureSignerFactory() {
+        return new JcaSignatureSignerFactory();
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(SignatureVerifierFactory.class)
+    public SignatureVerifierFactory signatureVerifierFactory() {
+        return new JcaSignatureVerifierFactory();
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(JwtExpiryReader.class)
+    public JwtExpiryReader jwtExpiryReader(CompressionCodec compressionCodec) {
+        return new PayloadJwtExpiryReader(new JsonFactory(), enabled(compressionCodec));
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(JwtIdReader.class)
+    public JwtIdReader jwtIdReader(CompressionCodec compressionCodec) {
+        return new PayloadJwtIdReader(new JsonFactory(), enabled(compressionCodec));
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(JwtIdGenerator.class)
+    public JwtIdGenerator jwtIdGenerator() {
+        return new SecureRandomJwtIdGenerator();
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(CompressionCodec.class)
+    public CompressionCodec jwtCompressionCodec() {
+        return new BoundedDeflateCompressionCodec(compressionMaximumInflatedSize);
+    }
+
+    /**
+     * @return the codec only if compression is enabled, so that compressed tokens are rejected when it isn't.
+     */
+    private CompressionCodec enabled(CompressionCodec compressionCodec) {
+        return compressionEnabled ? compressionCodec : null;
     }
 
     @Bean
@@ -203,6 +578,48 @@ public class JwtConfiguration {
         return new JJwtParserFactory();
     }
 
+    @Bean
+    @ConditionalOnMissingBean(KeyRing.class)
+    public KeyRing keyRing(
+        KeyPair keyPair,
+        SecretKeeper secretKeeper,
+        KeyParser keyParser,
+        FileReader fileReader,
+        Environment environment,
+        Clock clock
+    ) throws IOException {
+        final List<JwtKey> retiredKeys = new ArrayList<>(retiredKeyIds.length);
+        for (String retiredKeyId : retiredKeyIds) {
+            final String prefix = "smt.spring.security.jwt.retiredKey." + retiredKeyId + ".";
+            final String retiredSecret = environment.getProperty(prefix + "secret", "");
+            final String retiredSecretFile = environment.getProperty(prefix + "secretFile", "");
+            if (retiredSecret.isEmpty() && retiredSecretFile.isEmpty()) {
+                throw new IllegalArgumentException(
+                    "Either one of (" + prefix + "secret) or (" + prefix + "secretFile) must be set."
+                );
+            }
+            retiredKeys.add(new JwtKey(
+                retiredKeyId,
+                keyParser.parse(new ChoosingSecretKeeper(retiredSecret, retiredSecretFile, fileReader).getSecret()),
+                parseDateTime(environment.getRequiredProperty(prefix + "verifyUntil")).getTime()
+            ));
+        }
+        if (!secretPath.isEmpty()) {
+            final ReloadingKeyRing keyRing = new ReloadingKeyRing(
+                secretKeeper,
+                keyParser,
+                Paths.get(secretPath),
+                retiredKeys,
+                secretReloadRetiredDuration,
+                secretReloadRetiredUnit,
+                clock
+            );
+            keyRing.start();
+            return keyRing;
+        }
+        return new ExpiringKeyRing(new JwtKey(keyId.isEmpty() ? null : keyId, keyPair), retiredKeys, clock);
+    }
+
     @Bean
     @ConditionalOnMissingBean(KeyPair.class)
     public KeyPair keyPair(SecretKeeper secretKeeper, KeyParser keyParser) throws IOException {
@@ -218,6 +635,9 @@ public class JwtConfiguration {
     @Bean
     @ConditionalOnMissingBean(SecretKeeper.class)
     public SecretKeeper secretKeeper(FileReader fileReader) {
+        if (!secretPath.isEmpty()) {
+            return new PathSecretKeeper(Paths.get(secretPath));
+        }
         return new ChoosingSecretKeeper(secret, secretFile, fileReader);
     }
 
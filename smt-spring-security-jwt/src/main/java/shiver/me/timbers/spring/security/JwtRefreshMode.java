@@ -0,0 +1,38 @@
+/*
+ * Copyright 2016 Karl Bennett
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package shiver.me.timbers.spring.security;
+
+/**
+ * @author Karl Bennett
+ */
+public enum JwtRefreshMode {
+
+    /**
+     * Issue a new token on every authenticated request.
+     */
+    ALWAYS,
+
+    /**
+     * Only issue a new token when the current token is about to expire.
+     */
+    WINDOW,
+
+    /**
+     * Never issue a new token after login, this suits clients that only ever send the token in a header.
+     */
+    NEVER
+}
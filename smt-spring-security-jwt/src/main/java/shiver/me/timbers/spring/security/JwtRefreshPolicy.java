@@ -0,0 +1,30 @@
+/*
+ * Copyright 2016 Karl Bennett
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package shiver.me.timbers.spring.security;
+
+/**
+ * Decides if an already authenticated request should be sent a newly signed JWT token.
+ *
+ * @author Karl Bennett
+ */
+public interface JwtRefreshPolicy {
+
+    /**
+     * @param token the JWT token that the request was authenticated with or {@code null} if it isn't known.
+     */
+    boolean shouldRefresh(String token);
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2016 Karl Bennett
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package shiver.me.timbers.spring.security;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import shiver.me.timbers.spring.security.metrics.JwtMetrics;
+import shiver.me.timbers.spring.security.metrics.MetricsRevocationList;
+import shiver.me.timbers.spring.security.revocation.MappedBloomRevocationList;
+import shiver.me.timbers.spring.security.revocation.RevocationList;
+import shiver.me.timbers.spring.security.time.Clock;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Registers the token revocation list only when revocation has been enabled. Without it tokens are not given ids and
+ * are never checked for revocation so it costs nothing.
+ *
+ * @author Karl Bennett
+ */
+@Configuration
+@ConditionalOnMissingBean(JwtRevocationConfiguration.class)
+@ConditionalOnProperty(name = "smt.spring.security.jwt.revocation.enabled")
+public class JwtRevocationConfiguration {
+
+    @Value("${smt.spring.security.jwt.token.expiryDuration:-1}")
+    private int expiryDuration;
+
+    @Value("${smt.spring.security.jwt.token.expiryUnit:MINUTES}")
+    private TimeUnit expiryUnit;
+
+    @Value("${smt.spring.security.jwt.revocation.file:}")
+    private String revocationFile;
+
+    @Value("${smt.spring.security.jwt.revocation.buckets:4}")
+    private int revocationBuckets;
+
+    @Value("${smt.spring.security.jwt.revocation.maximumSize:10000}")
+    private int revocationMaximumSize;
+
+    @Autowired(required = false)
+    private JwtMetrics metrics;
+
+    @Bean
+    @ConditionalOnMissingBean(RevocationList.class)
+    public RevocationList jwtRevocationList(Clock clock) throws IOException {
+        // There is no default file because a shared one, like in the temporary directory, could be used by any other
+        // application or user on the host.
+        if (revocationFile.isEmpty()) {
+            throw new IllegalArgumentException(
+                "The (smt.spring.security.jwt.revocation.file) must be set when revocation is enabled."
+            );
+        }
+        final RevocationList revocationList = new MappedBloomRevocationList(
+            Paths.get(revocationFile),
+            expiryDuration,
+            expiryUnit,
+            revocationBuckets,
+            revocationMaximumSize,
+            clock
+        );
+        if (metrics != null) {
+            return new MetricsRevocationList(revocationList, metrics);
+        }
+        return revocationList;
+    }
+}
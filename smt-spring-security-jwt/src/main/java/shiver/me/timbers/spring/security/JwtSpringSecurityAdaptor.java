@@ -16,8 +16,12 @@
 
 package shiver.me.timbers.spring.security;
 
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.support.DefaultSingletonBeanRegistry;
 import org.springframework.context.ApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
 import org.springframework.context.annotation.AnnotationConfigApplicationContext;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
@@ -31,10 +35,14 @@ import shiver.me.timbers.spring.security.fields.FieldMutator;
 import shiver.me.timbers.spring.security.fields.Updater;
 
 /**
+ * The JWT beans are built in a child of the application context the first time an adaptor is applied within it. That
+ * child context is registered as a singleton in the application context's bean factory, so it is shared by every other
+ * adaptor of the same type applied within the same application context and is destroyed along with it.
+ *
  * @author Karl Bennett
  */
 @Configuration
-@Import({JwtConfiguration.class, JwtModificationConfiguration.class})
+@Import({JwtConfiguration.class, JwtRevocationConfiguration.class, JwtModificationConfiguration.class})
 public class JwtSpringSecurityAdaptor extends SecurityConfigurerAdapter<DefaultSecurityFilterChain, HttpSecurity> {
 
     public static JwtSpringSecurityAdaptor jwt() {
@@ -68,7 +76,39 @@ public class JwtSpringSecurityAdaptor extends SecurityConfigurerAdapter<DefaultS
     }
 
     private void autowireThis(HttpSecurity http) {
-        final ApplicationContext parent = http.getSharedObject(ApplicationContext.class);
+        jwtContext(http.getSharedObject(ApplicationContext.class)).getAutowireCapableBeanFactory().autowireBean(this);
+    }
+
+    /**
+     * @return the shared JWT context for the supplied parent and this adaptor type, it is only created if the parent
+     * doesn't have one yet.
+     */
+    protected ApplicationContext jwtContext(ApplicationContext parent) {
+        if (!(parent instanceof ConfigurableApplicationContext)) {
+            return createJwtContext(parent);
+        }
+        final ConfigurableListableBeanFactory beanFactory = ((ConfigurableApplicationContext) parent).getBeanFactory();
+        if (!(beanFactory instanceof DefaultSingletonBeanRegistry)) {
+            return createJwtContext(parent);
+        }
+
+        final DefaultSingletonBeanRegistry registry = (DefaultSingletonBeanRegistry) beanFactory;
+        final String name = getClass().getName() + ".jwtContext";
+        synchronized (registry.getSingletonMutex()) {
+            final JwtContext existing = (JwtContext) registry.getSingleton(name);
+            if (existing != null) {
+                return existing.context;
+            }
+
+            final JwtContext jwtContext = new JwtContext(createJwtContext(parent));
+            registry.registerSingleton(name, jwtContext);
+            // The parent destroys its disposable beans when it closes and also when it fails to refresh.
+            registry.registerDisposableBean(name, jwtContext);
+            return jwtContext.context;
+        }
+    }
+
+    protected ConfigurableApplicationContext createJwtContext(ApplicationContext parent) {
         checkForJwtAnnotation(parent);
 
         final AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
@@ -76,7 +116,7 @@ public class JwtSpringSecurityAdaptor extends SecurityConfigurerAdapter<DefaultS
         context.register(PropertySourcesPlaceholderConfigurer.class);
         context.register(getClass());
         context.refresh();
-        context.getAutowireCapableBeanFactory().autowireBean(this);
+        return context;
     }
 
     private static void checkForJwtAnnotation(ApplicationContext parent) {
@@ -89,6 +129,20 @@ public class JwtSpringSecurityAdaptor extends SecurityConfigurerAdapter<DefaultS
         }
     }
 
+    private static class JwtContext implements DisposableBean {
+
+        private final ConfigurableApplicationContext context;
+
+        private JwtContext(ConfigurableApplicationContext context) {
+            this.context = context;
+        }
+
+        @Override
+        public void destroy() {
+            context.close();
+        }
+    }
+
     private class UsernamePasswordAuthenticationFilterWrapper implements Updater<AbstractAuthenticationProcessingFilter> {
         @Override
         public AbstractAuthenticationProcessingFilter update(AbstractAuthenticationProcessingFilter filter) {
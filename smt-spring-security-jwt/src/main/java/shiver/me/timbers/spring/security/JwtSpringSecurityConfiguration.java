@@ -27,7 +27,12 @@ import shiver.me.timbers.spring.security.weaving.Weaver;
  */
 @Configuration
 @ConditionalOnMissingBean(JwtSpringSecurityConfiguration.class)
-@Import({JwtConfiguration.class, JwtModificationConfiguration.class, JwtWeavingConfiguration.class})
+@Import({
+    JwtConfiguration.class,
+    JwtRevocationConfiguration.class,
+    JwtModificationConfiguration.class,
+    JwtWeavingConfiguration.class
+})
 public class JwtSpringSecurityConfiguration {
 
     @Autowired
@@ -0,0 +1,35 @@
+/*
+ * Copyright 2016 Karl Bennett
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package shiver.me.timbers.spring.security.cache;
+
+import java.util.Date;
+
+/**
+ * @author Karl Bennett
+ */
+public interface Cache<K, V> {
+
+    V get(K key);
+
+    /**
+     * Cache the value until the expiry date, a {@code null} expiry means that the value will only be removed when the
+     * cache needs to make room for new values.
+     */
+    void put(K key, V value, Date expiry);
+
+    void clear();
+}
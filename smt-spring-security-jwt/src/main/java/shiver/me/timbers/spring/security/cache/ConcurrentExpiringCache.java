@@ -0,0 +1,111 @@
+/*
+ * Copyright 2016 Karl Bennett
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package shiver.me.timbers.spring.security.cache;
+
+import shiver.me.timbers.spring.security.time.Clock;
+
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A thread safe size bounded cache. When the cache is full the least recently used value is removed to make room for
+ * the new value, so every operation takes constant time. Expired values are removed as soon as they are read and
+ * otherwise age out like any other unused value.
+ *
+ * @author Karl Bennett
+ */
+public class ConcurrentExpiringCache<K, V> implements Cache<K, V> {
+
+    private final Clock clock;
+    private final Map<K, Entry<V>> entries;
+
+    public ConcurrentExpiringCache(final int maximumSize, Clock clock) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("The cache maximum size must be greater than zero.");
+        }
+        this.clock = clock;
+        this.entries = new LinkedHashMap<K, Entry<V>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                return size() > maximumSize;
+            }
+        };
+    }
+
+    @Override
+    public V get(K key) {
+        final Entry<V> entry;
+        synchronized (entries) {
+            entry = entries.get(key);
+        }
+        if (entry == null) {
+            return null;
+        }
+
+        if (entry.isExpired(clock.now().getTime())) {
+            remove(key, entry);
+            return null;
+        }
+
+        return entry.value;
+    }
+
+    @Override
+    public void put(K key, V value, Date expiry) {
+        final Entry<V> entry = new Entry<>(value, expiry == null ? Long.MAX_VALUE : expiry.getTime());
+        synchronized (entries) {
+            entries.put(key, entry);
+        }
+    }
+
+    @Override
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private void remove(K key, Entry<V> entry) {
+        synchronized (entries) {
+            if (entries.get(key) == entry) {
+                entries.remove(key);
+            }
+        }
+    }
+
+    private static class Entry<V> {
+
+        private final V value;
+        private final long expiry;
+
+        private Entry(V value, long expiry) {
+            this.value = value;
+            this.expiry = expiry;
+        }
+
+        private boolean isExpired(long now) {
+            return expiry <= now;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2016 Karl Bennett
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package shiver.me.timbers.spring.security.compression;
+
+import io.jsonwebtoken.CompressionCodec;
+import io.jsonwebtoken.CompressionException;
+import io.jsonwebtoken.impl.compression.CompressionCodecs;
+
+import java.io.ByteArrayOutputStream;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import static java.util.zip.Deflater.BEST_COMPRESSION;
+
+/**
+ * A DEFLATE codec that refuses to inflate a payload past a maximum size. Compressed payloads are inflated before their
+ * signature has been verified so without the limit a tiny forged token could inflate into an enormous payload.
+ * <p>
+ * JJWT never finishes the streams it deflates, it only flushes them, so a stream that ends with a sync flush is taken
+ * to end there. Any other stream that runs out of input before it is finished has been truncated and is rejected.
+ *
+ * @author Karl Bennett
+ */
+public class BoundedDeflateCompressionCodec implements CompressionCodec {
+
+    private static final int BUFFER_SIZE = 512;
+    private static final byte[] SYNC_FLUSH = {0, 0, (byte) 0xFF, (byte) 0xFF};
+
+    private final int maximumSize;
+
+    public BoundedDeflateCompressionCodec(int maximumSize) {
+        this.maximumSize = maximumSize;
+    }
+
+    @Override
+    public String getAlgorithmName() {
+        return CompressionCodecs.DEFLATE.getAlgorithmName();
+    }
+
+    @Override
+    public byte[] compress(byte[] payload) {
+        final Deflater deflater = new Deflater(BEST_COMPRESSION);
+        try {
+            deflater.setInput(payload);
+            deflater.finish();
+            final ByteArrayOutputStream output = new ByteArrayOutputStream(payload.length);
+            final byte[] buffer = new byte[BUFFER_SIZE];
+            while (!deflater.finished()) {
+                output.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return output.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    @Override
+    public byte[] decompress(byte[] compressed) {
+        final Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed);
+            final ByteArrayOutputStream output = new ByteArrayOutputStream(compressed.length * 2);
+            final byte[] buffer = new byte[BUFFER_SIZE];
+            while (!inflater.finished()) {
+                final int length = inflater.inflate(buffer);
+                if (length == 0 && inflater.needsInput()) {
+                    checkFlushed(compressed);
+                    break;
+                }
+                if (inflater.needsDictionary()) {
+                    throw new CompressionException("The compressed JWT payload requires a preset dictionary.");
+                }
+                if (output.size() + length > maximumSize) {
+                    throw new CompressionException(
+                        "The compressed JWT payload inflates past the maximum size of " + maximumSize + " bytes."
+                    );
+                }
+                output.write(buffer, 0, length);
+            }
+            return output.toByteArray();
+        } catch (DataFormatException e) {
+            throw new CompressionException("The compressed JWT payload is not valid DEFLATE data.", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static void checkFlushed(byte[] compressed) {
+        final int start = compressed.length - SYNC_FLUSH.length;
+        for (int i = 0; i < SYNC_FLUSH.length; i++) {
+            if (start < 0 || compressed[start + i] != SYNC_FLUSH[i]) {
+                throw new CompressionException("The compressed JWT payload has been truncated.");
+            }
+        }
+    }
+}
@@ -0,0 +1,33 @@
+/*
+ * Copyright 2016 Karl Bennett
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package shiver.me.timbers.spring.security.compression;
+
+import io.jsonwebtoken.CompressionCodec;
+
+/**
+ * Decides if the payload of a new JWT token should be compressed.
+ *
+ * @author Karl Bennett
+ */
+public interface CompressionPolicy {
+
+    /**
+     * @param payloadLength the number of bytes in the serialised JSON payload of the token.
+     * @return the codec to compress the token with, or null if the token should not be compressed.
+     */
+    CompressionCodec codec(int payloadLength);
+}
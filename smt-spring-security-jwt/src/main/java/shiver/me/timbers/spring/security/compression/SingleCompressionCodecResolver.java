@@ -0,0 +1,53 @@
+/*
+ * Copyright 2016 Karl Bennett
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package shiver.me.timbers.spring.security.compression;
+
+import io.jsonwebtoken.CompressionCodec;
+import io.jsonwebtoken.CompressionCodecResolver;
+import io.jsonwebtoken.CompressionException;
+import io.jsonwebtoken.Header;
+
+/**
+ * Only resolves the one configured codec so that JJWT never falls back to its own unbounded codecs. The standard
+ * {@code zip} header is read as well as the {@code calg} header that JJWT 0.6 writes.
+ *
+ * @author Karl Bennett
+ */
+public class SingleCompressionCodecResolver implements CompressionCodecResolver {
+
+    private static final String COMPRESSION = "zip";
+
+    private final CompressionCodec codec;
+
+    public SingleCompressionCodecResolver(CompressionCodec codec) {
+        this.codec = codec;
+    }
+
+    @Override
+    @SuppressWarnings("rawtypes")
+    public CompressionCodec resolveCompressionCodec(Header header) {
+        final String algorithm = header.getCompressionAlgorithm() == null
+            ? (String) header.get(COMPRESSION) : header.getCompressionAlgorithm();
+        if (algorithm == null) {
+            return null;
+        }
+        if (codec.getAlgorithmName().equalsIgnoreCase(algorithm)) {
+            return codec;
+        }
+        throw new CompressionException("The JWT token compression algorithm (" + algorithm + ") is not supported.");
+    }
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright 2016 Karl Bennett
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package shiver.me.timbers.spring.security.compression;
+
+import io.jsonwebtoken.CompressionCodec;
+
+/**
+ * Only compresses payloads that are at least the threshold number of bytes, below that the deflate header and the extra
+ * Base64 padding make the token longer instead of shorter.
+ *
+ * @author Karl Bennett
+ */
+public class ThresholdCompressionPolicy implements CompressionPolicy {
+
+    private final CompressionCodec codec;
+    private final int threshold;
+
+    public ThresholdCompressionPolicy(CompressionCodec codec, int threshold) {
+        this.codec = codec;
+        this.threshold = threshold;
+    }
+
+    @Override
+    public CompressionCodec codec(int payloadLength) {
+        return payloadLength >= threshold ? codec : null;
+    }
+}
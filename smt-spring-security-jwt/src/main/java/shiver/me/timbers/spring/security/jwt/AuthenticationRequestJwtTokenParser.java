@@ -18,15 +18,23 @@ package shiver.me.timbers.spring.security.jwt;
 
 import org.springframework.security.core.Authentication;
 
-import javax.servlet.http.Cookie;
 import javax.servlet.http.HttpServletRequest;
+import java.util.Arrays;
+
+import static shiver.me.timbers.spring.security.jwt.JwtInvalidTokenReason.MISSING;
 
 /**
  * @author Karl Bennett
  */
 public class AuthenticationRequestJwtTokenParser<T> implements JwtTokenParser<Authentication, HttpServletRequest> {
 
-    private final String tokenName;
+    /**
+     * The request attribute that holds the JWT token that the request was successfully authenticated with.
+     */
+    public static final String TOKEN_ATTRIBUTE = AuthenticationRequestJwtTokenParser.class.getName() + ".TOKEN";
+
+    private final JwtTokenFinder tokenFinder;
+    private final JwtTokenValidator tokenValidator;
     private final AuthenticationConverter<T> authenticationConverter;
     private final JwtTokenParser<T, String> tokenParser;
 
@@ -35,7 +43,25 @@ public class AuthenticationRequestJwtTokenParser<T> implements JwtTokenParser<Au
         AuthenticationConverter<T> authenticationConverter,
         JwtTokenParser<T, String> tokenParser
     ) {
-        this.tokenName = tokenName;
+        this(
+            new ChainedJwtTokenFinder(Arrays.<JwtTokenFinder>asList(
+                new CookieJwtTokenFinder(tokenName),
+                new HeaderJwtTokenFinder(tokenName)
+            )),
+            new PresentJwtTokenValidator(),
+            authenticationConverter,
+            tokenParser
+        );
+    }
+
+    public AuthenticationRequestJwtTokenParser(
+        JwtTokenFinder tokenFinder,
+        JwtTokenValidator tokenValidator,
+        AuthenticationConverter<T> authenticationConverter,
+        JwtTokenParser<T, String> tokenParser
+    ) {
+        this.tokenFinder = tokenFinder;
+        this.tokenValidator = tokenValidator;
         this.authenticationConverter = authenticationConverter;
         this.tokenParser = tokenParser;
     }
@@ -47,36 +73,20 @@ public class AuthenticationRequestJwtTokenParser<T> implements JwtTokenParser<Au
 
     @Override
     public Authentication parse(HttpServletRequest request) throws JwtInvalidTokenException {
-        return authenticationConverter.convert(tokenParser.parse(findToken(request)));
+        final String token = tokenFinder.find(request);
+        tokenValidator.validate(token);
+        final Authentication authentication = authenticationConverter.convert(tokenParser.parse(token));
+        request.setAttribute(TOKEN_ATTRIBUTE, token);
+        return authentication;
     }
 
-    private String findToken(HttpServletRequest request) {
-        final String cookie = findCookieToken(request);
-        if (cookie != null) {
-            return cookie;
-        }
-
-        final String token = findHeaderToken(request);
-        if (token != null) {
-            return token;
-        }
+    private static class PresentJwtTokenValidator implements JwtTokenValidator {
 
-        return "";
-    }
-
-    private String findCookieToken(HttpServletRequest request) {
-        final Cookie[] cookies = request.getCookies();
-        if (cookies != null) {
-            for (Cookie cookie : cookies) {
-                if (tokenName.equals(cookie.getName())) {
-                    return cookie.getValue();
-                }
+        @Override
+        public void validate(String token) {
+            if (token == null || token.isEmpty()) {
+                throw new JwtMalformedTokenException(MISSING, "Could not find a JWT token in the request");
             }
         }
-        return null;
-    }
-
-    private String findHeaderToken(HttpServletRequest request) {
-        return request.getHeader(tokenName);
     }
 }
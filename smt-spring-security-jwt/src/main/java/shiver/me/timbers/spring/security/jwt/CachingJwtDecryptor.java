@@ -0,0 +1,116 @@
+/*
+ * Copyright 2016 Karl Bennett
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package shiver.me.timbers.spring.security.jwt;
+
+import shiver.me.timbers.spring.security.Base64;
+import shiver.me.timbers.spring.security.cache.Cache;
+import shiver.me.timbers.spring.security.keys.JwtKey;
+import shiver.me.timbers.spring.security.keys.KeyRing;
+import shiver.me.timbers.spring.security.time.Clock;
+
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A {@link JwtDecryptor} that remembers the principals of tokens that have already been verified so that a repeated
+ * token only costs a digest and a hash lookup. The tokens are cached by their digest so that they are not held in
+ * memory. A cache hit skips the key ring, so a token is only cached until the earliest of its expiry, the date that its
+ * key can no longer verify tokens, and the time to live. The time to live bounds how long a token stays valid after its
+ * key is retired or removed, so it should be no longer than the time that reloaded keys are kept for verification.
+ *
+ * @author Karl Bennett
+ */
+public class CachingJwtDecryptor implements JwtDecryptor {
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private final JwtDecryptor decryptor;
+    private final Cache<String, Object> cache;
+    private final JwtExpiryReader expiryReader;
+    private final JwtKeyIdReader keyIdReader;
+    private final KeyRing keyRing;
+    private final Clock clock;
+    private final long timeToLive;
+    private final Base64 base64;
+    private final ThreadLocal<MessageDigest> digests;
+
+    public CachingJwtDecryptor(
+        JwtDecryptor decryptor,
+        Cache<String, Object> cache,
+        JwtExpiryReader expiryReader,
+        JwtKeyIdReader keyIdReader,
+        KeyRing keyRing,
+        Clock clock,
+        long timeToLiveDuration,
+        TimeUnit timeToLiveUnit,
+        Base64 base64
+    ) {
+        this.decryptor = decryptor;
+        this.cache = cache;
+        this.expiryReader = expiryReader;
+        this.keyIdReader = keyIdReader;
+        this.keyRing = keyRing;
+        this.clock = clock;
+        this.timeToLive = timeToLiveUnit.toMillis(timeToLiveDuration);
+        this.base64 = base64;
+        this.digests = new ThreadLocal<MessageDigest>() {
+            @Override
+            protected MessageDigest initialValue() {
+                try {
+                    return MessageDigest.getInstance("SHA-256");
+                } catch (NoSuchAlgorithmException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        };
+    }
+
+    @Override
+    public <T> T decrypt(String token, Class<T> type) {
+        final String key = digest(token);
+
+        final Object cached = cache.get(key);
+        if (type.isInstance(cached)) {
+            return type.cast(cached);
+        }
+
+        final T principal = decryptor.decrypt(token, type);
+        final JwtKey jwtKey = keyRing.getVerificationKey(keyIdReader.read(token));
+        if (jwtKey != null) {
+            cache.put(key, principal, expiry(token, jwtKey));
+        }
+        return principal;
+    }
+
+    private Date expiry(String token, JwtKey key) {
+        long expiry = clock.now().getTime() + timeToLive;
+        expiry = earliest(expiry, expiryReader.read(token));
+        expiry = earliest(expiry, key.getVerifyUntil());
+        return new Date(expiry);
+    }
+
+    private static long earliest(long expiry, Date date) {
+        return date == null ? expiry : Math.min(expiry, date.getTime());
+    }
+
+    private String digest(String token) {
+        return base64.encode(digests.get().digest(token.getBytes(UTF_8)));
+    }
+}
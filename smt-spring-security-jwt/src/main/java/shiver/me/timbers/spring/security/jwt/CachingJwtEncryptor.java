@@ -0,0 +1,108 @@
+/*
+ * Copyright 2016 Karl Bennett
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package shiver.me.timbers.spring.security.jwt;
+
+import shiver.me.timbers.spring.security.cache.Cache;
+import shiver.me.timbers.spring.security.time.Clock;
+
+import java.util.Date;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A {@link JwtEncryptor} that hands out the same token for an equal principal until only the minimum share of the
+ * tokens lifetime is left, after which a new token is signed. This means a burst of requests for the same principal
+ * only costs a single signature. Reused tokens share their {@code jti} id, so this must not be used when tokens can be
+ * revoked otherwise logging out of one session would revoke every other session that was handed the same token.
+ * <p>
+ * Tokens are only cached for principals that override {@link Object#equals(Object)} and {@link Object#hashCode()},
+ * like the {@link JwtPrincipal}, because any other principal would never be found in the cache again.
+ *
+ * @author Karl Bennett
+ */
+public class CachingJwtEncryptor implements JwtEncryptor {
+
+    private final JwtEncryptor encryptor;
+    private final Cache<Object, String> cache;
+    private final JwtExpiryReader expiryReader;
+    private final Clock clock;
+    private final double minimumRemainingLifetime;
+    private final ConcurrentMap<Class<?>, Boolean> valueTypes = new ConcurrentHashMap<>();
+
+    public CachingJwtEncryptor(
+        JwtEncryptor encryptor,
+        Cache<Object, String> cache,
+        JwtExpiryReader expiryReader,
+        Clock clock,
+        double minimumRemainingLifetime
+    ) {
+        if (minimumRemainingLifetime < 0 || minimumRemainingLifetime >= 1) {
+            throw new IllegalArgumentException(
+                "The minimum remaining token lifetime must be a share from 0 (inclusive) to 1 (exclusive)."
+            );
+        }
+        this.encryptor = encryptor;
+        this.cache = cache;
+        this.expiryReader = expiryReader;
+        this.clock = clock;
+        this.minimumRemainingLifetime = minimumRemainingLifetime;
+    }
+
+    @Override
+    public String encrypt(Object principal) {
+        if (principal == null || !hasValueEquality(principal.getClass())) {
+            return encryptor.encrypt(principal);
+        }
+
+        final String cached = cache.get(principal);
+        if (cached != null) {
+            return cached;
+        }
+
+        final String token = encryptor.encrypt(principal);
+        final Date expiry = expiryReader.read(token);
+        if (expiry == null) {
+            cache.put(principal, token, null);
+            return token;
+        }
+
+        final long now = clock.now().getTime();
+        final long reusableLifetime = (long) ((expiry.getTime() - now) * (1 - minimumRemainingLifetime));
+        if (reusableLifetime > 0) {
+            cache.put(principal, token, new Date(now + reusableLifetime));
+        }
+        return token;
+    }
+
+    private boolean hasValueEquality(Class<?> type) {
+        final Boolean valueType = valueTypes.get(type);
+        if (valueType != null) {
+            return valueType;
+        }
+        final boolean newValueType = overrides(type, "equals", Object.class) && overrides(type, "hashCode");
+        valueTypes.putIfAbsent(type, newValueType);
+        return newValueType;
+    }
+
+    private static boolean overrides(Class<?> type, String name, Class<?>... parameterTypes) {
+        try {
+            return type.getMethod(name, parameterTypes).getDeclaringClass() != Object.class;
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright 2016 Karl Bennett
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package shiver.me.timbers.spring.security.jwt;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.List;
+
+/**
+ * Returns the token from the first of the finders that can find one so that the more likely places are checked first.
+ *
+ * @author Karl Bennett
+ */
+public class ChainedJwtTokenFinder implements JwtTokenFinder {
+
+    private final JwtTokenFinder[] tokenFinders;
+
+    public ChainedJwtTokenFinder(List<JwtTokenFinder> tokenFinders) {
+        this.tokenFinders = tokenFinders.toArray(new JwtTokenFinder[tokenFinders.size()]);
+    }
+
+    @Override
+    public String find(HttpServletRequest request) {
+        for (JwtTokenFinder tokenFinder : tokenFinders) {
+            final String token = tokenFinder.find(request);
+            if (token != null) {
+                return token;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2016 Karl Bennett
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package shiver.me.timbers.spring.security.jwt;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+import static com.fasterxml.jackson.annotation.JsonInclude.Include.NON_NULL;
+
+/**
+ * The token form of a {@link JwtPrincipal} where the roles that are in the {@link RoleDictionary} are written as a
+ * Base64URL bitset of their indexes. Any roles that are not in the dictionary are still written out in full.
+ *
+ * @author Karl Bennett
+ */
+@JsonInclude(NON_NULL)
+public class CompactJwtPrincipal {
+
+    private final String username;
+    private final List<String> roles;
+    private final Integer rolesVersion;
+    private final String rolesBitset;
+
+    public CompactJwtPrincipal(
+        @JsonProperty("username") String username,
+        @JsonProperty("roles") List<String> roles,
+        @JsonProperty("rv") Integer rolesVersion,
+        @JsonProperty("rb") String rolesBitset
+    ) {
+        this.username = username;
+        this.roles = roles;
+        this.rolesVersion = rolesVersion;
+        this.rolesBitset = rolesBitset;
+    }
+
+    @JsonProperty("username")
+    public String getUsername() {
+        return username;
+    }
+
+    @JsonProperty("roles")
+    public List<String> getRoles() {
+        return roles;
+    }
+
+    @JsonProperty("rv")
+    public Integer getRolesVersion() {
+        return rolesVersion;
+    }
+
+    @JsonProperty("rb")
+    public String getRolesBitset() {
+        return rolesBitset;
+    }
+
+    @Override
+    public boolean equals(Object object) {
+        if (this == object) {
+            return true;
+        }
+        if (object == null || getClass() != object.getClass()) {
+            return false;
+        }
+
+        final CompactJwtPrincipal that = (CompactJwtPrincipal) object;
+
+        if (username != null ? !username.equals(that.username) : that.username != null) {
+            return false;
+        }
+        if (roles != null ? !roles.equals(that.roles) : that.roles != null) {
+            return false;
+        }
+        if (rolesVersion != null ? !rolesVersion.equals(that.rolesVersion) : that.rolesVersion != null) {
+            return false;
+        }
+        return rolesBitset != null ? rolesBitset.equals(that.rolesBitset) : that.rolesBitset == null;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = username != null ? username.hashCode() : 0;
+        result = 31 * result + (roles != null ? roles.hashCode() : 0);
+        result = 31 * result + (rolesVersion != null ? rolesVersion.hashCode() : 0);
+        result = 31 * result + (rolesBitset != null ? rolesBitset.hashCode() : 0);
+        return result;
+    }
+}
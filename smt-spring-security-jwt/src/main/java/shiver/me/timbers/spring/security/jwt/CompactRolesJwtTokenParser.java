@@ -0,0 +1,165 @@
+/*
+ * Copyright 2016 Karl Bennett
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package shiver.me.timbers.spring.security.jwt;
+
+import io.jsonwebtoken.impl.TextCodec;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static shiver.me.timbers.spring.security.jwt.JwtInvalidTokenReason.MALFORMED;
+
+/**
+ * A token parser that writes the roles of a {@link JwtPrincipal} into the token as a bitset of their
+ * {@link RoleDictionary} indexes and reads them back into role names, so the principal never sees the compact form.
+ * Tokens that still contain the full role names can also be parsed, as can tokens that were written with any of the
+ * previous dictionary versions.
+ * <p>
+ * A bitset can't hold the order of the roles, so the roles are only compacted when they are in the same order that they
+ * will be read back in, that is the known roles in dictionary order followed by any unknown roles. Any other list of
+ * roles is written in full so that the role order is always kept.
+ *
+ * @author Karl Bennett
+ */
+public class CompactRolesJwtTokenParser implements JwtTokenParser<JwtPrincipal, String> {
+
+    private final RoleDictionary dictionary;
+    private final Map<Integer, RoleDictionary> dictionaries;
+    private final JwtTokenParser<CompactJwtPrincipal, String> tokenParser;
+
+    public CompactRolesJwtTokenParser(
+        RoleDictionary dictionary,
+        JwtTokenParser<CompactJwtPrincipal, String> tokenParser
+    ) {
+        this(dictionary, Collections.<RoleDictionary>emptyList(), tokenParser);
+    }
+
+    /**
+     * @param dictionary           the dictionary that new tokens are written with.
+     * @param previousDictionaries the dictionaries that older tokens might have been written with.
+     */
+    public CompactRolesJwtTokenParser(
+        RoleDictionary dictionary,
+        List<RoleDictionary> previousDictionaries,
+        JwtTokenParser<CompactJwtPrincipal, String> tokenParser
+    ) {
+        this.dictionary = dictionary;
+        this.dictionaries = new HashMap<>();
+        for (RoleDictionary previousDictionary : previousDictionaries) {
+            addDictionary(previousDictionary);
+        }
+        addDictionary(dictionary);
+        this.tokenParser = tokenParser;
+    }
+
+    @Override
+    public String create(JwtPrincipal principal) {
+        return tokenParser.create(compact(principal));
+    }
+
+    @Override
+    public JwtPrincipal parse(String token) {
+        return expand(tokenParser.parse(token));
+    }
+
+    private CompactJwtPrincipal compact(JwtPrincipal principal) {
+        final List<String> roles = principal.getRoles();
+        if (roles == null) {
+            return new CompactJwtPrincipal(principal.getUsername(), null, null, null);
+        }
+
+        final byte[] bits = new byte[(dictionary.size() + 7) / 8];
+        int length = 0;
+        int previousIndex = -1;
+        List<String> unknownRoles = null;
+        for (String role : roles) {
+            final Integer index = dictionary.indexOf(role);
+            if (index == null) {
+                if (unknownRoles == null) {
+                    unknownRoles = new ArrayList<>();
+                }
+                unknownRoles.add(role);
+                continue;
+            }
+            if (unknownRoles != null || index <= previousIndex) {
+                // The roles would be read back in a different order, or a repeated role would be lost.
+                return new CompactJwtPrincipal(principal.getUsername(), roles, null, null);
+            }
+            previousIndex = index;
+            bits[index / 8] |= 1 << (index % 8);
+            length = Math.max(length, index / 8 + 1);
+        }
+        return new CompactJwtPrincipal(
+            principal.getUsername(),
+            unknownRoles,
+            dictionary.getVersion(),
+            TextCodec.BASE64URL.encode(Arrays.copyOf(bits, length))
+        );
+    }
+
+    private JwtPrincipal expand(CompactJwtPrincipal principal) {
+        final String bitset = principal.getRolesBitset();
+        if (bitset == null) {
+            return new JwtPrincipal(principal.getUsername(), principal.getRoles());
+        }
+        final RoleDictionary dictionary = principal.getRolesVersion() == null
+            ? null
+            : dictionaries.get(principal.getRolesVersion());
+        if (dictionary == null) {
+            throw new JwtInvalidTokenException(
+                MALFORMED,
+                "The JWT token was written with an unknown role dictionary."
+            );
+        }
+
+        final byte[] bits = decode(bitset);
+        final List<String> roles = new ArrayList<>();
+        for (int i = 0; i < bits.length * 8; i++) {
+            if ((bits[i / 8] & (1 << (i % 8))) == 0) {
+                continue;
+            }
+            if (i >= dictionary.size()) {
+                throw new JwtInvalidTokenException(MALFORMED, "The JWT token contains a role that is not known.");
+            }
+            roles.add(dictionary.role(i));
+        }
+        if (principal.getRoles() != null) {
+            roles.addAll(principal.getRoles());
+        }
+        return new JwtPrincipal(principal.getUsername(), roles);
+    }
+
+    private void addDictionary(RoleDictionary dictionary) {
+        if (dictionaries.put(dictionary.getVersion(), dictionary) != null) {
+            throw new IllegalArgumentException(
+                "The role dictionary version (" + dictionary.getVersion() + ") is used more than once."
+            );
+        }
+    }
+
+    private static byte[] decode(String bitset) {
+        try {
+            return TextCodec.BASE64URL.decode(bitset);
+        } catch (IllegalArgumentException e) {
+            throw new JwtInvalidTokenException(MALFORMED, "The JWT token roles are not valid Base64.", e);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2016 Karl Bennett
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package shiver.me.timbers.spring.security.jwt;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import io.jsonwebtoken.impl.TextCodec;
+
+import java.io.IOException;
+
+import static io.jsonwebtoken.JwsHeader.KEY_ID;
+import static shiver.me.timbers.spring.security.jwt.JwtInvalidTokenReason.MALFORMED;
+
+/**
+ * Reads the key id straight out of the token header without verifying it.
+ *
+ * @author Karl Bennett
+ */
+public class HeaderJwtKeyIdReader implements JwtKeyIdReader {
+
+    private final JsonFactory jsonFactory;
+
+    public HeaderJwtKeyIdReader(JsonFactory jsonFactory) {
+        this.jsonFactory = jsonFactory;
+    }
+
+    @Override
+    public String read(String token) {
+        final int headerEnd = token.indexOf('.');
+        if (headerEnd <= 0) {
+            throw new JwtInvalidTokenException(MALFORMED, "The JWT token does not contain a header.");
+        }
+
+        try (JsonParser parser = jsonFactory.createParser(TextCodec.BASE64URL.decode(token.substring(0, headerEnd)))) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new JwtInvalidTokenException(MALFORMED, "The JWT token header is not a JSON object.");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                final String name = parser.getCurrentName();
+                parser.nextToken();
+                if (KEY_ID.equals(name)) {
+                    return parser.getValueAsString();
+                }
+                parser.skipChildren();
+            }
+            return null;
+        } catch (IOException | IllegalArgumentException e) {
+            throw new JwtInvalidTokenException(MALFORMED, "Could not read the JWT token key id.", e);
+        }
+    }
+}
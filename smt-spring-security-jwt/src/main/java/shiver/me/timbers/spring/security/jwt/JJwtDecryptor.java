@@ -17,40 +17,122 @@
 package shiver.me.timbers.spring.security.jwt;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.CompressionCodecResolver;
+import io.jsonwebtoken.CompressionException;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwsHeader;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.MalformedJwtException;
+import io.jsonwebtoken.PrematureJwtException;
+import io.jsonwebtoken.SignatureException;
+import io.jsonwebtoken.SigningKeyResolver;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import io.jsonwebtoken.UnsupportedJwtException;
+import shiver.me.timbers.spring.security.keys.ExpiringKeyRing;
+import shiver.me.timbers.spring.security.keys.JwtKey;
+import shiver.me.timbers.spring.security.keys.KeyRing;
 
+import java.security.Key;
 import java.security.KeyPair;
 import java.util.Map;
 
 import static shiver.me.timbers.spring.security.jwt.JwtEncryptor.PRINCIPAL;
+import static shiver.me.timbers.spring.security.jwt.JwtInvalidTokenReason.EXPIRED;
+import static shiver.me.timbers.spring.security.jwt.JwtInvalidTokenReason.MALFORMED;
+import static shiver.me.timbers.spring.security.jwt.JwtInvalidTokenReason.MISSING;
+import static shiver.me.timbers.spring.security.jwt.JwtInvalidTokenReason.PREMATURE;
+import static shiver.me.timbers.spring.security.jwt.JwtInvalidTokenReason.SIGNATURE;
+import static shiver.me.timbers.spring.security.jwt.JwtInvalidTokenReason.UNKNOWN;
 
 /**
+ * Verifies and reads tokens with JJWT. JJWT always reads the whole payload into a map of claims before it can be used,
+ * so the principal has to be converted from that map instead of being streamed straight out of the payload like the
+ * default {@link JcaJwtDecryptor} does.
+ *
  * @author Karl Bennett
  */
 public class JJwtDecryptor implements JwtDecryptor {
 
     private final JwtParserFactory parserFactory;
-    private final KeyPair keyPair;
+    private final SigningKeyResolver keyResolver;
     private final ObjectMapper objectMapper;
+    private final CompressionCodecResolver compressionCodecResolver;
 
     public JJwtDecryptor(JwtParserFactory parserFactory, KeyPair keyPair, ObjectMapper objectMapper) {
+        this(parserFactory, new ExpiringKeyRing(new JwtKey(null, keyPair)), objectMapper);
+    }
+
+    public JJwtDecryptor(JwtParserFactory parserFactory, KeyRing keyRing, ObjectMapper objectMapper) {
+        this(parserFactory, keyRing, objectMapper, null);
+    }
+
+    /**
+     * @param compressionCodecResolver the resolver for compressed tokens, if this is null JJWT's own resolver is used
+     *                                 which will inflate a compressed payload to any size.
+     */
+    public JJwtDecryptor(
+        JwtParserFactory parserFactory,
+        KeyRing keyRing,
+        ObjectMapper objectMapper,
+        CompressionCodecResolver compressionCodecResolver
+    ) {
         this.parserFactory = parserFactory;
-        this.keyPair = keyPair;
+        this.keyResolver = new KeyRingSigningKeyResolver(keyRing);
         this.objectMapper = objectMapper;
+        this.compressionCodecResolver = compressionCodecResolver;
     }
 
     @Override
     public <T> T decrypt(String token, Class<T> type) {
         try {
-            return objectMapper.convertValue(
-                parserFactory.create().setSigningKey(keyPair.getPublic()).parseClaimsJws(token)
-                    .getBody().get(PRINCIPAL, Map.class),
-                type
-            );
+            final JwtParser parser = parserFactory.create().setSigningKeyResolver(keyResolver);
+            if (compressionCodecResolver != null) {
+                parser.setCompressionCodecResolver(compressionCodecResolver);
+            }
+            return objectMapper.convertValue(parser.parseClaimsJws(token).getBody().get(PRINCIPAL, Map.class), type);
         } catch (IllegalArgumentException e) {
-            throw new JwtInvalidTokenException("Could not find a JWT token in the request", e);
+            throw new JwtInvalidTokenException(MISSING, "Could not find a JWT token in the request", e);
         } catch (JwtException e) {
-            throw new JwtInvalidTokenException(e);
+            throw new JwtInvalidTokenException(reason(e), e);
+        }
+    }
+
+    private static JwtInvalidTokenReason reason(JwtException e) {
+        if (e instanceof SignatureException) {
+            return SIGNATURE;
+        }
+        if (e instanceof ExpiredJwtException) {
+            return EXPIRED;
+        }
+        if (e instanceof PrematureJwtException) {
+            return PREMATURE;
+        }
+        if (e instanceof MalformedJwtException || e instanceof UnsupportedJwtException
+            || e instanceof CompressionException) {
+            return MALFORMED;
+        }
+        return UNKNOWN;
+    }
+
+    private static class KeyRingSigningKeyResolver extends SigningKeyResolverAdapter {
+
+        private final KeyRing keyRing;
+
+        private KeyRingSigningKeyResolver(KeyRing keyRing) {
+            this.keyRing = keyRing;
+        }
+
+        @Override
+        @SuppressWarnings("rawtypes")
+        public Key resolveSigningKey(JwsHeader header, Claims claims) {
+            final String keyId = header.getKeyId();
+            final JwtKey key = keyRing.getVerificationKey(keyId);
+            if (key == null) {
+                throw new SignatureException("Could not find a key for the JWT token key id (" + keyId + ").");
+            }
+            return key.getKeyPair().getPublic();
         }
     }
 }
@@ -16,24 +16,44 @@
 
 package shiver.me.timbers.spring.security.jwt;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.CompressionCodec;
 import io.jsonwebtoken.JwtBuilder;
 import io.jsonwebtoken.SignatureAlgorithm;
+import shiver.me.timbers.spring.security.compression.CompressionPolicy;
+import shiver.me.timbers.spring.security.keys.ExpiringKeyRing;
+import shiver.me.timbers.spring.security.keys.JwtKey;
+import shiver.me.timbers.spring.security.keys.KeyRing;
 import shiver.me.timbers.spring.security.time.Clock;
 
 import java.security.KeyPair;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
+import static io.jsonwebtoken.Claims.EXPIRATION;
+import static io.jsonwebtoken.Claims.ID;
+import static io.jsonwebtoken.JwsHeader.KEY_ID;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
 /**
  * @author Karl Bennett
  */
 public class JJwtEncryptor implements JwtEncryptor {
 
+    static final String COMPRESSION = "zip";
+
     private final JwtBuilderFactory builderFactory;
     private final SignatureAlgorithm algorithm;
-    private final KeyPair keyPair;
+    private final KeyRing keyRing;
     private final int expiryDuration;
     private final TimeUnit expiryUnit;
     private final Clock clock;
+    private final ObjectMapper objectMapper;
+    private final CompressionPolicy compressionPolicy;
+    private final JwtIdGenerator idGenerator;
 
     public JJwtEncryptor(
         JwtBuilderFactory builderFactory,
@@ -42,22 +62,119 @@ public class JJwtEncryptor implements JwtEncryptor {
         int expiryDuration,
         TimeUnit expiryUnit,
         Clock clock
+    ) {
+        this(
+            builderFactory,
+            algorithm,
+            new ExpiringKeyRing(new JwtKey(null, keyPair)),
+            expiryDuration,
+            expiryUnit,
+            clock
+        );
+    }
+
+    public JJwtEncryptor(
+        JwtBuilderFactory builderFactory,
+        SignatureAlgorithm algorithm,
+        KeyRing keyRing,
+        int expiryDuration,
+        TimeUnit expiryUnit,
+        Clock clock
+    ) {
+        this(builderFactory, algorithm, keyRing, expiryDuration, expiryUnit, clock, null, null);
+    }
+
+    public JJwtEncryptor(
+        JwtBuilderFactory builderFactory,
+        SignatureAlgorithm algorithm,
+        KeyRing keyRing,
+        int expiryDuration,
+        TimeUnit expiryUnit,
+        Clock clock,
+        ObjectMapper objectMapper,
+        CompressionPolicy compressionPolicy
+    ) {
+        this(
+            builderFactory,
+            algorithm,
+            keyRing,
+            expiryDuration,
+            expiryUnit,
+            clock,
+            objectMapper,
+            compressionPolicy,
+            null
+        );
+    }
+
+    /**
+     * @param idGenerator generates the {@code jti} id that is given to every token so that it can be revoked, tokens
+     *                    are not given an id if this is null.
+     */
+    public JJwtEncryptor(
+        JwtBuilderFactory builderFactory,
+        SignatureAlgorithm algorithm,
+        KeyRing keyRing,
+        int expiryDuration,
+        TimeUnit expiryUnit,
+        Clock clock,
+        ObjectMapper objectMapper,
+        CompressionPolicy compressionPolicy,
+        JwtIdGenerator idGenerator
     ) {
         this.builderFactory = builderFactory;
         this.algorithm = algorithm;
-        this.keyPair = keyPair;
+        this.keyRing = keyRing;
         this.expiryDuration = expiryDuration;
         this.expiryUnit = expiryUnit;
         this.clock = clock;
+        this.objectMapper = objectMapper;
+        this.compressionPolicy = compressionPolicy;
+        this.idGenerator = idGenerator;
     }
 
     @Override
     public String encrypt(Object principal) {
+        final JwtKey key = keyRing.getSigningKey();
         final JwtBuilder signedBuilder = builderFactory.create().claim(PRINCIPAL, principal)
-            .signWith(algorithm, keyPair.getPrivate());
-        if (expiryDuration >= 0) {
-            return signedBuilder.setExpiration(clock.nowPlus(expiryDuration, expiryUnit)).compact();
+            .signWith(algorithm, key.getKeyPair().getPrivate());
+        if (key.getId() != null) {
+            signedBuilder.setHeaderParam(KEY_ID, key.getId());
+        }
+        final String id = idGenerator == null ? null : idGenerator.generate();
+        if (id != null) {
+            signedBuilder.setId(id);
+        }
+        final Date expiry = expiryDuration >= 0 ? clock.nowPlus(expiryDuration, expiryUnit) : null;
+        final CompressionCodec codec = compressionPolicy == null
+            ? null
+            : compressionPolicy.codec(payloadLength(principal, id, expiry));
+        if (codec != null) {
+            // JJWT 0.6 only writes the compression algorithm to its own "calg" header.
+            signedBuilder.compressWith(codec);
+            signedBuilder.setHeaderParam(COMPRESSION, codec.getAlgorithmName());
+        }
+        if (expiry != null) {
+            return signedBuilder.setExpiration(expiry).compact();
         }
         return signedBuilder.compact();
     }
+
+    // JJWT serialises the claims itself so they are serialised here as well just to measure the payload the same way
+    // that the JcaJwtEncryptor does.
+    private int payloadLength(Object principal, String id, Date expiry) {
+        final Map<String, Object> claims = new LinkedHashMap<>();
+        claims.put(PRINCIPAL, principal);
+        if (id != null) {
+            claims.put(ID, id);
+        }
+        if (expiry != null) {
+            claims.put(EXPIRATION, MILLISECONDS.toSeconds(expiry.getTime()));
+        }
+        try {
+            return objectMapper.writeValueAsBytes(claims).length;
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Could not serialise the JWT principal.", e);
+        }
+    }
 }
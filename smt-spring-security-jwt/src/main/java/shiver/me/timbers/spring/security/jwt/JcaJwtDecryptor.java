@@ -0,0 +1,281 @@
+/*
+ * Copyright 2016 Karl Bennett
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package shiver.me.timbers.spring.security.jwt;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import io.jsonwebtoken.CompressionCodec;
+import io.jsonwebtoken.CompressionException;
+import io.jsonwebtoken.Header;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.impl.TextCodec;
+import shiver.me.timbers.spring.security.signature.SignatureVerifier;
+import shiver.me.timbers.spring.security.signature.SignatureVerifierResolver;
+import shiver.me.timbers.spring.security.time.Clock;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import static com.fasterxml.jackson.core.JsonToken.FIELD_NAME;
+import static com.fasterxml.jackson.core.JsonToken.START_OBJECT;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static shiver.me.timbers.spring.security.jwt.JwtEncryptor.PRINCIPAL;
+import static shiver.me.timbers.spring.security.jwt.JwtInvalidTokenReason.EXPIRED;
+import static shiver.me.timbers.spring.security.jwt.JwtInvalidTokenReason.MALFORMED;
+import static shiver.me.timbers.spring.security.jwt.JwtInvalidTokenReason.MISSING;
+import static shiver.me.timbers.spring.security.jwt.JwtInvalidTokenReason.PREMATURE;
+import static shiver.me.timbers.spring.security.jwt.JwtInvalidTokenReason.SIGNATURE;
+
+/**
+ * A decryptor that verifies the token signature with a verifier that has been built once for the configured algorithm
+ * and key instead of building a new JJWT parser for every request. The verifier is resolved from the {@code kid} header
+ * so that tokens signed with any key in a key ring can be verified. The payload is streamed straight into the
+ * principal type so that no intermediate claims map is built. Compressed payloads are only accepted if a compression
+ * codec has been configured.
+ *
+ * @author Karl Bennett
+ */
+public class JcaJwtDecryptor implements JwtDecryptor {
+
+    private static final Charset US_ASCII = Charset.forName("US-ASCII");
+
+    private final SignatureAlgorithm algorithm;
+    private final SignatureVerifierResolver verifiers;
+    private final ObjectMapper objectMapper;
+    private final Clock clock;
+    private final CompressionCodec compressionCodec;
+    private final ConcurrentMap<Class<?>, ObjectReader> readers = new ConcurrentHashMap<>();
+
+    public JcaJwtDecryptor(
+        SignatureAlgorithm algorithm,
+        SignatureVerifier verifier,
+        ObjectMapper objectMapper,
+        Clock clock
+    ) {
+        this(algorithm, new FixedSignatureVerifierResolver(verifier), objectMapper, clock);
+    }
+
+    public JcaJwtDecryptor(
+        SignatureAlgorithm algorithm,
+        SignatureVerifierResolver verifiers,
+        ObjectMapper objectMapper,
+        Clock clock
+    ) {
+        this(algorithm, verifiers, objectMapper, clock, null);
+    }
+
+    public JcaJwtDecryptor(
+        SignatureAlgorithm algorithm,
+        SignatureVerifierResolver verifiers,
+        ObjectMapper objectMapper,
+        Clock clock,
+        CompressionCodec compressionCodec
+    ) {
+        this.algorithm = algorithm;
+        this.verifiers = verifiers;
+        this.objectMapper = objectMapper;
+        this.clock = clock;
+        this.compressionCodec = compressionCodec;
+    }
+
+    @Override
+    public <T> T decrypt(String token, Class<T> type) {
+        if (token == null || token.isEmpty()) {
+            throw new JwtInvalidTokenException(MISSING, "Could not find a JWT token in the request");
+        }
+
+        final int headerEnd = token.indexOf('.');
+        final int payloadEnd = token.indexOf('.', headerEnd + 1);
+        if (headerEnd <= 0 || payloadEnd <= headerEnd || payloadEnd == token.length() - 1
+            || token.indexOf('.', payloadEnd + 1) >= 0) {
+            throw new JwtInvalidTokenException(MALFORMED, "The JWT token is not a signed compact JWS.");
+        }
+
+        final ParsedHeader header = checkHeader(token.substring(0, headerEnd));
+        checkSignature(header.keyId, token.substring(0, payloadEnd), token.substring(payloadEnd + 1));
+        return readPayload(inflate(header.compression, decode(token.substring(headerEnd + 1, payloadEnd))), type);
+    }
+
+    private ParsedHeader checkHeader(String header) {
+        String alg = null;
+        String kid = null;
+        String zip = null;
+        try (JsonParser parser = startObject(decode(header))) {
+            while (parser.nextToken() == FIELD_NAME) {
+                final String name = parser.getCurrentName();
+                parser.nextToken();
+                if ("alg".equals(name)) {
+                    alg = parser.getValueAsString();
+                    continue;
+                }
+                if ("kid".equals(name)) {
+                    kid = parser.getValueAsString();
+                    continue;
+                }
+                if (isCompression(name)) {
+                    zip = parser.getValueAsString();
+                    continue;
+                }
+                parser.skipChildren();
+            }
+        } catch (IOException e) {
+            throw new JwtInvalidTokenException(MALFORMED, "Could not read the JWT token header.", e);
+        }
+        if (!algorithm.getValue().equals(alg)) {
+            throw new JwtInvalidTokenException(
+                MALFORMED,
+                "The JWT token algorithm does not match the configured algorithm."
+            );
+        }
+        if (zip != null && compressionCodec == null) {
+            throw new JwtInvalidTokenException(MALFORMED, "Compressed JWT tokens are not supported.");
+        }
+        if (zip != null && !compressionCodec.getAlgorithmName().equalsIgnoreCase(zip)) {
+            throw new JwtInvalidTokenException(
+                MALFORMED,
+                "The JWT token compression algorithm (" + zip + ") is not supported."
+            );
+        }
+        return new ParsedHeader(kid, zip);
+    }
+
+    private static boolean isCompression(String name) {
+        return JJwtEncryptor.COMPRESSION.equals(name) || Header.COMPRESSION_ALGORITHM.equals(name);
+    }
+
+    private void checkSignature(String keyId, String signedContent, String signature) {
+        final SignatureVerifier verifier = verifiers.resolve(keyId);
+        if (verifier == null) {
+            throw new JwtInvalidTokenException(
+                SIGNATURE,
+                "Could not find a key for the JWT token key id (" + keyId + ")."
+            );
+        }
+
+        final byte[] signatureBytes;
+        try {
+            signatureBytes = TextCodec.BASE64URL.decode(signature);
+        } catch (IllegalArgumentException e) {
+            throw new JwtInvalidTokenException(MALFORMED, "The JWT token signature is not valid Base64.", e);
+        }
+        if (!verifier.verify(signedContent.getBytes(US_ASCII), signatureBytes)) {
+            throw new JwtInvalidTokenException(SIGNATURE, "JWT signature does not match locally computed signature.");
+        }
+    }
+
+    private byte[] inflate(String compression, byte[] payload) {
+        if (compression == null) {
+            return payload;
+        }
+        try {
+            return compressionCodec.decompress(payload);
+        } catch (CompressionException e) {
+            throw new JwtInvalidTokenException(MALFORMED, "Could not inflate the JWT token payload.", e);
+        }
+    }
+
+    private <T> T readPayload(byte[] payload, Class<T> type) {
+        T principal = null;
+        Long expiry = null;
+        Long notBefore = null;
+        try (JsonParser parser = startObject(payload)) {
+            while (parser.nextToken() == FIELD_NAME) {
+                final String name = parser.getCurrentName();
+                parser.nextToken();
+                if (PRINCIPAL.equals(name)) {
+                    principal = reader(type).readValue(parser);
+                    continue;
+                }
+                if ("exp".equals(name)) {
+                    expiry = parser.getValueAsLong();
+                    continue;
+                }
+                if ("nbf".equals(name)) {
+                    notBefore = parser.getValueAsLong();
+                    continue;
+                }
+                parser.skipChildren();
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            throw new JwtInvalidTokenException(MALFORMED, "Could not read the JWT token payload.", e);
+        }
+
+        final long now = clock.now().getTime();
+        if (expiry != null && now >= SECONDS.toMillis(expiry)) {
+            throw new JwtInvalidTokenException(EXPIRED, "The JWT token has expired.");
+        }
+        if (notBefore != null && now < SECONDS.toMillis(notBefore)) {
+            throw new JwtInvalidTokenException(PREMATURE, "The JWT token is not valid yet.");
+        }
+        return principal;
+    }
+
+    private static byte[] decode(String segment) {
+        try {
+            return TextCodec.BASE64URL.decode(segment);
+        } catch (IllegalArgumentException e) {
+            throw new JwtInvalidTokenException(MALFORMED, "The JWT token segments must be valid Base64.", e);
+        }
+    }
+
+    private JsonParser startObject(byte[] segment) throws IOException {
+        final JsonParser parser = objectMapper.getFactory().createParser(segment);
+        if (parser.nextToken() != START_OBJECT) {
+            parser.close();
+            throw new JwtInvalidTokenException(MALFORMED, "The JWT token segments must be JSON objects.");
+        }
+        return parser;
+    }
+
+    private ObjectReader reader(Class<?> type) {
+        final ObjectReader reader = readers.get(type);
+        if (reader != null) {
+            return reader;
+        }
+        final ObjectReader newReader = objectMapper.readerFor(type);
+        final ObjectReader existing = readers.putIfAbsent(type, newReader);
+        return existing == null ? newReader : existing;
+    }
+
+    private static class ParsedHeader {
+
+        private final String keyId;
+        private final String compression;
+
+        private ParsedHeader(String keyId, String compression) {
+            this.keyId = keyId;
+            this.compression = compression;
+        }
+    }
+
+    private static class FixedSignatureVerifierResolver implements SignatureVerifierResolver {
+
+        private final SignatureVerifier verifier;
+
+        private FixedSignatureVerifierResolver(SignatureVerifier verifier) {
+            this.verifier = verifier;
+        }
+
+        @Override
+        public SignatureVerifier resolve(String keyId) {
+            return verifier;
+        }
+    }
+}
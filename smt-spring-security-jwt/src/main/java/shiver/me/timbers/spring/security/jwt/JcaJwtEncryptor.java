@@ -0,0 +1,297 @@
+/*
+ * Copyright 2016 Karl Bennett
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package shiver.me.timbers.spring.security.jwt;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.CompressionCodec;
+import io.jsonwebtoken.Header;
+import io.jsonwebtoken.SignatureAlgorithm;
+import shiver.me.timbers.spring.security.compression.CompressionPolicy;
+import shiver.me.timbers.spring.security.keys.JwtKey;
+import shiver.me.timbers.spring.security.keys.KeyRing;
+import shiver.me.timbers.spring.security.signature.SignatureSigner;
+import shiver.me.timbers.spring.security.signature.SignatureSignerFactory;
+import shiver.me.timbers.spring.security.time.Clock;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * An encryptor that builds the Base64 URL header for the signing key once and then writes every token into buffers
+ * that are kept per thread. The payload is streamed straight into the buffer with Jackson, encoded in place and signed
+ * from the same buffer so that no claims map, header map, or intermediate strings are built for each token. The tokens
+ * are the same as the ones the {@link JJwtEncryptor} creates apart from the order of the header fields. If an id
+ * generator is configured then every token is also given a unique {@code jti} claim so that it can be revoked.
+ *
+ * @author Karl Bennett
+ */
+public class JcaJwtEncryptor implements JwtEncryptor {
+
+    private static final Charset US_ASCII = Charset.forName("US-ASCII");
+    private static final byte[] BASE64URL =
+        "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_".getBytes(US_ASCII);
+
+    private final SignatureAlgorithm algorithm;
+    private final KeyRing keyRing;
+    private final SignatureSignerFactory signerFactory;
+    private final ObjectMapper objectMapper;
+    private final int expiryDuration;
+    private final TimeUnit expiryUnit;
+    private final Clock clock;
+    private final CompressionPolicy compressionPolicy;
+    private final JwtIdGenerator idGenerator;
+    private volatile Template template;
+    private final ThreadLocal<Buffers> buffers = new ThreadLocal<Buffers>() {
+        @Override
+        protected Buffers initialValue() {
+            return new Buffers();
+        }
+    };
+
+    public JcaJwtEncryptor(
+        SignatureAlgorithm algorithm,
+        KeyRing keyRing,
+        SignatureSignerFactory signerFactory,
+        ObjectMapper objectMapper,
+        int expiryDuration,
+        TimeUnit expiryUnit,
+        Clock clock
+    ) {
+        this(algorithm, keyRing, signerFactory, objectMapper, expiryDuration, expiryUnit, clock, null);
+    }
+
+    public JcaJwtEncryptor(
+        SignatureAlgorithm algorithm,
+        KeyRing keyRing,
+        SignatureSignerFactory signerFactory,
+        ObjectMapper objectMapper,
+        int expiryDuration,
+        TimeUnit expiryUnit,
+        Clock clock,
+        CompressionPolicy compressionPolicy
+    ) {
+        this(
+            algorithm,
+            keyRing,
+            signerFactory,
+            objectMapper,
+            expiryDuration,
+            expiryUnit,
+            clock,
+            compressionPolicy,
+            null
+        );
+    }
+
+    public JcaJwtEncryptor(
+        SignatureAlgorithm algorithm,
+        KeyRing keyRing,
+        SignatureSignerFactory signerFactory,
+        ObjectMapper objectMapper,
+        int expiryDuration,
+        TimeUnit expiryUnit,
+        Clock clock,
+        CompressionPolicy compressionPolicy,
+        JwtIdGenerator idGenerator
+    ) {
+        this.algorithm = algorithm;
+        this.keyRing = keyRing;
+        this.signerFactory = signerFactory;
+        this.objectMapper = objectMapper;
+        this.expiryDuration = expiryDuration;
+        this.expiryUnit = expiryUnit;
+        this.clock = clock;
+        this.compressionPolicy = compressionPolicy;
+        this.idGenerator = idGenerator;
+    }
+
+    @Override
+    public String encrypt(Object principal) {
+        final Template template = template(keyRing.getSigningKey());
+        final Buffers buffers = this.buffers.get();
+
+        final Buffer json = buffers.json;
+        json.reset();
+        writePayload(json, principal);
+
+        byte[] payload = json.bytes();
+        int payloadLength = json.size();
+        final CompressionCodec codec = compressionPolicy == null ? null : compressionPolicy.codec(payloadLength);
+        final byte[] header;
+        if (codec == null) {
+            header = template.header;
+        } else {
+            header = template.compressedHeader(codec.getAlgorithmName());
+            payload = codec.compress(Arrays.copyOf(payload, payloadLength));
+            payloadLength = payload.length;
+        }
+
+        final Buffer token = buffers.token;
+        token.reset();
+        token.write(header, 0, header.length);
+        encode(payload, payloadLength, token);
+        final byte[] signature = template.signer.sign(token.bytes(), 0, token.size());
+        token.write('.');
+        encode(signature, signature.length, token);
+        return new String(token.bytes(), 0, token.size(), US_ASCII);
+    }
+
+    private void writePayload(Buffer json, Object principal) {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(json)) {
+            generator.writeStartObject();
+            generator.writeFieldName(PRINCIPAL);
+            objectMapper.writeValue(generator, principal);
+            if (idGenerator != null) {
+                generator.writeStringField("jti", idGenerator.generate());
+            }
+            if (expiryDuration >= 0) {
+                generator.writeNumberField(
+                    "exp",
+                    MILLISECONDS.toSeconds(clock.nowPlus(expiryDuration, expiryUnit).getTime())
+                );
+            }
+            generator.writeEndObject();
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Could not write the JWT principal.", e);
+        }
+    }
+
+    private Template template(JwtKey key) {
+        // Only the template for the current signing key is kept so that the retired keys of a reloading key ring can
+        // be garbage collected.
+        final Template template = this.template;
+        if (template != null && template.key == key) {
+            return template;
+        }
+        final Template newTemplate = new Template(key, signerFactory.create(algorithm, key.getKeyPair().getPrivate()));
+        this.template = newTemplate;
+        return newTemplate;
+    }
+
+    private static void encode(byte[] bytes, int length, Buffer output) {
+        output.ensureCapacity((length + 2) / 3 * 4);
+        int i = 0;
+        for (; i + 2 < length; i += 3) {
+            final int block = (bytes[i] & 0xff) << 16 | (bytes[i + 1] & 0xff) << 8 | (bytes[i + 2] & 0xff);
+            output.write(BASE64URL[block >>> 18]);
+            output.write(BASE64URL[(block >>> 12) & 0x3f]);
+            output.write(BASE64URL[(block >>> 6) & 0x3f]);
+            output.write(BASE64URL[block & 0x3f]);
+        }
+        if (i + 1 == length) {
+            final int block = (bytes[i] & 0xff) << 16;
+            output.write(BASE64URL[block >>> 18]);
+            output.write(BASE64URL[(block >>> 12) & 0x3f]);
+        } else if (i + 2 == length) {
+            final int block = (bytes[i] & 0xff) << 16 | (bytes[i + 1] & 0xff) << 8;
+            output.write(BASE64URL[block >>> 18]);
+            output.write(BASE64URL[(block >>> 12) & 0x3f]);
+            output.write(BASE64URL[(block >>> 6) & 0x3f]);
+        }
+    }
+
+    private class Template {
+
+        private final JwtKey key;
+        private final String keyId;
+        private final byte[] header;
+        private final SignatureSigner signer;
+        private final ConcurrentMap<String, byte[]> compressedHeaders = new ConcurrentHashMap<>();
+
+        private Template(JwtKey key, SignatureSigner signer) {
+            this.key = key;
+            this.keyId = key.getId();
+            this.header = header(keyId, null);
+            this.signer = signer;
+        }
+
+        private byte[] compressedHeader(String compression) {
+            final byte[] header = compressedHeaders.get(compression);
+            if (header != null) {
+                return header;
+            }
+            final byte[] newHeader = header(keyId, compression);
+            final byte[] existing = compressedHeaders.putIfAbsent(compression, newHeader);
+            return existing == null ? newHeader : existing;
+        }
+
+        private byte[] header(String keyId, String compression) {
+            final Buffer json = new Buffer();
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(json)) {
+                generator.writeStartObject();
+                generator.writeStringField("alg", algorithm.getValue());
+                if (keyId != null) {
+                    generator.writeStringField("kid", keyId);
+                }
+                if (compression != null) {
+                    // JJWT 0.6 only reads the compression algorithm from it's own "calg" header.
+                    generator.writeStringField(JJwtEncryptor.COMPRESSION, compression);
+                    generator.writeStringField(Header.COMPRESSION_ALGORITHM, compression);
+                }
+                generator.writeEndObject();
+            } catch (IOException e) {
+                throw new IllegalStateException("Could not write the JWT header.", e);
+            }
+            final Buffer header = new Buffer();
+            encode(json.bytes(), json.size(), header);
+            header.write('.');
+            return Arrays.copyOf(header.bytes(), header.size());
+        }
+    }
+
+    private static class Buffers {
+        private final Buffer json = new Buffer();
+        private final Buffer token = new Buffer();
+    }
+
+    /**
+     * A byte array output stream that gives access to it's buffer so that it can be read without being copied.
+     */
+    private static class Buffer extends ByteArrayOutputStream {
+
+        private Buffer() {
+            super(512);
+        }
+
+        private byte[] bytes() {
+            return buf;
+        }
+
+        private void ensureCapacity(int extra) {
+            if (count + extra > buf.length) {
+                buf = Arrays.copyOf(buf, Math.max(buf.length * 2, count + extra));
+            }
+        }
+
+        @Override
+        public void write(int b) {
+            // Not synchronized like the super method because each buffer is only ever used by one thread.
+            if (count == buf.length) {
+                ensureCapacity(1);
+            }
+            buf[count++] = (byte) b;
+        }
+    }
+}
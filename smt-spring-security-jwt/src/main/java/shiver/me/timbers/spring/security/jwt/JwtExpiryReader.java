@@ -0,0 +1,33 @@
+/*
+ * Copyright 2016 Karl Bennett
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package shiver.me.timbers.spring.security.jwt;
+
+import java.util.Date;
+
+/**
+ * @author Karl Bennett
+ */
+public interface JwtExpiryReader {
+
+    /**
+     * Read the {@code exp} claim from the token without verifying it's signature, so this must only be used on tokens
+     * that have already been verified or for decisions that are safe to make on an unverified token.
+     *
+     * @return the expiry date or {@code null} if the token does not expire.
+     */
+    Date read(String token) throws JwtInvalidTokenException;
+}
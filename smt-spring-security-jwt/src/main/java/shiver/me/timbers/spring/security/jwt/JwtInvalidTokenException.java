@@ -16,16 +16,48 @@
 
 package shiver.me.timbers.spring.security.jwt;
 
+import static shiver.me.timbers.spring.security.jwt.JwtInvalidTokenReason.UNKNOWN;
+
 /**
  * @author Karl Bennett
  */
 public class JwtInvalidTokenException extends RuntimeException {
 
+    private final JwtInvalidTokenReason reason;
+
+    public JwtInvalidTokenException(String message) {
+        this(UNKNOWN, message);
+    }
+
     public JwtInvalidTokenException(Throwable cause) {
-        super(cause);
+        this(UNKNOWN, cause);
     }
 
     public JwtInvalidTokenException(String message, Throwable cause) {
+        this(UNKNOWN, message, cause);
+    }
+
+    public JwtInvalidTokenException(JwtInvalidTokenReason reason, String message) {
+        super(message);
+        this.reason = reason;
+    }
+
+    public JwtInvalidTokenException(JwtInvalidTokenReason reason, Throwable cause) {
+        super(cause);
+        this.reason = reason;
+    }
+
+    public JwtInvalidTokenException(JwtInvalidTokenReason reason, String message, Throwable cause) {
         super(message, cause);
+        this.reason = reason;
+    }
+
+    protected JwtInvalidTokenException(JwtInvalidTokenReason reason, String message, boolean writableStackTrace) {
+        super(message, null, false, writableStackTrace);
+        this.reason = reason;
+    }
+
+    public JwtInvalidTokenReason getReason() {
+        return reason;
     }
 }
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2016 Karl Bennett
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package shiver.me.timbers.spring.security.jwt;
+
+/**
+ * @author Karl Bennett
+ */
+public enum JwtInvalidTokenReason {
+
+    /**
+     * There was no token in the request.
+     */
+    MISSING,
+
+    /**
+     * The token could not be read or wasn't signed with the configured algorithm.
+     */
+    MALFORMED,
+
+    /**
+     * The token signature does not match its content.
+     */
+    SIGNATURE,
+
+    /**
+     * The token has expired.
+     */
+    EXPIRED,
+
+    /**
+     * The token is not valid yet.
+     */
+    PREMATURE,
+
+    /**
+     * The token has been revoked.
+     */
+    REVOKED,
+
+    /**
+     * The token is invalid for some other reason.
+     */
+    UNKNOWN
+}
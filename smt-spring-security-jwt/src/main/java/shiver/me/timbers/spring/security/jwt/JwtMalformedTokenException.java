@@ -0,0 +1,37 @@
+/*
+ * Copyright 2016 Karl Bennett
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package shiver.me.timbers.spring.security.jwt;
+
+import static shiver.me.timbers.spring.security.jwt.JwtInvalidTokenReason.MALFORMED;
+
+/**
+ * Thrown when a token is rejected before any cryptography has been attempted. It doesn't record a stack trace because
+ * these are expected to be thrown often, e.g. for every request that has no token or a junk token, and the cause is
+ * always just the token itself.
+ *
+ * @author Karl Bennett
+ */
+public class JwtMalformedTokenException extends JwtInvalidTokenException {
+
+    public JwtMalformedTokenException(String message) {
+        this(MALFORMED, message);
+    }
+
+    public JwtMalformedTokenException(JwtInvalidTokenReason reason, String message) {
+        super(reason, message, false);
+    }
+}
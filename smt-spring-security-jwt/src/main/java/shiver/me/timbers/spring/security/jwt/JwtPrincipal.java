@@ -43,4 +43,28 @@ public class JwtPrincipal {
     public List<String> getRoles() {
         return roles;
     }
+
+    @Override
+    public boolean equals(Object object) {
+        if (this == object) {
+            return true;
+        }
+        if (object == null || getClass() != object.getClass()) {
+            return false;
+        }
+
+        final JwtPrincipal that = (JwtPrincipal) object;
+
+        if (username != null ? !username.equals(that.username) : that.username != null) {
+            return false;
+        }
+        return roles != null ? roles.equals(that.roles) : that.roles == null;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = username != null ? username.hashCode() : 0;
+        result = 31 * result + (roles != null ? roles.hashCode() : 0);
+        return result;
+    }
 }
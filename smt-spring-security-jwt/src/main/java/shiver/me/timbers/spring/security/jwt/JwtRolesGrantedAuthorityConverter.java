@@ -17,28 +17,43 @@
 package shiver.me.timbers.spring.security.jwt;
 
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import shiver.me.timbers.spring.security.authority.GrantedAuthorityRegistry;
+import shiver.me.timbers.spring.security.authority.InterningGrantedAuthorityRegistry;
 
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 
+import static java.util.Collections.emptyList;
+
 /**
  * @author Karl Bennett
  */
 public class JwtRolesGrantedAuthorityConverter implements RolesGrantedAuthorityConverter {
 
+    static final int DEFAULT_MAXIMUM_SIZE = 1000;
+
+    // Shared so that converters created without a registry still intern their authorities in one place.
+    private static final GrantedAuthorityRegistry DEFAULT_REGISTRY =
+        new InterningGrantedAuthorityRegistry(DEFAULT_MAXIMUM_SIZE);
+
+    private final GrantedAuthorityRegistry authorityRegistry;
+
+    public JwtRolesGrantedAuthorityConverter() {
+        this(DEFAULT_REGISTRY);
+    }
+
+    public JwtRolesGrantedAuthorityConverter(GrantedAuthorityRegistry authorityRegistry) {
+        this.authorityRegistry = authorityRegistry;
+    }
+
     @Override
     public Collection<? extends GrantedAuthority> convert(List<String> roles) {
         if (roles == null) {
-            return new ArrayList<>();
+            return emptyList();
         }
 
-        final List<GrantedAuthority> authorities = new ArrayList<>(roles.size());
-        for (String role : roles) {
-            authorities.add(new SimpleGrantedAuthority(role));
-        }
-        return authorities;
+        return authorityRegistry.authorities(roles);
     }
 
     @Override
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2016 Karl Bennett
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package shiver.me.timbers.spring.security.jwt;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import io.jsonwebtoken.CompressionCodec;
+import io.jsonwebtoken.CompressionException;
+import io.jsonwebtoken.Header;
+import io.jsonwebtoken.impl.TextCodec;
+
+import java.io.IOException;
+
+import static shiver.me.timbers.spring.security.jwt.JwtInvalidTokenReason.MALFORMED;
+
+/**
+ * Reads a single claim straight out of the token payload without verifying it. If a compression codec has been
+ * configured then compressed payloads are inflated with it first.
+ *
+ * @author Karl Bennett
+ */
+abstract class PayloadJwtClaimReader<T> {
+
+    private final JsonFactory jsonFactory;
+    private final CompressionCodec compressionCodec;
+    private final String claim;
+    private final String description;
+
+    PayloadJwtClaimReader(
+        JsonFactory jsonFactory,
+        CompressionCodec compressionCodec,
+        String claim,
+        String description
+    ) {
+        this.jsonFactory = jsonFactory;
+        this.compressionCodec = compressionCodec;
+        this.claim = claim;
+        this.description = description;
+    }
+
+    T readClaim(String token) {
+        final int payloadStart = token.indexOf('.') + 1;
+        final int payloadEnd = token.indexOf('.', payloadStart);
+        if (payloadStart == 0 || payloadEnd < 0) {
+            throw new JwtInvalidTokenException(MALFORMED, "The JWT token does not contain a payload.");
+        }
+
+        try (JsonParser parser = jsonFactory.createParser(payload(token, payloadStart, payloadEnd))) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new JwtInvalidTokenException(MALFORMED, "The JWT token payload is not a JSON object.");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                final String name = parser.getCurrentName();
+                parser.nextToken();
+                if (claim.equals(name)) {
+                    return value(parser);
+                }
+                parser.skipChildren();
+            }
+            return null;
+        } catch (IOException | IllegalArgumentException e) {
+            throw new JwtInvalidTokenException(MALFORMED, "Could not read the JWT token " + description + ".", e);
+        }
+    }
+
+    /**
+     * @return the value of the claim that the parser is currently on.
+     */
+    protected abstract T value(JsonParser parser) throws IOException;
+
+    private byte[] payload(String token, int start, int end) throws IOException {
+        final byte[] payload = TextCodec.BASE64URL.decode(token.substring(start, end));
+        if (compressionCodec == null || !isCompressed(token.substring(0, start - 1))) {
+            return payload;
+        }
+        try {
+            return compressionCodec.decompress(payload);
+        } catch (CompressionException e) {
+            throw new IOException("Could not inflate the JWT token payload.", e);
+        }
+    }
+
+    private boolean isCompressed(String header) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(TextCodec.BASE64URL.decode(header))) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return false;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                final String name = parser.getCurrentName();
+                parser.nextToken();
+                if (JJwtEncryptor.COMPRESSION.equals(name) || Header.COMPRESSION_ALGORITHM.equals(name)) {
+                    return true;
+                }
+                parser.skipChildren();
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2016 Karl Bennett
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package shiver.me.timbers.spring.security.jwt;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import io.jsonwebtoken.CompressionCodec;
+
+import java.io.IOException;
+import java.util.Date;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * Reads the expiry straight out of the token payload without verifying it. If a compression codec has been configured
+ * then compressed payloads are inflated with it first.
+ *
+ * @author Karl Bennett
+ */
+public class PayloadJwtExpiryReader extends PayloadJwtClaimReader<Date> implements JwtExpiryReader {
+
+    private static final String EXPIRATION = "exp";
+
+    public PayloadJwtExpiryReader(JsonFactory jsonFactory) {
+        this(jsonFactory, null);
+    }
+
+    public PayloadJwtExpiryReader(JsonFactory jsonFactory, CompressionCodec compressionCodec) {
+        super(jsonFactory, compressionCodec, EXPIRATION, "expiry");
+    }
+
+    @Override
+    public Date read(String token) {
+        return readClaim(token);
+    }
+
+    @Override
+    protected Date value(JsonParser parser) throws IOException {
+        return new Date(SECONDS.toMillis(parser.getLongValue()));
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright 2016 Karl Bennett
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package shiver.me.timbers.spring.security.jwt;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import io.jsonwebtoken.CompressionCodec;
+
+import java.io.IOException;
+
+/**
+ * Reads the token id straight out of the token payload without verifying it. If a compression codec has been
+ * configured then compressed payloads are inflated with it first.
+ *
+ * @author Karl Bennett
+ */
+public class PayloadJwtIdReader extends PayloadJwtClaimReader<String> implements JwtIdReader {
+
+    private static final String ID = "jti";
+
+    public PayloadJwtIdReader(JsonFactory jsonFactory) {
+        this(jsonFactory, null);
+    }
+
+    public PayloadJwtIdReader(JsonFactory jsonFactory, CompressionCodec compressionCodec) {
+        super(jsonFactory, compressionCodec, ID, "id");
+    }
+
+    @Override
+    public String read(String token) {
+        return readClaim(token);
+    }
+
+    @Override
+    protected String value(JsonParser parser) throws IOException {
+        return parser.getValueAsString();
+    }
+}
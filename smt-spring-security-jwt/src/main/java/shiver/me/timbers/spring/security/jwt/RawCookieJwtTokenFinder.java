@@ -0,0 +1,96 @@
+/*
+ * Copyright 2016 Karl Bennett
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package shiver.me.timbers.spring.security.jwt;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.Enumeration;
+
+/**
+ * Finds the JWT token by scanning the raw {@code Cookie} header instead of asking the servlet container to parse every
+ * cookie in the request into a {@link javax.servlet.http.Cookie}, so only the token value itself is ever copied.
+ *
+ * @author Karl Bennett
+ */
+public class RawCookieJwtTokenFinder implements JwtTokenFinder {
+
+    private static final String COOKIE = "Cookie";
+
+    private final String tokenName;
+
+    public RawCookieJwtTokenFinder(String tokenName) {
+        this.tokenName = tokenName;
+    }
+
+    @Override
+    public String find(HttpServletRequest request) {
+        final Enumeration<String> headers = request.getHeaders(COOKIE);
+        if (headers == null) {
+            return null;
+        }
+        while (headers.hasMoreElements()) {
+            final String token = find(headers.nextElement());
+            if (token != null) {
+                return token;
+            }
+        }
+        return null;
+    }
+
+    private String find(String header) {
+        final int length = header.length();
+        final int nameLength = tokenName.length();
+        int start = 0;
+        while (start < length) {
+            start = skipWhitespace(header, start, length);
+            int end = header.indexOf(';', start);
+            if (end < 0) {
+                end = length;
+            }
+            final int equals = start + nameLength;
+            if (equals < end && header.charAt(equals) == '=' && header.startsWith(tokenName, start)) {
+                return value(header, equals + 1, end);
+            }
+            start = end + 1;
+        }
+        return null;
+    }
+
+    private static String value(String header, int start, int end) {
+        int valueStart = skipWhitespace(header, start, end);
+        int valueEnd = end;
+        while (valueEnd > valueStart && isWhitespace(header.charAt(valueEnd - 1))) {
+            valueEnd--;
+        }
+        if (valueEnd - valueStart >= 2 && header.charAt(valueStart) == '"' && header.charAt(valueEnd - 1) == '"') {
+            valueStart++;
+            valueEnd--;
+        }
+        return header.substring(valueStart, valueEnd);
+    }
+
+    private static int skipWhitespace(String header, int start, int end) {
+        int index = start;
+        while (index < end && isWhitespace(header.charAt(index))) {
+            index++;
+        }
+        return index;
+    }
+
+    private static boolean isWhitespace(char character) {
+        return character == ' ' || character == '\t';
+    }
+}
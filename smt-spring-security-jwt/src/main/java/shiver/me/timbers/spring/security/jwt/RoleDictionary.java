@@ -0,0 +1,68 @@
+/*
+ * Copyright 2016 Karl Bennett
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package shiver.me.timbers.spring.security.jwt;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A versioned list of the known role names so that a role can be written into a token as its index instead of its
+ * name. New roles must only ever be added to the end of the dictionary, any other change must come with a new version
+ * so that tokens written with the old indexes are read with the old dictionary.
+ *
+ * @author Karl Bennett
+ */
+public class RoleDictionary {
+
+    private final int version;
+    private final List<String> roles;
+    private final Map<String, Integer> indexes;
+
+    public RoleDictionary(int version, List<String> roles) {
+        this.version = version;
+        this.roles = new ArrayList<>(roles);
+        this.indexes = new HashMap<>();
+        for (int i = 0; i < roles.size(); i++) {
+            if (indexes.put(roles.get(i), i) != null) {
+                throw new IllegalArgumentException(
+                    "The role dictionary contains the role (" + roles.get(i) + ") twice."
+                );
+            }
+        }
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    public int size() {
+        return roles.size();
+    }
+
+    /**
+     * @return the index of the role or {@code null} if the role is not in the dictionary.
+     */
+    public Integer indexOf(String role) {
+        return indexes.get(role);
+    }
+
+    public String role(int index) {
+        return roles.get(index);
+    }
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2016 Karl Bennett
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package shiver.me.timbers.spring.security.jwt;
+
+import io.jsonwebtoken.impl.TextCodec;
+
+import java.security.SecureRandom;
+
+/**
+ * Generates 128 bit random token ids that are Base64 URL encoded. Each thread has it's own {@link SecureRandom} so
+ * that signing threads don't contend on the lock inside a shared one.
+ *
+ * @author Karl Bennett
+ */
+public class SecureRandomJwtIdGenerator implements JwtIdGenerator {
+
+    private static final int ID_SIZE = 16;
+
+    private final ThreadLocal<SecureRandom> randoms = new ThreadLocal<SecureRandom>() {
+        @Override
+        protected SecureRandom initialValue() {
+            return new SecureRandom();
+        }
+    };
+
+    @Override
+    public String generate() {
+        final byte[] id = new byte[ID_SIZE];
+        randoms.get().nextBytes(id);
+        return TextCodec.BASE64URL.encode(id);
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright 2016 Karl Bennett
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package shiver.me.timbers.spring.security.jwt;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import io.jsonwebtoken.Header;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.impl.TextCodec;
+import shiver.me.timbers.spring.security.time.Clock;
+
+import java.io.IOException;
+import java.util.Date;
+
+import static com.fasterxml.jackson.core.JsonToken.FIELD_NAME;
+import static com.fasterxml.jackson.core.JsonToken.START_OBJECT;
+import static shiver.me.timbers.spring.security.jwt.JwtInvalidTokenReason.EXPIRED;
+import static shiver.me.timbers.spring.security.jwt.JwtInvalidTokenReason.MISSING;
+
+/**
+ * Rejects tokens that could never be verified before any cryptography is attempted. It checks the length of the token,
+ * that it is made up of three Base64 URL segments, that it was signed with the configured algorithm, and that it
+ * hasn't expired. The expiry is only checked for uncompressed tokens, because inflating a payload before its signature
+ * has been verified would make forged tokens expensive to reject. Compressed tokens are left to the decryptor.
+ *
+ * @author Karl Bennett
+ */
+public class StructuralJwtTokenValidator implements JwtTokenValidator {
+
+    private final int maximumLength;
+    private final SignatureAlgorithm algorithm;
+    private final JsonFactory jsonFactory;
+    private final JwtExpiryReader expiryReader;
+    private final Clock clock;
+
+    public StructuralJwtTokenValidator(
+        int maximumLength,
+        SignatureAlgorithm algorithm,
+        JsonFactory jsonFactory,
+        JwtExpiryReader expiryReader,
+        Clock clock
+    ) {
+        this.maximumLength = maximumLength;
+        this.algorithm = algorithm;
+        this.jsonFactory = jsonFactory;
+        this.expiryReader = expiryReader;
+        this.clock = clock;
+    }
+
+    @Override
+    public void validate(String token) {
+        if (token == null || token.isEmpty()) {
+            throw new JwtMalformedTokenException(MISSING, "Could not find a JWT token in the request");
+        }
+        if (token.length() > maximumLength) {
+            throw new JwtMalformedTokenException("The JWT token is longer than the maximum length.");
+        }
+
+        final int headerEnd = checkSegments(token);
+        if (!checkHeader(token.substring(0, headerEnd))) {
+            checkExpiry(token);
+        }
+    }
+
+    private static int checkSegments(String token) {
+        int headerEnd = -1;
+        int payloadEnd = -1;
+        int segmentStart = 0;
+        for (int i = 0; i < token.length(); i++) {
+            final char character = token.charAt(i);
+            if (character == '.') {
+                if (i == segmentStart || payloadEnd >= 0) {
+                    throw new JwtMalformedTokenException("The JWT token must contain three non empty segments.");
+                }
+                if (headerEnd < 0) {
+                    headerEnd = i;
+                } else {
+                    payloadEnd = i;
+                }
+                segmentStart = i + 1;
+                continue;
+            }
+            if (!isBase64Url(character)) {
+                throw new JwtMalformedTokenException("The JWT token contains characters that are not Base64 URL.");
+            }
+        }
+        if (payloadEnd < 0 || segmentStart == token.length()) {
+            throw new JwtMalformedTokenException("The JWT token must contain three non empty segments.");
+        }
+        return headerEnd;
+    }
+
+    private static boolean isBase64Url(char character) {
+        return (character >= 'A' && character <= 'Z') || (character >= 'a' && character <= 'z')
+            || (character >= '0' && character <= '9') || character == '-' || character == '_';
+    }
+
+    /**
+     * @return true if the payload has been compressed.
+     */
+    private boolean checkHeader(String header) {
+        boolean algorithmMatches = false;
+        boolean compressed = false;
+        try (JsonParser parser = jsonFactory.createParser(TextCodec.BASE64URL.decode(header))) {
+            if (parser.nextToken() == START_OBJECT) {
+                while (parser.nextToken() == FIELD_NAME) {
+                    final String name = parser.getCurrentName();
+                    parser.nextToken();
+                    if ("alg".equals(name)) {
+                        algorithmMatches = algorithm.getValue().equals(parser.getValueAsString());
+                    }
+                    if (JJwtEncryptor.COMPRESSION.equals(name) || Header.COMPRESSION_ALGORITHM.equals(name)) {
+                        compressed = true;
+                    }
+                    parser.skipChildren();
+                }
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            throw new JwtMalformedTokenException("Could not read the JWT token header.");
+        }
+        if (!algorithmMatches) {
+            throw new JwtMalformedTokenException("The JWT token algorithm does not match the configured algorithm.");
+        }
+        return compressed;
+    }
+
+    private void checkExpiry(String token) {
+        final Date expiry;
+        try {
+            expiry = expiryReader.read(token);
+        } catch (JwtInvalidTokenException e) {
+            throw new JwtMalformedTokenException(e.getMessage());
+        }
+        if (expiry != null && !clock.now().before(expiry)) {
+            throw new JwtMalformedTokenException(EXPIRED, "The JWT token has expired.");
+        }
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2016 Karl Bennett
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package shiver.me.timbers.spring.security.keys;
+
+import shiver.me.timbers.spring.security.time.Clock;
+import shiver.me.timbers.spring.security.time.DateClock;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A key ring that looks its keys up by id and stops verifying with a retired key once its verify until date has
+ * passed.
+ *
+ * @author Karl Bennett
+ */
+public class ExpiringKeyRing implements KeyRing {
+
+    private final JwtKey signingKey;
+    private final Map<String, JwtKey> keys;
+    private final Clock clock;
+
+    public ExpiringKeyRing(JwtKey signingKey) {
+        this(signingKey, Collections.<JwtKey>emptyList(), new DateClock());
+    }
+
+    public ExpiringKeyRing(JwtKey signingKey, Collection<JwtKey> retiredKeys, Clock clock) {
+        this.signingKey = signingKey;
+        this.keys = new HashMap<>();
+        this.clock = clock;
+        for (JwtKey retiredKey : retiredKeys) {
+            add(retiredKey);
+        }
+        if (signingKey.getId() != null) {
+            add(signingKey);
+        }
+    }
+
+    @Override
+    public JwtKey getSigningKey() {
+        return signingKey;
+    }
+
+    @Override
+    public JwtKey getVerificationKey(String id) {
+        if (id == null) {
+            return signingKey;
+        }
+
+        final JwtKey key = keys.get(id);
+        if (key == null || key.getVerifyUntil() == null) {
+            return key;
+        }
+        return clock.now().before(key.getVerifyUntil()) ? key : null;
+    }
+
+    private void add(JwtKey key) {
+        if (key.getId() == null || keys.put(key.getId(), key) != null) {
+            throw new IllegalArgumentException("Every JWT key must have a unique id, found (" + key.getId() + ").");
+        }
+    }
+}
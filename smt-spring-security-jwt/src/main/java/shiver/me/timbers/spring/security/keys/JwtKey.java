@@ -0,0 +1,55 @@
+/*
+ * Copyright 2016 Karl Bennett
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package shiver.me.timbers.spring.security.keys;
+
+import java.security.KeyPair;
+import java.util.Date;
+
+/**
+ * A key pair along with the id that is put in the {@code kid} header of the tokens it signs. A key with a verify until
+ * date has been retired and will only be used to verify tokens until that date.
+ *
+ * @author Karl Bennett
+ */
+public class JwtKey {
+
+    private final String id;
+    private final KeyPair keyPair;
+    private final Date verifyUntil;
+
+    public JwtKey(String id, KeyPair keyPair) {
+        this(id, keyPair, null);
+    }
+
+    public JwtKey(String id, KeyPair keyPair, Date verifyUntil) {
+        this.id = id;
+        this.keyPair = keyPair;
+        this.verifyUntil = verifyUntil;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public KeyPair getKeyPair() {
+        return keyPair;
+    }
+
+    public Date getVerifyUntil() {
+        return verifyUntil;
+    }
+}
@@ -0,0 +1,35 @@
+/*
+ * Copyright 2016 Karl Bennett
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package shiver.me.timbers.spring.security.keys;
+
+/**
+ * @author Karl Bennett
+ */
+public interface KeyRing {
+
+    /**
+     * The key that all new tokens are signed with.
+     */
+    JwtKey getSigningKey();
+
+    /**
+     * The key for the {@code kid} of a token, a {@code null} id is taken to be a token signed before key ids were used
+     * so the signing key is returned. Returns {@code null} if there is no key with the id or if it can no longer be
+     * used to verify tokens.
+     */
+    JwtKey getVerificationKey(String id);
+}
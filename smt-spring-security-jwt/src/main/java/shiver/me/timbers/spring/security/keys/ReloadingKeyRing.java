@@ -0,0 +1,199 @@
+/*
+ * Copyright 2016 Karl Bennett
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package shiver.me.timbers.spring.security.keys;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import shiver.me.timbers.spring.security.secret.SecretKeeper;
+import shiver.me.timbers.spring.security.time.Clock;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.security.KeyPair;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+
+/**
+ * A key ring that watches the secret file and swaps in a new signing key whenever the secret changes. The previous
+ * signing key is kept to verify tokens for the retired duration so that no one is logged out by the change. Every key
+ * is given an id made from a digest of its public key so that all the servers that read the same file use the same
+ * ids. Verifications only ever read the current key ring so they are never blocked by a reload.
+ *
+ * @author Karl Bennett
+ */
+public class ReloadingKeyRing implements KeyRing, Runnable, Closeable {
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+    private static final int ID_BYTES = 8;
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    private final SecretKeeper secretKeeper;
+    private final KeyParser keyParser;
+    private final Path path;
+    private final Collection<JwtKey> retiredKeys;
+    private final long retiredDuration;
+    private final TimeUnit retiredUnit;
+    private final Clock clock;
+    private final AtomicReference<State> state = new AtomicReference<>();
+    private WatchService watchService;
+
+    public ReloadingKeyRing(
+        SecretKeeper secretKeeper,
+        KeyParser keyParser,
+        Path path,
+        Collection<JwtKey> retiredKeys,
+        long retiredDuration,
+        TimeUnit retiredUnit,
+        Clock clock
+    ) throws IOException {
+        this.secretKeeper = secretKeeper;
+        this.keyParser = keyParser;
+        this.path = path;
+        this.retiredKeys = retiredKeys;
+        this.retiredDuration = retiredDuration;
+        this.retiredUnit = retiredUnit;
+        this.clock = clock;
+        reload();
+    }
+
+    public synchronized void start() throws IOException {
+        if (watchService != null) {
+            return;
+        }
+        watchService = FileSystems.getDefault().newWatchService();
+        path.toAbsolutePath().getParent().register(watchService, ENTRY_CREATE, ENTRY_MODIFY);
+        final Thread thread = new Thread(this, "smt-jwt-secret-watcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Override
+    public JwtKey getSigningKey() {
+        return state.get().keyRing.getSigningKey();
+    }
+
+    @Override
+    public JwtKey getVerificationKey(String id) {
+        return state.get().keyRing.getVerificationKey(id);
+    }
+
+    @Override
+    public void run() {
+        try {
+            while (true) {
+                final WatchKey key = watchService.take();
+                // Any change in the directory is checked because secrets that are mounted into containers are swapped
+                // in with a symbolic link to a new directory instead of being written to.
+                key.pollEvents();
+                tryReload();
+                key.reset();
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            log.debug("Stopped watching the JWT secret file ({}).", path);
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (watchService != null) {
+            watchService.close();
+        }
+    }
+
+    /**
+     * Swap in a new signing key if the secret has changed.
+     */
+    synchronized void reload() throws IOException {
+        final String secret = secretKeeper.getSecret();
+        final State current = state.get();
+        if (current != null && current.secret.equals(secret)) {
+            return;
+        }
+        log.info("Loading a new JWT secret from ({}).", path);
+
+        final JwtKey signingKey = key(keyParser.parse(secret));
+        final List<JwtKey> keys = new ArrayList<>(retiredKeys);
+        if (current != null) {
+            final long now = clock.now().getTime();
+            for (JwtKey reloadedKey : current.reloadedKeys) {
+                if (reloadedKey.getVerifyUntil().getTime() > now && !reloadedKey.getId().equals(signingKey.getId())) {
+                    keys.add(reloadedKey);
+                }
+            }
+            final JwtKey previousKey = current.keyRing.getSigningKey();
+            if (!previousKey.getId().equals(signingKey.getId())) {
+                keys.add(new JwtKey(
+                    previousKey.getId(),
+                    previousKey.getKeyPair(),
+                    clock.nowPlus(retiredDuration, retiredUnit)
+                ));
+            }
+        }
+        final List<JwtKey> reloadedKeys = keys.subList(retiredKeys.size(), keys.size());
+        state.set(new State(secret, new ExpiringKeyRing(signingKey, keys, clock), reloadedKeys));
+    }
+
+    private void tryReload() {
+        try {
+            reload();
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not reload the JWT secret from (" + path + "), the current key will still be used.", e);
+        }
+    }
+
+    private static JwtKey key(KeyPair keyPair) {
+        final byte[] digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256").digest(keyPair.getPublic().getEncoded());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        final char[] id = new char[ID_BYTES * 2];
+        for (int i = 0; i < ID_BYTES; i++) {
+            id[i * 2] = HEX[(digest[i] >> 4) & 0xf];
+            id[i * 2 + 1] = HEX[digest[i] & 0xf];
+        }
+        return new JwtKey(new String(id), keyPair);
+    }
+
+    private static class State {
+
+        private final String secret;
+        private final KeyRing keyRing;
+        private final List<JwtKey> reloadedKeys;
+
+        private State(String secret, KeyRing keyRing, List<JwtKey> reloadedKeys) {
+            this.secret = secret;
+            this.keyRing = keyRing;
+            this.reloadedKeys = reloadedKeys;
+        }
+    }
+}
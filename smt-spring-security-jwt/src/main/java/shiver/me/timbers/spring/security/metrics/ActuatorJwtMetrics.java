@@ -0,0 +1,85 @@
+/*
+ * Copyright 2016 Karl Bennett
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package shiver.me.timbers.spring.security.metrics;
+
+import io.jsonwebtoken.SignatureAlgorithm;
+import org.springframework.boot.actuate.metrics.CounterService;
+import org.springframework.boot.actuate.metrics.GaugeService;
+import shiver.me.timbers.spring.security.JwtTokenLocation;
+import shiver.me.timbers.spring.security.jwt.JwtInvalidTokenReason;
+
+import static java.util.Locale.ENGLISH;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Records the JWT metrics with the Spring Boot Actuator. The latencies are submitted as "timer" gauges so that they
+ * will be recorded as histograms if Dropwizard Metrics is on the classpath.
+ *
+ * @author Karl Bennett
+ */
+public class ActuatorJwtMetrics implements JwtMetrics {
+
+    private static final String PREFIX = "smt.spring.security.jwt.";
+    private static final double NANOS_PER_MILLI = MILLISECONDS.toNanos(1);
+
+    private final CounterService counterService;
+    private final GaugeService gaugeService;
+
+    public ActuatorJwtMetrics(CounterService counterService, GaugeService gaugeService) {
+        this.counterService = counterService;
+        this.gaugeService = gaugeService;
+    }
+
+    @Override
+    public void parsed(SignatureAlgorithm algorithm, long durationNanos) {
+        gaugeService.submit("timer." + PREFIX + "parse." + algorithm.getValue(), millis(durationNanos));
+    }
+
+    @Override
+    public void created(SignatureAlgorithm algorithm, long durationNanos) {
+        gaugeService.submit("timer." + PREFIX + "create." + algorithm.getValue(), millis(durationNanos));
+    }
+
+    @Override
+    public void issued() {
+        counterService.increment("counter." + PREFIX + "issued");
+    }
+
+    @Override
+    public void applied(long durationNanos) {
+        gaugeService.submit("timer." + PREFIX + "apply", millis(durationNanos));
+    }
+
+    @Override
+    public void failed(JwtInvalidTokenReason reason) {
+        counterService.increment("counter." + PREFIX + "failure." + reason.name().toLowerCase(ENGLISH));
+    }
+
+    @Override
+    public void found(JwtTokenLocation location) {
+        counterService.increment("counter." + PREFIX + "source." + location.name().toLowerCase(ENGLISH));
+    }
+
+    @Override
+    public void revocationOverflowed() {
+        counterService.increment("counter." + PREFIX + "revocation.overflow");
+    }
+
+    private static double millis(long durationNanos) {
+        return durationNanos / NANOS_PER_MILLI;
+    }
+}
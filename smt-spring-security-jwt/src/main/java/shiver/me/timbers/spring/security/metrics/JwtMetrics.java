@@ -0,0 +1,41 @@
+/*
+ * Copyright 2016 Karl Bennett
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package shiver.me.timbers.spring.security.metrics;
+
+import io.jsonwebtoken.SignatureAlgorithm;
+import shiver.me.timbers.spring.security.JwtTokenLocation;
+import shiver.me.timbers.spring.security.jwt.JwtInvalidTokenReason;
+
+/**
+ * @author Karl Bennett
+ */
+public interface JwtMetrics {
+
+    void parsed(SignatureAlgorithm algorithm, long durationNanos);
+
+    void created(SignatureAlgorithm algorithm, long durationNanos);
+
+    void issued();
+
+    void applied(long durationNanos);
+
+    void failed(JwtInvalidTokenReason reason);
+
+    void found(JwtTokenLocation location);
+
+    void revocationOverflowed();
+}
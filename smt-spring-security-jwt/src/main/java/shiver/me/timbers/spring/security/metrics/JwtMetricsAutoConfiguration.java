@@ -0,0 +1,46 @@
+/*
+ * Copyright 2016 Karl Bennett
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package shiver.me.timbers.spring.security.metrics;
+
+import org.springframework.boot.actuate.autoconfigure.MetricRepositoryAutoConfiguration;
+import org.springframework.boot.actuate.metrics.CounterService;
+import org.springframework.boot.actuate.metrics.GaugeService;
+import org.springframework.boot.autoconfigure.AutoConfigureAfter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registers the JWT metrics only when the Spring Boot Actuator metric services are available. Without them the JWT
+ * components are left unwrapped so the metrics cost nothing.
+ *
+ * @author Karl Bennett
+ */
+@Configuration
+@ConditionalOnClass({CounterService.class, GaugeService.class})
+@AutoConfigureAfter(MetricRepositoryAutoConfiguration.class)
+public class JwtMetricsAutoConfiguration {
+
+    @Bean
+    @ConditionalOnBean({CounterService.class, GaugeService.class})
+    @ConditionalOnMissingBean(JwtMetrics.class)
+    public JwtMetrics jwtMetrics(CounterService counterService, GaugeService gaugeService) {
+        return new ActuatorJwtMetrics(counterService, gaugeService);
+    }
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2016 Karl Bennett
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package shiver.me.timbers.spring.security.metrics;
+
+import org.springframework.security.core.Authentication;
+import shiver.me.timbers.spring.security.JwtAuthenticationApplier;
+
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * @author Karl Bennett
+ */
+public class MetricsJwtAuthenticationApplier implements JwtAuthenticationApplier {
+
+    private final JwtAuthenticationApplier authenticationApplier;
+    private final JwtMetrics metrics;
+
+    public MetricsJwtAuthenticationApplier(JwtAuthenticationApplier authenticationApplier, JwtMetrics metrics) {
+        this.authenticationApplier = authenticationApplier;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public void apply(Authentication authentication, HttpServletResponse response) {
+        final long start = System.nanoTime();
+        authenticationApplier.apply(authentication, response);
+        metrics.applied(System.nanoTime() - start);
+    }
+}
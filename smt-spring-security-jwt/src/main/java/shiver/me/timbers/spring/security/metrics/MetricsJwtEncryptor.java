@@ -0,0 +1,43 @@
+/*
+ * Copyright 2016 Karl Bennett
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package shiver.me.timbers.spring.security.metrics;
+
+import shiver.me.timbers.spring.security.jwt.JwtEncryptor;
+
+/**
+ * Counts the tokens that are actually signed, so it must wrap the encryptor that signs them and not one that hands out
+ * reused tokens.
+ *
+ * @author Karl Bennett
+ */
+public class MetricsJwtEncryptor implements JwtEncryptor {
+
+    private final JwtEncryptor encryptor;
+    private final JwtMetrics metrics;
+
+    public MetricsJwtEncryptor(JwtEncryptor encryptor, JwtMetrics metrics) {
+        this.encryptor = encryptor;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public String encrypt(Object principal) {
+        final String token = encryptor.encrypt(principal);
+        metrics.issued();
+        return token;
+    }
+}
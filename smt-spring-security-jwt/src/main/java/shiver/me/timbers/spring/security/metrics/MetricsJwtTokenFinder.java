@@ -0,0 +1,47 @@
+/*
+ * Copyright 2016 Karl Bennett
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package shiver.me.timbers.spring.security.metrics;
+
+import shiver.me.timbers.spring.security.JwtTokenLocation;
+import shiver.me.timbers.spring.security.jwt.JwtTokenFinder;
+
+import javax.servlet.http.HttpServletRequest;
+
+/**
+ * @author Karl Bennett
+ */
+public class MetricsJwtTokenFinder implements JwtTokenFinder {
+
+    private final JwtTokenFinder tokenFinder;
+    private final JwtTokenLocation location;
+    private final JwtMetrics metrics;
+
+    public MetricsJwtTokenFinder(JwtTokenFinder tokenFinder, JwtTokenLocation location, JwtMetrics metrics) {
+        this.tokenFinder = tokenFinder;
+        this.location = location;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public String find(HttpServletRequest request) {
+        final String token = tokenFinder.find(request);
+        if (token != null) {
+            metrics.found(location);
+        }
+        return token;
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2016 Karl Bennett
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package shiver.me.timbers.spring.security.metrics;
+
+import io.jsonwebtoken.SignatureAlgorithm;
+import shiver.me.timbers.spring.security.jwt.JwtInvalidTokenException;
+import shiver.me.timbers.spring.security.jwt.JwtTokenParser;
+
+/**
+ * @author Karl Bennett
+ */
+public class MetricsJwtTokenParser<T, R> implements JwtTokenParser<T, R> {
+
+    private final JwtTokenParser<T, R> tokenParser;
+    private final SignatureAlgorithm algorithm;
+    private final JwtMetrics metrics;
+
+    public MetricsJwtTokenParser(JwtTokenParser<T, R> tokenParser, SignatureAlgorithm algorithm, JwtMetrics metrics) {
+        this.tokenParser = tokenParser;
+        this.algorithm = algorithm;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public String create(T principal) {
+        final long start = System.nanoTime();
+        final String token = tokenParser.create(principal);
+        metrics.created(algorithm, System.nanoTime() - start);
+        return token;
+    }
+
+    @Override
+    public T parse(R token) throws JwtInvalidTokenException {
+        final long start = System.nanoTime();
+        try {
+            final T principal = tokenParser.parse(token);
+            metrics.parsed(algorithm, System.nanoTime() - start);
+            return principal;
+        } catch (JwtInvalidTokenException e) {
+            metrics.failed(e.getReason());
+            throw e;
+        }
+    }
+}
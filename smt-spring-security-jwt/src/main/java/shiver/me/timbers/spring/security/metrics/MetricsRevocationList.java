@@ -0,0 +1,62 @@
+/*
+ * Copyright 2016 Karl Bennett
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package shiver.me.timbers.spring.security.metrics;
+
+import shiver.me.timbers.spring.security.revocation.RevocationList;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Date;
+
+/**
+ * Counts the revocations that overflowed a full revocation list so that it can be alerted on before users notice that
+ * they are being logged out early.
+ *
+ * @author Karl Bennett
+ */
+public class MetricsRevocationList implements RevocationList, Closeable {
+
+    private final RevocationList revocationList;
+    private final JwtMetrics metrics;
+
+    public MetricsRevocationList(RevocationList revocationList, JwtMetrics metrics) {
+        this.revocationList = revocationList;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public boolean revoke(String id, Date expiry) {
+        final boolean revoked = revocationList.revoke(id, expiry);
+        if (!revoked) {
+            metrics.revocationOverflowed();
+        }
+        return revoked;
+    }
+
+    @Override
+    public boolean isRevoked(String id, Date expiry) {
+        return revocationList.isRevoked(id, expiry);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (revocationList instanceof Closeable) {
+            ((Closeable) revocationList).close();
+        }
+    }
+}
@@ -0,0 +1,425 @@
+/*
+ * Copyright 2016 Karl Bennett
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package shiver.me.timbers.spring.security.revocation;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import shiver.me.timbers.spring.security.time.Clock;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Date;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.channels.FileChannel.MapMode.READ_WRITE;
+
+/**
+ * A revocation list that is kept in a memory mapped file so that every JVM on the host that maps the same file, and
+ * every restart, sees the same revocations. Revoked ids are put into the bucket that covers their tokens expiry and
+ * each bucket is cleared and reused once all of it's tokens have expired, so the file never grows.
+ * <p>
+ * Each bucket holds a Bloom filter and an exact open addressing table of 128 bit id hashes. Checking an id is a few
+ * probes of the Bloom filter in each live bucket and only ids that the filter might contain are looked up in the
+ * table. Checks never lock, revocations are serialised with a lock on the file.
+ * <p>
+ * Checks read the file with plain loads while it is being written to, so every write is ordered to only ever make a
+ * check more likely to find an id. A slot is filled before the Bloom filter bits for it are set and it's first hash,
+ * which marks it as used, is written last. A bucket is cleared before it is given it's new epoch. So a check that
+ * races a revocation can at worst miss that revocation, or treat a bucket that is being reused as still full, and never
+ * matches a partly written id. Revocations in the same JVM also bump a volatile counter once they have been written
+ * that checks read before looking at the file, so a check sees every revocation in the JVM that finished before it
+ * started, and a check that misses while the counter changed looks again. Revocations from other JVMs are published
+ * by releasing the file lock.
+ * <p>
+ * A bucket that fills up is marked as full and from then on every token that expires within it is treated as revoked,
+ * so a full list logs users out early instead of letting revoked tokens through.
+ * <p>
+ * A new file is only readable and writable by its owner. If the file was created with different settings, like after
+ * the token expiry has been changed, it is replaced with a new empty file so any existing revocations are lost.
+ *
+ * @author Karl Bennett
+ */
+public class MappedBloomRevocationList implements RevocationList, Closeable {
+
+    private static final int MAGIC = 0x4a544952;
+    private static final int VERSION = 1;
+    private static final int HASH_COUNT = 7;
+    private static final int BITS_PER_ID = 10;
+    private static final int HEADER_SIZE = 24;
+    private static final int BUCKET_HEADER_SIZE = 16;
+    private static final int BUCKET_SIZE_OFFSET = 8;
+    private static final int BUCKET_FULL_OFFSET = 12;
+    private static final int SLOT_SIZE = 16;
+    private static final long SEED_1 = 0xcbf29ce484222325L;
+    private static final long SEED_2 = 0x9e3779b97f4a7c15L;
+    // File locks are held by the whole JVM so lists in the same JVM that share a file must also lock each other out.
+    private static final Object LOCK = new Object();
+    private static final int MAXIMUM_OPEN_ATTEMPTS = 10;
+    private static final Object MISSING = new Object();
+    private static final Set<PosixFilePermission> OWNER_ONLY = PosixFilePermissions.fromString("rw-------");
+    // Only ever changed while holding the lock.
+    private static volatile long revisions;
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    private final Path path;
+    private final int bucketCount;
+    private final long bucketMillis;
+    private final int maximumSize;
+    private final Clock clock;
+    private final long bloomBits;
+    private final int slotCount;
+    private final int bucketSize;
+    private final RandomAccessFile file;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+
+    /**
+     * @param maximumLifetime the longest lifetime of any token that will be revoked.
+     * @param bucketCount     the number of buckets the lifetime is split across, there must be at least three.
+     * @param maximumSize     the maximum number of ids that can be revoked in each bucket.
+     */
+    public MappedBloomRevocationList(
+        Path path,
+        long maximumLifetime,
+        TimeUnit unit,
+        int bucketCount,
+        int maximumSize,
+        Clock clock
+    ) throws IOException {
+        if (maximumLifetime <= 0) {
+            throw new IllegalArgumentException("Only tokens that expire can be revoked.");
+        }
+        if (bucketCount < 3) {
+            throw new IllegalArgumentException("There must be at least three revocation buckets.");
+        }
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("The revocation bucket maximum size must be positive.");
+        }
+        this.path = path;
+        this.bucketCount = bucketCount;
+        // Any token that expires within the maximum lifetime must land in a bucket that is not still live for an
+        // earlier time. The current bucket is partly over and the expiry can be rounded into one more bucket, so the
+        // lifetime is spread across all but two of the buckets.
+        final long lifetimeMillis = unit.toMillis(maximumLifetime);
+        this.bucketMillis = (lifetimeMillis + bucketCount - 3) / (bucketCount - 2);
+        this.maximumSize = maximumSize;
+        this.clock = clock;
+        this.bloomBits = ((long) maximumSize * BITS_PER_ID + 63) / 64 * 64;
+        this.slotCount = Integer.highestOneBit(maximumSize) << 2;
+        this.bucketSize = BUCKET_HEADER_SIZE + (int) (bloomBits / 8) + slotCount * SLOT_SIZE;
+
+        final long size = HEADER_SIZE + (long) bucketCount * bucketSize;
+        synchronized (LOCK) {
+            this.file = open(size);
+        }
+        this.channel = file.getChannel();
+        try {
+            this.buffer = channel.map(READ_WRITE, 0, size);
+        } catch (IOException e) {
+            file.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public boolean revoke(String id, Date expiry) {
+        if (expiry == null) {
+            throw new IllegalArgumentException("Only tokens that expire can be revoked.");
+        }
+        final long now = clock.now().getTime();
+        if (expiry.getTime() <= now) {
+            return true;
+        }
+        final long epoch = expiry.getTime() / bucketMillis;
+        if (epoch >= now / bucketMillis + bucketCount) {
+            throw new IllegalArgumentException("The token expires after the longest lifetime that can be revoked.");
+        }
+
+        final long hash1 = hash1(id);
+        final long hash2 = hash(id, SEED_2);
+        final int bucket = bucket(epoch);
+        synchronized (LOCK) {
+            try (FileLock ignored = channel.lock()) {
+                return write(bucket, epoch, hash1, hash2);
+            } catch (IOException e) {
+                throw new IllegalStateException("Could not lock the revocation file (" + path + ").", e);
+            } finally {
+                revisions++;
+            }
+        }
+    }
+
+    @Override
+    public boolean isRevoked(String id, Date expiry) {
+        long revision;
+        do {
+            revision = revisions;
+            if (check(id, expiry)) {
+                return true;
+            }
+        } while (revision != revisions);
+        return false;
+    }
+
+    @Override
+    public void close() throws IOException {
+        file.close();
+    }
+
+    private boolean write(int bucket, long epoch, long hash1, long hash2) {
+        if (buffer.getLong(bucket) < epoch) {
+            clear(bucket, epoch);
+        }
+        if (buffer.getInt(bucket + BUCKET_FULL_OFFSET) != 0) {
+            return false;
+        }
+        final int slot = slot(bucket, hash1, hash2);
+        if (buffer.getLong(slot) != 0) {
+            return true;
+        }
+        final int size = buffer.getInt(bucket + BUCKET_SIZE_OFFSET);
+        if (size >= maximumSize) {
+            buffer.putInt(bucket + BUCKET_FULL_OFFSET, 1);
+            log.error(
+                "The revocation list ({}) is full so every token that expires before {} is now revoked, the maximum " +
+                    "size ({}) must be increased.",
+                path, new Date((epoch + 1) * bucketMillis), maximumSize
+            );
+            return false;
+        }
+        // The id goes into the table before the Bloom filter so that any check that gets past the filter will find it.
+        // The first hash is written last because it is what marks the slot as used.
+        buffer.putLong(slot + 8, hash2);
+        buffer.putLong(slot, hash1);
+        buffer.putInt(bucket + BUCKET_SIZE_OFFSET, size + 1);
+        for (int i = 0; i < HASH_COUNT; i++) {
+            final long bit = bit(hash1, hash2, i);
+            final int index = bloom(bucket) + (int) (bit >>> 6) * 8;
+            buffer.putLong(index, buffer.getLong(index) | (1L << bit));
+        }
+        return true;
+    }
+
+    private boolean check(String id, Date expiry) {
+        final long now = clock.now().getTime() / bucketMillis;
+        if (expiry != null && isFull(now, expiry.getTime() / bucketMillis)) {
+            return true;
+        }
+        long hash1 = 0;
+        long hash2 = 0;
+        for (int i = 0; i < bucketCount; i++) {
+            final int bucket = HEADER_SIZE + i * bucketSize;
+            if (buffer.getLong(bucket) < now) {
+                continue;
+            }
+            if (hash1 == 0) {
+                hash1 = hash1(id);
+                hash2 = hash(id, SEED_2);
+            }
+            if (mightContain(bucket, hash1, hash2) && contains(bucket, hash1, hash2)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Open the revocation file, creating it if it doesn't exist yet. A file that was created with different settings is
+     * replaced with a new one instead of being changed in place because other JVMs might still have it mapped.
+     */
+    private RandomAccessFile open(long size) throws IOException {
+        for (int attempt = 0; attempt < MAXIMUM_OPEN_ATTEMPTS; attempt++) {
+            createFile();
+            final Object fileKey = fileKey();
+            final RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw");
+            boolean opened = false;
+            try (FileLock ignored = file.getChannel().lock()) {
+                // Another JVM might have replaced the file while this one was waiting for the lock.
+                if (fileKey != MISSING && Objects.equals(fileKey, fileKey())) {
+                    opened = prepare(file, size);
+                }
+            } finally {
+                if (!opened) {
+                    file.close();
+                }
+            }
+            if (opened) {
+                return file;
+            }
+        }
+        throw new IllegalStateException("Could not open the revocation file (" + path + ").");
+    }
+
+    private boolean prepare(RandomAccessFile file, long size) throws IOException {
+        final FileChannel channel = file.getChannel();
+        if (channel.size() < HEADER_SIZE) {
+            writeHeader(file, size);
+            return true;
+        }
+        if (hasHeader(channel, size)) {
+            return true;
+        }
+        log.warn("Replacing the revocation file ({}) because it was created with different settings.", path);
+        Files.delete(path);
+        return false;
+    }
+
+    private void createFile() throws IOException {
+        try {
+            if (path.getFileSystem().supportedFileAttributeViews().contains("posix")) {
+                Files.createFile(path, PosixFilePermissions.asFileAttribute(OWNER_ONLY));
+                return;
+            }
+            Files.createFile(path);
+        } catch (FileAlreadyExistsException e) {
+            // The file is already there so it will be shared.
+        }
+    }
+
+    private Object fileKey() throws IOException {
+        try {
+            return Files.readAttributes(path, BasicFileAttributes.class).fileKey();
+        } catch (NoSuchFileException e) {
+            return MISSING;
+        }
+    }
+
+    private void writeHeader(RandomAccessFile file, long size) throws IOException {
+        final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC).putInt(VERSION).putInt(bucketCount).putInt(maximumSize).putLong(bucketMillis).flip();
+        file.setLength(size);
+        file.getChannel().write(header, 0);
+    }
+
+    private boolean hasHeader(FileChannel channel, long size) throws IOException {
+        final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        channel.read(header, 0);
+        header.flip();
+        return header.getInt() == MAGIC && header.getInt() == VERSION && header.getInt() == bucketCount
+            && header.getInt() == maximumSize && header.getLong() == bucketMillis && channel.size() == size;
+    }
+
+    private void clear(int bucket, long epoch) {
+        // Checks skip the bucket until it has it's new epoch so it is cleared first.
+        for (int i = bucket + BUCKET_HEADER_SIZE; i < bucket + bucketSize; i += 8) {
+            buffer.putLong(i, 0);
+        }
+        buffer.putInt(bucket + BUCKET_SIZE_OFFSET, 0);
+        buffer.putInt(bucket + BUCKET_FULL_OFFSET, 0);
+        buffer.putLong(bucket, epoch);
+    }
+
+    /**
+     * @return the slot that already holds the id, or the empty slot it should be put in. The table has at least twice
+     * as many slots as the maximum size so there is always an empty slot.
+     */
+    private int slot(int bucket, long hash1, long hash2) {
+        final int mask = slotCount - 1;
+        for (int slot = (int) hash1 & mask; ; slot = (slot + 1) & mask) {
+            final int index = table(bucket) + slot * SLOT_SIZE;
+            final long existing = buffer.getLong(index);
+            if (existing == 0 || (existing == hash1 && buffer.getLong(index + 8) == hash2)) {
+                return index;
+            }
+        }
+    }
+
+    private boolean isFull(long now, long epoch) {
+        // Expired tokens are never in a live bucket and are rejected before they get here anyway.
+        if (epoch < now) {
+            return false;
+        }
+        final int bucket = bucket(epoch);
+        return buffer.getLong(bucket) == epoch && buffer.getInt(bucket + BUCKET_FULL_OFFSET) != 0;
+    }
+
+    private boolean mightContain(int bucket, long hash1, long hash2) {
+        for (int i = 0; i < HASH_COUNT; i++) {
+            final long bit = bit(hash1, hash2, i);
+            if ((buffer.getLong(bloom(bucket) + (int) (bit >>> 6) * 8) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean contains(int bucket, long hash1, long hash2) {
+        final int mask = slotCount - 1;
+        for (int i = 0, slot = (int) hash1 & mask; i < slotCount; i++, slot = (slot + 1) & mask) {
+            final int index = table(bucket) + slot * SLOT_SIZE;
+            final long existing = buffer.getLong(index);
+            if (existing == 0) {
+                return false;
+            }
+            if (existing == hash1 && buffer.getLong(index + 8) == hash2) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private long bit(long hash1, long hash2, int i) {
+        return ((hash1 + i * hash2) & Long.MAX_VALUE) % bloomBits;
+    }
+
+    private int bucket(long epoch) {
+        return HEADER_SIZE + (int) (epoch % bucketCount) * bucketSize;
+    }
+
+    private static int bloom(int bucket) {
+        return bucket + BUCKET_HEADER_SIZE;
+    }
+
+    private int table(int bucket) {
+        return bloom(bucket) + (int) (bloomBits / 8);
+    }
+
+    private static long hash1(String id) {
+        final long hash = hash(id, SEED_1);
+        // A zero first hash marks an empty table slot.
+        return hash == 0 ? 1 : hash;
+    }
+
+    private static long hash(String id, long seed) {
+        long hash = seed;
+        for (int i = 0; i < id.length(); i++) {
+            hash ^= id.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2016 Karl Bennett
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package shiver.me.timbers.spring.security.revocation;
+
+import shiver.me.timbers.spring.security.jwt.JwtExpiryReader;
+import shiver.me.timbers.spring.security.jwt.JwtIdReader;
+import shiver.me.timbers.spring.security.jwt.JwtMalformedTokenException;
+import shiver.me.timbers.spring.security.jwt.JwtTokenValidator;
+
+import static shiver.me.timbers.spring.security.jwt.JwtInvalidTokenReason.REVOKED;
+
+/**
+ * Rejects tokens that have been revoked. Tokens that don't have an id, like the ones that were signed before revocation
+ * was enabled, can't be revoked so they are always accepted.
+ *
+ * @author Karl Bennett
+ */
+public class RevocationJwtTokenValidator implements JwtTokenValidator {
+
+    private final JwtTokenValidator tokenValidator;
+    private final JwtIdReader idReader;
+    private final JwtExpiryReader expiryReader;
+    private final RevocationList revocationList;
+
+    public RevocationJwtTokenValidator(
+        JwtTokenValidator tokenValidator,
+        JwtIdReader idReader,
+        JwtExpiryReader expiryReader,
+        RevocationList revocationList
+    ) {
+        this.tokenValidator = tokenValidator;
+        this.idReader = idReader;
+        this.expiryReader = expiryReader;
+        this.revocationList = revocationList;
+    }
+
+    @Override
+    public void validate(String token) {
+        tokenValidator.validate(token);
+        final String id = idReader.read(token);
+        if (id != null && revocationList.isRevoked(id, expiryReader.read(token))) {
+            throw new JwtMalformedTokenException(REVOKED, "The JWT token has been revoked.");
+        }
+    }
+}
@@ -0,0 +1,38 @@
+/*
+ * Copyright 2016 Karl Bennett
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package shiver.me.timbers.spring.security.revocation;
+
+import java.util.Date;
+
+/**
+ * @author Karl Bennett
+ */
+public interface RevocationList {
+
+    /**
+     * Revoke the token with the supplied id, it only needs to be remembered until the token expires.
+     *
+     * @return false if the list is full, the token is still revoked but so is every other token that expires around the
+     * same time.
+     */
+    boolean revoke(String id, Date expiry);
+
+    /**
+     * @param expiry the expiry of the token, it is used to reject every token that expires in a full part of the list.
+     */
+    boolean isRevoked(String id, Date expiry);
+}
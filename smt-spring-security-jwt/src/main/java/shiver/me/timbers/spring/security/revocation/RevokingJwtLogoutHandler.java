@@ -0,0 +1,95 @@
+/*
+ * Copyright 2016 Karl Bennett
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package shiver.me.timbers.spring.security.revocation;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.core.Authentication;
+import shiver.me.timbers.spring.security.JwtLogoutHandler;
+import shiver.me.timbers.spring.security.jwt.JwtExpiryReader;
+import shiver.me.timbers.spring.security.jwt.JwtIdReader;
+import shiver.me.timbers.spring.security.jwt.JwtInvalidTokenException;
+import shiver.me.timbers.spring.security.jwt.JwtTokenFinder;
+import shiver.me.timbers.spring.security.jwt.JwtTokenParser;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Revokes the token that was sent with the logout request so that it can't be used again even if it was copied before
+ * the logout. The token is only revoked if it is valid so that junk tokens can't be used to fill up the revocation
+ * list. The logout always goes ahead even if the token couldn't be revoked so that the token is still cleared from the
+ * client.
+ *
+ * @author Karl Bennett
+ */
+public class RevokingJwtLogoutHandler implements JwtLogoutHandler {
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    private final JwtLogoutHandler logoutHandler;
+    private final JwtTokenFinder tokenFinder;
+    private final JwtTokenParser<Authentication, HttpServletRequest> tokenParser;
+    private final JwtIdReader idReader;
+    private final JwtExpiryReader expiryReader;
+    private final RevocationList revocationList;
+
+    public RevokingJwtLogoutHandler(
+        JwtLogoutHandler logoutHandler,
+        JwtTokenFinder tokenFinder,
+        JwtTokenParser<Authentication, HttpServletRequest> tokenParser,
+        JwtIdReader idReader,
+        JwtExpiryReader expiryReader,
+        RevocationList revocationList
+    ) {
+        this.logoutHandler = logoutHandler;
+        this.tokenFinder = tokenFinder;
+        this.tokenParser = tokenParser;
+        this.idReader = idReader;
+        this.expiryReader = expiryReader;
+        this.revocationList = revocationList;
+    }
+
+    @Override
+    public void logout(HttpServletRequest request, HttpServletResponse response, Authentication authentication) {
+        final String token = tokenFinder.find(request);
+        if (token != null && isValid(request)) {
+            final String id = idReader.read(token);
+            if (id != null) {
+                tryRevoke(id, token);
+            }
+        }
+        logoutHandler.logout(request, response, authentication);
+    }
+
+    private void tryRevoke(String id, String token) {
+        try {
+            revocationList.revoke(id, expiryReader.read(token));
+        } catch (RuntimeException e) {
+            log.warn("Could not revoke the JWT token (" + id + "), it will still be usable until it expires.", e);
+        }
+    }
+
+    private boolean isValid(HttpServletRequest request) {
+        try {
+            tokenParser.parse(request);
+            return true;
+        } catch (JwtInvalidTokenException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright 2016 Karl Bennett
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package shiver.me.timbers.spring.security.secret;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * A secret keeper that reads the secret from a file system path every time it is asked for it, so that it always
+ * returns the current contents of the file.
+ *
+ * @author Karl Bennett
+ */
+public class PathSecretKeeper implements SecretKeeper {
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private final Path path;
+
+    public PathSecretKeeper(Path path) {
+        this.path = path;
+    }
+
+    @Override
+    public String getSecret() {
+        try {
+            return new String(Files.readAllBytes(path), UTF_8);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
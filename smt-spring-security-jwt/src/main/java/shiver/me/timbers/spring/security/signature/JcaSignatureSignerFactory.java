@@ -0,0 +1,45 @@
+/*
+ * Copyright 2016 Karl Bennett
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package shiver.me.timbers.spring.security.signature;
+
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.lang.RuntimeEnvironment;
+
+import java.security.Key;
+import java.security.PrivateKey;
+
+/**
+ * @author Karl Bennett
+ */
+public class JcaSignatureSignerFactory implements SignatureSignerFactory {
+
+    public JcaSignatureSignerFactory() {
+        // The RSASSA-PSS algorithms are only supported by Bouncy Castle.
+        RuntimeEnvironment.enableBouncyCastleIfPossible();
+    }
+
+    @Override
+    public SignatureSigner create(SignatureAlgorithm algorithm, Key key) {
+        if (algorithm.isHmac()) {
+            return new MacSignatureSigner(algorithm, key);
+        }
+        if (algorithm.isRsa() || algorithm.isEllipticCurve()) {
+            return new PrivateKeySignatureSigner(algorithm, (PrivateKey) key);
+        }
+        throw new IllegalArgumentException("Unsupported JWT signature algorithm (" + algorithm + ").");
+    }
+}
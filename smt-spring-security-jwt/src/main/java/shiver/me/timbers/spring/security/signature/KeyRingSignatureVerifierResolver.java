@@ -0,0 +1,109 @@
+/*
+ * Copyright 2016 Karl Bennett
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package shiver.me.timbers.spring.security.signature;
+
+import io.jsonwebtoken.SignatureAlgorithm;
+import shiver.me.timbers.spring.security.keys.JwtKey;
+import shiver.me.timbers.spring.security.keys.KeyRing;
+
+import java.security.KeyPair;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A resolver that finds the key for a {@code kid} in a key ring and only builds the verifier for each key once. The
+ * verifiers are cached by key id and any that are no longer in the key ring are dropped whenever a new verifier is
+ * built, so a reloading key ring doesn't leave a verifier behind for every key it has ever held.
+ *
+ * @author Karl Bennett
+ */
+public class KeyRingSignatureVerifierResolver implements SignatureVerifierResolver {
+
+    private static final String NO_ID = "\u0000";
+
+    private final SignatureAlgorithm algorithm;
+    private final KeyRing keyRing;
+    private final SignatureVerifierFactory verifierFactory;
+    private final ConcurrentMap<String, CachedVerifier> verifiers = new ConcurrentHashMap<>();
+
+    public KeyRingSignatureVerifierResolver(
+        SignatureAlgorithm algorithm,
+        KeyRing keyRing,
+        SignatureVerifierFactory verifierFactory
+    ) {
+        this.algorithm = algorithm;
+        this.keyRing = keyRing;
+        this.verifierFactory = verifierFactory;
+    }
+
+    @Override
+    public SignatureVerifier resolve(String keyId) {
+        final JwtKey key = keyRing.getVerificationKey(keyId);
+        if (key == null) {
+            return null;
+        }
+
+        final String cacheId = cacheId(key.getId());
+        final CachedVerifier verifier = verifiers.get(cacheId);
+        if (verifier != null && verifier.keyPair == key.getKeyPair()) {
+            return verifier.verifier;
+        }
+
+        final CachedVerifier newVerifier = new CachedVerifier(
+            key.getKeyPair(),
+            verifierFactory.create(algorithm, key.getKeyPair().getPublic())
+        );
+        verifiers.put(cacheId, newVerifier);
+        removeRetiredVerifiers();
+        return newVerifier.verifier;
+    }
+
+    int size() {
+        return verifiers.size();
+    }
+
+    private void removeRetiredVerifiers() {
+        for (Map.Entry<String, CachedVerifier> entry : verifiers.entrySet()) {
+            final JwtKey key = keyRing.getVerificationKey(keyId(entry.getKey()));
+            if (key == null || key.getKeyPair() != entry.getValue().keyPair) {
+                verifiers.remove(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    // The concurrent map can't hold a null key so the signing key of a key ring that doesn't use ids is cached under
+    // an id that can't be used by any other key.
+    private static String cacheId(String keyId) {
+        return keyId == null ? NO_ID : keyId;
+    }
+
+    private static String keyId(String cacheId) {
+        return NO_ID.equals(cacheId) ? null : cacheId;
+    }
+
+    private static class CachedVerifier {
+
+        private final KeyPair keyPair;
+        private final SignatureVerifier verifier;
+
+        private CachedVerifier(KeyPair keyPair, SignatureVerifier verifier) {
+            this.keyPair = keyPair;
+            this.verifier = verifier;
+        }
+    }
+}
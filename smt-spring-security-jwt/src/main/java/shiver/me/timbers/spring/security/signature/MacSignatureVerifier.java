@@ -0,0 +1,72 @@
+/*
+ * Copyright 2016 Karl Bennett
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package shiver.me.timbers.spring.security.signature;
+
+import io.jsonwebtoken.SignatureAlgorithm;
+
+import javax.crypto.Mac;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.MessageDigest;
+import java.security.Provider;
+
+/**
+ * A HMAC verifier that looks up it's provider once and then keeps an initialised {@link Mac} per thread so that the
+ * JCA provider registry is never searched while verifying a token.
+ *
+ * @author Karl Bennett
+ */
+public class MacSignatureVerifier implements SignatureVerifier {
+
+    private final ThreadLocal<Mac> macs;
+
+    public MacSignatureVerifier(SignatureAlgorithm algorithm, final Key key) {
+        final String name = algorithm.getJcaName();
+        final Provider provider = newMac(name, key).getProvider();
+        this.macs = new ThreadLocal<Mac>() {
+            @Override
+            protected Mac initialValue() {
+                return newMac(name, provider, key);
+            }
+        };
+    }
+
+    @Override
+    public boolean verify(byte[] data, byte[] signature) {
+        return MessageDigest.isEqual(macs.get().doFinal(data), signature);
+    }
+
+    private static Mac newMac(String name, Key key) {
+        try {
+            final Mac mac = Mac.getInstance(name);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalArgumentException("Could not create a HMAC verifier for the algorithm (" + name + ").", e);
+        }
+    }
+
+    private static Mac newMac(String name, Provider provider, Key key) {
+        try {
+            final Mac mac = Mac.getInstance(name, provider);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
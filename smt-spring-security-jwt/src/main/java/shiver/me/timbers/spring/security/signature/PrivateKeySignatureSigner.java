@@ -0,0 +1,98 @@
+/*
+ * Copyright 2016 Karl Bennett
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package shiver.me.timbers.spring.security.signature;
+
+import io.jsonwebtoken.SignatureAlgorithm;
+
+import java.security.GeneralSecurityException;
+import java.security.PrivateKey;
+import java.security.Provider;
+import java.security.Signature;
+import java.security.SignatureException;
+import java.security.spec.MGF1ParameterSpec;
+import java.security.spec.PSSParameterSpec;
+
+import static io.jsonwebtoken.SignatureAlgorithm.PS256;
+import static io.jsonwebtoken.SignatureAlgorithm.PS384;
+import static io.jsonwebtoken.SignatureAlgorithm.PS512;
+
+/**
+ * A RSA and ECDSA signer that keeps a {@link Signature} per thread that has already been initialised for signing, the
+ * same as the {@link PublicKeySignatureVerifier}. ECDSA signatures are left DER encoded the same as JJWT 0.6 does.
+ *
+ * @author Karl Bennett
+ */
+public class PrivateKeySignatureSigner implements SignatureSigner {
+
+    private final ThreadLocal<Signature> signatures;
+
+    public PrivateKeySignatureSigner(SignatureAlgorithm algorithm, final PrivateKey key) {
+        final String name = algorithm.getJcaName();
+        final PSSParameterSpec parameters = pssParameters(algorithm);
+        final Provider provider = newSignature(name, null, parameters, key).getProvider();
+        this.signatures = new ThreadLocal<Signature>() {
+            @Override
+            protected Signature initialValue() {
+                return newSignature(name, provider, parameters, key);
+            }
+        };
+    }
+
+    @Override
+    public byte[] sign(byte[] data, int offset, int length) {
+        final Signature signer = signatures.get();
+        try {
+            signer.update(data, offset, length);
+            return signer.sign();
+        } catch (SignatureException e) {
+            signatures.remove();
+            throw new IllegalStateException("Could not sign the JWT token.", e);
+        }
+    }
+
+    private static Signature newSignature(
+        String name,
+        Provider provider,
+        PSSParameterSpec parameters,
+        PrivateKey key
+    ) {
+        try {
+            final Signature signature = provider == null ? Signature.getInstance(name) :
+                Signature.getInstance(name, provider);
+            if (parameters != null) {
+                signature.setParameter(parameters);
+            }
+            signature.initSign(key);
+            return signature;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalArgumentException("Could not create a signer for the algorithm (" + name + ").", e);
+        }
+    }
+
+    private static PSSParameterSpec pssParameters(SignatureAlgorithm algorithm) {
+        if (PS256.equals(algorithm)) {
+            return new PSSParameterSpec("SHA-256", "MGF1", MGF1ParameterSpec.SHA256, 32, 1);
+        }
+        if (PS384.equals(algorithm)) {
+            return new PSSParameterSpec("SHA-384", "MGF1", MGF1ParameterSpec.SHA384, 48, 1);
+        }
+        if (PS512.equals(algorithm)) {
+            return new PSSParameterSpec("SHA-512", "MGF1", MGF1ParameterSpec.SHA512, 64, 1);
+        }
+        return null;
+    }
+}
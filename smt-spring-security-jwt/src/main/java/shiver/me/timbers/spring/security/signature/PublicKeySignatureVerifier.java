@@ -0,0 +1,100 @@
+/*
+ * Copyright 2016 Karl Bennett
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package shiver.me.timbers.spring.security.signature;
+
+import io.jsonwebtoken.SignatureAlgorithm;
+
+import java.security.GeneralSecurityException;
+import java.security.Provider;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.security.SignatureException;
+import java.security.spec.MGF1ParameterSpec;
+import java.security.spec.PSSParameterSpec;
+
+import static io.jsonwebtoken.SignatureAlgorithm.PS256;
+import static io.jsonwebtoken.SignatureAlgorithm.PS384;
+import static io.jsonwebtoken.SignatureAlgorithm.PS512;
+
+/**
+ * A RSA and ECDSA verifier that looks up it's provider once and then keeps a {@link Signature} per thread that has
+ * already been initialised for verification, so that the JCA provider registry is never searched while verifying a
+ * token.
+ *
+ * @author Karl Bennett
+ */
+public class PublicKeySignatureVerifier implements SignatureVerifier {
+
+    private final ThreadLocal<Signature> signatures;
+
+    public PublicKeySignatureVerifier(SignatureAlgorithm algorithm, final PublicKey key) {
+        final String name = algorithm.getJcaName();
+        final PSSParameterSpec parameters = pssParameters(algorithm);
+        final Provider provider = newSignature(name, null, parameters, key).getProvider();
+        this.signatures = new ThreadLocal<Signature>() {
+            @Override
+            protected Signature initialValue() {
+                return newSignature(name, provider, parameters, key);
+            }
+        };
+    }
+
+    @Override
+    public boolean verify(byte[] data, byte[] signature) {
+        final Signature verifier = signatures.get();
+        try {
+            verifier.update(data);
+            return verifier.verify(signature);
+        } catch (SignatureException e) {
+            // The signature could not be decoded so we can't trust the verifier to have been reset.
+            signatures.remove();
+            return false;
+        }
+    }
+
+    private static Signature newSignature(
+        String name,
+        Provider provider,
+        PSSParameterSpec parameters,
+        PublicKey key
+    ) {
+        try {
+            final Signature signature = provider == null ? Signature.getInstance(name) :
+                Signature.getInstance(name, provider);
+            if (parameters != null) {
+                signature.setParameter(parameters);
+            }
+            signature.initVerify(key);
+            return signature;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalArgumentException("Could not create a signature verifier for the algorithm (" + name + ").", e);
+        }
+    }
+
+    private static PSSParameterSpec pssParameters(SignatureAlgorithm algorithm) {
+        if (PS256.equals(algorithm)) {
+            return new PSSParameterSpec("SHA-256", "MGF1", MGF1ParameterSpec.SHA256, 32, 1);
+        }
+        if (PS384.equals(algorithm)) {
+            return new PSSParameterSpec("SHA-384", "MGF1", MGF1ParameterSpec.SHA384, 48, 1);
+        }
+        if (PS512.equals(algorithm)) {
+            return new PSSParameterSpec("SHA-512", "MGF1", MGF1ParameterSpec.SHA512, 64, 1);
+        }
+        return null;
+    }
+}
@@ -24,5 +24,7 @@ import java.util.concurrent.TimeUnit;
  */
 public interface Clock {
 
+    Date now();
+
     Date nowPlus(long duration, TimeUnit unit);
 }
@@ -24,8 +24,13 @@ import java.util.concurrent.TimeUnit;
  */
 public class DateClock implements Clock {
 
+    @Override
+    public Date now() {
+        return new Date();
+    }
+
     @Override
     public Date nowPlus(long duration, TimeUnit unit) {
-        return new Date(new Date().getTime() + unit.toMicros(duration));
+        return new Date(new Date().getTime() + unit.toMillis(duration));
     }
 }
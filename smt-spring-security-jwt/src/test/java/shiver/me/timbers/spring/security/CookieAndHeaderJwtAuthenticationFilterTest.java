@@ -38,13 +38,16 @@ import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyZeroInteractions;
+import static shiver.me.timbers.data.random.RandomStrings.someString;
 import static shiver.me.timbers.spring.security.CookieAndHeaderJwtAuthenticationFilter.FILTER_APPLIED;
+import static shiver.me.timbers.spring.security.jwt.AuthenticationRequestJwtTokenParser.TOKEN_ATTRIBUTE;
 
 public class CookieAndHeaderJwtAuthenticationFilterTest {
 
     private JwtTokenParser<Authentication, HttpServletRequest> tokenParser;
     private SecurityContextHolder securityContextHolder;
     private JwtAuthenticationApplier authenticationApplier;
+    private JwtRefreshPolicy refreshPolicy;
     private CookieAndHeaderJwtAuthenticationFilter filter;
 
     @Before
@@ -53,7 +56,13 @@ public class CookieAndHeaderJwtAuthenticationFilterTest {
         tokenParser = mock(JwtTokenParser.class);
         securityContextHolder = mock(SecurityContextHolder.class);
         authenticationApplier = mock(JwtAuthenticationApplier.class);
-        filter = new CookieAndHeaderJwtAuthenticationFilter(tokenParser, securityContextHolder, authenticationApplier);
+        refreshPolicy = mock(JwtRefreshPolicy.class);
+        filter = new CookieAndHeaderJwtAuthenticationFilter(
+            tokenParser,
+            securityContextHolder,
+            authenticationApplier,
+            refreshPolicy
+        );
     }
 
     @Test
@@ -65,10 +74,13 @@ public class CookieAndHeaderJwtAuthenticationFilterTest {
 
         final Authentication authentication = mock(Authentication.class);
         final SecurityContext securityContext = mock(SecurityContext.class);
+        final String token = someString();
 
         // Given
         given(tokenParser.parse(request)).willReturn(authentication);
         given(securityContextHolder.getContext()).willReturn(securityContext);
+        given(request.getAttribute(TOKEN_ATTRIBUTE)).willReturn(token);
+        given(refreshPolicy.shouldRefresh(token)).willReturn(true);
 
         // When
         filter.doFilter(request, response, chain);
@@ -81,6 +93,35 @@ public class CookieAndHeaderJwtAuthenticationFilterTest {
         order.verify(chain).doFilter(request, response);
     }
 
+    @Test
+    public void Can_authenticate_a_request_without_refreshing_the_token()
+        throws IOException, ServletException, JwtInvalidTokenException {
+
+        final HttpServletRequest request = mock(HttpServletRequest.class);
+        final HttpServletResponse response = mock(HttpServletResponse.class);
+        final FilterChain chain = mock(FilterChain.class);
+
+        final Authentication authentication = mock(Authentication.class);
+        final SecurityContext securityContext = mock(SecurityContext.class);
+        final String token = someString();
+
+        // Given
+        given(tokenParser.parse(request)).willReturn(authentication);
+        given(securityContextHolder.getContext()).willReturn(securityContext);
+        given(request.getAttribute(TOKEN_ATTRIBUTE)).willReturn(token);
+        given(refreshPolicy.shouldRefresh(token)).willReturn(false);
+
+        // When
+        filter.doFilter(request, response, chain);
+
+        // Then
+        final InOrder order = inOrder(securityContext, request, chain);
+        order.verify(securityContext).setAuthentication(authentication);
+        order.verify(request).setAttribute(FILTER_APPLIED, TRUE);
+        order.verify(chain).doFilter(request, response);
+        verifyZeroInteractions(authenticationApplier);
+    }
+
     @Test
     public void Can_only_authenticate_a_request_once() throws IOException, ServletException, JwtInvalidTokenException {
 
@@ -96,7 +137,7 @@ public class CookieAndHeaderJwtAuthenticationFilterTest {
 
         // Then
         verify(chain).doFilter(request, response);
-        verifyZeroInteractions(tokenParser, securityContextHolder, authenticationApplier);
+        verifyZeroInteractions(tokenParser, securityContextHolder, authenticationApplier, refreshPolicy);
     }
 
     @Test
@@ -116,7 +157,7 @@ public class CookieAndHeaderJwtAuthenticationFilterTest {
         filter.doFilter(request, response, chain);
 
         // Then
-        verifyZeroInteractions(securityContext, authenticationApplier);
+        verifyZeroInteractions(securityContext, authenticationApplier, refreshPolicy);
         verify(chain).doFilter(request, response);
     }
 }
\ No newline at end of file
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2016 Karl Bennett
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package shiver.me.timbers.spring.security;
+
+import org.junit.Before;
+import org.junit.Test;
+import shiver.me.timbers.spring.security.jwt.JwtExpiryReader;
+import shiver.me.timbers.spring.security.time.Clock;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static shiver.me.timbers.data.random.RandomEnums.someEnum;
+import static shiver.me.timbers.data.random.RandomLongs.somePositiveLong;
+import static shiver.me.timbers.data.random.RandomStrings.someString;
+import static shiver.me.timbers.spring.security.JwtRefreshMode.ALWAYS;
+import static shiver.me.timbers.spring.security.JwtRefreshMode.NEVER;
+import static shiver.me.timbers.spring.security.JwtRefreshMode.WINDOW;
+
+public class ExpiryWindowJwtRefreshPolicyTest {
+
+    private JwtExpiryReader expiryReader;
+    private Clock clock;
+    private long windowDuration;
+    private TimeUnit windowUnit;
+
+    @Before
+    public void setUp() {
+        expiryReader = mock(JwtExpiryReader.class);
+        clock = mock(Clock.class);
+        windowDuration = somePositiveLong();
+        windowUnit = someEnum(TimeUnit.class);
+    }
+
+    @Test
+    public void Can_always_refresh_a_token() {
+
+        // When
+        final boolean actual = policy(ALWAYS).shouldRefresh(someString());
+
+        // Then
+        verifyZeroInteractions(expiryReader, clock);
+        assertThat(actual, is(true));
+    }
+
+    @Test
+    public void Can_never_refresh_a_token() {
+
+        // When
+        final boolean actual = policy(NEVER).shouldRefresh(someString());
+
+        // Then
+        verifyZeroInteractions(expiryReader, clock);
+        assertThat(actual, is(false));
+    }
+
+    @Test
+    public void Can_refresh_a_token_that_is_inside_the_expiry_window() {
+
+        final String token = someString();
+
+        // Given
+        given(expiryReader.read(token)).willReturn(new Date(1000L));
+        given(clock.nowPlus(windowDuration, windowUnit)).willReturn(new Date(1001L));
+
+        // When
+        final boolean actual = policy(WINDOW).shouldRefresh(token);
+
+        // Then
+        assertThat(actual, is(true));
+    }
+
+    @Test
+    public void Can_not_refresh_a_token_that_is_outside_the_expiry_window() {
+
+        final String token = someString();
+
+        // Given
+        given(expiryReader.read(token)).willReturn(new Date(1000L));
+        given(clock.nowPlus(windowDuration, windowUnit)).willReturn(new Date(999L));
+
+        // When
+        final boolean actual = policy(WINDOW).shouldRefresh(token);
+
+        // Then
+        assertThat(actual, is(false));
+    }
+
+    @Test
+    public void Can_not_refresh_a_token_that_never_expires() {
+
+        final String token = someString();
+
+        // Given
+        given(expiryReader.read(token)).willReturn(null);
+
+        // When
+        final boolean actual = policy(WINDOW).shouldRefresh(token);
+
+        // Then
+        verifyZeroInteractions(clock);
+        assertThat(actual, is(false));
+    }
+
+    @Test
+    public void Can_refresh_a_request_that_has_no_known_token() {
+
+        // When
+        final boolean actual = policy(WINDOW).shouldRefresh(null);
+
+        // Then
+        verifyZeroInteractions(expiryReader, clock);
+        assertThat(actual, is(true));
+    }
+
+    private JwtRefreshPolicy policy(JwtRefreshMode mode) {
+        return new ExpiryWindowJwtRefreshPolicy(mode, expiryReader, clock, windowDuration, windowUnit);
+    }
+}
@@ -0,0 +1,201 @@
+/*
+ * Copyright 2016 Karl Bennett
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package shiver.me.timbers.spring.security;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.factory.BeanCreationException;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationContextAware;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.MapPropertySource;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static java.util.Collections.singletonMap;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static shiver.me.timbers.spring.security.JwtSpringSecurityAdaptor.jwt;
+
+public class JwtSpringSecurityAdaptorTest {
+
+    private AnnotationConfigApplicationContext parent;
+
+    @Before
+    public void setUp() {
+        parent = parent();
+    }
+
+    @After
+    public void tearDown() {
+        parent.close();
+    }
+
+    @Test
+    public void Can_share_the_jwt_context_between_adaptors() {
+
+        // When
+        final ApplicationContext actual = jwt().jwtContext(parent);
+
+        // Then
+        assertThat(actual.getParent(), sameInstance((ApplicationContext) parent));
+        assertThat(jwt().jwtContext(parent), sameInstance(actual));
+    }
+
+    @Test
+    public void Can_close_the_jwt_context_with_its_parent() {
+
+        // Given
+        final ConfigurableApplicationContext context = (ConfigurableApplicationContext) jwt().jwtContext(parent);
+
+        // When
+        parent.close();
+
+        // Then
+        assertThat(context.isActive(), is(false));
+    }
+
+    @Test
+    public void Can_create_a_new_jwt_context_for_each_parent() {
+
+        final AnnotationConfigApplicationContext otherParent = parent();
+
+        // Given
+        final ApplicationContext context = jwt().jwtContext(parent);
+
+        // When
+        final ApplicationContext actual = jwt().jwtContext(otherParent);
+
+        // Then
+        assertThat(actual, not(sameInstance(context)));
+        assertThat(actual.getParent(), sameInstance((ApplicationContext) otherParent));
+        otherParent.close();
+    }
+
+    @Test
+    public void Can_keep_the_jwt_context_open_when_a_child_context_is_closed() {
+
+        final AnnotationConfigApplicationContext child = new AnnotationConfigApplicationContext();
+        child.setParent(parent);
+        child.refresh();
+
+        // Given
+        final ConfigurableApplicationContext context = (ConfigurableApplicationContext) jwt().jwtContext(parent);
+
+        // When
+        child.close();
+
+        // Then
+        assertThat(context.isActive(), is(true));
+        assertThat(jwt().jwtContext(parent), sameInstance((ApplicationContext) context));
+    }
+
+    @Test
+    public void Can_create_a_new_jwt_context_for_each_adaptor_type() {
+
+        // Given
+        final ApplicationContext context = jwt().jwtContext(parent);
+
+        // When
+        final ApplicationContext actual = new CustomJwtSpringSecurityAdaptor().jwtContext(parent);
+
+        // Then
+        assertThat(actual, not(sameInstance(context)));
+        assertThat(new CustomJwtSpringSecurityAdaptor().jwtContext(parent), sameInstance(actual));
+    }
+
+    @Test
+    public void Can_close_the_jwt_context_of_a_parent_that_failed_to_refresh() {
+
+        final AtomicReference<ApplicationContext> context = new AtomicReference<>();
+        final AnnotationConfigApplicationContext failed = new AnnotationConfigApplicationContext();
+        failed.getEnvironment().getPropertySources().addFirst(properties());
+        final RootBeanDefinition applyJwt = new RootBeanDefinition(ApplyJwt.class);
+        applyJwt.getConstructorArgumentValues().addGenericArgumentValue(context);
+        failed.registerBeanDefinition("applyJwt", applyJwt);
+        failed.registerBeanDefinition("failToStart", new RootBeanDefinition(FailToStart.class));
+
+        // When
+        try {
+            failed.refresh();
+        } catch (BeanCreationException e) {
+            // The parent has now stopped without publishing a closed event.
+        }
+
+        // Then
+        assertThat(((ConfigurableApplicationContext) context.get()).isActive(), is(false));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void Cannot_create_a_jwt_context_if_jwt_authentication_has_already_been_enabled() {
+
+        final AnnotationConfigApplicationContext enabled = new AnnotationConfigApplicationContext();
+        // This is the name the bean is given when it is imported by the @EnableJwtAuthentication annotation.
+        enabled.registerBeanDefinition(
+            JwtSpringSecurityConfiguration.class.getName(),
+            new RootBeanDefinition(JwtSpringSecurityConfiguration.class)
+        );
+
+        // When
+        try {
+            jwt().jwtContext(enabled);
+        } finally {
+            enabled.close();
+        }
+    }
+
+    private static AnnotationConfigApplicationContext parent() {
+        final AnnotationConfigApplicationContext parent = new AnnotationConfigApplicationContext();
+        parent.getEnvironment().getPropertySources().addFirst(properties());
+        parent.refresh();
+        return parent;
+    }
+
+    private static MapPropertySource properties() {
+        return new MapPropertySource("test", singletonMap("smt.spring.security.jwt.secret", (Object) "test-secret"));
+    }
+
+    @Configuration
+    public static class CustomJwtSpringSecurityAdaptor extends JwtSpringSecurityAdaptor {
+    }
+
+    private static class ApplyJwt implements ApplicationContextAware {
+
+        private final AtomicReference<ApplicationContext> context;
+
+        private ApplyJwt(AtomicReference<ApplicationContext> context) {
+            this.context = context;
+        }
+
+        @Override
+        public void setApplicationContext(ApplicationContext applicationContext) {
+            context.set(jwt().jwtContext(applicationContext));
+        }
+    }
+
+    private static class FailToStart {
+        private FailToStart() {
+            throw new IllegalStateException("Failed to start.");
+        }
+    }
+}
@@ -0,0 +1,208 @@
+/*
+ * Copyright 2016 Karl Bennett
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package shiver.me.timbers.spring.security.cache;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import shiver.me.timbers.spring.security.time.Clock;
+
+import java.util.Date;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static shiver.me.timbers.data.random.RandomIntegers.someIntegerBetween;
+import static shiver.me.timbers.data.random.RandomStrings.someString;
+
+public class ConcurrentExpiringCacheTest {
+
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+
+    private Clock clock;
+    private int maximumSize;
+    private ConcurrentExpiringCache<String, Object> cache;
+
+    @Before
+    public void setUp() {
+        clock = mock(Clock.class);
+        maximumSize = someIntegerBetween(2, 10);
+        cache = new ConcurrentExpiringCache<>(maximumSize, clock);
+    }
+
+    @Test
+    public void Can_get_a_cached_value() {
+
+        final String key = someString();
+        final Object expected = new Object();
+
+        // Given
+        given(clock.now()).willReturn(new Date(1000L));
+        cache.put(key, expected, new Date(2000L));
+
+        // When
+        final Object actual = cache.get(key);
+
+        // Then
+        assertThat(actual, is(expected));
+    }
+
+    @Test
+    public void Can_get_a_cached_value_that_never_expires() {
+
+        final String key = someString();
+        final Object expected = new Object();
+
+        // Given
+        given(clock.now()).willReturn(new Date(Long.MAX_VALUE - 1));
+        cache.put(key, expected, null);
+
+        // When
+        final Object actual = cache.get(key);
+
+        // Then
+        assertThat(actual, is(expected));
+    }
+
+    @Test
+    public void Can_fail_to_get_a_value_that_has_not_been_cached() {
+
+        // When
+        final Object actual = cache.get(someString());
+
+        // Then
+        assertThat(actual, nullValue());
+    }
+
+    @Test
+    public void Can_fail_to_get_an_expired_value() {
+
+        final String key = someString();
+
+        // Given
+        given(clock.now()).willReturn(new Date(2000L));
+        cache.put(key, new Object(), new Date(2000L));
+
+        // When
+        final Object actual = cache.get(key);
+
+        // Then
+        assertThat(actual, nullValue());
+        assertThat(cache.size(), is(0));
+    }
+
+    @Test
+    public void Can_keep_a_value_that_replaced_an_expired_value_while_it_was_being_read() {
+
+        final String key = someString();
+        final Object expected = new Object();
+
+        // Given
+        given(clock.now()).willReturn(new Date(2000L));
+        cache.put(key, new Object(), new Date(2000L));
+        given(clock.now()).will(new Answer<Date>() {
+            @Override
+            public Date answer(InvocationOnMock invocation) {
+                cache.put(key, expected, null);
+                return new Date(2000L);
+            }
+        });
+
+        // When
+        final Object actual = cache.get(key);
+
+        // Then
+        assertThat(actual, nullValue());
+        assertThat(cache.get(key), is(expected));
+    }
+
+    @Test
+    public void Can_evict_the_least_recently_used_value_when_full() {
+
+        final String usedKey = someString();
+        final String unusedKey = someString();
+        final Object expected = new Object();
+
+        // Given
+        given(clock.now()).willReturn(new Date(1000L));
+        cache.put(usedKey, expected, null);
+        cache.put(unusedKey, new Object(), null);
+        for (int i = 2; i < maximumSize; i++) {
+            cache.put(someString() + i, new Object(), null);
+        }
+        cache.get(usedKey);
+
+        // When
+        cache.put(someString(), new Object(), null);
+
+        // Then
+        assertThat(cache.get(usedKey), is(expected));
+        assertThat(cache.get(unusedKey), nullValue());
+        assertThat(cache.size(), is(maximumSize));
+    }
+
+    @Test
+    public void Can_evict_live_values_when_full() {
+
+        // Given
+        given(clock.now()).willReturn(new Date(1000L));
+        for (int i = 0; i < maximumSize; i++) {
+            cache.put(someString() + i, new Object(), null);
+        }
+        final String key = someString();
+        final Object expected = new Object();
+
+        // When
+        cache.put(key, expected, null);
+
+        // Then
+        assertThat(cache.get(key), is(expected));
+        assertThat(cache.size(), is(maximumSize));
+    }
+
+    @Test
+    public void Can_clear_the_cache() {
+
+        final String key = someString();
+
+        // Given
+        cache.put(key, new Object(), null);
+
+        // When
+        cache.clear();
+
+        // Then
+        assertThat(cache.get(key), nullValue());
+    }
+
+    @Test
+    public void Can_only_create_a_cache_with_room_for_a_value() {
+
+        // Given
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("The cache maximum size must be greater than zero.");
+
+        // When
+        new ConcurrentExpiringCache<>(0, clock);
+    }
+}
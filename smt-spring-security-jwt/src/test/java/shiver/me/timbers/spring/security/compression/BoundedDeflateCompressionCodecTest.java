@@ -0,0 +1,141 @@
+/*
+ * Copyright 2016 Karl Bennett
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package shiver.me.timbers.spring.security.compression;
+
+import io.jsonwebtoken.CompressionCodec;
+import io.jsonwebtoken.CompressionException;
+import io.jsonwebtoken.impl.compression.CompressionCodecs;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.Arrays;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.Assert.assertThat;
+
+public class BoundedDeflateCompressionCodecTest {
+
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+
+    private CompressionCodec codec;
+
+    @Before
+    public void setUp() {
+        codec = new BoundedDeflateCompressionCodec(1024);
+    }
+
+    @Test
+    public void Can_compress_and_inflate_a_payload() {
+
+        // Given
+        final byte[] payload = payload(1024);
+
+        // When
+        final byte[] compressed = codec.compress(payload);
+        final byte[] actual = codec.decompress(compressed);
+
+        // Then
+        assertThat(codec.getAlgorithmName(), is("DEF"));
+        assertThat(compressed.length, lessThan(payload.length));
+        assertThat(actual, is(payload));
+    }
+
+    @Test
+    public void Can_inflate_a_payload_compressed_by_jjwt() {
+
+        // Given
+        final byte[] payload = payload(512);
+
+        // When
+        final byte[] actual = codec.decompress(CompressionCodecs.DEFLATE.compress(payload));
+
+        // Then
+        assertThat(actual, is(payload));
+    }
+
+    @Test
+    public void Can_compress_a_payload_that_can_be_inflated_by_jjwt() {
+
+        // Given
+        final byte[] payload = payload(512);
+
+        // When
+        final byte[] actual = CompressionCodecs.DEFLATE.decompress(codec.compress(payload));
+
+        // Then
+        assertThat(actual, is(payload));
+    }
+
+    @Test
+    public void Cannot_inflate_a_payload_past_the_maximum_size() {
+
+        // Given
+        final byte[] compressed = codec.compress(payload(1025));
+        expectedException.expect(CompressionException.class);
+        expectedException.expectMessage("The compressed JWT payload inflates past the maximum size of 1024 bytes.");
+
+        // When
+        codec.decompress(compressed);
+    }
+
+    @Test
+    public void Cannot_inflate_a_payload_that_is_not_deflated() {
+
+        // Given
+        expectedException.expect(CompressionException.class);
+        expectedException.expectMessage("The compressed JWT payload is not valid DEFLATE data.");
+
+        // When
+        codec.decompress(new byte[]{1, 2, 3, 4, 5, 6, 7, 8});
+    }
+
+    @Test
+    public void Cannot_inflate_a_payload_that_has_been_truncated() {
+
+        final byte[] compressed = codec.compress(payload(512));
+
+        // Given
+        expectedException.expect(CompressionException.class);
+        expectedException.expectMessage("The compressed JWT payload has been truncated.");
+
+        // When
+        codec.decompress(Arrays.copyOf(compressed, compressed.length - 4));
+    }
+
+    @Test
+    public void Cannot_inflate_a_payload_that_has_been_truncated_to_less_than_a_sync_flush() {
+
+        final byte[] compressed = CompressionCodecs.DEFLATE.compress(payload(512));
+
+        // Given
+        expectedException.expect(CompressionException.class);
+        expectedException.expectMessage("The compressed JWT payload has been truncated.");
+
+        // When
+        codec.decompress(Arrays.copyOf(compressed, 2));
+    }
+
+    private static byte[] payload(int size) {
+        final byte[] payload = new byte[size];
+        Arrays.fill(payload, (byte) 'a');
+        return payload;
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2016 Karl Bennett
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package shiver.me.timbers.spring.security.compression;
+
+import io.jsonwebtoken.CompressionCodec;
+import io.jsonwebtoken.CompressionCodecResolver;
+import io.jsonwebtoken.CompressionException;
+import io.jsonwebtoken.Header;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+public class SingleCompressionCodecResolverTest {
+
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+
+    private CompressionCodec codec;
+    private CompressionCodecResolver resolver;
+    private Header header;
+
+    @Before
+    public void setUp() {
+        codec = mock(CompressionCodec.class);
+        resolver = new SingleCompressionCodecResolver(codec);
+        header = mock(Header.class);
+        given(codec.getAlgorithmName()).willReturn("DEF");
+    }
+
+    @Test
+    public void Can_resolve_the_configured_codec() {
+
+        // Given
+        given(header.getCompressionAlgorithm()).willReturn("DEF");
+
+        // When
+        final CompressionCodec actual = resolver.resolveCompressionCodec(header);
+
+        // Then
+        assertThat(actual, is(codec));
+    }
+
+    @Test
+    public void Can_resolve_the_configured_codec_from_the_standard_header() {
+
+        // Given
+        given(header.getCompressionAlgorithm()).willReturn(null);
+        given(header.get("zip")).willReturn("DEF");
+
+        // When
+        final CompressionCodec actual = resolver.resolveCompressionCodec(header);
+
+        // Then
+        assertThat(actual, is(codec));
+    }
+
+    @Test
+    public void Can_resolve_no_codec_for_an_uncompressed_token() {
+
+        // Given
+        given(header.getCompressionAlgorithm()).willReturn(null);
+
+        // When
+        final CompressionCodec actual = resolver.resolveCompressionCodec(header);
+
+        // Then
+        assertThat(actual, nullValue());
+    }
+
+    @Test
+    public void Cannot_resolve_any_other_codec() {
+
+        // Given
+        given(header.getCompressionAlgorithm()).willReturn("GZIP");
+        expectedException.expect(CompressionException.class);
+        expectedException.expectMessage("The JWT token compression algorithm (GZIP) is not supported.");
+
+        // When
+        resolver.resolveCompressionCodec(header);
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2016 Karl Bennett
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package shiver.me.timbers.spring.security.compression;
+
+import io.jsonwebtoken.CompressionCodec;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+
+public class ThresholdCompressionPolicyTest {
+
+    private CompressionCodec codec;
+    private CompressionPolicy policy;
+
+    @Before
+    public void setUp() {
+        codec = mock(CompressionCodec.class);
+        policy = new ThresholdCompressionPolicy(codec, 10);
+    }
+
+    @Test
+    public void Can_compress_a_payload_at_the_threshold() {
+
+        // When
+        final CompressionCodec actual = policy.codec(10);
+
+        // Then
+        assertThat(actual, is(codec));
+    }
+
+    @Test
+    public void Can_leave_a_payload_below_the_threshold_uncompressed() {
+
+        // When
+        final CompressionCodec actual = policy.codec(9);
+
+        // Then
+        assertThat(actual, nullValue());
+    }
+}
@@ -22,13 +22,14 @@ import org.junit.Test;
 import org.junit.rules.ExpectedException;
 import org.springframework.security.core.Authentication;
 
-import javax.servlet.http.Cookie;
 import javax.servlet.http.HttpServletRequest;
 
 import static org.hamcrest.Matchers.is;
 import static org.junit.Assert.assertThat;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 import static shiver.me.timbers.data.random.RandomStrings.someString;
 
 public class AuthenticationRequestJwtTokenParserTest {
@@ -36,7 +37,8 @@ public class AuthenticationRequestJwtTokenParserTest {
     @Rule
     public ExpectedException expectedException = ExpectedException.none();
 
-    private String tokenName;
+    private JwtTokenFinder tokenFinder;
+    private JwtTokenValidator tokenValidator;
     private AuthenticationConverter<Object> authenticationConverter;
     private JwtTokenParser<Object, String> principleTokenParser;
     private AuthenticationRequestJwtTokenParser tokenParser;
@@ -44,11 +46,13 @@ public class AuthenticationRequestJwtTokenParserTest {
     @Before
     @SuppressWarnings("unchecked")
     public void setUp() {
-        tokenName = someString();
+        tokenFinder = mock(JwtTokenFinder.class);
+        tokenValidator = mock(JwtTokenValidator.class);
         authenticationConverter = mock(AuthenticationConverter.class);
         principleTokenParser = mock(JwtTokenParser.class);
         tokenParser = new AuthenticationRequestJwtTokenParser<>(
-            tokenName,
+            tokenFinder,
+            tokenValidator,
             authenticationConverter,
             principleTokenParser
         );
@@ -76,19 +80,16 @@ public class AuthenticationRequestJwtTokenParserTest {
 
     @Test
     @SuppressWarnings("unchecked")
-    public void Can_parse_a_jwt_token_from_a_cookie() throws JwtInvalidTokenException {
+    public void Can_parse_a_jwt_token_from_a_request() throws JwtInvalidTokenException {
 
         final HttpServletRequest request = mock(HttpServletRequest.class);
 
-        final Cookie cookie = mock(Cookie.class);
         final String token = someString();
         final Object principal = new Object();
         final Authentication expected = mock(Authentication.class);
 
         // Given
-        given(request.getCookies()).willReturn(new Cookie[]{mock(Cookie.class), cookie, mock(Cookie.class)});
-        given(cookie.getName()).willReturn(tokenName);
-        given(cookie.getValue()).willReturn(token);
+        given(tokenFinder.find(request)).willReturn(token);
         given(principleTokenParser.parse(token)).willReturn(principal);
         given(authenticationConverter.convert(principal)).willReturn(expected);
 
@@ -96,13 +97,15 @@ public class AuthenticationRequestJwtTokenParserTest {
         final Authentication actual = tokenParser.parse(request);
 
         // Then
+        verify(request).setAttribute(AuthenticationRequestJwtTokenParser.TOKEN_ATTRIBUTE, token);
         assertThat(actual, is(expected));
     }
 
     @Test
     @SuppressWarnings("unchecked")
-    public void Can_parse_a_jwt_token_from_a_header() throws JwtInvalidTokenException {
+    public void Can_parse_a_jwt_token_from_a_request_cookie_or_header() throws JwtInvalidTokenException {
 
+        final String tokenName = someString();
         final HttpServletRequest request = mock(HttpServletRequest.class);
 
         final String token = someString();
@@ -110,29 +113,62 @@ public class AuthenticationRequestJwtTokenParserTest {
         final Authentication expected = mock(Authentication.class);
 
         // Given
-        given(request.getCookies()).willReturn(new Cookie[0]);
         given(request.getHeader(tokenName)).willReturn(token);
         given(principleTokenParser.parse(token)).willReturn(principal);
         given(authenticationConverter.convert(principal)).willReturn(expected);
 
         // When
-        final Authentication actual = tokenParser.parse(request);
+        final Authentication actual = new AuthenticationRequestJwtTokenParser<>(
+            tokenName,
+            authenticationConverter,
+            principleTokenParser
+        ).parse(request);
 
         // Then
         assertThat(actual, is(expected));
     }
 
+    @Test
+    public void Cannot_parse_a_request_with_no_cookie_or_header_token() throws JwtInvalidTokenException {
+
+        final String tokenName = someString();
+
+        // Given
+        expectedException.expect(JwtMalformedTokenException.class);
+        expectedException.expectMessage("Could not find a JWT token in the request");
+
+        // When
+        new AuthenticationRequestJwtTokenParser<>(tokenName, authenticationConverter, principleTokenParser)
+            .parse(mock(HttpServletRequest.class));
+    }
+
     @Test
     public void Can_fail_to_find_a_jwt_token() throws JwtInvalidTokenException {
 
         final HttpServletRequest request = mock(HttpServletRequest.class);
 
-        final JwtInvalidTokenException exception = new JwtInvalidTokenException(new Exception());
+        final JwtInvalidTokenException exception = new JwtMalformedTokenException(someString());
+
+        // Given
+        given(tokenFinder.find(request)).willReturn(null);
+        willThrow(exception).given(tokenValidator).validate(null);
+        expectedException.expect(is(exception));
+
+        // When
+        tokenParser.parse(request);
+    }
+
+    @Test
+    public void Cannot_parse_a_jwt_token_that_fails_validation() throws JwtInvalidTokenException {
+
+        final HttpServletRequest request = mock(HttpServletRequest.class);
+
+        final String token = someString();
+        final JwtInvalidTokenException exception = new JwtMalformedTokenException(someString());
 
         // Given
-        given(request.getCookies()).willReturn(null);
-        given(request.getHeader(tokenName)).willReturn(null);
-        given(principleTokenParser.parse("")).willThrow(exception);
+        given(tokenFinder.find(request)).willReturn(token);
+        willThrow(exception).given(tokenValidator).validate(token);
         expectedException.expect(is(exception));
 
         // When
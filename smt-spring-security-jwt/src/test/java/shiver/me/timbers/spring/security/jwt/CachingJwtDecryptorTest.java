@@ -0,0 +1,221 @@
+/*
+ * Copyright 2016 Karl Bennett
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package shiver.me.timbers.spring.security.jwt;
+
+import org.junit.Before;
+import org.junit.Test;
+import shiver.me.timbers.spring.security.Base64;
+import shiver.me.timbers.spring.security.cache.Cache;
+import shiver.me.timbers.spring.security.keys.JwtKey;
+import shiver.me.timbers.spring.security.keys.KeyRing;
+import shiver.me.timbers.spring.security.time.Clock;
+
+import java.security.KeyPair;
+import java.util.Date;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static shiver.me.timbers.data.random.RandomStrings.someString;
+
+public class CachingJwtDecryptorTest {
+
+    private JwtDecryptor delegate;
+    private Cache<String, Object> cache;
+    private JwtExpiryReader expiryReader;
+    private JwtKeyIdReader keyIdReader;
+    private KeyRing keyRing;
+    private Clock clock;
+    private Base64 base64;
+    private JwtDecryptor decryptor;
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        delegate = mock(JwtDecryptor.class);
+        cache = mock(Cache.class);
+        expiryReader = mock(JwtExpiryReader.class);
+        keyIdReader = mock(JwtKeyIdReader.class);
+        keyRing = mock(KeyRing.class);
+        clock = mock(Clock.class);
+        base64 = mock(Base64.class);
+        decryptor = new CachingJwtDecryptor(
+            delegate, cache, expiryReader, keyIdReader, keyRing, clock, 60, SECONDS, base64
+        );
+    }
+
+    @Test
+    public void Can_decrypt_and_cache_a_token_until_it_expires() {
+
+        final String token = someString();
+        final String key = someString();
+        final String keyId = someString();
+
+        final String expected = someString();
+
+        // Given
+        given(base64.encode(any(byte[].class))).willReturn(key);
+        given(delegate.decrypt(token, String.class)).willReturn(expected);
+        given(keyIdReader.read(token)).willReturn(keyId);
+        given(keyRing.getVerificationKey(keyId)).willReturn(
+            new JwtKey(keyId, new KeyPair(null, null), new Date(40000L)));
+        given(clock.now()).willReturn(new Date(10000L));
+        given(expiryReader.read(token)).willReturn(new Date(30000L));
+
+        // When
+        final String actual = decryptor.decrypt(token, String.class);
+
+        // Then
+        verify(cache).put(key, expected, new Date(30000L));
+        assertThat(actual, is(expected));
+    }
+
+    @Test
+    public void Can_only_cache_a_token_until_its_key_can_no_longer_verify_tokens() {
+
+        final String token = someString();
+        final String key = someString();
+        final String keyId = someString();
+
+        final String expected = someString();
+
+        // Given
+        given(base64.encode(any(byte[].class))).willReturn(key);
+        given(delegate.decrypt(token, String.class)).willReturn(expected);
+        given(keyIdReader.read(token)).willReturn(keyId);
+        given(keyRing.getVerificationKey(keyId)).willReturn(
+            new JwtKey(keyId, new KeyPair(null, null), new Date(20000L)));
+        given(clock.now()).willReturn(new Date(10000L));
+        given(expiryReader.read(token)).willReturn(new Date(30000L));
+
+        // When
+        final String actual = decryptor.decrypt(token, String.class);
+
+        // Then
+        verify(cache).put(key, expected, new Date(20000L));
+        assertThat(actual, is(expected));
+    }
+
+    @Test
+    public void Can_only_cache_a_token_that_does_not_expire_for_the_time_to_live() {
+
+        final String token = someString();
+        final String key = someString();
+
+        final String expected = someString();
+
+        // Given
+        given(base64.encode(any(byte[].class))).willReturn(key);
+        given(delegate.decrypt(token, String.class)).willReturn(expected);
+        given(keyIdReader.read(token)).willReturn(null);
+        given(keyRing.getVerificationKey(null)).willReturn(new JwtKey(null, new KeyPair(null, null)));
+        given(clock.now()).willReturn(new Date(10000L));
+        given(expiryReader.read(token)).willReturn(null);
+
+        // When
+        final String actual = decryptor.decrypt(token, String.class);
+
+        // Then
+        verify(cache).put(key, expected, new Date(70000L));
+        assertThat(actual, is(expected));
+    }
+
+    @Test
+    public void Will_not_cache_a_token_whose_key_has_been_removed() {
+
+        final String token = someString();
+        final String keyId = someString();
+
+        final String expected = someString();
+
+        // Given
+        given(base64.encode(any(byte[].class))).willReturn(someString());
+        given(delegate.decrypt(token, String.class)).willReturn(expected);
+        given(keyIdReader.read(token)).willReturn(keyId);
+        given(keyRing.getVerificationKey(keyId)).willReturn(null);
+
+        // When
+        final String actual = decryptor.decrypt(token, String.class);
+
+        // Then
+        verify(cache).get(any(String.class));
+        verifyZeroInteractions(expiryReader, clock);
+        assertThat(actual, is(expected));
+    }
+
+    @Test
+    public void Can_decrypt_a_cached_token_without_verifying_it_again() {
+
+        final String token = someString();
+        final String key = someString();
+
+        final String expected = someString();
+
+        // Given
+        given(base64.encode(any(byte[].class))).willReturn(key);
+        given(cache.get(key)).willReturn(expected);
+
+        // When
+        final String actual = decryptor.decrypt(token, String.class);
+
+        // Then
+        verifyZeroInteractions(delegate, expiryReader, keyIdReader, keyRing);
+        assertThat(actual, is(expected));
+    }
+
+    @Test
+    public void Can_decrypt_a_token_that_was_cached_for_a_different_type() {
+
+        final String token = someString();
+        final String key = someString();
+
+        final String expected = someString();
+
+        // Given
+        given(base64.encode(any(byte[].class))).willReturn(key);
+        given(cache.get(key)).willReturn(new Object());
+        given(delegate.decrypt(token, String.class)).willReturn(expected);
+        given(keyRing.getVerificationKey(null)).willReturn(new JwtKey(null, new KeyPair(null, null)));
+        given(clock.now()).willReturn(new Date(10000L));
+        given(expiryReader.read(token)).willReturn(new Date(30000L));
+
+        // When
+        final String actual = decryptor.decrypt(token, String.class);
+
+        // Then
+        verify(cache).put(key, expected, new Date(30000L));
+        assertThat(actual, is(expected));
+    }
+
+    @Test(expected = JwtInvalidTokenException.class)
+    public void Can_fail_to_decrypt_an_invalid_token() {
+
+        final String token = someString();
+
+        // Given
+        given(base64.encode(any(byte[].class))).willReturn(someString());
+        given(delegate.decrypt(token, String.class)).willThrow(new JwtInvalidTokenException(new Exception()));
+
+        // When
+        decryptor.decrypt(token, String.class);
+    }
+}
@@ -0,0 +1,165 @@
+/*
+ * Copyright 2016 Karl Bennett
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package shiver.me.timbers.spring.security.jwt;
+
+import org.junit.Before;
+import org.junit.Test;
+import shiver.me.timbers.spring.security.cache.Cache;
+import shiver.me.timbers.spring.security.time.Clock;
+
+import java.util.Date;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static shiver.me.timbers.data.random.RandomStrings.someString;
+
+public class CachingJwtEncryptorTest {
+
+    private JwtEncryptor delegate;
+    private Cache<Object, String> cache;
+    private JwtExpiryReader expiryReader;
+    private Clock clock;
+    private JwtEncryptor encryptor;
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        delegate = mock(JwtEncryptor.class);
+        cache = mock(Cache.class);
+        expiryReader = mock(JwtExpiryReader.class);
+        clock = mock(Clock.class);
+        encryptor = new CachingJwtEncryptor(delegate, cache, expiryReader, clock, 0.25);
+    }
+
+    @Test
+    public void Can_encrypt_and_cache_a_token_until_it_only_has_the_minimum_lifetime_left() {
+
+        final Object principal = new JwtPrincipal(someString(), asList(someString(), someString()));
+
+        final String expected = someString();
+
+        // Given
+        given(cache.get(principal)).willReturn(null);
+        given(delegate.encrypt(principal)).willReturn(expected);
+        given(expiryReader.read(expected)).willReturn(new Date(5000L));
+        given(clock.now()).willReturn(new Date(1000L));
+
+        // When
+        final String actual = encryptor.encrypt(principal);
+
+        // Then
+        verify(cache).put(principal, expected, new Date(4000L));
+        assertThat(actual, is(expected));
+    }
+
+    @Test
+    public void Can_reuse_a_cached_token_without_signing_a_new_one() {
+
+        final Object principal = new JwtPrincipal(someString(), asList(someString(), someString()));
+
+        final String expected = someString();
+
+        // Given
+        given(cache.get(principal)).willReturn(expected);
+
+        // When
+        final String actual = encryptor.encrypt(principal);
+
+        // Then
+        verifyZeroInteractions(delegate, expiryReader, clock);
+        assertThat(actual, is(expected));
+    }
+
+    @Test
+    public void Can_cache_a_token_that_does_not_expire_forever() {
+
+        final Object principal = new JwtPrincipal(someString(), asList(someString(), someString()));
+
+        final String expected = someString();
+
+        // Given
+        given(delegate.encrypt(principal)).willReturn(expected);
+        given(expiryReader.read(expected)).willReturn(null);
+
+        // When
+        final String actual = encryptor.encrypt(principal);
+
+        // Then
+        verify(cache).put(principal, expected, null);
+        assertThat(actual, is(expected));
+    }
+
+    @Test
+    public void Will_not_cache_a_token_that_has_already_expired() {
+
+        final Object principal = new JwtPrincipal(someString(), asList(someString(), someString()));
+
+        final String expected = someString();
+
+        // Given
+        given(delegate.encrypt(principal)).willReturn(expected);
+        given(expiryReader.read(expected)).willReturn(new Date(1000L));
+        given(clock.now()).willReturn(new Date(1000L));
+
+        // When
+        final String actual = encryptor.encrypt(principal);
+
+        // Then
+        verify(cache, never()).put(any(), anyString(), any(Date.class));
+        assertThat(actual, is(expected));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void Cannot_create_an_encryptor_that_requires_the_whole_lifetime_to_be_left() {
+
+        // When
+        new CachingJwtEncryptor(delegate, cache, expiryReader, clock, 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void Cannot_create_an_encryptor_with_a_negative_minimum_lifetime() {
+
+        // When
+        new CachingJwtEncryptor(delegate, cache, expiryReader, clock, -0.1);
+    }
+
+    @Test
+    public void Will_not_cache_the_token_for_a_principal_that_does_not_have_value_equality() {
+
+        final Object principal = new Object();
+
+        final String expected = someString();
+
+        // Given
+        given(delegate.encrypt(principal)).willReturn(expected);
+
+        // When
+        final String actual = encryptor.encrypt(principal);
+
+        // Then
+        verifyZeroInteractions(cache, expiryReader, clock);
+        assertThat(actual, is(expected));
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2016 Karl Bennett
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package shiver.me.timbers.spring.security.jwt;
+
+import org.junit.Test;
+import org.mockito.InOrder;
+
+import javax.servlet.http.HttpServletRequest;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static shiver.me.timbers.data.random.RandomStrings.someString;
+
+public class ChainedJwtTokenFinderTest {
+
+    @Test
+    public void Can_find_a_jwt_token_with_the_first_finder_that_has_one() {
+
+        final JwtTokenFinder first = mock(JwtTokenFinder.class);
+        final JwtTokenFinder second = mock(JwtTokenFinder.class);
+        final JwtTokenFinder third = mock(JwtTokenFinder.class);
+        final HttpServletRequest request = mock(HttpServletRequest.class);
+
+        final String expected = someString();
+
+        // Given
+        given(first.find(request)).willReturn(null);
+        given(second.find(request)).willReturn(expected);
+
+        // When
+        final String actual = new ChainedJwtTokenFinder(asList(first, second, third)).find(request);
+
+        // Then
+        final InOrder order = inOrder(first, second);
+        order.verify(first).find(request);
+        order.verify(second).find(request);
+        verifyZeroInteractions(third);
+        assertThat(actual, is(expected));
+    }
+
+    @Test
+    public void Can_fail_to_find_a_jwt_token() {
+
+        final JwtTokenFinder first = mock(JwtTokenFinder.class);
+        final JwtTokenFinder second = mock(JwtTokenFinder.class);
+        final HttpServletRequest request = mock(HttpServletRequest.class);
+
+        // Given
+        given(first.find(request)).willReturn(null);
+        given(second.find(request)).willReturn(null);
+
+        // When
+        final String actual = new ChainedJwtTokenFinder(asList(first, second)).find(request);
+
+        // Then
+        assertThat(actual, nullValue());
+    }
+}
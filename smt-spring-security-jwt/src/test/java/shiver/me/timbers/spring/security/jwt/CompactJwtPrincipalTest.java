@@ -0,0 +1,83 @@
+/*
+ * Copyright 2016 Karl Bennett
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package shiver.me.timbers.spring.security.jwt;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.junit.Assert.assertThat;
+import static shiver.me.timbers.data.random.RandomIntegers.someInteger;
+import static shiver.me.timbers.data.random.RandomStrings.someString;
+
+public class CompactJwtPrincipalTest {
+
+    @Test
+    public void Can_set_values() {
+
+        // Given
+        final String username = someString();
+        final List<String> roles = asList(someString());
+        final Integer rolesVersion = someInteger();
+        final String rolesBitset = someString();
+        final CompactJwtPrincipal principal = new CompactJwtPrincipal(username, roles, rolesVersion, rolesBitset);
+
+        // Then
+        assertThat(principal.getUsername(), is(username));
+        assertThat(principal.getRoles(), is(roles));
+        assertThat(principal.getRolesVersion(), is(rolesVersion));
+        assertThat(principal.getRolesBitset(), is(rolesBitset));
+    }
+
+    @Test
+    public void Can_check_equality() {
+
+        // Given
+        final String username = someString();
+        final List<String> roles = asList(someString(), someString());
+        final Integer version = someInteger();
+        final String bitset = someString();
+
+        // Then
+        assertThat(
+            new CompactJwtPrincipal(username, roles, version, bitset),
+            equalTo(new CompactJwtPrincipal(username, new ArrayList<>(roles), version, bitset))
+        );
+        assertThat(
+            new CompactJwtPrincipal(username, roles, version, bitset).hashCode(),
+            equalTo(new CompactJwtPrincipal(username, new ArrayList<>(roles), version, bitset).hashCode())
+        );
+        assertThat(
+            new CompactJwtPrincipal(username, roles, version, bitset),
+            not(equalTo(new CompactJwtPrincipal(username, roles, version, someString())))
+        );
+        assertThat(
+            new CompactJwtPrincipal(username, roles, version, bitset),
+            not(equalTo(new CompactJwtPrincipal(username, roles, version + 1, bitset)))
+        );
+        assertThat(
+            new CompactJwtPrincipal(null, null, null, null),
+            equalTo(new CompactJwtPrincipal(null, null, null, null))
+        );
+        assertThat(new CompactJwtPrincipal(username, roles, version, bitset), not(equalTo(new Object())));
+    }
+}
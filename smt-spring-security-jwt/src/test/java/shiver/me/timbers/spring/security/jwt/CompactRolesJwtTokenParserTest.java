@@ -0,0 +1,309 @@
+/*
+ * Copyright 2016 Karl Bennett
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package shiver.me.timbers.spring.security.jwt;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import shiver.me.timbers.spring.security.DatatypeConverterBase64;
+import shiver.me.timbers.spring.security.keys.SecretBase64KeyPairs;
+import shiver.me.timbers.spring.security.signature.JcaSignatureVerifierFactory;
+import shiver.me.timbers.spring.security.time.DateClock;
+
+import java.io.IOException;
+import java.security.KeyPair;
+import java.util.List;
+
+import static io.jsonwebtoken.SignatureAlgorithm.HS256;
+import static io.jsonwebtoken.impl.TextCodec.BASE64URL;
+import static java.util.Arrays.asList;
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasProperty;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.junit.Assert.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static shiver.me.timbers.data.random.RandomStrings.someString;
+import static shiver.me.timbers.spring.security.jwt.JwtInvalidTokenReason.MALFORMED;
+
+public class CompactRolesJwtTokenParserTest {
+
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+
+    private RoleDictionary dictionary;
+    private JwtTokenParser<CompactJwtPrincipal, String> delegate;
+    private JwtTokenParser<JwtPrincipal, String> tokenParser;
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        dictionary = new RoleDictionary(2, asList("r0", "r1", "r2", "r3", "r4", "r5", "r6", "r7", "r8", "r9"));
+        delegate = mock(JwtTokenParser.class);
+        tokenParser = new CompactRolesJwtTokenParser(dictionary, delegate);
+    }
+
+    @Test
+    public void Can_write_the_known_roles_as_a_bitset() {
+
+        final String username = someString();
+
+        final String expected = someString();
+
+        // Given
+        given(delegate.create(new CompactJwtPrincipal(username, null, 2, "gQI"))).willReturn(expected);
+
+        // When
+        final String actual = tokenParser.create(new JwtPrincipal(username, asList("r0", "r7", "r9")));
+
+        // Then
+        assertThat(actual, is(expected));
+    }
+
+    @Test
+    public void Can_write_the_roles_in_full_if_the_known_roles_are_not_in_dictionary_order() {
+
+        final String username = someString();
+        final List<String> roles = asList("r9", "r0", "r7");
+
+        final String expected = someString();
+
+        // Given
+        given(delegate.create(new CompactJwtPrincipal(username, roles, null, null))).willReturn(expected);
+
+        // When
+        final String actual = tokenParser.create(new JwtPrincipal(username, roles));
+
+        // Then
+        assertThat(actual, is(expected));
+    }
+
+    @Test
+    public void Can_write_the_roles_in_full_if_a_known_role_is_repeated() {
+
+        final String username = someString();
+        final List<String> roles = asList("r1", "r1");
+
+        final String expected = someString();
+
+        // Given
+        given(delegate.create(new CompactJwtPrincipal(username, roles, null, null))).willReturn(expected);
+
+        // When
+        final String actual = tokenParser.create(new JwtPrincipal(username, roles));
+
+        // Then
+        assertThat(actual, is(expected));
+    }
+
+    @Test
+    public void Can_write_the_roles_in_full_if_an_unknown_role_comes_before_a_known_role() {
+
+        final String username = someString();
+        final List<String> roles = asList("other", "r1");
+
+        final String expected = someString();
+
+        // Given
+        given(delegate.create(new CompactJwtPrincipal(username, roles, null, null))).willReturn(expected);
+
+        // When
+        final String actual = tokenParser.create(new JwtPrincipal(username, roles));
+
+        // Then
+        assertThat(actual, is(expected));
+    }
+
+    @Test
+    public void Can_write_the_unknown_roles_in_full() {
+
+        final String username = someString();
+
+        final String expected = someString();
+
+        // Given
+        given(delegate.create(new CompactJwtPrincipal(username, asList("other"), 2, "Ag"))).willReturn(expected);
+
+        // When
+        final String actual = tokenParser.create(new JwtPrincipal(username, asList("r1", "other")));
+
+        // Then
+        assertThat(actual, is(expected));
+    }
+
+    @Test
+    public void Can_read_the_roles_from_a_bitset() {
+
+        final String token = someString();
+        final String username = someString();
+
+        // Given
+        given(delegate.parse(token)).willReturn(new CompactJwtPrincipal(username, asList("other"), 2, "gQI"));
+
+        // When
+        final JwtPrincipal actual = tokenParser.parse(token);
+
+        // Then
+        assertThat(actual.getUsername(), is(username));
+        assertThat(actual.getRoles(), contains("r0", "r7", "r9", "other"));
+    }
+
+    @Test
+    public void Can_read_a_token_with_no_roles() {
+
+        final String token = someString();
+
+        // Given
+        given(delegate.parse(token)).willReturn(new CompactJwtPrincipal(someString(), null, 2, ""));
+
+        // When
+        final JwtPrincipal actual = tokenParser.parse(token);
+
+        // Then
+        assertThat(actual.getRoles(), empty());
+    }
+
+    @Test
+    public void Can_read_a_token_that_was_written_with_full_roles() {
+
+        final String token = someString();
+        final String username = someString();
+        final List<String> roles = asList(someString(), someString());
+
+        // Given
+        given(delegate.parse(token)).willReturn(new CompactJwtPrincipal(username, roles, null, null));
+
+        // When
+        final JwtPrincipal actual = tokenParser.parse(token);
+
+        // Then
+        assertThat(actual, equalTo(new JwtPrincipal(username, roles)));
+    }
+
+    @Test
+    public void Can_read_a_token_written_with_a_previous_dictionary_version() {
+
+        final String token = someString();
+
+        // Given
+        given(delegate.parse(token)).willReturn(new CompactJwtPrincipal(someString(), null, 1, "Bg"));
+
+        // When
+        final JwtPrincipal actual = new CompactRolesJwtTokenParser(
+            dictionary,
+            asList(new RoleDictionary(1, asList("old0", "old1", "old2"))),
+            delegate
+        ).parse(token);
+
+        // Then
+        assertThat(actual.getRoles(), contains("old1", "old2"));
+    }
+
+    @Test
+    public void Cannot_read_a_token_written_with_an_unknown_dictionary_version() {
+
+        final String token = someString();
+
+        // Given
+        given(delegate.parse(token)).willReturn(new CompactJwtPrincipal(someString(), null, 1, "Ag"));
+        expectedException.expect(JwtInvalidTokenException.class);
+        expectedException.expect(hasProperty("reason", is(MALFORMED)));
+        expectedException.expectMessage("The JWT token was written with an unknown role dictionary.");
+
+        // When
+        tokenParser.parse(token);
+    }
+
+    @Test
+    public void Cannot_read_a_token_with_a_bitset_but_no_dictionary_version() {
+
+        final String token = someString();
+
+        // Given
+        given(delegate.parse(token)).willReturn(new CompactJwtPrincipal(someString(), null, null, "Ag"));
+        expectedException.expect(JwtInvalidTokenException.class);
+        expectedException.expectMessage("The JWT token was written with an unknown role dictionary.");
+
+        // When
+        tokenParser.parse(token);
+    }
+
+    @Test
+    public void Cannot_use_the_same_dictionary_version_twice() {
+
+        // Given
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("The role dictionary version (2) is used more than once.");
+
+        // When
+        new CompactRolesJwtTokenParser(dictionary, asList(new RoleDictionary(2, asList("r0"))), delegate);
+    }
+
+    @Test
+    public void Cannot_read_a_token_with_a_role_index_outside_of_the_dictionary() {
+
+        final String token = someString();
+
+        // Given
+        given(delegate.parse(token)).willReturn(new CompactJwtPrincipal(someString(), null, 2, "AAQ"));
+        expectedException.expect(JwtInvalidTokenException.class);
+        expectedException.expectMessage("The JWT token contains a role that is not known.");
+
+        // When
+        tokenParser.parse(token);
+    }
+
+    @Test
+    public void Can_round_trip_a_compact_principal_through_a_signed_token() throws IOException {
+
+        final KeyPair keyPair = new SecretBase64KeyPairs(new DatatypeConverterBase64(), HS256).createPair(someString());
+        final DateClock clock = new DateClock();
+        final JwtPrincipal principal = new JwtPrincipal(someString(), asList("r3", "r8"));
+
+        // Given
+        final JwtTokenParser<JwtPrincipal, String> parser = new CompactRolesJwtTokenParser(
+            dictionary,
+            new JJwtTokenParser<>(
+                CompactJwtPrincipal.class,
+                new JJwtEncryptor(new JJwtBuilderFactory(), HS256, keyPair, 5, MINUTES, clock),
+                new JcaJwtDecryptor(
+                    HS256,
+                    new JcaSignatureVerifierFactory().create(HS256, keyPair.getPublic()),
+                    new ObjectMapper(),
+                    clock
+                )
+            )
+        );
+
+        // When
+        final String token = parser.create(principal);
+        final JwtPrincipal actual = parser.parse(token);
+
+        // Then
+        assertThat(actual, equalTo(principal));
+        final String payload = new String(BASE64URL.decode(token.split("\\.")[1]), "UTF-8");
+        assertThat(payload, containsString("\"rb\":\"CAE\""));
+        assertThat(payload, not(containsString("roles")));
+    }
+}
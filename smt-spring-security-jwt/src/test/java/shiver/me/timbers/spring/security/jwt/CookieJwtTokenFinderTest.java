@@ -0,0 +1,92 @@
+/*
+ * Copyright 2016 Karl Bennett
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package shiver.me.timbers.spring.security.jwt;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletRequest;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static shiver.me.timbers.data.random.RandomStrings.someString;
+
+public class CookieJwtTokenFinderTest {
+
+    private String tokenName;
+    private JwtTokenFinder tokenFinder;
+
+    @Before
+    public void setUp() {
+        tokenName = someString();
+        tokenFinder = new CookieJwtTokenFinder(tokenName);
+    }
+
+    @Test
+    public void Can_find_a_jwt_token_in_a_cookie() {
+
+        final HttpServletRequest request = mock(HttpServletRequest.class);
+
+        final Cookie cookie = mock(Cookie.class);
+        final String expected = someString();
+
+        // Given
+        given(request.getCookies()).willReturn(new Cookie[]{mock(Cookie.class), cookie, mock(Cookie.class)});
+        given(cookie.getName()).willReturn(tokenName);
+        given(cookie.getValue()).willReturn(expected);
+
+        // When
+        final String actual = tokenFinder.find(request);
+
+        // Then
+        assertThat(actual, is(expected));
+    }
+
+    @Test
+    public void Can_fail_to_find_a_jwt_token_in_the_cookies() {
+
+        final HttpServletRequest request = mock(HttpServletRequest.class);
+
+        // Given
+        given(request.getCookies()).willReturn(new Cookie[]{mock(Cookie.class)});
+
+        // When
+        final String actual = tokenFinder.find(request);
+
+        // Then
+        assertThat(actual, nullValue());
+    }
+
+    @Test
+    public void Can_fail_to_find_a_jwt_token_with_no_cookies() {
+
+        final HttpServletRequest request = mock(HttpServletRequest.class);
+
+        // Given
+        given(request.getCookies()).willReturn(null);
+
+        // When
+        final String actual = tokenFinder.find(request);
+
+        // Then
+        assertThat(actual, nullValue());
+    }
+}
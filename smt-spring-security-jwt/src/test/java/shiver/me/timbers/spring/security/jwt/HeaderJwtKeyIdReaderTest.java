@@ -0,0 +1,133 @@
+/*
+ * Copyright 2016 Karl Bennett
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package shiver.me.timbers.spring.security.jwt;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.impl.TextCodec;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import static io.jsonwebtoken.SignatureAlgorithm.HS256;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static shiver.me.timbers.data.random.RandomStrings.someAlphaNumericString;
+import static shiver.me.timbers.data.random.RandomStrings.someString;
+
+public class HeaderJwtKeyIdReaderTest {
+
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+
+    private JwtKeyIdReader keyIdReader;
+
+    @Before
+    public void setUp() {
+        keyIdReader = new HeaderJwtKeyIdReader(new JsonFactory());
+    }
+
+    @Test
+    public void Can_read_the_key_id_of_a_token() {
+
+        final String expected = someAlphaNumericString(8);
+
+        // Given
+        final String token = Jwts.builder().setHeaderParam("kid", expected).claim("principal", someString())
+            .signWith(HS256, someAlphaNumericString(8).getBytes()).compact();
+
+        // When
+        final String actual = keyIdReader.read(token);
+
+        // Then
+        assertThat(actual, is(expected));
+    }
+
+    @Test
+    public void Can_read_the_key_id_of_a_token_after_a_nested_header_field() {
+
+        // Given
+        final String header = TextCodec.BASE64URL.encode("{\"x\":{\"a\":[1]},\"kid\":\"key\"}");
+
+        // When
+        final String actual = keyIdReader.read(header + ".e30.c2ln");
+
+        // Then
+        assertThat(actual, is("key"));
+    }
+
+    @Test
+    public void Can_read_the_key_id_of_a_token_that_does_not_have_one() {
+
+        // Given
+        final String token = Jwts.builder().claim("principal", someString())
+            .signWith(HS256, someAlphaNumericString(8).getBytes()).compact();
+
+        // When
+        final String actual = keyIdReader.read(token);
+
+        // Then
+        assertThat(actual, nullValue());
+    }
+
+    @Test
+    public void Can_fail_to_read_the_key_id_of_a_token_without_a_header() {
+
+        // Given
+        expectedException.expect(JwtInvalidTokenException.class);
+        expectedException.expectMessage("The JWT token does not contain a header.");
+
+        // When
+        keyIdReader.read(".e30.c2ln");
+    }
+
+    @Test
+    public void Can_fail_to_read_the_key_id_of_a_token_without_any_separators() {
+
+        // Given
+        expectedException.expect(JwtInvalidTokenException.class);
+        expectedException.expectMessage("The JWT token does not contain a header.");
+
+        // When
+        keyIdReader.read(someAlphaNumericString(8));
+    }
+
+    @Test
+    public void Can_fail_to_read_the_key_id_of_a_token_whose_header_is_not_an_object() {
+
+        // Given
+        expectedException.expect(JwtInvalidTokenException.class);
+        expectedException.expectMessage("The JWT token header is not a JSON object.");
+
+        // When
+        keyIdReader.read(TextCodec.BASE64URL.encode("[]") + ".e30.c2ln");
+    }
+
+    @Test
+    public void Can_fail_to_read_the_key_id_of_a_token_with_an_invalid_header() {
+
+        // Given
+        expectedException.expect(JwtInvalidTokenException.class);
+        expectedException.expectMessage("Could not read the JWT token key id.");
+
+        // When
+        keyIdReader.read(TextCodec.BASE64URL.encode("{\"kid") + ".e30.c2ln");
+    }
+}
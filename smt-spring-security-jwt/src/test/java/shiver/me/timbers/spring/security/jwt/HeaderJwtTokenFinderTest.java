@@ -0,0 +1,48 @@
+/*
+ * Copyright 2016 Karl Bennett
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package shiver.me.timbers.spring.security.jwt;
+
+import org.junit.Test;
+
+import javax.servlet.http.HttpServletRequest;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static shiver.me.timbers.data.random.RandomStrings.someString;
+
+public class HeaderJwtTokenFinderTest {
+
+    @Test
+    public void Can_find_a_jwt_token_in_a_header() {
+
+        final String tokenName = someString();
+        final HttpServletRequest request = mock(HttpServletRequest.class);
+
+        final String expected = someString();
+
+        // Given
+        given(request.getHeader(tokenName)).willReturn(expected);
+
+        // When
+        final String actual = new HeaderJwtTokenFinder(tokenName).find(request);
+
+        // Then
+        assertThat(actual, is(expected));
+    }
+}
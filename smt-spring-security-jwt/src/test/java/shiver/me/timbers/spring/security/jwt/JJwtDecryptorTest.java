@@ -18,25 +18,53 @@ package shiver.me.timbers.spring.security.jwt;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.Jws;
 import io.jsonwebtoken.JwtException;
 import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.MalformedJwtException;
+import io.jsonwebtoken.PrematureJwtException;
+import io.jsonwebtoken.SignatureException;
+import io.jsonwebtoken.SigningKeyResolver;
+import io.jsonwebtoken.UnsupportedJwtException;
+import io.jsonwebtoken.impl.compression.CompressionCodecs;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
+import shiver.me.timbers.spring.security.DatatypeConverterBase64;
+import shiver.me.timbers.spring.security.compression.BoundedDeflateCompressionCodec;
+import shiver.me.timbers.spring.security.compression.SingleCompressionCodecResolver;
+import shiver.me.timbers.spring.security.keys.ExpiringKeyRing;
+import shiver.me.timbers.spring.security.keys.JwtKey;
+import shiver.me.timbers.spring.security.keys.SecretBase64KeyPairs;
+import shiver.me.timbers.spring.security.time.DateClock;
 
 import java.io.IOException;
 import java.security.KeyPair;
 import java.security.PrivateKey;
 import java.security.PublicKey;
+import java.util.Date;
 import java.util.Map;
 
+import static io.jsonwebtoken.SignatureAlgorithm.HS256;
+import static java.util.Collections.singletonList;
+import static java.util.Collections.singletonMap;
+
+import static org.hamcrest.Matchers.hasProperty;
 import static org.hamcrest.Matchers.is;
 import static org.junit.Assert.assertThat;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.mock;
+import static shiver.me.timbers.data.random.RandomStrings.someAlphaNumericString;
 import static shiver.me.timbers.data.random.RandomStrings.someString;
+import static shiver.me.timbers.spring.security.jwt.JwtInvalidTokenReason.EXPIRED;
+import static shiver.me.timbers.spring.security.jwt.JwtInvalidTokenReason.MALFORMED;
+import static shiver.me.timbers.spring.security.jwt.JwtInvalidTokenReason.PREMATURE;
+import static shiver.me.timbers.spring.security.jwt.JwtInvalidTokenReason.SIGNATURE;
+import static shiver.me.timbers.spring.security.jwt.JwtInvalidTokenReason.UNKNOWN;
 
 public class JJwtDecryptorTest {
 
@@ -78,7 +106,7 @@ public class JJwtDecryptorTest {
 
         // Given
         given(parserFactory.create()).willReturn(parser);
-        given(parser.setSigningKey(publicKey)).willReturn(secretParser);
+        given(parser.setSigningKeyResolver(any(SigningKeyResolver.class))).willReturn(secretParser);
         given(secretParser.parseClaimsJws(token)).willReturn(jws);
         given(jws.getBody()).willReturn(claims);
         given(claims.get(PRINCIPAL, Map.class)).willReturn(map);
@@ -103,7 +131,7 @@ public class JJwtDecryptorTest {
 
         // Given
         given(parserFactory.create()).willReturn(parser);
-        given(parser.setSigningKey(publicKey)).willReturn(secretParser);
+        given(parser.setSigningKeyResolver(any(SigningKeyResolver.class))).willReturn(secretParser);
         given(secretParser.parseClaimsJws(token)).willThrow(exception);
         expectedException.expect(JwtInvalidTokenException.class);
         expectedException.expectCause(is(exception));
@@ -122,7 +150,7 @@ public class JJwtDecryptorTest {
 
         // Given
         given(parserFactory.create()).willReturn(parser);
-        given(parser.setSigningKey(publicKey)).willReturn(secretParser);
+        given(parser.setSigningKeyResolver(any(SigningKeyResolver.class))).willReturn(secretParser);
         given(secretParser.parseClaimsJws("")).willThrow(exception);
         expectedException.expect(JwtInvalidTokenException.class);
         expectedException.expectCause(is(exception));
@@ -130,4 +158,131 @@ public class JJwtDecryptorTest {
         // When
         decryptor.decrypt("", Object.class);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void Can_record_the_reason_a_jwt_token_failed_to_parse() {
+
+        final String token = someString();
+
+        final JwtParser parser = mock(JwtParser.class);
+        final JwtParser secretParser = mock(JwtParser.class);
+
+        // Given
+        given(parserFactory.create()).willReturn(parser);
+        given(parser.setSigningKeyResolver(any(SigningKeyResolver.class))).willReturn(secretParser);
+        given(secretParser.parseClaimsJws(token)).willThrow(
+            new SignatureException(someString()),
+            new ExpiredJwtException(null, null, someString()),
+            new PrematureJwtException(null, null, someString()),
+            new MalformedJwtException(someString()),
+            new UnsupportedJwtException(someString()),
+            new JwtException(someString())
+        );
+
+        // Then
+        assertThat(reason(token), is(SIGNATURE));
+        assertThat(reason(token), is(EXPIRED));
+        assertThat(reason(token), is(PREMATURE));
+        assertThat(reason(token), is(MALFORMED));
+        assertThat(reason(token), is(MALFORMED));
+        assertThat(reason(token), is(UNKNOWN));
+    }
+
+    private JwtInvalidTokenReason reason(String token) {
+        try {
+            decryptor.decrypt(token, Object.class);
+            throw new AssertionError("The token should not have been parsed.");
+        } catch (JwtInvalidTokenException e) {
+            return e.getReason();
+        }
+    }
+
+    @Test
+    public void Can_parse_a_jwt_token_signed_with_a_retired_key() throws IOException {
+
+        final KeyPair signingKey = hmacKeyPair();
+        final KeyPair retiredKey = hmacKeyPair();
+        final String username = someString();
+
+        // Given
+        final String token = Jwts.builder().setHeaderParam("kid", "retired")
+            .claim(PRINCIPAL, singletonMap("username", username))
+            .signWith(HS256, retiredKey.getPrivate()).compact();
+
+        // When
+        final JwtPrincipal actual = new JJwtDecryptor(
+            new JJwtParserFactory(),
+            new ExpiringKeyRing(
+                new JwtKey("signing", signingKey),
+                singletonList(new JwtKey("retired", retiredKey, new Date(Long.MAX_VALUE))),
+                new DateClock()
+            ),
+            new ObjectMapper()
+        ).decrypt(token, JwtPrincipal.class);
+
+        // Then
+        assertThat(actual.getUsername(), is(username));
+    }
+
+    @Test
+    public void Cannot_parse_a_jwt_token_with_an_unknown_key_id() throws IOException {
+
+        final KeyPair signingKey = hmacKeyPair();
+
+        // Given
+        final String token = Jwts.builder().setHeaderParam("kid", "unknown").claim(PRINCIPAL, someString())
+            .signWith(HS256, signingKey.getPrivate()).compact();
+        expectedException.expect(JwtInvalidTokenException.class);
+        expectedException.expect(hasProperty("reason", is(SIGNATURE)));
+
+        // When
+        new JJwtDecryptor(new JJwtParserFactory(), new ExpiringKeyRing(new JwtKey("signing", signingKey)), objectMapper)
+            .decrypt(token, Object.class);
+    }
+
+    @Test
+    public void Can_parse_a_compressed_jwt_token() throws IOException {
+
+        final KeyPair signingKey = hmacKeyPair();
+        final String username = someAlphaNumericString(16);
+
+        // Given
+        final String token = Jwts.builder().claim(PRINCIPAL, singletonMap("username", username))
+            .compressWith(CompressionCodecs.DEFLATE).signWith(HS256, signingKey.getPrivate()).compact();
+
+        // When
+        final JwtPrincipal actual = new JJwtDecryptor(
+            new JJwtParserFactory(),
+            new ExpiringKeyRing(new JwtKey(null, signingKey)),
+            new ObjectMapper(),
+            new SingleCompressionCodecResolver(new BoundedDeflateCompressionCodec(1024))
+        ).decrypt(token, JwtPrincipal.class);
+
+        // Then
+        assertThat(actual.getUsername(), is(username));
+    }
+
+    @Test
+    public void Cannot_parse_a_compressed_jwt_token_that_inflates_past_the_maximum_size() throws IOException {
+
+        final KeyPair signingKey = hmacKeyPair();
+
+        // Given
+        final String token = Jwts.builder().claim(PRINCIPAL, singletonMap("username", someString(2048)))
+            .compressWith(CompressionCodecs.DEFLATE).signWith(HS256, signingKey.getPrivate()).compact();
+        expectedException.expect(JwtInvalidTokenException.class);
+        expectedException.expect(hasProperty("reason", is(MALFORMED)));
+
+        // When
+        new JJwtDecryptor(
+            new JJwtParserFactory(),
+            new ExpiringKeyRing(new JwtKey(null, signingKey)),
+            new ObjectMapper(),
+            new SingleCompressionCodecResolver(new BoundedDeflateCompressionCodec(1024))
+        ).decrypt(token, JwtPrincipal.class);
+    }
+
+    private static KeyPair hmacKeyPair() throws IOException {
+        return new SecretBase64KeyPairs(new DatatypeConverterBase64(), HS256).createPair(someString());
+    }
+}
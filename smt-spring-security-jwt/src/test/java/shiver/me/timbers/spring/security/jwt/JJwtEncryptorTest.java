@@ -16,10 +16,15 @@
 
 package shiver.me.timbers.spring.security.jwt;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.CompressionCodec;
 import io.jsonwebtoken.JwtBuilder;
 import io.jsonwebtoken.SignatureAlgorithm;
 import org.junit.Before;
 import org.junit.Test;
+import shiver.me.timbers.spring.security.compression.CompressionPolicy;
+import shiver.me.timbers.spring.security.keys.JwtKey;
+import shiver.me.timbers.spring.security.keys.KeyRing;
 import shiver.me.timbers.spring.security.time.Clock;
 
 import java.security.KeyPair;
@@ -31,10 +36,14 @@ import java.util.concurrent.TimeUnit;
 import static org.hamcrest.Matchers.is;
 import static org.junit.Assert.assertThat;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyZeroInteractions;
 import static shiver.me.timbers.data.random.RandomEnums.someEnum;
 import static shiver.me.timbers.data.random.RandomIntegers.somePositiveInteger;
+import static shiver.me.timbers.data.random.RandomStrings.someAlphaNumericString;
 import static shiver.me.timbers.data.random.RandomStrings.someString;
 
 public class JJwtEncryptorTest {
@@ -116,4 +125,191 @@ public class JJwtEncryptorTest {
         verifyZeroInteractions(clock);
         assertThat(actual, is(expected));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void Can_create_a_jwt_token_with_the_key_id_of_the_signing_key() {
+
+        final KeyRing keyRing = mock(KeyRing.class);
+        final String keyId = someString();
+        final String principal = someString();
+
+        final JwtBuilder builder = mock(JwtBuilder.class);
+        final JwtBuilder principleBuilder = mock(JwtBuilder.class);
+        final JwtBuilder secretBuilder = mock(JwtBuilder.class);
+
+        final String expected = someString();
+
+        // Given
+        given(keyRing.getSigningKey()).willReturn(new JwtKey(keyId, keyPair));
+        given(builderFactory.create()).willReturn(builder);
+        given(builder.claim(PRINCIPAL, principal)).willReturn(principleBuilder);
+        given(principleBuilder.signWith(algorithm, privateKey)).willReturn(secretBuilder);
+        given(secretBuilder.compact()).willReturn(expected);
+
+        // When
+        final String actual = new JJwtEncryptor(builderFactory, algorithm, keyRing, -1, expiryUnit, clock)
+            .encrypt(principal);
+
+        // Then
+        verify(secretBuilder).setHeaderParam("kid", keyId);
+        assertThat(actual, is(expected));
+    }
+
+    @Test
+    public void Can_create_a_compressed_jwt_token() {
+
+        final KeyRing keyRing = mock(KeyRing.class);
+        final CompressionPolicy compressionPolicy = mock(CompressionPolicy.class);
+        final String principal = someAlphaNumericString(8);
+
+        final JwtBuilder builder = mock(JwtBuilder.class);
+        final JwtBuilder principleBuilder = mock(JwtBuilder.class);
+        final JwtBuilder secretBuilder = mock(JwtBuilder.class);
+        final CompressionCodec codec = mock(CompressionCodec.class);
+
+        final String expected = someString();
+
+        // Given
+        given(keyRing.getSigningKey()).willReturn(new JwtKey(null, keyPair));
+        given(builderFactory.create()).willReturn(builder);
+        given(builder.claim(PRINCIPAL, principal)).willReturn(principleBuilder);
+        given(principleBuilder.signWith(algorithm, privateKey)).willReturn(secretBuilder);
+        given(compressionPolicy.codec(24)).willReturn(codec);
+        given(codec.getAlgorithmName()).willReturn("DEF");
+        given(secretBuilder.compact()).willReturn(expected);
+
+        // When
+        final String actual = new JJwtEncryptor(
+            builderFactory,
+            algorithm,
+            keyRing,
+            -1,
+            expiryUnit,
+            clock,
+            new ObjectMapper(),
+            compressionPolicy
+        ).encrypt(principal);
+
+        // Then
+        verify(secretBuilder).compressWith(codec);
+        verify(secretBuilder).setHeaderParam("zip", "DEF");
+        assertThat(actual, is(expected));
+    }
+
+    @Test
+    public void Can_measure_the_whole_payload_for_the_compression_policy() {
+
+        final KeyRing keyRing = mock(KeyRing.class);
+        final CompressionPolicy compressionPolicy = mock(CompressionPolicy.class);
+        final String principal = someAlphaNumericString(8);
+        final Date expiry = new Date(1500000000000L);
+
+        final JwtBuilder builder = mock(JwtBuilder.class);
+        final JwtBuilder principleBuilder = mock(JwtBuilder.class);
+        final JwtBuilder secretBuilder = mock(JwtBuilder.class);
+        final JwtBuilder expiringBuilder = mock(JwtBuilder.class);
+
+        // Given
+        given(keyRing.getSigningKey()).willReturn(new JwtKey(null, keyPair));
+        given(builderFactory.create()).willReturn(builder);
+        given(builder.claim(PRINCIPAL, principal)).willReturn(principleBuilder);
+        given(principleBuilder.signWith(algorithm, privateKey)).willReturn(secretBuilder);
+        given(clock.nowPlus(expiryDuration, expiryUnit)).willReturn(expiry);
+        given(secretBuilder.setExpiration(expiry)).willReturn(expiringBuilder);
+
+        // When
+        new JJwtEncryptor(
+            builderFactory,
+            algorithm,
+            keyRing,
+            expiryDuration,
+            expiryUnit,
+            clock,
+            new ObjectMapper(),
+            compressionPolicy
+        ).encrypt(principal);
+
+        // Then
+        verify(compressionPolicy).codec(("{\"principal\":\"" + principal + "\",\"exp\":1500000000}").length());
+    }
+
+    @Test
+    public void Can_create_a_jwt_token_with_an_id() {
+
+        final KeyRing keyRing = mock(KeyRing.class);
+        final CompressionPolicy compressionPolicy = mock(CompressionPolicy.class);
+        final JwtIdGenerator idGenerator = mock(JwtIdGenerator.class);
+        final String principal = someAlphaNumericString(8);
+        final String id = someAlphaNumericString(22);
+
+        final JwtBuilder builder = mock(JwtBuilder.class);
+        final JwtBuilder principleBuilder = mock(JwtBuilder.class);
+        final JwtBuilder secretBuilder = mock(JwtBuilder.class);
+
+        final String expected = someString();
+
+        // Given
+        given(keyRing.getSigningKey()).willReturn(new JwtKey(null, keyPair));
+        given(builderFactory.create()).willReturn(builder);
+        given(builder.claim(PRINCIPAL, principal)).willReturn(principleBuilder);
+        given(principleBuilder.signWith(algorithm, privateKey)).willReturn(secretBuilder);
+        given(idGenerator.generate()).willReturn(id);
+        given(secretBuilder.compact()).willReturn(expected);
+
+        // When
+        final String actual = new JJwtEncryptor(
+            builderFactory,
+            algorithm,
+            keyRing,
+            -1,
+            expiryUnit,
+            clock,
+            new ObjectMapper(),
+            compressionPolicy,
+            idGenerator
+        ).encrypt(principal);
+
+        // Then
+        verify(secretBuilder).setId(id);
+        verify(compressionPolicy).codec(("{\"principal\":\"" + principal + "\",\"jti\":\"" + id + "\"}").length());
+        assertThat(actual, is(expected));
+    }
+
+    @Test
+    public void Can_create_an_uncompressed_jwt_token_when_the_policy_declines() {
+
+        final KeyRing keyRing = mock(KeyRing.class);
+        final CompressionPolicy compressionPolicy = mock(CompressionPolicy.class);
+        final String principal = someAlphaNumericString(8);
+
+        final JwtBuilder builder = mock(JwtBuilder.class);
+        final JwtBuilder principleBuilder = mock(JwtBuilder.class);
+        final JwtBuilder secretBuilder = mock(JwtBuilder.class);
+
+        final String expected = someString();
+
+        // Given
+        given(keyRing.getSigningKey()).willReturn(new JwtKey(null, keyPair));
+        given(builderFactory.create()).willReturn(builder);
+        given(builder.claim(PRINCIPAL, principal)).willReturn(principleBuilder);
+        given(principleBuilder.signWith(algorithm, privateKey)).willReturn(secretBuilder);
+        given(compressionPolicy.codec(24)).willReturn(null);
+        given(secretBuilder.compact()).willReturn(expected);
+
+        // When
+        final String actual = new JJwtEncryptor(
+            builderFactory,
+            algorithm,
+            keyRing,
+            -1,
+            expiryUnit,
+            clock,
+            new ObjectMapper(),
+            compressionPolicy
+        ).encrypt(principal);
+
+        // Then
+        verify(secretBuilder, never()).compressWith(any(CompressionCodec.class));
+        assertThat(actual, is(expected));
+    }
+}
@@ -0,0 +1,385 @@
+/*
+ * Copyright 2016 Karl Bennett
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package shiver.me.timbers.spring.security.jwt;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.CompressionCodec;
+import io.jsonwebtoken.impl.TextCodec;
+import io.jsonwebtoken.impl.compression.CompressionCodecs;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import shiver.me.timbers.spring.security.compression.BoundedDeflateCompressionCodec;
+import shiver.me.timbers.spring.security.signature.SignatureVerifier;
+import shiver.me.timbers.spring.security.signature.SignatureVerifierResolver;
+import shiver.me.timbers.spring.security.time.Clock;
+
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.Date;
+
+import static io.jsonwebtoken.SignatureAlgorithm.HS256;
+import static io.jsonwebtoken.SignatureAlgorithm.HS512;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasProperty;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static shiver.me.timbers.spring.security.jwt.JwtInvalidTokenReason.EXPIRED;
+import static shiver.me.timbers.spring.security.jwt.JwtInvalidTokenReason.MALFORMED;
+import static shiver.me.timbers.spring.security.jwt.JwtInvalidTokenReason.MISSING;
+import static shiver.me.timbers.spring.security.jwt.JwtInvalidTokenReason.PREMATURE;
+import static shiver.me.timbers.spring.security.jwt.JwtInvalidTokenReason.SIGNATURE;
+
+public class JcaJwtDecryptorTest {
+
+    @Rule
+    public final ExpectedException expectedException = ExpectedException.none();
+
+    private SignatureVerifier verifier;
+    private Clock clock;
+    private JwtDecryptor decryptor;
+
+    @Before
+    public void setUp() {
+        verifier = mock(SignatureVerifier.class);
+        clock = mock(Clock.class);
+        decryptor = new JcaJwtDecryptor(HS512, verifier, new ObjectMapper(), clock);
+    }
+
+    @Test
+    public void Can_decrypt_a_token() {
+
+        final String token = token(
+            "{\"alg\":\"HS512\"}",
+            "{\"principal\":{\"username\":\"user\",\"roles\":[\"one\",\"two\"]},\"exp\":2000,\"nbf\":1000}"
+        );
+
+        // Given
+        given(verifier.verify(any(byte[].class), any(byte[].class))).willReturn(true);
+        given(clock.now()).willReturn(new Date(1500000L));
+
+        // When
+        final JwtPrincipal actual = decryptor.decrypt(token, JwtPrincipal.class);
+
+        // Then
+        assertThat(actual.getUsername(), is("user"));
+        assertThat(actual.getRoles(), contains("one", "two"));
+    }
+
+    @Test
+    public void Can_decrypt_a_token_into_a_custom_principal_while_skipping_other_claims() {
+
+        final String token = token(
+            "{\"typ\":\"JWT\",\"alg\":\"HS512\",\"extra\":{\"a\":[1,2]}}",
+            "{\"sub\":{\"nested\":[{}]},\"principal\":{\"name\":\"custom\",\"age\":42},\"exp\":2000}"
+        );
+
+        // Given
+        given(verifier.verify(any(byte[].class), any(byte[].class))).willReturn(true);
+        given(clock.now()).willReturn(new Date(1500000L));
+
+        // When
+        final CustomPrincipal first = decryptor.decrypt(token, CustomPrincipal.class);
+        final CustomPrincipal second = decryptor.decrypt(token, CustomPrincipal.class);
+
+        // Then
+        assertThat(first.name, is("custom"));
+        assertThat(first.age, is(42));
+        assertThat(second.name, is("custom"));
+    }
+
+    @Test
+    public void Cannot_decrypt_an_expired_token_even_if_the_expiry_comes_after_the_principal() {
+
+        // Given
+        given(verifier.verify(any(byte[].class), any(byte[].class))).willReturn(true);
+        given(clock.now()).willReturn(new Date(2000001L));
+        expectedException.expect(JwtInvalidTokenException.class);
+
+        // When
+        decryptor.decrypt(
+            token("{\"alg\":\"HS512\"}", "{\"principal\":{\"username\":\"user\"},\"exp\":2000}"),
+            JwtPrincipal.class
+        );
+    }
+
+    @Test
+    public void Cannot_decrypt_a_token_with_a_principal_that_does_not_match_the_type() {
+
+        // Given
+        given(verifier.verify(any(byte[].class), any(byte[].class))).willReturn(true);
+        given(clock.now()).willReturn(new Date(0L));
+        expectedException.expect(JwtInvalidTokenException.class);
+
+        // When
+        decryptor.decrypt(token("{\"alg\":\"HS512\"}", "{\"principal\":{\"unknown\":1}}"), JwtPrincipal.class);
+    }
+
+    @Test
+    public void Cannot_decrypt_a_missing_token() {
+
+        // Given
+        expectedException.expect(JwtInvalidTokenException.class);
+        expectedException.expect(hasProperty("reason", is(MISSING)));
+
+        // When
+        decryptor.decrypt("", JwtPrincipal.class);
+    }
+
+    @Test
+    public void Cannot_decrypt_a_token_without_a_signature() {
+
+        // Given
+        expectedException.expect(JwtInvalidTokenException.class);
+
+        // When
+        decryptor.decrypt(token("{\"alg\":\"HS512\"}", "{}").replaceAll("\\.[^.]*$", "."), JwtPrincipal.class);
+    }
+
+    @Test
+    public void Cannot_decrypt_a_token_with_a_different_algorithm() {
+
+        // Given
+        expectedException.expect(JwtInvalidTokenException.class);
+        expectedException.expect(hasProperty("reason", is(MALFORMED)));
+
+        // When
+        decryptor.decrypt(token("{\"alg\":\"" + HS256.getValue() + "\"}", "{}"), JwtPrincipal.class);
+
+        // Then
+        verifyZeroInteractions(verifier);
+    }
+
+    @Test
+    public void Cannot_decrypt_an_unsigned_token() {
+
+        // Given
+        expectedException.expect(JwtInvalidTokenException.class);
+
+        // When
+        decryptor.decrypt(token("{\"alg\":\"none\"}", "{}"), JwtPrincipal.class);
+    }
+
+    @Test
+    public void Cannot_decrypt_a_token_with_an_invalid_signature() {
+
+        // Given
+        given(verifier.verify(any(byte[].class), any(byte[].class))).willReturn(false);
+        expectedException.expect(JwtInvalidTokenException.class);
+        expectedException.expect(hasProperty("reason", is(SIGNATURE)));
+
+        // When
+        decryptor.decrypt(token("{\"alg\":\"HS512\"}", "{}"), JwtPrincipal.class);
+    }
+
+    @Test
+    public void Can_decrypt_a_token_with_the_verifier_for_its_key_id() {
+
+        final SignatureVerifierResolver verifiers = mock(SignatureVerifierResolver.class);
+        final SignatureVerifier keyVerifier = mock(SignatureVerifier.class);
+        final String token = token("{\"alg\":\"HS512\",\"kid\":\"two\"}", "{\"principal\":{\"username\":\"user\"}}");
+
+        // Given
+        given(verifiers.resolve("two")).willReturn(keyVerifier);
+        given(keyVerifier.verify(any(byte[].class), any(byte[].class))).willReturn(true);
+        given(clock.now()).willReturn(new Date(1500000L));
+
+        // When
+        final JwtPrincipal actual = new JcaJwtDecryptor(HS512, verifiers, new ObjectMapper(), clock)
+            .decrypt(token, JwtPrincipal.class);
+
+        // Then
+        assertThat(actual.getUsername(), is("user"));
+    }
+
+    @Test
+    public void Cannot_decrypt_a_token_with_an_unknown_key_id() {
+
+        final SignatureVerifierResolver verifiers = mock(SignatureVerifierResolver.class);
+
+        // Given
+        given(verifiers.resolve("unknown")).willReturn(null);
+        expectedException.expect(JwtInvalidTokenException.class);
+        expectedException.expect(hasProperty("reason", is(SIGNATURE)));
+        expectedException.expectMessage("Could not find a key for the JWT token key id (unknown).");
+
+        // When
+        new JcaJwtDecryptor(HS512, verifiers, new ObjectMapper(), clock)
+            .decrypt(token("{\"alg\":\"HS512\",\"kid\":\"unknown\"}", "{}"), JwtPrincipal.class);
+    }
+
+    @Test
+    public void Cannot_decrypt_an_expired_token() {
+
+        // Given
+        given(verifier.verify(any(byte[].class), any(byte[].class))).willReturn(true);
+        given(clock.now()).willReturn(new Date(2000000L));
+        expectedException.expect(JwtInvalidTokenException.class);
+        expectedException.expect(hasProperty("reason", is(EXPIRED)));
+
+        // When
+        decryptor.decrypt(token("{\"alg\":\"HS512\"}", "{\"exp\":2000}"), JwtPrincipal.class);
+    }
+
+    @Test
+    public void Cannot_decrypt_a_token_that_is_not_valid_yet() {
+
+        // Given
+        given(verifier.verify(any(byte[].class), any(byte[].class))).willReturn(true);
+        given(clock.now()).willReturn(new Date(999999L));
+        expectedException.expect(JwtInvalidTokenException.class);
+        expectedException.expect(hasProperty("reason", is(PREMATURE)));
+
+        // When
+        decryptor.decrypt(token("{\"alg\":\"HS512\"}", "{\"nbf\":1000}"), JwtPrincipal.class);
+    }
+
+    @Test
+    public void Cannot_decrypt_a_token_with_an_invalid_payload() {
+
+        // Given
+        given(verifier.verify(any(byte[].class), any(byte[].class))).willReturn(true);
+        expectedException.expect(JwtInvalidTokenException.class);
+
+        // When
+        decryptor.decrypt(token("{\"alg\":\"HS512\"}", "[1,2]"), JwtPrincipal.class);
+    }
+
+    @Test
+    public void Can_decrypt_a_compressed_token() {
+
+        final CompressionCodec codec = new BoundedDeflateCompressionCodec(1024);
+        final String token = token(
+            "{\"alg\":\"HS512\",\"zip\":\"DEF\"}",
+            codec.compress(bytes("{\"principal\":{\"username\":\"user\",\"roles\":[\"one\"]},\"exp\":2000}"))
+        );
+
+        // Given
+        given(verifier.verify(any(byte[].class), any(byte[].class))).willReturn(true);
+        given(clock.now()).willReturn(new Date(1500000L));
+
+        // When
+        final JwtPrincipal actual = new JcaJwtDecryptor(
+            HS512,
+            verifiers(),
+            new ObjectMapper(),
+            clock,
+            codec
+        ).decrypt(token, JwtPrincipal.class);
+
+        // Then
+        assertThat(actual.getUsername(), is("user"));
+        assertThat(actual.getRoles(), contains("one"));
+    }
+
+    @Test
+    public void Can_decrypt_a_token_compressed_by_jjwt() {
+
+        final CompressionCodec codec = new BoundedDeflateCompressionCodec(1024);
+        final String token = token(
+            "{\"alg\":\"HS512\",\"calg\":\"DEF\"}",
+            CompressionCodecs.DEFLATE.compress(bytes("{\"principal\":{\"username\":\"user\"}}"))
+        );
+
+        // Given
+        given(verifier.verify(any(byte[].class), any(byte[].class))).willReturn(true);
+        given(clock.now()).willReturn(new Date(1500000L));
+
+        // When
+        final JwtPrincipal actual = new JcaJwtDecryptor(HS512, verifiers(), new ObjectMapper(), clock, codec)
+            .decrypt(token, JwtPrincipal.class);
+
+        // Then
+        assertThat(actual.getUsername(), is("user"));
+    }
+
+    @Test
+    public void Cannot_decrypt_a_compressed_token_if_no_compression_codec_has_been_configured() {
+
+        // Given
+        expectedException.expect(JwtInvalidTokenException.class);
+        expectedException.expect(hasProperty("reason", is(MALFORMED)));
+        expectedException.expectMessage("Compressed JWT tokens are not supported.");
+
+        // When
+        decryptor.decrypt(token("{\"alg\":\"HS512\",\"zip\":\"DEF\"}", "{}"), JwtPrincipal.class);
+    }
+
+    @Test
+    public void Cannot_decrypt_a_token_compressed_with_an_unsupported_algorithm() {
+
+        // Given
+        expectedException.expect(JwtInvalidTokenException.class);
+        expectedException.expect(hasProperty("reason", is(MALFORMED)));
+        expectedException.expectMessage("The JWT token compression algorithm (GZIP) is not supported.");
+
+        // When
+        new JcaJwtDecryptor(HS512, verifiers(), new ObjectMapper(), clock, new BoundedDeflateCompressionCodec(1024))
+            .decrypt(token("{\"alg\":\"HS512\",\"zip\":\"GZIP\"}", "{}"), JwtPrincipal.class);
+    }
+
+    @Test
+    public void Cannot_decrypt_a_token_that_inflates_past_the_maximum_size() {
+
+        final CompressionCodec codec = new BoundedDeflateCompressionCodec(1024);
+        final char[] padding = new char[2048];
+        Arrays.fill(padding, 'a');
+
+        // Given
+        given(verifier.verify(any(byte[].class), any(byte[].class))).willReturn(true);
+        expectedException.expect(JwtInvalidTokenException.class);
+        expectedException.expect(hasProperty("reason", is(MALFORMED)));
+        expectedException.expectMessage("Could not inflate the JWT token payload.");
+
+        // When
+        new JcaJwtDecryptor(HS512, verifiers(), new ObjectMapper(), clock, codec).decrypt(
+            token(
+                "{\"alg\":\"HS512\",\"zip\":\"DEF\"}",
+                codec.compress(bytes("{\"principal\":{\"username\":\"" + new String(padding) + "\"}}"))
+            ),
+            JwtPrincipal.class
+        );
+    }
+
+    public static class CustomPrincipal {
+        public String name;
+        public int age;
+    }
+
+    private static String token(String header, String payload) {
+        return TextCodec.BASE64URL.encode(header) + "." + TextCodec.BASE64URL.encode(payload) + ".c2lnbmF0dXJl";
+    }
+
+    private static String token(String header, byte[] payload) {
+        return TextCodec.BASE64URL.encode(header) + "." + TextCodec.BASE64URL.encode(payload) + ".c2lnbmF0dXJl";
+    }
+
+    private SignatureVerifierResolver verifiers() {
+        final SignatureVerifierResolver verifiers = mock(SignatureVerifierResolver.class);
+        given(verifiers.resolve(null)).willReturn(verifier);
+        return verifiers;
+    }
+
+    private static byte[] bytes(String string) {
+        return string.getBytes(Charset.forName("UTF-8"));
+    }
+}
@@ -0,0 +1,352 @@
+/*
+ * Copyright 2016 Karl Bennett
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package shiver.me.timbers.spring.security.jwt;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.impl.TextCodec;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import shiver.me.timbers.spring.security.DatatypeConverterBase64;
+import shiver.me.timbers.spring.security.compression.BoundedDeflateCompressionCodec;
+import shiver.me.timbers.spring.security.compression.CompressionPolicy;
+import shiver.me.timbers.spring.security.compression.SingleCompressionCodecResolver;
+import shiver.me.timbers.spring.security.compression.ThresholdCompressionPolicy;
+import shiver.me.timbers.spring.security.keys.ExpiringKeyRing;
+import shiver.me.timbers.spring.security.keys.JwtKey;
+import shiver.me.timbers.spring.security.keys.KeyRing;
+import shiver.me.timbers.spring.security.keys.SecretBase64KeyPairs;
+import shiver.me.timbers.spring.security.signature.JcaSignatureSignerFactory;
+import shiver.me.timbers.spring.security.signature.JcaSignatureVerifierFactory;
+import shiver.me.timbers.spring.security.signature.KeyRingSignatureVerifierResolver;
+import shiver.me.timbers.spring.security.signature.SignatureSignerFactory;
+import shiver.me.timbers.spring.security.time.Clock;
+
+import java.io.IOException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static io.jsonwebtoken.SignatureAlgorithm.ES256;
+import static io.jsonwebtoken.SignatureAlgorithm.HS256;
+import static io.jsonwebtoken.SignatureAlgorithm.RS256;
+import static java.util.Arrays.asList;
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static shiver.me.timbers.data.random.RandomStrings.someAlphaNumericString;
+
+public class JcaJwtEncryptorTest {
+
+    private static KeyPair rsaKeyPair;
+    private static KeyPair ecKeyPair;
+
+    private Clock clock;
+    private KeyPair hmacKeyPair;
+
+    @BeforeClass
+    public static void setUpKeys() throws NoSuchAlgorithmException {
+        final KeyPairGenerator rsa = KeyPairGenerator.getInstance("RSA");
+        rsa.initialize(2048);
+        rsaKeyPair = rsa.generateKeyPair();
+        final KeyPairGenerator ec = KeyPairGenerator.getInstance("EC");
+        ec.initialize(256);
+        ecKeyPair = ec.generateKeyPair();
+    }
+
+    @Before
+    public void setUp() throws IOException {
+        clock = mock(Clock.class);
+        hmacKeyPair = new SecretBase64KeyPairs(new DatatypeConverterBase64(), HS256)
+            .createPair(someAlphaNumericString(32));
+        given(clock.now()).willReturn(new Date());
+        given(clock.nowPlus(anyLong(), any(TimeUnit.class)))
+            .willReturn(new Date(System.currentTimeMillis() + 60000L));
+    }
+
+    @Test
+    public void Can_create_the_same_token_as_the_jjwt_encryptor() {
+
+        final JwtPrincipal principal = new JwtPrincipal(someAlphaNumericString(8), asList("one", "two"));
+
+        // Given
+        final String expected = new JJwtEncryptor(new JJwtBuilderFactory(), HS256, hmacKeyPair, 5, MINUTES, clock)
+            .encrypt(principal);
+
+        // When
+        final String actual = encryptor(HS256, new ExpiringKeyRing(new JwtKey(null, hmacKeyPair)), null)
+            .encrypt(principal);
+
+        // Then
+        assertThat(actual, is(expected));
+    }
+
+    @Test
+    public void Can_create_a_hmac_token_that_can_be_decrypted() {
+        assertDecryptable(HS256, new ExpiringKeyRing(new JwtKey("hmac", hmacKeyPair)));
+    }
+
+    @Test
+    public void Can_create_a_rsa_token_that_can_be_decrypted() {
+        assertDecryptable(RS256, new ExpiringKeyRing(new JwtKey("rsa", rsaKeyPair)));
+    }
+
+    @Test
+    public void Can_create_an_ecdsa_token_that_can_be_decrypted() {
+        assertDecryptable(ES256, new ExpiringKeyRing(new JwtKey(null, ecKeyPair)));
+    }
+
+    @Test
+    public void Can_create_a_compressed_token_that_can_be_decrypted() {
+
+        final BoundedDeflateCompressionCodec codec = new BoundedDeflateCompressionCodec(65536);
+        final KeyRing keyRing = new ExpiringKeyRing(new JwtKey("hmac", hmacKeyPair));
+        final JwtPrincipal principal = new JwtPrincipal(someAlphaNumericString(8), roles(100));
+
+        // Given
+        final JwtEncryptor encryptor = encryptor(
+            HS256,
+            keyRing,
+            new ThresholdCompressionPolicy(codec, 0)
+        );
+
+        // When
+        final String actual = encryptor.encrypt(principal);
+
+        // Then
+        assertThat(header(actual), is("{\"alg\":\"HS256\",\"kid\":\"hmac\",\"zip\":\"DEF\",\"calg\":\"DEF\"}"));
+        assertThat(
+            new JJwtDecryptor(
+                new JJwtParserFactory(),
+                keyRing,
+                new ObjectMapper(),
+                new SingleCompressionCodecResolver(codec)
+            ).decrypt(actual, JwtPrincipal.class),
+            equalTo(principal)
+        );
+        assertThat(
+            new JcaJwtDecryptor(
+                HS256,
+                new KeyRingSignatureVerifierResolver(HS256, keyRing, new JcaSignatureVerifierFactory()),
+                new ObjectMapper(),
+                clock,
+                codec
+            ).decrypt(actual, JwtPrincipal.class),
+            equalTo(principal)
+        );
+    }
+
+    @Test
+    public void Can_decide_if_a_token_should_be_compressed_from_the_length_of_its_payload() {
+
+        final CompressionPolicy compressionPolicy = mock(CompressionPolicy.class);
+        final JwtPrincipal principal = new JwtPrincipal(someAlphaNumericString(8), asList("one", "two"));
+
+        // When
+        final String actual = new JcaJwtEncryptor(
+            HS256,
+            new ExpiringKeyRing(new JwtKey(null, hmacKeyPair)),
+            new JcaSignatureSignerFactory(),
+            new ObjectMapper(),
+            5,
+            MINUTES,
+            clock,
+            compressionPolicy
+        ).encrypt(principal);
+
+        // Then
+        verify(compressionPolicy).codec(payload(actual).length());
+    }
+
+    @Test
+    public void Can_create_a_token_with_no_expiry() {
+
+        final JwtPrincipal principal = new JwtPrincipal(someAlphaNumericString(8), asList("one"));
+
+        // When
+        final String actual = new JcaJwtEncryptor(
+            HS256,
+            new ExpiringKeyRing(new JwtKey(null, hmacKeyPair)),
+            new JcaSignatureSignerFactory(),
+            new ObjectMapper(),
+            -1,
+            MINUTES,
+            clock
+        ).encrypt(principal);
+
+        // Then
+        assertThat(payload(actual), not(containsString("\"exp\"")));
+        assertThat(new PayloadJwtExpiryReader(new JsonFactory()).read(actual), nullValue());
+    }
+
+    @Test
+    public void Can_create_a_token_with_an_id() {
+
+        final KeyRing keyRing = new ExpiringKeyRing(new JwtKey(null, hmacKeyPair));
+        final JwtIdGenerator idGenerator = mock(JwtIdGenerator.class);
+        final JwtPrincipal principal = new JwtPrincipal(someAlphaNumericString(8), asList("one"));
+
+        final String expected = someAlphaNumericString(22);
+
+        // Given
+        given(idGenerator.generate()).willReturn(expected);
+
+        // When
+        final String actual = new JcaJwtEncryptor(
+            HS256,
+            keyRing,
+            new JcaSignatureSignerFactory(),
+            new ObjectMapper(),
+            5,
+            MINUTES,
+            clock,
+            null,
+            idGenerator
+        ).encrypt(principal);
+
+        // Then
+        assertThat(new PayloadJwtIdReader(new JsonFactory()).read(actual), is(expected));
+        assertThat(
+            new JJwtDecryptor(new JJwtParserFactory(), keyRing, new ObjectMapper()).decrypt(actual, JwtPrincipal.class),
+            equalTo(principal)
+        );
+    }
+
+    @Test
+    public void Can_create_tokens_that_are_larger_and_then_smaller_than_the_buffers() {
+
+        final KeyRing keyRing = new ExpiringKeyRing(new JwtKey(null, hmacKeyPair));
+        final JwtEncryptor encryptor = encryptor(HS256, keyRing, null);
+        final JwtDecryptor decryptor = new JJwtDecryptor(new JJwtParserFactory(), keyRing, new ObjectMapper());
+        final JwtPrincipal large = new JwtPrincipal(someAlphaNumericString(8), roles(500));
+        final JwtPrincipal small = new JwtPrincipal(someAlphaNumericString(8), roles(1));
+
+        // When
+        final String actualLarge = encryptor.encrypt(large);
+        final String actualSmall = encryptor.encrypt(small);
+
+        // Then
+        assertThat(decryptor.decrypt(actualLarge, JwtPrincipal.class), equalTo(large));
+        assertThat(decryptor.decrypt(actualSmall, JwtPrincipal.class), equalTo(small));
+    }
+
+    private void assertDecryptable(SignatureAlgorithm algorithm, KeyRing keyRing) {
+        final JwtPrincipal principal = new JwtPrincipal(someAlphaNumericString(8), roles(3));
+
+        // When
+        final String actual = encryptor(algorithm, keyRing, null).encrypt(principal);
+
+        // Then
+        assertThat(
+            new JJwtDecryptor(new JJwtParserFactory(), keyRing, new ObjectMapper()).decrypt(actual, JwtPrincipal.class),
+            equalTo(principal)
+        );
+        assertThat(
+            new JcaJwtDecryptor(
+                algorithm,
+                new KeyRingSignatureVerifierResolver(algorithm, keyRing, new JcaSignatureVerifierFactory()),
+                new ObjectMapper(),
+                clock
+            ).decrypt(actual, JwtPrincipal.class),
+            equalTo(principal)
+        );
+    }
+
+    @Test
+    public void Can_only_keep_the_signer_for_the_current_signing_key() throws IOException {
+
+        final KeyRing keyRing = mock(KeyRing.class);
+        final SignatureSignerFactory signerFactory = spy(new JcaSignatureSignerFactory());
+        final JwtKey firstKey = new JwtKey("first", hmacKeyPair);
+        final JwtKey secondKey = new JwtKey(
+            "second",
+            new SecretBase64KeyPairs(new DatatypeConverterBase64(), HS256).createPair(someAlphaNumericString(32))
+        );
+        final JwtPrincipal principal = new JwtPrincipal(someAlphaNumericString(8), asList("one", "two"));
+
+        // Given
+        given(keyRing.getSigningKey()).willReturn(firstKey, firstKey, secondKey, secondKey, firstKey);
+        final JwtEncryptor encryptor = new JcaJwtEncryptor(
+            HS256,
+            keyRing,
+            signerFactory,
+            new ObjectMapper(),
+            5,
+            MINUTES,
+            clock
+        );
+
+        // When
+        for (int i = 0; i < 5; i++) {
+            encryptor.encrypt(principal);
+        }
+
+        // Then
+        verify(signerFactory, times(2)).create(HS256, firstKey.getKeyPair().getPrivate());
+        verify(signerFactory, times(1)).create(HS256, secondKey.getKeyPair().getPrivate());
+    }
+
+    private JwtEncryptor encryptor(
+        SignatureAlgorithm algorithm,
+        KeyRing keyRing,
+        ThresholdCompressionPolicy compressionPolicy
+    ) {
+        return new JcaJwtEncryptor(
+            algorithm,
+            keyRing,
+            new JcaSignatureSignerFactory(),
+            new ObjectMapper(),
+            5,
+            MINUTES,
+            clock,
+            compressionPolicy
+        );
+    }
+
+    private static List<String> roles(int size) {
+        final List<String> roles = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            roles.add("ROLE_" + i);
+        }
+        return roles;
+    }
+
+    private static String header(String token) {
+        return TextCodec.BASE64URL.decodeToString(token.substring(0, token.indexOf('.')));
+    }
+
+    private static String payload(String token) {
+        return TextCodec.BASE64URL.decodeToString(token.split("\\.")[1]);
+    }
+}
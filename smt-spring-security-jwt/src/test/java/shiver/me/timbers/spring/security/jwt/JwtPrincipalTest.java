@@ -19,9 +19,13 @@ package shiver.me.timbers.spring.security.jwt;
 import org.junit.Test;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 
+import static java.util.Arrays.asList;
+import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
 import static org.junit.Assert.assertThat;
 import static org.mockito.Mockito.mock;
 import static shiver.me.timbers.data.random.RandomStrings.someString;
@@ -45,4 +49,23 @@ public class JwtPrincipalTest {
         assertThat(actualUsername, is(username));
         assertThat(actualRoles, is(roles));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void Can_check_equality() {
+
+        // Given
+        final String username = someString();
+        final List<String> roles = asList(someString(), someString());
+
+        // Then
+        assertThat(new JwtPrincipal(username, roles), equalTo(new JwtPrincipal(username, new ArrayList<>(roles))));
+        assertThat(
+            new JwtPrincipal(username, roles).hashCode(),
+            equalTo(new JwtPrincipal(username, new ArrayList<>(roles)).hashCode())
+        );
+        assertThat(new JwtPrincipal(username, roles), not(equalTo(new JwtPrincipal(someString(), roles))));
+        assertThat(new JwtPrincipal(username, roles), not(equalTo(new JwtPrincipal(username, asList(someString())))));
+        assertThat(new JwtPrincipal(null, null), equalTo(new JwtPrincipal(null, null)));
+        assertThat(new JwtPrincipal(username, roles), not(equalTo(new Object())));
+    }
+}
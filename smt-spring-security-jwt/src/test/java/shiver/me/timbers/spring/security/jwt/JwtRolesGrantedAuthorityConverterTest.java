@@ -19,6 +19,7 @@ package shiver.me.timbers.spring.security.jwt;
 import org.junit.Before;
 import org.junit.Test;
 import org.springframework.security.core.GrantedAuthority;
+import shiver.me.timbers.spring.security.authority.GrantedAuthorityRegistry;
 
 import java.util.Collection;
 import java.util.List;
@@ -26,6 +27,7 @@ import java.util.List;
 import static java.util.Arrays.asList;
 import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.junit.Assert.assertThat;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.mock;
@@ -56,6 +58,38 @@ public class JwtRolesGrantedAuthorityConverterTest {
         assertThat(actual, contains(hasField("role", role1), hasField("role", role2), hasField("role", role3)));
     }
 
+    @Test
+    public void Can_convert_some_roles_with_an_authority_registry() {
+
+        final GrantedAuthorityRegistry authorityRegistry = mock(GrantedAuthorityRegistry.class);
+        final List<String> roles = asList(someString(), someString());
+
+        final List<GrantedAuthority> expected = asList(mock(GrantedAuthority.class), mock(GrantedAuthority.class));
+
+        // Given
+        given(authorityRegistry.authorities(roles)).willReturn(expected);
+
+        // When
+        final Collection<? extends GrantedAuthority> actual = new JwtRolesGrantedAuthorityConverter(authorityRegistry)
+            .convert(roles);
+
+        // Then
+        assertThat(actual, sameInstance((Collection) expected));
+    }
+
+    @Test
+    public void Can_share_the_default_authority_registry_between_converters() {
+
+        // Given
+        final List<String> roles = asList(someString(), someString());
+
+        // When
+        final Collection<? extends GrantedAuthority> actual = new JwtRolesGrantedAuthorityConverter().convert(roles);
+
+        // Then
+        assertThat(actual, sameInstance((Collection) converter.convert(roles)));
+    }
+
     @Test
     public void Can_convert_null_roles_to_empty_granted_authorities() {
 
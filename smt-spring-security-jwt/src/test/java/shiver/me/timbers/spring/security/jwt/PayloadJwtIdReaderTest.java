@@ -0,0 +1,104 @@
+/*
+ * Copyright 2016 Karl Bennett
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package shiver.me.timbers.spring.security.jwt;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.impl.compression.CompressionCodecs;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import shiver.me.timbers.spring.security.compression.BoundedDeflateCompressionCodec;
+
+import static io.jsonwebtoken.SignatureAlgorithm.HS256;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static shiver.me.timbers.data.random.RandomStrings.someAlphaNumericString;
+import static shiver.me.timbers.data.random.RandomStrings.someString;
+
+public class PayloadJwtIdReaderTest {
+
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+
+    private JwtIdReader idReader;
+
+    @Before
+    public void setUp() {
+        idReader = new PayloadJwtIdReader(new JsonFactory());
+    }
+
+    @Test
+    public void Can_read_the_id_of_a_token() {
+
+        final String expected = someAlphaNumericString(22);
+
+        // Given
+        final String token = Jwts.builder().claim("principal", someString()).setId(expected)
+            .signWith(HS256, someAlphaNumericString(8).getBytes()).compact();
+
+        // When
+        final String actual = idReader.read(token);
+
+        // Then
+        assertThat(actual, is(expected));
+    }
+
+    @Test
+    public void Can_read_the_id_of_a_compressed_token() {
+
+        final String expected = someAlphaNumericString(22);
+
+        // Given
+        final String token = Jwts.builder().claim("principal", someAlphaNumericString(16)).setId(expected)
+            .compressWith(CompressionCodecs.DEFLATE).signWith(HS256, someAlphaNumericString(8).getBytes()).compact();
+
+        // When
+        final String actual = new PayloadJwtIdReader(new JsonFactory(), new BoundedDeflateCompressionCodec(1024))
+            .read(token);
+
+        // Then
+        assertThat(actual, is(expected));
+    }
+
+    @Test
+    public void Can_read_the_id_of_a_token_that_does_not_have_one() {
+
+        // Given
+        final String token = Jwts.builder().claim("principal", someString())
+            .signWith(HS256, someAlphaNumericString(8).getBytes()).compact();
+
+        // When
+        final String actual = idReader.read(token);
+
+        // Then
+        assertThat(actual, nullValue());
+    }
+
+    @Test
+    public void Can_fail_to_read_the_id_of_a_token_with_an_invalid_payload() {
+
+        // Given
+        expectedException.expect(JwtInvalidTokenException.class);
+        expectedException.expectMessage("Could not read the JWT token id.");
+
+        // When
+        idReader.read("e30.eyJqdGkiOiJ9.c2ln");
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright 2016 Karl Bennett
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package shiver.me.timbers.spring.security.jwt;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.servlet.http.HttpServletRequest;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.enumeration;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+public class RawCookieJwtTokenFinderTest {
+
+    private HttpServletRequest request;
+    private JwtTokenFinder tokenFinder;
+
+    @Before
+    public void setUp() {
+        request = mock(HttpServletRequest.class);
+        tokenFinder = new RawCookieJwtTokenFinder("token");
+    }
+
+    @Test
+    public void Can_find_a_jwt_token_in_the_cookie_header() {
+
+        // Given
+        given(request.getHeaders("Cookie")).willReturn(enumeration(asList("_ga=GA1.2.3; token=a.b.c; other=value")));
+
+        // When
+        final String actual = tokenFinder.find(request);
+
+        // Then
+        assertThat(actual, is("a.b.c"));
+    }
+
+    @Test
+    public void Can_find_a_jwt_token_that_is_the_only_cookie() {
+
+        // Given
+        given(request.getHeaders("Cookie")).willReturn(enumeration(asList("token=a.b.c")));
+
+        // When
+        final String actual = tokenFinder.find(request);
+
+        // Then
+        assertThat(actual, is("a.b.c"));
+    }
+
+    @Test
+    public void Can_find_a_quoted_jwt_token_with_surrounding_whitespace() {
+
+        // Given
+        given(request.getHeaders("Cookie")).willReturn(enumeration(asList("other=1;token= \"a.b.c\" ;last=2")));
+
+        // When
+        final String actual = tokenFinder.find(request);
+
+        // Then
+        assertThat(actual, is("a.b.c"));
+    }
+
+    @Test
+    public void Can_find_a_jwt_token_in_a_second_cookie_header() {
+
+        // Given
+        given(request.getHeaders("Cookie")).willReturn(enumeration(asList("other=1", "token=a.b.c")));
+
+        // When
+        final String actual = tokenFinder.find(request);
+
+        // Then
+        assertThat(actual, is("a.b.c"));
+    }
+
+    @Test
+    public void Can_find_an_empty_jwt_token() {
+
+        // Given
+        given(request.getHeaders("Cookie")).willReturn(enumeration(asList("token=; other=1")));
+
+        // When
+        final String actual = tokenFinder.find(request);
+
+        // Then
+        assertThat(actual, is(""));
+    }
+
+    @Test
+    public void Will_not_match_cookies_that_only_start_or_end_with_the_token_name() {
+
+        // Given
+        given(request.getHeaders("Cookie"))
+            .willReturn(enumeration(asList("tokens=1; my_token=2; token_value=3; other=token=4")));
+
+        // When
+        final String actual = tokenFinder.find(request);
+
+        // Then
+        assertThat(actual, nullValue());
+    }
+
+    @Test
+    public void Can_fail_to_find_a_jwt_token_with_no_cookie_header() {
+
+        // Given
+        given(request.getHeaders("Cookie")).willReturn(enumeration(asList(new String[0])));
+
+        // When
+        final String actual = tokenFinder.find(request);
+
+        // Then
+        assertThat(actual, nullValue());
+    }
+
+    @Test
+    public void Can_fail_to_find_a_jwt_token_when_the_headers_cannot_be_read() {
+
+        // Given
+        given(request.getHeaders("Cookie")).willReturn(null);
+
+        // When
+        final String actual = tokenFinder.find(request);
+
+        // Then
+        assertThat(actual, nullValue());
+    }
+}
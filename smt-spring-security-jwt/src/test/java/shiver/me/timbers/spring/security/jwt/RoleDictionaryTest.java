@@ -0,0 +1,57 @@
+/*
+ * Copyright 2016 Karl Bennett
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package shiver.me.timbers.spring.security.jwt;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+public class RoleDictionaryTest {
+
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+
+    @Test
+    public void Can_look_up_roles_by_index_and_index_by_role() {
+
+        // Given
+        final RoleDictionary dictionary = new RoleDictionary(3, asList("one", "two", "three"));
+
+        // Then
+        assertThat(dictionary.getVersion(), is(3));
+        assertThat(dictionary.size(), is(3));
+        assertThat(dictionary.indexOf("two"), is(1));
+        assertThat(dictionary.indexOf("four"), nullValue());
+        assertThat(dictionary.role(2), is("three"));
+    }
+
+    @Test
+    public void Cannot_create_a_dictionary_with_a_duplicate_role() {
+
+        // Given
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("The role dictionary contains the role (one) twice.");
+
+        // When
+        new RoleDictionary(1, asList("one", "two", "one"));
+    }
+}
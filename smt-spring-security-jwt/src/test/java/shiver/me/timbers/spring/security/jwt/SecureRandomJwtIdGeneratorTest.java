@@ -0,0 +1,41 @@
+/*
+ * Copyright 2016 Karl Bennett
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package shiver.me.timbers.spring.security.jwt;
+
+import io.jsonwebtoken.impl.TextCodec;
+import org.junit.Test;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.junit.Assert.assertThat;
+
+public class SecureRandomJwtIdGeneratorTest {
+
+    @Test
+    public void Can_generate_a_random_128_bit_id() {
+
+        final JwtIdGenerator generator = new SecureRandomJwtIdGenerator();
+
+        // When
+        final String actual = generator.generate();
+
+        // Then
+        assertThat(actual.length(), is(22));
+        assertThat(TextCodec.BASE64URL.decode(actual).length, is(16));
+        assertThat(actual, not(generator.generate()));
+    }
+}
@@ -0,0 +1,262 @@
+/*
+ * Copyright 2016 Karl Bennett
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package shiver.me.timbers.spring.security.jwt;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import io.jsonwebtoken.impl.TextCodec;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import shiver.me.timbers.spring.security.time.Clock;
+
+import java.util.Date;
+
+import static io.jsonwebtoken.SignatureAlgorithm.HS512;
+import static org.hamcrest.Matchers.hasProperty;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static shiver.me.timbers.spring.security.jwt.JwtInvalidTokenReason.EXPIRED;
+import static shiver.me.timbers.spring.security.jwt.JwtInvalidTokenReason.MALFORMED;
+import static shiver.me.timbers.spring.security.jwt.JwtInvalidTokenReason.MISSING;
+
+public class StructuralJwtTokenValidatorTest {
+
+    private static final String HEADER = TextCodec.BASE64URL.encode("{\"typ\":\"JWT\",\"alg\":\"HS512\"}");
+    private static final String PAYLOAD = TextCodec.BASE64URL.encode("{\"exp\":2000}");
+
+    @Rule
+    public final ExpectedException expectedException = ExpectedException.none();
+
+    private JwtExpiryReader expiryReader;
+    private Clock clock;
+    private JwtTokenValidator validator;
+
+    @Before
+    public void setUp() {
+        expiryReader = mock(JwtExpiryReader.class);
+        clock = mock(Clock.class);
+        validator = new StructuralJwtTokenValidator(100, HS512, new JsonFactory(), expiryReader, clock);
+    }
+
+    @Test
+    public void Can_validate_a_token() {
+
+        final String token = HEADER + "." + PAYLOAD + ".c2lnbmF0dXJl";
+
+        // Given
+        given(expiryReader.read(token)).willReturn(new Date(2000000L));
+        given(clock.now()).willReturn(new Date(1999999L));
+
+        // When
+        validator.validate(token);
+    }
+
+    @Test
+    public void Can_validate_a_token_that_does_not_expire() {
+
+        final String token = HEADER + "." + PAYLOAD + ".c2lnbmF0dXJl";
+
+        // Given
+        given(expiryReader.read(token)).willReturn(null);
+
+        // When
+        validator.validate(token);
+
+        // Then
+        verifyZeroInteractions(clock);
+    }
+
+    @Test
+    public void Can_validate_a_compressed_token_without_inflating_it() {
+
+        final String token = TextCodec.BASE64URL.encode("{\"alg\":\"HS512\",\"zip\":\"DEF\"}") + "."
+            + PAYLOAD + ".c2lnbmF0dXJl";
+
+        // When
+        validator.validate(token);
+
+        // Then
+        verifyZeroInteractions(expiryReader, clock);
+    }
+
+    @Test
+    public void Can_validate_a_jjwt_compressed_token_without_inflating_it() {
+
+        final String token = TextCodec.BASE64URL.encode("{\"calg\":\"DEF\",\"alg\":\"HS512\"}") + "."
+            + PAYLOAD + ".c2lnbmF0dXJl";
+
+        // When
+        validator.validate(token);
+
+        // Then
+        verifyZeroInteractions(expiryReader, clock);
+    }
+
+    @Test
+    public void Cannot_validate_a_missing_token() {
+
+        // Given
+        expectedException.expect(JwtMalformedTokenException.class);
+        expectedException.expect(hasProperty("reason", is(MISSING)));
+
+        // When
+        validator.validate(null);
+    }
+
+    @Test
+    public void Cannot_validate_an_empty_token() {
+
+        // Given
+        expectedException.expect(JwtMalformedTokenException.class);
+
+        // When
+        validator.validate("");
+    }
+
+    @Test
+    public void Cannot_validate_a_token_that_is_too_long() {
+
+        // Given
+        expectedException.expect(JwtMalformedTokenException.class);
+
+        // When
+        validator.validate(HEADER + "." + PAYLOAD + "." + new String(new char[100]).replace('\0', 'a'));
+    }
+
+    @Test
+    public void Cannot_validate_a_token_with_two_segments() {
+
+        // Given
+        expectedException.expect(JwtMalformedTokenException.class);
+
+        // When
+        validator.validate(HEADER + "." + PAYLOAD);
+    }
+
+    @Test
+    public void Cannot_validate_a_token_with_four_segments() {
+
+        // Given
+        expectedException.expect(JwtMalformedTokenException.class);
+
+        // When
+        validator.validate(HEADER + "." + PAYLOAD + ".abc.def");
+    }
+
+    @Test
+    public void Cannot_validate_a_token_with_an_empty_signature() {
+
+        // Given
+        expectedException.expect(JwtMalformedTokenException.class);
+
+        // When
+        validator.validate(HEADER + "." + PAYLOAD + ".");
+    }
+
+    @Test
+    public void Cannot_validate_a_token_with_an_empty_payload() {
+
+        // Given
+        expectedException.expect(JwtMalformedTokenException.class);
+
+        // When
+        validator.validate(HEADER + "..abc");
+    }
+
+    @Test
+    public void Cannot_validate_a_token_with_characters_that_are_not_base64_url() {
+
+        // Given
+        expectedException.expect(JwtMalformedTokenException.class);
+
+        // When
+        validator.validate(HEADER + "." + PAYLOAD + ".ab+c/=");
+    }
+
+    @Test
+    public void Cannot_validate_a_token_with_a_different_algorithm() {
+
+        // Given
+        expectedException.expect(JwtMalformedTokenException.class);
+        expectedException.expect(hasProperty("reason", is(MALFORMED)));
+
+        // When
+        validator.validate(TextCodec.BASE64URL.encode("{\"alg\":\"none\"}") + "." + PAYLOAD + ".abc");
+    }
+
+    @Test
+    public void Cannot_validate_a_token_without_an_algorithm() {
+
+        // Given
+        expectedException.expect(JwtMalformedTokenException.class);
+
+        // When
+        validator.validate(TextCodec.BASE64URL.encode("{\"typ\":\"JWT\"}") + "." + PAYLOAD + ".abc");
+    }
+
+    @Test
+    public void Cannot_validate_a_token_with_a_header_that_is_not_json() {
+
+        // Given
+        expectedException.expect(JwtMalformedTokenException.class);
+
+        // When
+        validator.validate("abcd." + PAYLOAD + ".abc");
+    }
+
+    @Test
+    public void Cannot_validate_an_expired_token() {
+
+        final String token = HEADER + "." + PAYLOAD + ".abc";
+
+        // Given
+        given(expiryReader.read(token)).willReturn(new Date(2000000L));
+        given(clock.now()).willReturn(new Date(2000000L));
+        expectedException.expect(JwtMalformedTokenException.class);
+        expectedException.expect(hasProperty("reason", is(EXPIRED)));
+
+        // When
+        validator.validate(token);
+    }
+
+    @Test
+    public void Cannot_validate_a_token_with_an_unreadable_payload() {
+
+        final String token = HEADER + "." + PAYLOAD + ".abc";
+
+        // Given
+        given(expiryReader.read(token)).willThrow(new JwtInvalidTokenException("unreadable"));
+        expectedException.expect(JwtMalformedTokenException.class);
+
+        // When
+        validator.validate(token);
+    }
+
+    @Test
+    public void Malformed_token_exceptions_do_not_have_a_stack_trace() {
+
+        // When
+        final JwtMalformedTokenException actual = new JwtMalformedTokenException("message");
+
+        // Then
+        assertThat(actual.getStackTrace().length, is(0));
+    }
+}
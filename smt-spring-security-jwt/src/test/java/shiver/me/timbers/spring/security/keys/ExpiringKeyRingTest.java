@@ -0,0 +1,136 @@
+/*
+ * Copyright 2016 Karl Bennett
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package shiver.me.timbers.spring.security.keys;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import shiver.me.timbers.spring.security.time.Clock;
+
+import java.security.KeyPair;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.util.Date;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static shiver.me.timbers.data.random.RandomStrings.someString;
+
+public class ExpiringKeyRingTest {
+
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+
+    private Clock clock;
+    private JwtKey signingKey;
+
+    @Before
+    public void setUp() {
+        clock = mock(Clock.class);
+        signingKey = new JwtKey(someString(), keyPair());
+    }
+
+    @Test
+    public void Can_get_the_signing_key() {
+
+        // When
+        final JwtKey actual = new ExpiringKeyRing(signingKey).getSigningKey();
+
+        // Then
+        assertThat(actual, is(signingKey));
+    }
+
+    @Test
+    public void Can_verify_with_the_signing_key_by_its_id_or_without_an_id() {
+
+        // Given
+        final KeyRing keyRing = new ExpiringKeyRing(signingKey);
+
+        // When
+        final JwtKey byId = keyRing.getVerificationKey(signingKey.getId());
+        final JwtKey withoutId = keyRing.getVerificationKey(null);
+
+        // Then
+        assertThat(byId, is(signingKey));
+        assertThat(withoutId, is(signingKey));
+    }
+
+    @Test
+    public void Can_verify_with_a_retired_key_until_its_verify_until_date() {
+
+        final JwtKey retiredKey = new JwtKey(someString(), keyPair(), new Date(2000));
+
+        // Given
+        final KeyRing keyRing = new ExpiringKeyRing(signingKey, singletonList(retiredKey), clock);
+        given(clock.now()).willReturn(new Date(1999), new Date(2000));
+
+        // When
+        final JwtKey before = keyRing.getVerificationKey(retiredKey.getId());
+        final JwtKey after = keyRing.getVerificationKey(retiredKey.getId());
+
+        // Then
+        assertThat(before, is(retiredKey));
+        assertThat(after, nullValue());
+    }
+
+    @Test
+    public void Cannot_verify_with_an_unknown_key() {
+
+        // When
+        final JwtKey actual = new ExpiringKeyRing(signingKey).getVerificationKey(someString());
+
+        // Then
+        assertThat(actual, nullValue());
+    }
+
+    @Test
+    public void Cannot_create_a_key_ring_with_duplicate_key_ids() {
+
+        final String id = someString();
+
+        // Given
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("Every JWT key must have a unique id, found (" + id + ").");
+
+        // When
+        new ExpiringKeyRing(
+            signingKey,
+            asList(new JwtKey(id, keyPair(), new Date()), new JwtKey(id, keyPair(), new Date())),
+            clock
+        );
+    }
+
+    @Test
+    public void Cannot_create_a_key_ring_with_a_retired_key_without_an_id() {
+
+        // Given
+        expectedException.expect(IllegalArgumentException.class);
+
+        // When
+        new ExpiringKeyRing(signingKey, singletonList(new JwtKey(null, keyPair(), new Date())), clock);
+    }
+
+    private static KeyPair keyPair() {
+        return new KeyPair(mock(PublicKey.class), mock(PrivateKey.class));
+    }
+}
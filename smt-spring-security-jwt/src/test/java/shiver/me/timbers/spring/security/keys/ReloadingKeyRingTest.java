@@ -0,0 +1,228 @@
+/*
+ * Copyright 2016 Karl Bennett
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package shiver.me.timbers.spring.security.keys;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import shiver.me.timbers.spring.security.secret.PathSecretKeeper;
+import shiver.me.timbers.spring.security.secret.SecretKeeper;
+import shiver.me.timbers.spring.security.time.Clock;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyPair;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import static java.util.Collections.singletonList;
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static shiver.me.timbers.data.random.RandomStrings.someString;
+
+public class ReloadingKeyRingTest {
+
+    private static final List<JwtKey> NO_KEYS = Collections.emptyList();
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private SecretKeeper secretKeeper;
+    private KeyParser keyParser;
+    private Clock clock;
+    private Path path;
+    private ReloadingKeyRing keyRing;
+
+    @Before
+    public void setUp() throws IOException {
+        secretKeeper = mock(SecretKeeper.class);
+        keyParser = mock(KeyParser.class);
+        clock = mock(Clock.class);
+        path = folder.newFile().toPath();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        if (keyRing != null) {
+            keyRing.close();
+        }
+    }
+
+    @Test
+    public void Can_load_the_signing_key_with_an_id_made_from_the_key() throws IOException {
+
+        final String secret = someString();
+        final KeyPair keyPair = keyPair(new byte[]{1, 2, 3});
+
+        // Given
+        given(secretKeeper.getSecret()).willReturn(secret);
+        given(keyParser.parse(secret)).willReturn(keyPair);
+
+        // When
+        keyRing = new ReloadingKeyRing(secretKeeper, keyParser, path, NO_KEYS, 1, MINUTES, clock);
+
+        // Then
+        final JwtKey actual = keyRing.getSigningKey();
+        assertThat(actual.getKeyPair(), is(keyPair));
+        // The first 8 bytes of the SHA-256 digest of {1, 2, 3}.
+        assertThat(actual.getId(), is("039058c6f2c0cb49"));
+        assertThat(keyRing.getVerificationKey(actual.getId()), is(actual));
+        assertThat(keyRing.getVerificationKey(null), is(actual));
+    }
+
+    @Test
+    public void Can_swap_in_a_new_signing_key_and_keep_the_old_one_for_verification_until_it_expires()
+        throws IOException {
+
+        final String oldSecret = someString();
+        final String newSecret = someString();
+        final KeyPair oldKeyPair = keyPair(new byte[]{1});
+        final KeyPair newKeyPair = keyPair(new byte[]{2});
+
+        // Given
+        given(secretKeeper.getSecret()).willReturn(oldSecret, newSecret);
+        given(keyParser.parse(oldSecret)).willReturn(oldKeyPair);
+        given(keyParser.parse(newSecret)).willReturn(newKeyPair);
+        given(clock.now()).willReturn(new Date(1000), new Date(1999), new Date(2000));
+        given(clock.nowPlus(1, MINUTES)).willReturn(new Date(2000));
+        keyRing = new ReloadingKeyRing(secretKeeper, keyParser, path, NO_KEYS, 1, MINUTES, clock);
+        final JwtKey oldKey = keyRing.getSigningKey();
+
+        // When
+        keyRing.reload();
+
+        // Then
+        final JwtKey newKey = keyRing.getSigningKey();
+        assertThat(newKey.getKeyPair(), is(newKeyPair));
+        assertThat(newKey.getId(), not(oldKey.getId()));
+        assertThat(keyRing.getVerificationKey(oldKey.getId()).getKeyPair(), is(oldKeyPair));
+        assertThat(keyRing.getVerificationKey(oldKey.getId()), nullValue());
+    }
+
+    @Test
+    public void Will_keep_the_current_keys_if_the_secret_has_not_changed() throws IOException {
+
+        final String secret = someString();
+
+        // Given
+        given(secretKeeper.getSecret()).willReturn(secret);
+        final KeyPair currentKeyPair = keyPair(new byte[]{1});
+        given(keyParser.parse(secret)).willReturn(currentKeyPair);
+        keyRing = new ReloadingKeyRing(secretKeeper, keyParser, path, NO_KEYS, 1, MINUTES, clock);
+        final JwtKey expected = keyRing.getSigningKey();
+
+        // When
+        keyRing.reload();
+
+        // Then
+        assertThat(keyRing.getSigningKey(), sameInstance(expected));
+        verify(keyParser, times(1)).parse(secret);
+    }
+
+    @Test
+    public void Will_keep_the_configured_retired_keys() throws IOException {
+
+        final String secret = someString();
+        final KeyPair retiredKeyPair = keyPair(new byte[]{9});
+        final JwtKey retiredKey = new JwtKey(someString(), retiredKeyPair, new Date(2000));
+
+        // Given
+        given(secretKeeper.getSecret()).willReturn(secret);
+        final KeyPair currentKeyPair = keyPair(new byte[]{1});
+        given(keyParser.parse(secret)).willReturn(currentKeyPair);
+        given(clock.now()).willReturn(new Date(1000));
+
+        // When
+        keyRing = new ReloadingKeyRing(secretKeeper, keyParser, path, singletonList(retiredKey), 1, MINUTES, clock);
+
+        // Then
+        assertThat(keyRing.getVerificationKey(retiredKey.getId()), is(retiredKey));
+    }
+
+    @Test
+    public void Will_keep_the_current_keys_if_the_new_secret_cannot_be_parsed() throws IOException {
+
+        final String secret = someString();
+        final String badSecret = someString();
+
+        // Given
+        given(secretKeeper.getSecret()).willReturn(secret, badSecret);
+        final KeyPair currentKeyPair = keyPair(new byte[]{1});
+        given(keyParser.parse(secret)).willReturn(currentKeyPair);
+        given(keyParser.parse(badSecret)).willThrow(new IOException());
+        keyRing = new ReloadingKeyRing(secretKeeper, keyParser, path, NO_KEYS, 1, MINUTES, clock);
+        final JwtKey expected = keyRing.getSigningKey();
+
+        // When
+        try {
+            keyRing.reload();
+        } catch (IOException e) {
+            // Expected.
+        }
+
+        // Then
+        assertThat(keyRing.getSigningKey(), sameInstance(expected));
+    }
+
+    @Test
+    public void Can_reload_the_signing_key_when_the_secret_file_changes() throws Exception {
+
+        final String oldSecret = someString();
+        final String newSecret = someString();
+        final KeyPair newKeyPair = keyPair(new byte[]{2});
+
+        // Given
+        Files.write(path, oldSecret.getBytes("UTF-8"));
+        final KeyPair currentKeyPair = keyPair(new byte[]{1});
+        given(keyParser.parse(oldSecret)).willReturn(currentKeyPair);
+        given(keyParser.parse(newSecret)).willReturn(newKeyPair);
+        given(clock.now()).willReturn(new Date(0));
+        given(clock.nowPlus(1, MINUTES)).willReturn(new Date(Long.MAX_VALUE));
+        keyRing = new ReloadingKeyRing(new PathSecretKeeper(path), keyParser, path, NO_KEYS, 1, MINUTES, clock);
+        keyRing.start();
+
+        // When
+        Files.write(path, newSecret.getBytes("UTF-8"));
+
+        // Then
+        final long timeout = System.currentTimeMillis() + 30000;
+        while (keyRing.getSigningKey().getKeyPair() != newKeyPair && System.currentTimeMillis() < timeout) {
+            Thread.sleep(10);
+        }
+        assertThat(keyRing.getSigningKey().getKeyPair(), is(newKeyPair));
+    }
+
+    private static KeyPair keyPair(byte[] encoded) {
+        final PublicKey publicKey = mock(PublicKey.class);
+        given(publicKey.getEncoded()).willReturn(encoded);
+        return new KeyPair(publicKey, mock(PrivateKey.class));
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2016 Karl Bennett
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package shiver.me.timbers.spring.security.metrics;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.boot.actuate.metrics.CounterService;
+import org.springframework.boot.actuate.metrics.GaugeService;
+
+import static io.jsonwebtoken.SignatureAlgorithm.ES256;
+import static io.jsonwebtoken.SignatureAlgorithm.HS512;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static shiver.me.timbers.spring.security.JwtTokenLocation.COOKIE;
+import static shiver.me.timbers.spring.security.JwtTokenLocation.HEADER;
+import static shiver.me.timbers.spring.security.jwt.JwtInvalidTokenReason.EXPIRED;
+import static shiver.me.timbers.spring.security.jwt.JwtInvalidTokenReason.SIGNATURE;
+
+public class ActuatorJwtMetricsTest {
+
+    private CounterService counterService;
+    private GaugeService gaugeService;
+    private JwtMetrics metrics;
+
+    @Before
+    public void setUp() {
+        counterService = mock(CounterService.class);
+        gaugeService = mock(GaugeService.class);
+        metrics = new ActuatorJwtMetrics(counterService, gaugeService);
+    }
+
+    @Test
+    public void Can_record_a_parse() {
+
+        // When
+        metrics.parsed(HS512, 1500000L);
+
+        // Then
+        verify(gaugeService).submit("timer.smt.spring.security.jwt.parse.HS512", 1.5);
+        verifyZeroInteractions(counterService);
+    }
+
+    @Test
+    public void Can_record_a_create() {
+
+        // When
+        metrics.created(ES256, 2000000L);
+
+        // Then
+        verify(gaugeService).submit("timer.smt.spring.security.jwt.create.ES256", 2.0);
+        verifyZeroInteractions(counterService);
+    }
+
+    @Test
+    public void Can_record_an_issued_token() {
+
+        // When
+        metrics.issued();
+
+        // Then
+        verify(counterService).increment("counter.smt.spring.security.jwt.issued");
+        verifyZeroInteractions(gaugeService);
+    }
+
+    @Test
+    public void Can_record_a_revocation_that_overflowed() {
+
+        // When
+        metrics.revocationOverflowed();
+
+        // Then
+        verify(counterService).increment("counter.smt.spring.security.jwt.revocation.overflow");
+        verifyZeroInteractions(gaugeService);
+    }
+
+    @Test
+    public void Can_record_an_apply() {
+
+        // When
+        metrics.applied(500000L);
+
+        // Then
+        verify(gaugeService).submit("timer.smt.spring.security.jwt.apply", 0.5);
+    }
+
+    @Test
+    public void Can_record_a_failure() {
+
+        // When
+        metrics.failed(SIGNATURE);
+        metrics.failed(EXPIRED);
+
+        // Then
+        verify(counterService).increment("counter.smt.spring.security.jwt.failure.signature");
+        verify(counterService).increment("counter.smt.spring.security.jwt.failure.expired");
+    }
+
+    @Test
+    public void Can_record_where_a_token_was_found() {
+
+        // When
+        metrics.found(COOKIE);
+        metrics.found(HEADER);
+
+        // Then
+        verify(counterService).increment("counter.smt.spring.security.jwt.source.cookie");
+        verify(counterService).increment("counter.smt.spring.security.jwt.source.header");
+    }
+}
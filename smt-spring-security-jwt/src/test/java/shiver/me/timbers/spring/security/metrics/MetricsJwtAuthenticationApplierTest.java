@@ -0,0 +1,48 @@
+/*
+ * Copyright 2016 Karl Bennett
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package shiver.me.timbers.spring.security.metrics;
+
+import org.junit.Test;
+import org.mockito.InOrder;
+import org.springframework.security.core.Authentication;
+import shiver.me.timbers.spring.security.JwtAuthenticationApplier;
+
+import javax.servlet.http.HttpServletResponse;
+
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+
+public class MetricsJwtAuthenticationApplierTest {
+
+    @Test
+    public void Can_record_the_application_of_an_authentication() {
+
+        final JwtAuthenticationApplier delegate = mock(JwtAuthenticationApplier.class);
+        final JwtMetrics metrics = mock(JwtMetrics.class);
+        final Authentication authentication = mock(Authentication.class);
+        final HttpServletResponse response = mock(HttpServletResponse.class);
+
+        // When
+        new MetricsJwtAuthenticationApplier(delegate, metrics).apply(authentication, response);
+
+        // Then
+        final InOrder order = inOrder(delegate, metrics);
+        order.verify(delegate).apply(authentication, response);
+        order.verify(metrics).applied(anyLong());
+    }
+}
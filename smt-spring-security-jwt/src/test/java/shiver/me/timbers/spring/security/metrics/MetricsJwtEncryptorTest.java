@@ -0,0 +1,53 @@
+/*
+ * Copyright 2016 Karl Bennett
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package shiver.me.timbers.spring.security.metrics;
+
+import org.junit.Test;
+import org.mockito.InOrder;
+import shiver.me.timbers.spring.security.jwt.JwtEncryptor;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static shiver.me.timbers.data.random.RandomStrings.someString;
+
+public class MetricsJwtEncryptorTest {
+
+    @Test
+    public void Can_record_an_issued_token() {
+
+        final JwtEncryptor delegate = mock(JwtEncryptor.class);
+        final JwtMetrics metrics = mock(JwtMetrics.class);
+        final Object principal = new Object();
+
+        final String expected = someString();
+
+        // Given
+        given(delegate.encrypt(principal)).willReturn(expected);
+
+        // When
+        final String actual = new MetricsJwtEncryptor(delegate, metrics).encrypt(principal);
+
+        // Then
+        final InOrder order = inOrder(delegate, metrics);
+        order.verify(delegate).encrypt(principal);
+        order.verify(metrics).issued();
+        assertThat(actual, is(expected));
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2016 Karl Bennett
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package shiver.me.timbers.spring.security.metrics;
+
+import org.junit.Before;
+import org.junit.Test;
+import shiver.me.timbers.spring.security.jwt.JwtTokenFinder;
+
+import javax.servlet.http.HttpServletRequest;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static shiver.me.timbers.data.random.RandomStrings.someString;
+import static shiver.me.timbers.spring.security.JwtTokenLocation.HEADER;
+
+public class MetricsJwtTokenFinderTest {
+
+    private JwtTokenFinder delegate;
+    private JwtMetrics metrics;
+    private JwtTokenFinder tokenFinder;
+
+    @Before
+    public void setUp() {
+        delegate = mock(JwtTokenFinder.class);
+        metrics = mock(JwtMetrics.class);
+        tokenFinder = new MetricsJwtTokenFinder(delegate, HEADER, metrics);
+    }
+
+    @Test
+    public void Can_record_where_a_token_was_found() {
+
+        final HttpServletRequest request = mock(HttpServletRequest.class);
+
+        final String expected = someString();
+
+        // Given
+        given(delegate.find(request)).willReturn(expected);
+
+        // When
+        final String actual = tokenFinder.find(request);
+
+        // Then
+        verify(metrics).found(HEADER);
+        assertThat(actual, is(expected));
+    }
+
+    @Test
+    public void Will_not_record_a_token_that_was_not_found() {
+
+        final HttpServletRequest request = mock(HttpServletRequest.class);
+
+        // Given
+        given(delegate.find(request)).willReturn(null);
+
+        // When
+        final String actual = tokenFinder.find(request);
+
+        // Then
+        verifyZeroInteractions(metrics);
+        assertThat(actual, nullValue());
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2016 Karl Bennett
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package shiver.me.timbers.spring.security.metrics;
+
+import org.junit.Before;
+import org.junit.Test;
+import shiver.me.timbers.spring.security.jwt.JwtInvalidTokenException;
+import shiver.me.timbers.spring.security.jwt.JwtTokenParser;
+
+import static io.jsonwebtoken.SignatureAlgorithm.RS256;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static shiver.me.timbers.data.random.RandomStrings.someString;
+import static shiver.me.timbers.spring.security.jwt.JwtInvalidTokenReason.EXPIRED;
+
+public class MetricsJwtTokenParserTest {
+
+    private JwtTokenParser<Object, String> delegate;
+    private JwtMetrics metrics;
+    private JwtTokenParser<Object, String> tokenParser;
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        delegate = mock(JwtTokenParser.class);
+        metrics = mock(JwtMetrics.class);
+        tokenParser = new MetricsJwtTokenParser<>(delegate, RS256, metrics);
+    }
+
+    @Test
+    public void Can_record_the_creation_of_a_token() {
+
+        final Object principal = new Object();
+
+        final String expected = someString();
+
+        // Given
+        given(delegate.create(principal)).willReturn(expected);
+
+        // When
+        final String actual = tokenParser.create(principal);
+
+        // Then
+        verify(metrics).created(eq(RS256), anyLong());
+        assertThat(actual, is(expected));
+    }
+
+    @Test
+    public void Can_record_the_parsing_of_a_token() {
+
+        final String token = someString();
+
+        final Object expected = new Object();
+
+        // Given
+        given(delegate.parse(token)).willReturn(expected);
+
+        // When
+        final Object actual = tokenParser.parse(token);
+
+        // Then
+        verify(metrics).parsed(eq(RS256), anyLong());
+        verifyNoMoreInteractions(metrics);
+        assertThat(actual, is(expected));
+    }
+
+    @Test
+    public void Can_record_the_failure_to_parse_a_token() {
+
+        final String token = someString();
+
+        final JwtInvalidTokenException expected = new JwtInvalidTokenException(EXPIRED, someString());
+
+        // Given
+        given(delegate.parse(token)).willThrow(expected);
+
+        // When
+        try {
+            tokenParser.parse(token);
+            fail("The token should not have been parsed.");
+        } catch (JwtInvalidTokenException actual) {
+
+            // Then
+            assertThat(actual, is(expected));
+        }
+        verify(metrics).failed(EXPIRED);
+        verifyNoMoreInteractions(metrics);
+    }
+}
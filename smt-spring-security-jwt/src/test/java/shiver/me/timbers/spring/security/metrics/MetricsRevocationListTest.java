@@ -0,0 +1,126 @@
+/*
+ * Copyright 2016 Karl Bennett
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package shiver.me.timbers.spring.security.metrics;
+
+import org.junit.Before;
+import org.junit.Test;
+import shiver.me.timbers.spring.security.revocation.RevocationList;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Date;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.withSettings;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static shiver.me.timbers.data.random.RandomBooleans.someBoolean;
+import static shiver.me.timbers.data.random.RandomStrings.someString;
+
+public class MetricsRevocationListTest {
+
+    private RevocationList delegate;
+    private JwtMetrics metrics;
+    private RevocationList revocationList;
+
+    @Before
+    public void setUp() {
+        delegate = mock(RevocationList.class);
+        metrics = mock(JwtMetrics.class);
+        revocationList = new MetricsRevocationList(delegate, metrics);
+    }
+
+    @Test
+    public void Can_revoke_a_token_without_recording_anything() {
+
+        final String id = someString();
+        final Date expiry = new Date();
+
+        // Given
+        given(delegate.revoke(id, expiry)).willReturn(true);
+
+        // When
+        final boolean actual = revocationList.revoke(id, expiry);
+
+        // Then
+        verifyZeroInteractions(metrics);
+        assertThat(actual, is(true));
+    }
+
+    @Test
+    public void Can_record_a_revocation_that_overflowed() {
+
+        final String id = someString();
+        final Date expiry = new Date();
+
+        // Given
+        given(delegate.revoke(id, expiry)).willReturn(false);
+
+        // When
+        final boolean actual = revocationList.revoke(id, expiry);
+
+        // Then
+        verify(metrics).revocationOverflowed();
+        assertThat(actual, is(false));
+    }
+
+    @Test
+    public void Can_check_if_a_token_is_revoked() {
+
+        final String id = someString();
+        final Date expiry = new Date();
+
+        final Boolean expected = someBoolean();
+
+        // Given
+        given(delegate.isRevoked(id, expiry)).willReturn(expected);
+
+        // When
+        final boolean actual = revocationList.isRevoked(id, expiry);
+
+        // Then
+        verifyZeroInteractions(metrics);
+        assertThat(actual, is(expected));
+    }
+
+    @Test
+    public void Can_close_the_revocation_list() throws IOException {
+
+        // Given
+        delegate = mock(RevocationList.class, withSettings().extraInterfaces(Closeable.class));
+
+        // When
+        new MetricsRevocationList(delegate, metrics).close();
+
+        // Then
+        verify((Closeable) delegate).close();
+    }
+
+    @Test
+    public void Can_close_a_revocation_list_that_does_not_need_closing() throws IOException {
+
+        // When
+        ((Closeable) revocationList).close();
+
+        // Then
+        verifyZeroInteractions(delegate, metrics);
+    }
+}
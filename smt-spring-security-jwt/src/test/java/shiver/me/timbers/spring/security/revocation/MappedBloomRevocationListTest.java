@@ -0,0 +1,442 @@
+/*
+ * Copyright 2016 Karl Bennett
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package shiver.me.timbers.spring.security.revocation;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import shiver.me.timbers.spring.security.time.Clock;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assume.assumeTrue;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static shiver.me.timbers.data.random.RandomStrings.someAlphaNumericString;
+
+public class MappedBloomRevocationListTest {
+
+    private static final long NOW = 1000000000L;
+    private static final long MINUTE = 60000L;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+
+    private Clock clock;
+    private Path path;
+    private List<MappedBloomRevocationList> revocationLists;
+
+    @Before
+    public void setUp() throws IOException {
+        clock = mock(Clock.class);
+        path = folder.newFile().toPath();
+        revocationLists = new ArrayList<>();
+        given(clock.now()).willReturn(new Date(NOW));
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        for (MappedBloomRevocationList revocationList : revocationLists) {
+            revocationList.close();
+        }
+    }
+
+    @Test
+    public void Can_revoke_a_token() throws IOException {
+
+        final RevocationList revocationList = revocationList(4, 100);
+        final String id = someAlphaNumericString(22);
+
+        // When
+        revocationList.revoke(id, new Date(NOW + MINUTE));
+
+        // Then
+        assertThat(revocationList.isRevoked(id, null), is(true));
+        assertThat(revocationList.isRevoked(someAlphaNumericString(22), null), is(false));
+    }
+
+    @Test
+    public void Can_revoke_a_token_twice() throws IOException {
+
+        final RevocationList revocationList = revocationList(4, 1);
+        final String id = someAlphaNumericString(22);
+
+        // When
+        revocationList.revoke(id, new Date(NOW + MINUTE));
+        revocationList.revoke(id, new Date(NOW + MINUTE));
+
+        // Then
+        assertThat(revocationList.isRevoked(id, null), is(true));
+    }
+
+    @Test
+    public void Can_revoke_tokens_up_to_the_maximum_size_without_false_positives() throws IOException {
+
+        final int maximumSize = 1000;
+        final RevocationList revocationList = revocationList(4, maximumSize);
+        final List<String> ids = new ArrayList<>();
+
+        // Given
+        for (int i = 0; i < maximumSize; i++) {
+            ids.add("revoked-" + i);
+        }
+
+        // When
+        for (String id : ids) {
+            revocationList.revoke(id, new Date(NOW + 4 * MINUTE));
+        }
+
+        // Then
+        for (String id : ids) {
+            assertThat(revocationList.isRevoked(id, null), is(true));
+        }
+        for (int i = 0; i < maximumSize * 10; i++) {
+            assertThat(revocationList.isRevoked("valid-" + i, null), is(false));
+        }
+    }
+
+    @Test
+    public void Can_share_revocations_with_other_lists_that_map_the_same_file() throws IOException {
+
+        final RevocationList revocationList = revocationList(4, 100);
+        final String id = someAlphaNumericString(22);
+
+        // Given
+        final RevocationList other = revocationList(4, 100);
+
+        // When
+        revocationList.revoke(id, new Date(NOW + MINUTE));
+
+        // Then
+        assertThat(other.isRevoked(id, null), is(true));
+    }
+
+    @Test
+    public void Can_keep_revocations_after_the_file_is_closed() throws IOException {
+
+        final MappedBloomRevocationList revocationList = revocationList(4, 100);
+        final String id = someAlphaNumericString(22);
+
+        // Given
+        revocationList.revoke(id, new Date(NOW + MINUTE));
+        revocationList.close();
+
+        // When
+        final boolean actual = revocationList(4, 100).isRevoked(id, null);
+
+        // Then
+        assertThat(actual, is(true));
+    }
+
+    @Test
+    public void Can_check_a_token_again_if_another_token_was_revoked_during_the_check() throws IOException {
+
+        final RevocationList revocationList = revocationList(4, 100);
+        final Clock otherClock = mock(Clock.class);
+        final MappedBloomRevocationList other = new MappedBloomRevocationList(path, 4, MINUTES, 4, 100, otherClock);
+        revocationLists.add(other);
+
+        // Given
+        given(otherClock.now()).willReturn(new Date(NOW));
+        given(clock.now()).will(new Answer<Date>() {
+            private boolean revoked;
+
+            @Override
+            public Date answer(InvocationOnMock invocation) {
+                if (!revoked) {
+                    revoked = true;
+                    other.revoke(someAlphaNumericString(22), new Date(NOW + MINUTE));
+                }
+                return new Date(NOW);
+            }
+        });
+
+        // When
+        final boolean actual = revocationList.isRevoked(someAlphaNumericString(22), new Date(NOW + MINUTE));
+
+        // Then
+        verify(clock, times(2)).now();
+        assertThat(actual, is(false));
+    }
+
+    @Test
+    public void Can_forget_a_revocation_once_the_token_has_expired() throws IOException {
+
+        final RevocationList revocationList = revocationList(4, 100);
+        final String id = someAlphaNumericString(22);
+
+        // Given
+        revocationList.revoke(id, new Date(NOW + MINUTE));
+        given(clock.now()).willReturn(new Date(NOW + 3 * MINUTE));
+
+        // When
+        final boolean actual = revocationList.isRevoked(id, null);
+
+        // Then
+        assertThat(actual, is(false));
+    }
+
+    @Test
+    public void Can_reuse_a_bucket_once_all_of_its_tokens_have_expired() throws IOException {
+
+        final RevocationList revocationList = revocationList(4, 1);
+        final String expired = someAlphaNumericString(22);
+        final String id = someAlphaNumericString(22);
+
+        // Given
+        revocationList.revoke(expired, new Date(NOW + MINUTE));
+        given(clock.now()).willReturn(new Date(NOW + 8 * MINUTE));
+
+        // When
+        revocationList.revoke(id, new Date(NOW + 9 * MINUTE));
+
+        // Then
+        assertThat(revocationList.isRevoked(expired, null), is(false));
+        assertThat(revocationList.isRevoked(id, null), is(true));
+    }
+
+    @Test
+    public void Can_ignore_the_revocation_of_a_token_that_has_already_expired() throws IOException {
+
+        final RevocationList revocationList = revocationList(4, 1);
+        final String id = someAlphaNumericString(22);
+
+        // Given
+        revocationList.revoke(id, new Date(NOW));
+
+        // When
+        revocationList.revoke(someAlphaNumericString(22), new Date(NOW + MINUTE));
+
+        // Then
+        assertThat(revocationList.isRevoked(id, null), is(false));
+    }
+
+    @Test
+    public void Can_revoke_a_token_with_the_maximum_lifetime() throws IOException {
+
+        final RevocationList revocationList = revocationList(4, 100);
+        final String id = someAlphaNumericString(22);
+
+        // When
+        revocationList.revoke(id, new Date(NOW + 4 * MINUTE));
+
+        // Then
+        assertThat(revocationList.isRevoked(id, null), is(true));
+    }
+
+    @Test
+    public void Cannot_revoke_a_token_that_expires_after_the_maximum_lifetime() throws IOException {
+
+        // Given
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("The token expires after the longest lifetime that can be revoked.");
+
+        // When
+        revocationList(4, 100).revoke(someAlphaNumericString(22), new Date(NOW + 10 * MINUTE));
+    }
+
+    @Test
+    public void Cannot_revoke_a_token_that_does_not_expire() throws IOException {
+
+        // Given
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("Only tokens that expire can be revoked.");
+
+        // When
+        revocationList(4, 100).revoke(someAlphaNumericString(22), null);
+    }
+
+    @Test
+    public void Can_revoke_every_token_that_expires_in_a_full_bucket() throws IOException {
+
+        final RevocationList revocationList = revocationList(4, 1);
+        final Date expiry = new Date(NOW + MINUTE);
+
+        // Given
+        final boolean first = revocationList.revoke(someAlphaNumericString(22), expiry);
+
+        // When
+        final boolean actual = revocationList.revoke(someAlphaNumericString(22), expiry);
+
+        // Then
+        assertThat(first, is(true));
+        assertThat(actual, is(false));
+        assertThat(revocationList.isRevoked(someAlphaNumericString(22), expiry), is(true));
+        assertThat(revocationList.isRevoked(someAlphaNumericString(22), new Date(expiry.getTime() - 1)), is(true));
+        assertThat(revocationList.isRevoked(someAlphaNumericString(22), new Date(NOW + 3 * MINUTE)), is(false));
+        assertThat(revocationList.isRevoked(someAlphaNumericString(22), null), is(false));
+    }
+
+    @Test
+    public void Can_revoke_a_token_in_a_bucket_that_is_already_full() throws IOException {
+
+        final RevocationList revocationList = revocationList(4, 1);
+        final Date expiry = new Date(NOW + MINUTE);
+
+        // Given
+        revocationList.revoke(someAlphaNumericString(22), expiry);
+        revocationList.revoke(someAlphaNumericString(22), expiry);
+
+        // When
+        final boolean actual = revocationList.revoke(someAlphaNumericString(22), expiry);
+
+        // Then
+        assertThat(actual, is(false));
+    }
+
+    @Test
+    public void Can_revoke_a_token_again_in_a_bucket_that_has_reached_the_maximum_size() throws IOException {
+
+        final RevocationList revocationList = revocationList(4, 1);
+        final String id = someAlphaNumericString(22);
+        final Date expiry = new Date(NOW + MINUTE);
+
+        // Given
+        revocationList.revoke(id, expiry);
+
+        // When
+        final boolean actual = revocationList.revoke(id, expiry);
+
+        // Then
+        assertThat(actual, is(true));
+        assertThat(revocationList.isRevoked(someAlphaNumericString(22), expiry), is(false));
+    }
+
+    @Test
+    public void Can_reuse_a_full_bucket_once_all_of_its_tokens_have_expired() throws IOException {
+
+        final RevocationList revocationList = revocationList(4, 1);
+
+        // Given
+        revocationList.revoke(someAlphaNumericString(22), new Date(NOW + MINUTE));
+        revocationList.revoke(someAlphaNumericString(22), new Date(NOW + MINUTE));
+        given(clock.now()).willReturn(new Date(NOW + 8 * MINUTE));
+
+        // When
+        final boolean actual = revocationList.revoke(someAlphaNumericString(22), new Date(NOW + 9 * MINUTE));
+
+        // Then
+        assertThat(actual, is(true));
+        assertThat(revocationList.isRevoked(someAlphaNumericString(22), new Date(NOW + 9 * MINUTE)), is(false));
+    }
+
+    @Test
+    public void Will_not_check_if_an_expired_token_is_in_a_full_bucket() throws IOException {
+
+        final RevocationList revocationList = revocationList(4, 1);
+
+        // Given
+        revocationList.revoke(someAlphaNumericString(22), new Date(NOW + MINUTE));
+        revocationList.revoke(someAlphaNumericString(22), new Date(NOW + MINUTE));
+        given(clock.now()).willReturn(new Date(NOW + 3 * MINUTE));
+
+        // When
+        final boolean actual = revocationList.isRevoked(someAlphaNumericString(22), new Date(NOW + MINUTE));
+
+        // Then
+        assertThat(actual, is(false));
+    }
+
+    @Test
+    public void Can_replace_a_file_that_was_created_with_different_settings() throws IOException {
+
+        final String id = someAlphaNumericString(22);
+
+        // Given
+        final RevocationList previous = revocationList(4, 100);
+        previous.revoke(id, new Date(NOW + MINUTE));
+
+        // When
+        final RevocationList actual = revocationList(4, 200);
+        actual.revoke(someAlphaNumericString(22), new Date(NOW + MINUTE));
+
+        // Then
+        assertThat(actual.isRevoked(id, null), is(false));
+        assertThat(previous.isRevoked(id, null), is(true));
+        assertThat(revocationList(4, 200).isRevoked(id, null), is(false));
+    }
+
+    @Test
+    public void Can_create_a_file_that_only_the_owner_can_read_and_write() throws IOException {
+
+        path = folder.getRoot().toPath().resolve("revocations");
+
+        // Given
+        assumeTrue(path.getFileSystem().supportedFileAttributeViews().contains("posix"));
+
+        // When
+        revocationList(4, 100);
+
+        // Then
+        assertThat(Files.getPosixFilePermissions(path), equalTo(PosixFilePermissions.fromString("rw-------")));
+    }
+
+    @Test
+    public void Cannot_create_a_revocation_list_with_less_than_three_buckets() throws IOException {
+
+        // Given
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("There must be at least three revocation buckets.");
+
+        // When
+        revocationList(2, 100);
+    }
+
+    @Test
+    public void Cannot_create_a_revocation_list_for_tokens_that_do_not_expire() throws IOException {
+
+        // Given
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("Only tokens that expire can be revoked.");
+
+        // When
+        new MappedBloomRevocationList(path, -1, MINUTES, 4, 100, clock);
+    }
+
+    private MappedBloomRevocationList revocationList(int bucketCount, int maximumSize) throws IOException {
+        final MappedBloomRevocationList revocationList = new MappedBloomRevocationList(
+            path,
+            4,
+            MINUTES,
+            bucketCount,
+            maximumSize,
+            clock
+        );
+        revocationLists.add(revocationList);
+        return revocationList;
+    }
+}
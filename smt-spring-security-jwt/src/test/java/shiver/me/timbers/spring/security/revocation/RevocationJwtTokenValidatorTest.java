@@ -0,0 +1,134 @@
+/*
+ * Copyright 2016 Karl Bennett
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package shiver.me.timbers.spring.security.revocation;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import shiver.me.timbers.spring.security.jwt.JwtExpiryReader;
+import shiver.me.timbers.spring.security.jwt.JwtIdReader;
+import shiver.me.timbers.spring.security.jwt.JwtInvalidTokenException;
+import shiver.me.timbers.spring.security.jwt.JwtMalformedTokenException;
+import shiver.me.timbers.spring.security.jwt.JwtTokenValidator;
+
+import java.util.Date;
+
+import static org.hamcrest.Matchers.hasProperty;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static shiver.me.timbers.data.random.RandomStrings.someString;
+import static shiver.me.timbers.spring.security.jwt.JwtInvalidTokenReason.REVOKED;
+
+public class RevocationJwtTokenValidatorTest {
+
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+
+    private JwtTokenValidator delegate;
+    private JwtIdReader idReader;
+    private JwtExpiryReader expiryReader;
+    private RevocationList revocationList;
+    private JwtTokenValidator validator;
+
+    @Before
+    public void setUp() {
+        delegate = mock(JwtTokenValidator.class);
+        idReader = mock(JwtIdReader.class);
+        expiryReader = mock(JwtExpiryReader.class);
+        revocationList = mock(RevocationList.class);
+        validator = new RevocationJwtTokenValidator(delegate, idReader, expiryReader, revocationList);
+    }
+
+    @Test
+    public void Can_validate_a_token_that_has_not_been_revoked() {
+
+        final String token = someString();
+        final String id = someString();
+        final Date expiry = new Date();
+
+        // Given
+        given(idReader.read(token)).willReturn(id);
+        given(expiryReader.read(token)).willReturn(expiry);
+        given(revocationList.isRevoked(id, expiry)).willReturn(false);
+
+        // When
+        validator.validate(token);
+
+        // Then
+        verify(delegate).validate(token);
+        verify(revocationList).isRevoked(id, expiry);
+    }
+
+    @Test
+    public void Can_validate_a_token_that_has_no_id() {
+
+        final String token = someString();
+
+        // Given
+        given(idReader.read(token)).willReturn(null);
+
+        // When
+        validator.validate(token);
+
+        // Then
+        verify(delegate).validate(token);
+        verifyZeroInteractions(expiryReader, revocationList);
+    }
+
+    @Test
+    public void Can_reject_a_token_that_has_been_revoked() {
+
+        final String token = someString();
+        final String id = someString();
+        final Date expiry = new Date();
+
+        // Given
+        given(idReader.read(token)).willReturn(id);
+        given(expiryReader.read(token)).willReturn(expiry);
+        given(revocationList.isRevoked(id, expiry)).willReturn(true);
+        expectedException.expect(JwtMalformedTokenException.class);
+        expectedException.expect(hasProperty("reason", is(REVOKED)));
+        expectedException.expectMessage("The JWT token has been revoked.");
+
+        // When
+        validator.validate(token);
+    }
+
+    @Test
+    public void Will_not_check_the_revocation_of_a_token_that_is_otherwise_invalid() {
+
+        final String token = someString();
+
+        final JwtInvalidTokenException exception = new JwtInvalidTokenException(someString());
+
+        // Given
+        willThrow(exception).given(delegate).validate(token);
+        expectedException.expect(is(exception));
+
+        // When
+        try {
+            validator.validate(token);
+        } finally {
+            verifyZeroInteractions(idReader, expiryReader, revocationList);
+        }
+    }
+}
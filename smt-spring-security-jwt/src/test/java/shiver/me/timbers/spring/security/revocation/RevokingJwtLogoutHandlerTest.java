@@ -0,0 +1,178 @@
+/*
+ * Copyright 2016 Karl Bennett
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package shiver.me.timbers.spring.security.revocation;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InOrder;
+import org.springframework.security.core.Authentication;
+import shiver.me.timbers.spring.security.JwtLogoutHandler;
+import shiver.me.timbers.spring.security.jwt.JwtExpiryReader;
+import shiver.me.timbers.spring.security.jwt.JwtIdReader;
+import shiver.me.timbers.spring.security.jwt.JwtInvalidTokenException;
+import shiver.me.timbers.spring.security.jwt.JwtTokenFinder;
+import shiver.me.timbers.spring.security.jwt.JwtTokenParser;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.Date;
+
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static shiver.me.timbers.data.random.RandomStrings.someString;
+
+public class RevokingJwtLogoutHandlerTest {
+
+    private JwtLogoutHandler delegate;
+    private JwtTokenFinder tokenFinder;
+    private JwtTokenParser<Authentication, HttpServletRequest> tokenParser;
+    private JwtIdReader idReader;
+    private JwtExpiryReader expiryReader;
+    private RevocationList revocationList;
+    private JwtLogoutHandler logoutHandler;
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        delegate = mock(JwtLogoutHandler.class);
+        tokenFinder = mock(JwtTokenFinder.class);
+        tokenParser = mock(JwtTokenParser.class);
+        idReader = mock(JwtIdReader.class);
+        expiryReader = mock(JwtExpiryReader.class);
+        revocationList = mock(RevocationList.class);
+        logoutHandler = new RevokingJwtLogoutHandler(
+            delegate,
+            tokenFinder,
+            tokenParser,
+            idReader,
+            expiryReader,
+            revocationList
+        );
+    }
+
+    @Test
+    public void Can_revoke_the_token_on_logout() {
+
+        final HttpServletRequest request = mock(HttpServletRequest.class);
+        final HttpServletResponse response = mock(HttpServletResponse.class);
+        final Authentication authentication = mock(Authentication.class);
+        final String token = someString();
+        final String id = someString();
+        final Date expiry = new Date();
+
+        // Given
+        given(tokenFinder.find(request)).willReturn(token);
+        given(idReader.read(token)).willReturn(id);
+        given(expiryReader.read(token)).willReturn(expiry);
+
+        // When
+        logoutHandler.logout(request, response, authentication);
+
+        // Then
+        final InOrder order = inOrder(tokenParser, revocationList, delegate);
+        order.verify(tokenParser).parse(request);
+        order.verify(revocationList).revoke(id, expiry);
+        order.verify(delegate).logout(request, response, authentication);
+    }
+
+    @Test
+    public void Can_logout_without_a_token() {
+
+        final HttpServletRequest request = mock(HttpServletRequest.class);
+        final HttpServletResponse response = mock(HttpServletResponse.class);
+        final Authentication authentication = mock(Authentication.class);
+
+        // Given
+        given(tokenFinder.find(request)).willReturn(null);
+
+        // When
+        logoutHandler.logout(request, response, authentication);
+
+        // Then
+        verifyZeroInteractions(tokenParser, revocationList);
+        verify(delegate).logout(request, response, authentication);
+    }
+
+    @Test
+    public void Can_logout_with_a_token_that_has_no_id() {
+
+        final HttpServletRequest request = mock(HttpServletRequest.class);
+        final HttpServletResponse response = mock(HttpServletResponse.class);
+        final Authentication authentication = mock(Authentication.class);
+        final String token = someString();
+
+        // Given
+        given(tokenFinder.find(request)).willReturn(token);
+        given(idReader.read(token)).willReturn(null);
+
+        // When
+        logoutHandler.logout(request, response, authentication);
+
+        // Then
+        verifyZeroInteractions(revocationList);
+        verify(delegate).logout(request, response, authentication);
+    }
+
+    @Test
+    public void Will_not_revoke_an_invalid_token() {
+
+        final HttpServletRequest request = mock(HttpServletRequest.class);
+        final HttpServletResponse response = mock(HttpServletResponse.class);
+        final Authentication authentication = mock(Authentication.class);
+
+        // Given
+        given(tokenFinder.find(request)).willReturn(someString());
+        given(tokenParser.parse(request)).willThrow(new JwtInvalidTokenException(someString()));
+
+        // When
+        logoutHandler.logout(request, response, authentication);
+
+        // Then
+        verify(revocationList, never()).revoke(anyString(), any(Date.class));
+        verify(delegate).logout(request, response, authentication);
+    }
+
+    @Test
+    public void Can_still_logout_if_the_token_cannot_be_revoked() {
+
+        final HttpServletRequest request = mock(HttpServletRequest.class);
+        final HttpServletResponse response = mock(HttpServletResponse.class);
+        final Authentication authentication = mock(Authentication.class);
+        final String token = someString();
+        final String id = someString();
+        final Date expiry = new Date();
+
+        // Given
+        given(tokenFinder.find(request)).willReturn(token);
+        given(idReader.read(token)).willReturn(id);
+        given(expiryReader.read(token)).willReturn(expiry);
+        willThrow(new IllegalStateException(someString())).given(revocationList).revoke(id, expiry);
+
+        // When
+        logoutHandler.logout(request, response, authentication);
+
+        // Then
+        verify(delegate).logout(request, response, authentication);
+    }
+}
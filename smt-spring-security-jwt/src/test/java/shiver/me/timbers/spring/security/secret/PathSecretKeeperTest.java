@@ -0,0 +1,63 @@
+/*
+ * Copyright 2016 Karl Bennett
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package shiver.me.timbers.spring.security.secret;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static shiver.me.timbers.data.random.RandomStrings.someString;
+
+public class PathSecretKeeperTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void Can_read_the_current_secret_from_a_file() throws IOException {
+
+        final File file = folder.newFile();
+        final String first = someString();
+        final String second = someString();
+        final SecretKeeper secretKeeper = new PathSecretKeeper(file.toPath());
+
+        // Given
+        Files.write(file.toPath(), first.getBytes("UTF-8"));
+        final String before = secretKeeper.getSecret();
+        Files.write(file.toPath(), second.getBytes("UTF-8"));
+
+        // When
+        final String after = secretKeeper.getSecret();
+
+        // Then
+        assertThat(before, equalTo(first));
+        assertThat(after, equalTo(second));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void Cannot_read_a_secret_from_a_missing_file() {
+
+        // When
+        new PathSecretKeeper(new File(folder.getRoot(), someString()).toPath()).getSecret();
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2016 Karl Bennett
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package shiver.me.timbers.spring.security.signature;
+
+import org.junit.Test;
+
+import javax.crypto.spec.SecretKeySpec;
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+
+import static io.jsonwebtoken.SignatureAlgorithm.HS256;
+import static io.jsonwebtoken.SignatureAlgorithm.NONE;
+import static io.jsonwebtoken.SignatureAlgorithm.RS256;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.junit.Assert.assertThat;
+import static shiver.me.timbers.data.random.RandomStrings.someAlphaNumericString;
+
+public class JcaSignatureVerifierFactoryTest {
+
+    @Test
+    public void Can_create_a_hmac_verifier() {
+
+        // When
+        final SignatureVerifier actual = new JcaSignatureVerifierFactory()
+            .create(HS256, new SecretKeySpec(someAlphaNumericString(32).getBytes(), HS256.getJcaName()));
+
+        // Then
+        assertThat(actual, instanceOf(MacSignatureVerifier.class));
+    }
+
+    @Test
+    public void Can_create_a_public_key_verifier() throws NoSuchAlgorithmException {
+
+        // When
+        final SignatureVerifier actual = new JcaSignatureVerifierFactory()
+            .create(RS256, KeyPairGenerator.getInstance("RSA").generateKeyPair().getPublic());
+
+        // Then
+        assertThat(actual, instanceOf(PublicKeySignatureVerifier.class));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void Cannot_create_a_verifier_for_an_unsigned_algorithm() {
+
+        // When
+        new JcaSignatureVerifierFactory().create(NONE, null);
+    }
+}
@@ -0,0 +1,165 @@
+/*
+ * Copyright 2016 Karl Bennett
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package shiver.me.timbers.spring.security.signature;
+
+import io.jsonwebtoken.SignatureAlgorithm;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import shiver.me.timbers.spring.security.keys.JwtKey;
+import shiver.me.timbers.spring.security.keys.KeyRing;
+
+import java.security.KeyPair;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static shiver.me.timbers.data.random.RandomEnums.someEnum;
+import static shiver.me.timbers.data.random.RandomStrings.someString;
+
+public class KeyRingSignatureVerifierResolverTest {
+
+    private SignatureAlgorithm algorithm;
+    private KeyRing keyRing;
+    private SignatureVerifierFactory verifierFactory;
+    private SignatureVerifierResolver resolver;
+
+    @Before
+    public void setUp() {
+        algorithm = someEnum(SignatureAlgorithm.class);
+        keyRing = mock(KeyRing.class);
+        verifierFactory = mock(SignatureVerifierFactory.class);
+        resolver = new KeyRingSignatureVerifierResolver(algorithm, keyRing, verifierFactory);
+    }
+
+    @Test
+    public void Can_resolve_the_verifier_for_a_key_id_only_creating_it_once() {
+
+        final String keyId = someString();
+        final PublicKey publicKey = mock(PublicKey.class);
+
+        final SignatureVerifier expected = mock(SignatureVerifier.class);
+
+        // Given
+        given(keyRing.getVerificationKey(keyId))
+            .willReturn(new JwtKey(keyId, new KeyPair(publicKey, mock(PrivateKey.class))));
+        given(verifierFactory.create(algorithm, publicKey)).willReturn(expected);
+
+        // When
+        final SignatureVerifier first = resolver.resolve(keyId);
+        final SignatureVerifier second = resolver.resolve(keyId);
+
+        // Then
+        assertThat(first, is(expected));
+        assertThat(second, is(expected));
+        verify(verifierFactory, times(1)).create(algorithm, publicKey);
+    }
+
+    @Test
+    public void Cannot_resolve_a_verifier_for_an_unusable_key() {
+
+        final String keyId = someString();
+
+        // Given
+        given(keyRing.getVerificationKey(keyId)).willReturn(null);
+
+        // When
+        final SignatureVerifier actual = resolver.resolve(keyId);
+
+        // Then
+        assertThat(actual, nullValue());
+        verifyZeroInteractions(verifierFactory);
+    }
+
+    @Test
+    public void Can_create_a_new_verifier_if_the_key_for_a_key_id_changes() {
+
+        final String keyId = someString();
+        final PublicKey firstPublicKey = mock(PublicKey.class);
+        final PublicKey secondPublicKey = mock(PublicKey.class);
+
+        final SignatureVerifier expected = mock(SignatureVerifier.class);
+
+        // Given
+        given(keyRing.getVerificationKey(keyId)).willReturn(
+            new JwtKey(keyId, new KeyPair(firstPublicKey, mock(PrivateKey.class))),
+            new JwtKey(keyId, new KeyPair(secondPublicKey, mock(PrivateKey.class)))
+        );
+        given(verifierFactory.create(algorithm, firstPublicKey)).willReturn(mock(SignatureVerifier.class));
+        given(verifierFactory.create(algorithm, secondPublicKey)).willReturn(expected);
+        resolver.resolve(keyId);
+
+        // When
+        final SignatureVerifier actual = resolver.resolve(keyId);
+
+        // Then
+        assertThat(actual, is(expected));
+    }
+
+    @Test
+    public void Can_only_keep_the_verifiers_for_the_keys_that_are_still_in_a_reloading_key_ring() {
+
+        final Map<String, JwtKey> keys = new HashMap<>();
+        final KeyRingSignatureVerifierResolver resolver = new KeyRingSignatureVerifierResolver(
+            algorithm,
+            keyRing,
+            verifierFactory
+        );
+
+        // Given
+        given(keyRing.getVerificationKey(anyString())).willAnswer(new Answer<JwtKey>() {
+            @Override
+            public JwtKey answer(InvocationOnMock invocation) {
+                return keys.get(invocation.getArguments()[0].toString());
+            }
+        });
+        given(verifierFactory.create(eq(algorithm), any(PublicKey.class))).willReturn(mock(SignatureVerifier.class));
+
+        // When
+        for (int i = 0; i < 100; i++) {
+            // Every reload creates new key instances, the previous signing key is kept as a retired key and the key
+            // that was retired before it is dropped.
+            final JwtKey previous = keys.get(String.valueOf(i - 1));
+            keys.clear();
+            if (previous != null) {
+                keys.put(previous.getId(), new JwtKey(previous.getId(), previous.getKeyPair(), new Date()));
+            }
+            keys.put(String.valueOf(i), new JwtKey(String.valueOf(i), new KeyPair(mock(PublicKey.class), null)));
+            for (String keyId : keys.keySet()) {
+                resolver.resolve(keyId);
+            }
+        }
+
+        // Then
+        assertThat(resolver.size(), is(2));
+        verify(verifierFactory, times(100)).create(eq(algorithm), any(PublicKey.class));
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2016 Karl Bennett
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package shiver.me.timbers.spring.security.signature;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.impl.TextCodec;
+import org.junit.Test;
+
+import javax.crypto.spec.SecretKeySpec;
+import java.security.Key;
+
+import static io.jsonwebtoken.SignatureAlgorithm.HS256;
+import static io.jsonwebtoken.SignatureAlgorithm.HS512;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static shiver.me.timbers.data.random.RandomStrings.someAlphaNumericString;
+
+public class MacSignatureSignerTest {
+
+    @Test
+    public void Can_create_the_same_hmac_signature_as_jjwt() {
+
+        final Key key = new SecretKeySpec(someAlphaNumericString(64).getBytes(), HS512.getJcaName());
+        final String token = Jwts.builder().setSubject(someAlphaNumericString(8)).signWith(HS512, key).compact();
+        final int index = token.lastIndexOf('.');
+        final byte[] content = ("padding" + token.substring(0, index)).getBytes();
+
+        // When
+        final byte[] actual = new MacSignatureSigner(HS512, key).sign(content, 7, content.length - 7);
+
+        // Then
+        assertThat(TextCodec.BASE64URL.encode(actual), is(token.substring(index + 1)));
+    }
+
+    @Test
+    public void Can_sign_more_than_once() {
+
+        final Key key = new SecretKeySpec(someAlphaNumericString(32).getBytes(), HS256.getJcaName());
+        final byte[] content = someAlphaNumericString(16).getBytes();
+        final MacSignatureSigner signer = new MacSignatureSigner(HS256, key);
+
+        // When
+        final byte[] first = signer.sign(content, 0, content.length);
+        final byte[] second = signer.sign(content, 0, content.length);
+
+        // Then
+        assertThat(second, is(first));
+        assertThat(new MacSignatureVerifier(HS256, key).verify(content, first), is(true));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void Cannot_create_a_signer_with_an_invalid_key() {
+
+        // When
+        new MacSignatureSigner(HS256, null);
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2016 Karl Bennett
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package shiver.me.timbers.spring.security.signature;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.impl.TextCodec;
+import org.junit.Test;
+
+import javax.crypto.spec.SecretKeySpec;
+import java.security.Key;
+
+import static io.jsonwebtoken.SignatureAlgorithm.HS256;
+import static io.jsonwebtoken.SignatureAlgorithm.HS512;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static shiver.me.timbers.data.random.RandomStrings.someAlphaNumericString;
+
+public class MacSignatureVerifierTest {
+
+    @Test
+    public void Can_verify_a_jjwt_hmac_signature() {
+
+        final Key key = new SecretKeySpec(someAlphaNumericString(64).getBytes(), HS512.getJcaName());
+        final String token = Jwts.builder().setSubject(someAlphaNumericString(8)).signWith(HS512, key).compact();
+        final int index = token.lastIndexOf('.');
+
+        // When
+        final boolean actual = new MacSignatureVerifier(HS512, key)
+            .verify(token.substring(0, index).getBytes(), TextCodec.BASE64URL.decode(token.substring(index + 1)));
+
+        // Then
+        assertThat(actual, is(true));
+    }
+
+    @Test
+    public void Can_fail_to_verify_an_invalid_hmac_signature() {
+
+        final Key key = new SecretKeySpec(someAlphaNumericString(64).getBytes(), HS256.getJcaName());
+        final String token = Jwts.builder().setSubject(someAlphaNumericString(8)).signWith(HS256, key).compact();
+        final int index = token.lastIndexOf('.');
+
+        // When
+        final boolean actual = new MacSignatureVerifier(HS256, key)
+            .verify(token.substring(0, index - 1).getBytes(), TextCodec.BASE64URL.decode(token.substring(index + 1)));
+
+        // Then
+        assertThat(actual, is(false));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void Cannot_create_a_verifier_with_an_invalid_key() {
+
+        // When
+        new MacSignatureVerifier(HS256, null);
+    }
+}
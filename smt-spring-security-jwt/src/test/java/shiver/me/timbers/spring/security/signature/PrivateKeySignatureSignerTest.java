@@ -0,0 +1,80 @@
+/*
+ * Copyright 2016 Karl Bennett
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package shiver.me.timbers.spring.security.signature;
+
+import io.jsonwebtoken.SignatureAlgorithm;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+
+import static io.jsonwebtoken.SignatureAlgorithm.ES256;
+import static io.jsonwebtoken.SignatureAlgorithm.PS256;
+import static io.jsonwebtoken.SignatureAlgorithm.RS256;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static shiver.me.timbers.data.random.RandomStrings.someAlphaNumericString;
+
+public class PrivateKeySignatureSignerTest {
+
+    private static KeyPair rsaKeyPair;
+    private static KeyPair ecKeyPair;
+
+    @BeforeClass
+    public static void setUpKeys() throws NoSuchAlgorithmException {
+        final KeyPairGenerator rsa = KeyPairGenerator.getInstance("RSA");
+        rsa.initialize(2048);
+        rsaKeyPair = rsa.generateKeyPair();
+        final KeyPairGenerator ec = KeyPairGenerator.getInstance("EC");
+        ec.initialize(256);
+        ecKeyPair = ec.generateKeyPair();
+        new JcaSignatureSignerFactory();
+    }
+
+    @Test
+    public void Can_create_a_rsa_signature() {
+        assertThat(signAndVerify(RS256, rsaKeyPair), is(true));
+    }
+
+    @Test
+    public void Can_create_a_rsa_pss_signature() {
+        assertThat(signAndVerify(PS256, rsaKeyPair), is(true));
+    }
+
+    @Test
+    public void Can_create_an_ecdsa_signature() {
+        assertThat(signAndVerify(ES256, ecKeyPair), is(true));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void Cannot_create_a_signer_with_an_invalid_key() {
+
+        // When
+        new PrivateKeySignatureSigner(RS256, null);
+    }
+
+    private static boolean signAndVerify(SignatureAlgorithm algorithm, KeyPair keyPair) {
+        final byte[] content = ("padding" + someAlphaNumericString(16)).getBytes();
+        final PrivateKeySignatureSigner signer = new PrivateKeySignatureSigner(algorithm, keyPair.getPrivate());
+        signer.sign(content, 0, content.length);
+        final byte[] signature = signer.sign(content, 7, content.length - 7);
+        return new PublicKeySignatureVerifier(algorithm, keyPair.getPublic())
+            .verify(new String(content).substring(7).getBytes(), signature);
+    }
+}
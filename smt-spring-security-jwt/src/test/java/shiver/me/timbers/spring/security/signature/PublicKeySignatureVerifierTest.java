@@ -0,0 +1,107 @@
+/*
+ * Copyright 2016 Karl Bennett
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package shiver.me.timbers.spring.security.signature;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.impl.TextCodec;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+
+import static io.jsonwebtoken.SignatureAlgorithm.ES256;
+import static io.jsonwebtoken.SignatureAlgorithm.PS256;
+import static io.jsonwebtoken.SignatureAlgorithm.RS256;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static shiver.me.timbers.data.random.RandomStrings.someAlphaNumericString;
+
+public class PublicKeySignatureVerifierTest {
+
+    private static KeyPair rsaKeyPair;
+    private static KeyPair ecKeyPair;
+
+    @BeforeClass
+    public static void setUpKeys() throws NoSuchAlgorithmException {
+        final KeyPairGenerator rsa = KeyPairGenerator.getInstance("RSA");
+        rsa.initialize(2048);
+        rsaKeyPair = rsa.generateKeyPair();
+        final KeyPairGenerator ec = KeyPairGenerator.getInstance("EC");
+        ec.initialize(256);
+        ecKeyPair = ec.generateKeyPair();
+        new JcaSignatureVerifierFactory();
+    }
+
+    @Test
+    public void Can_verify_a_jjwt_rsa_signature() {
+        assertThat(verify(RS256, rsaKeyPair, false), is(true));
+    }
+
+    @Test
+    public void Can_verify_a_jjwt_rsa_pss_signature() {
+        assertThat(verify(PS256, rsaKeyPair, false), is(true));
+    }
+
+    @Test
+    public void Can_verify_a_jjwt_ecdsa_signature() {
+        assertThat(verify(ES256, ecKeyPair, false), is(true));
+    }
+
+    @Test
+    public void Can_fail_to_verify_an_invalid_rsa_signature() {
+        assertThat(verify(RS256, rsaKeyPair, true), is(false));
+    }
+
+    @Test
+    public void Can_fail_to_verify_an_invalid_ecdsa_signature() {
+        assertThat(verify(ES256, ecKeyPair, true), is(false));
+    }
+
+    @Test
+    public void Can_fail_to_verify_a_malformed_ecdsa_signature_and_then_verify_a_valid_one() {
+
+        final PublicKeySignatureVerifier verifier = new PublicKeySignatureVerifier(ES256, ecKeyPair.getPublic());
+
+        // When
+        final boolean malformed = verifier.verify(someAlphaNumericString(8).getBytes(), new byte[]{1, 2, 3});
+        final String token = sign(ES256, ecKeyPair);
+        final int index = token.lastIndexOf('.');
+        final boolean valid = verifier.verify(
+            token.substring(0, index).getBytes(),
+            TextCodec.BASE64URL.decode(token.substring(index + 1))
+        );
+
+        // Then
+        assertThat(malformed, is(false));
+        assertThat(valid, is(true));
+    }
+
+    private static boolean verify(SignatureAlgorithm algorithm, KeyPair keyPair, boolean tamper) {
+        final String token = sign(algorithm, keyPair);
+        final int index = token.lastIndexOf('.');
+        final String content = tamper ? token.substring(0, index - 1) : token.substring(0, index);
+        return new PublicKeySignatureVerifier(algorithm, keyPair.getPublic())
+            .verify(content.getBytes(), TextCodec.BASE64URL.decode(token.substring(index + 1)));
+    }
+
+    private static String sign(SignatureAlgorithm algorithm, KeyPair keyPair) {
+        return Jwts.builder().setSubject(someAlphaNumericString(8)).signWith(algorithm, keyPair.getPrivate()).compact();
+    }
+}
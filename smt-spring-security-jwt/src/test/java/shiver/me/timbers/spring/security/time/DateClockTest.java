@@ -30,6 +30,16 @@ import static shiver.me.timbers.matchers.Within.within;
 
 public class DateClockTest {
 
+    @Test
+    public void Can_get_now() {
+
+        // When
+        final Date actual = new DateClock().now();
+
+        // Then
+        assertThat(actual, fallsOn(new Date(), within(1L, SECONDS)));
+    }
+
     @Test
     public void Can_get_now_plus_some_time() {
 
@@ -41,6 +51,6 @@ public class DateClockTest {
         final Date actual = new DateClock().nowPlus(duration, unit);
 
         // Then
-        assertThat(actual, fallsOn(new Date(new Date().getTime() + unit.toMicros(duration)), within(1L, SECONDS)));
+        assertThat(actual, fallsOn(new Date(new Date().getTime() + unit.toMillis(duration)), within(1L, SECONDS)));
     }
 }
\ No newline at end of file
@@ -0,0 +1,38 @@
+/*
+ * Copyright 2016 Karl Bennett
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package shiver.me.timbers.spring.security;
+
+import com.stormpath.sdk.application.Application;
+import com.stormpath.sdk.authc.AuthenticationRequest;
+import com.stormpath.sdk.authc.AuthenticationResult;
+
+/**
+ * @author Karl Bennett
+ */
+public class ApplicationAccountAuthenticator implements AccountAuthenticator {
+
+    private final Application application;
+
+    public ApplicationAccountAuthenticator(Application application) {
+        this.application = application;
+    }
+
+    @Override
+    public AuthenticationResult authenticate(AuthenticationRequest request) {
+        return application.authenticateAccount(request);
+    }
+}
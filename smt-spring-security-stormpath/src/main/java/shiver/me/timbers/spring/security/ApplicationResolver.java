@@ -0,0 +1,34 @@
+/*
+ * Copyright 2016 Karl Bennett
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package shiver.me.timbers.spring.security;
+
+import com.stormpath.sdk.application.Application;
+
+/**
+ * @author Karl Bennett
+ */
+public interface ApplicationResolver {
+
+    boolean isReady();
+
+    /**
+     * Return the resolved application, waiting for it to be resolved if it hasn't been yet.
+     *
+     * @throws ApplicationUnavailableException if the application could not be resolved in time.
+     */
+    Application resolve();
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright 2016 Karl Bennett
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package shiver.me.timbers.spring.security;
+
+import com.stormpath.sdk.application.Application;
+import com.stormpath.sdk.client.Client;
+
+import java.io.Closeable;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An {@link ApplicationFactory} that returns straight away with a proxy while the real application is resolved in the
+ * background, so that starting up does not have to wait on the Stormpath API. Closing the factory stops any resolutions
+ * that are still running.
+ *
+ * @author Karl Bennett
+ */
+public class BackgroundApplicationFactory implements ApplicationFactory, Closeable {
+
+    private final ApplicationFactory applicationFactory;
+    private final long retryDelay;
+    private final long maximumRetryDelay;
+    private final long waitTimeout;
+    private final TimeUnit unit;
+    private final List<BackgroundApplicationResolver> resolvers = new CopyOnWriteArrayList<>();
+
+    public BackgroundApplicationFactory(
+        ApplicationFactory applicationFactory,
+        long retryDelay,
+        long maximumRetryDelay,
+        long waitTimeout,
+        TimeUnit unit
+    ) {
+        this.applicationFactory = applicationFactory;
+        this.retryDelay = retryDelay;
+        this.maximumRetryDelay = maximumRetryDelay;
+        this.waitTimeout = waitTimeout;
+        this.unit = unit;
+    }
+
+    @Override
+    public Application create(Client client, String applicationHref, String applicationName) {
+        final BackgroundApplicationResolver resolver = new BackgroundApplicationResolver(
+            applicationFactory,
+            client,
+            applicationHref,
+            applicationName,
+            retryDelay,
+            maximumRetryDelay,
+            waitTimeout,
+            unit
+        );
+        resolvers.add(resolver);
+        resolver.start();
+        return proxy(resolver);
+    }
+
+    @Override
+    public void close() {
+        for (BackgroundApplicationResolver resolver : resolvers) {
+            resolver.close();
+        }
+    }
+
+    static ResolvingApplication proxy(ApplicationResolver resolver) {
+        return (ResolvingApplication) Proxy.newProxyInstance(
+            ResolvingApplication.class.getClassLoader(),
+            new Class[]{ResolvingApplication.class},
+            new ResolvingInvocationHandler(resolver)
+        );
+    }
+
+    private static class ResolvingInvocationHandler implements InvocationHandler {
+
+        private final ApplicationResolver resolver;
+
+        private ResolvingInvocationHandler(ApplicationResolver resolver) {
+            this.resolver = resolver;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            // The object methods are answered by the proxy so that logging or storing it never waits on Stormpath.
+            final String name = method.getName();
+            if ("isReady".equals(name) && method.getParameterTypes().length == 0) {
+                return resolver.isReady();
+            }
+            if ("equals".equals(name) && method.getParameterTypes().length == 1) {
+                return proxy == args[0];
+            }
+            if ("hashCode".equals(name) && method.getParameterTypes().length == 0) {
+                return System.identityHashCode(proxy);
+            }
+            if ("toString".equals(name) && method.getParameterTypes().length == 0) {
+                return "ResolvingApplication(ready=" + resolver.isReady() + ")";
+            }
+
+            try {
+                return method.invoke(resolver.resolve(), args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
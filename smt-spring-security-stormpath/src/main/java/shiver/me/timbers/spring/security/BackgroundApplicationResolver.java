@@ -0,0 +1,146 @@
+/*
+ * Copyright 2016 Karl Bennett
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package shiver.me.timbers.spring.security;
+
+import com.stormpath.sdk.application.Application;
+import com.stormpath.sdk.client.Client;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resolves the Stormpath application on a background thread, retrying with an exponential backoff until it succeeds.
+ * Any callers that need the application before then all wait on the same resolution. Closing the resolver interrupts
+ * the background thread so that it doesn't keep retrying after the Spring context has been closed.
+ *
+ * @author Karl Bennett
+ */
+public class BackgroundApplicationResolver implements ApplicationResolver, Runnable, Closeable {
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    private final ApplicationFactory applicationFactory;
+    private final Client client;
+    private final String applicationHref;
+    private final String applicationName;
+    private final long retryDelay;
+    private final long maximumRetryDelay;
+    private final long waitTimeout;
+    private final TimeUnit unit;
+    private final CountDownLatch finished;
+
+    private volatile Thread thread;
+    private volatile Application application;
+    private volatile RuntimeException failure;
+
+    public BackgroundApplicationResolver(
+        ApplicationFactory applicationFactory,
+        Client client,
+        String applicationHref,
+        String applicationName,
+        long retryDelay,
+        long maximumRetryDelay,
+        long waitTimeout,
+        TimeUnit unit
+    ) {
+        if (retryDelay <= 0 || maximumRetryDelay < retryDelay) {
+            throw new IllegalArgumentException(
+                "The retry delay must be greater than zero and no greater than the maximum retry delay."
+            );
+        }
+        this.applicationFactory = applicationFactory;
+        this.client = client;
+        this.applicationHref = applicationHref;
+        this.applicationName = applicationName;
+        this.retryDelay = retryDelay;
+        this.maximumRetryDelay = maximumRetryDelay;
+        this.waitTimeout = waitTimeout;
+        this.unit = unit;
+        this.finished = new CountDownLatch(1);
+    }
+
+    public void start() {
+        final Thread thread = new Thread(this, "smt-stormpath-application-resolver");
+        thread.setDaemon(true);
+        this.thread = thread;
+        thread.start();
+    }
+
+    @Override
+    public void close() {
+        final Thread thread = this.thread;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    @Override
+    public void run() {
+        long delay = retryDelay;
+        try {
+            while (true) {
+                try {
+                    application = applicationFactory.create(client, applicationHref, applicationName);
+                    return;
+                } catch (IllegalArgumentException | NoSuchElementException e) {
+                    // The application has been misconfigured or doesn't exist so retrying will never succeed.
+                    failure = e;
+                    return;
+                } catch (RuntimeException e) {
+                    log.warn("Failed to resolve the Stormpath application, retrying in {} {}.", delay, unit, e);
+                }
+                unit.sleep(delay);
+                delay = Math.min(delay * 2, maximumRetryDelay);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            finished.countDown();
+        }
+    }
+
+    @Override
+    public boolean isReady() {
+        return application != null;
+    }
+
+    @Override
+    public Application resolve() {
+        final Application application = this.application;
+        if (application != null) {
+            return application;
+        }
+
+        try {
+            if (!finished.await(waitTimeout, unit)) {
+                throw new ApplicationUnavailableException("Timed out waiting for the Stormpath application.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ApplicationUnavailableException("Interrupted waiting for the Stormpath application.", e);
+        }
+
+        if (this.application == null) {
+            throw new ApplicationUnavailableException("Could not resolve the Stormpath application.", failure);
+        }
+        return this.application;
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2016 Karl Bennett
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package shiver.me.timbers.spring.security;
+
+import com.stormpath.sdk.authc.AuthenticationRequest;
+import com.stormpath.sdk.authc.AuthenticationResult;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An {@link AccountAuthenticator} that limits how many logins can be waiting on Stormpath at once, so that a slow
+ * Stormpath can only ever hold up that many request threads. Any other logins are rejected if no slot becomes free
+ * within the maximum wait.
+ *
+ * @author Karl Bennett
+ */
+public class BulkheadAccountAuthenticator implements AccountAuthenticator {
+
+    private final AccountAuthenticator authenticator;
+    private final Semaphore permits;
+    private final long maxWait;
+    private final TimeUnit unit;
+
+    public BulkheadAccountAuthenticator(
+        AccountAuthenticator authenticator,
+        int maxConcurrent,
+        long maxWait,
+        TimeUnit unit
+    ) {
+        if (maxConcurrent <= 0) {
+            throw new IllegalArgumentException("The bulkhead maximum concurrent logins must be greater than zero.");
+        }
+        this.authenticator = authenticator;
+        this.permits = new Semaphore(maxConcurrent);
+        this.maxWait = maxWait;
+        this.unit = unit;
+    }
+
+    @Override
+    public AuthenticationResult authenticate(AuthenticationRequest request) {
+        acquire();
+        try {
+            return authenticator.authenticate(request);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void acquire() {
+        try {
+            if (!permits.tryAcquire(maxWait, unit)) {
+                throw new StormpathBulkheadFullException("Too many logins are already waiting on Stormpath.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new StormpathBulkheadFullException("Interrupted waiting for a Stormpath login slot.");
+        }
+    }
+}
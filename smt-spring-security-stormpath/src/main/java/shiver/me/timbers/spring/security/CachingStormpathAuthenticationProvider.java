@@ -0,0 +1,62 @@
+/*
+ * Copyright 2016 Karl Bennett
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package shiver.me.timbers.spring.security;
+
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.AuthenticationException;
+
+/**
+ * A {@link StormpathAuthenticationProvider} that remembers successful logins so that repeated logins with the same
+ * credentials do not need a round trip to Stormpath.
+ *
+ * @author Karl Bennett
+ */
+public class CachingStormpathAuthenticationProvider extends StormpathAuthenticationProvider {
+
+    private final UserDetailsCache cache;
+
+    public CachingStormpathAuthenticationProvider(
+        AccountAuthenticator authenticator,
+        StormpathAuthenticationRequestFactory requests,
+        UserDetailsFactory converter,
+        UserDetailsCache cache
+    ) {
+        super(authenticator, requests, converter);
+        this.cache = cache;
+    }
+
+    @Override
+    protected AccountUserDetails retrieveUser(
+        String username,
+        UsernamePasswordAuthenticationToken authentication
+    ) throws AuthenticationException {
+        final Object credentials = authentication.getCredentials();
+        if (credentials == null) {
+            return super.retrieveUser(username, authentication);
+        }
+
+        final String password = credentials.toString();
+        final AccountUserDetails cached = cache.get(username, password);
+        if (cached != null) {
+            return cached;
+        }
+
+        final AccountUserDetails userDetails = super.retrieveUser(username, authentication);
+        cache.put(username, password, userDetails);
+        return userDetails;
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2016 Karl Bennett
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package shiver.me.timbers.spring.security;
+
+import com.stormpath.sdk.authc.AuthenticationRequest;
+import com.stormpath.sdk.authc.AuthenticationResult;
+import com.stormpath.sdk.resource.ResourceException;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static shiver.me.timbers.spring.security.CircuitState.CLOSED;
+import static shiver.me.timbers.spring.security.CircuitState.HALF_OPEN;
+import static shiver.me.timbers.spring.security.CircuitState.OPEN;
+
+/**
+ * An {@link AccountAuthenticator} that stops calling Stormpath after a number of consecutive failures and instead fails
+ * logins straight away. Once the open duration has passed a single trial login is let through, if it succeeds the
+ * circuit is closed again otherwise it is re-opened. Rejected credentials are a normal Stormpath response so they are
+ * not counted as failures.
+ *
+ * @author Karl Bennett
+ */
+public class CircuitBreakerAccountAuthenticator implements AccountAuthenticator {
+
+    private final AccountAuthenticator authenticator;
+    private final int failureThreshold;
+    private final long openDurationNanos;
+    private final CircuitBreakerListener listener;
+    private final AtomicReference<CircuitState> state;
+    private final AtomicInteger failures;
+    private volatile long openedAt;
+
+    public CircuitBreakerAccountAuthenticator(
+        AccountAuthenticator authenticator,
+        int failureThreshold,
+        long openDuration,
+        TimeUnit unit,
+        CircuitBreakerListener listener
+    ) {
+        if (failureThreshold <= 0) {
+            throw new IllegalArgumentException("The circuit breaker failure threshold must be greater than zero.");
+        }
+        this.authenticator = authenticator;
+        this.failureThreshold = failureThreshold;
+        this.openDurationNanos = unit.toNanos(openDuration);
+        this.listener = listener;
+        this.state = new AtomicReference<>(CLOSED);
+        this.failures = new AtomicInteger();
+    }
+
+    @Override
+    public AuthenticationResult authenticate(AuthenticationRequest request) {
+        acquire();
+
+        final AuthenticationResult result;
+        try {
+            result = authenticator.authenticate(request);
+        } catch (StormpathBulkheadFullException e) {
+            // A full bulkhead says nothing about the health of Stormpath so this call is just forgotten.
+            reopenIfTrial();
+            throw e;
+        } catch (ResourceException e) {
+            if (e.getStatus() < 500) {
+                succeeded();
+            } else {
+                failed();
+            }
+            throw e;
+        } catch (RuntimeException e) {
+            failed();
+            throw e;
+        }
+
+        succeeded();
+        return result;
+    }
+
+    public CircuitState getState() {
+        return state.get();
+    }
+
+    private void acquire() {
+        final CircuitState current = state.get();
+        if (current == CLOSED) {
+            return;
+        }
+        if (current == OPEN && System.nanoTime() - openedAt >= openDurationNanos
+            && state.compareAndSet(OPEN, HALF_OPEN)) {
+            listener.stateChanged(HALF_OPEN);
+            return;
+        }
+        throw new StormpathCircuitOpenException("Stormpath logins are failing fast until Stormpath recovers.");
+    }
+
+    private void succeeded() {
+        failures.set(0);
+        if (state.compareAndSet(HALF_OPEN, CLOSED)) {
+            listener.stateChanged(CLOSED);
+        }
+    }
+
+    private void failed() {
+        if (state.get() == HALF_OPEN) {
+            open(HALF_OPEN);
+            return;
+        }
+        if (failures.incrementAndGet() >= failureThreshold) {
+            open(CLOSED);
+        }
+    }
+
+    private void reopenIfTrial() {
+        if (state.get() == HALF_OPEN) {
+            // Go straight back to open without waiting for another full open duration.
+            openedAt = System.nanoTime() - openDurationNanos;
+            if (state.compareAndSet(HALF_OPEN, OPEN)) {
+                listener.stateChanged(OPEN);
+            }
+        }
+    }
+
+    private void open(CircuitState from) {
+        openedAt = System.nanoTime();
+        failures.set(0);
+        if (state.compareAndSet(from, OPEN)) {
+            listener.stateChanged(OPEN);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2016 Karl Bennett
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package shiver.me.timbers.spring.security;
+
+import com.stormpath.sdk.account.Account;
+import com.stormpath.sdk.account.Accounts;
+import com.stormpath.sdk.authc.AuthenticationResult;
+import com.stormpath.sdk.client.Client;
+
+/**
+ * A {@link UserDetailsFactory} that fetches the authenticated account again with its groups expanded so that the
+ * authorities can be built from that response instead of lazily paging through the account's group collection. Every
+ * login takes two round trips, the same as paging takes for an account with one page of groups, so this is quicker for
+ * accounts with more groups than that. The login should not also ask for the account to be returned.
+ *
+ * @author Karl Bennett
+ */
+public class ExpandedGroupsStormpathUserDetailsFactory extends StormpathUserDetailsFactory {
+
+    static final int MAXIMUM_PAGE_SIZE = 100;
+
+    private final Client client;
+    private final int pageSize;
+
+    public ExpandedGroupsStormpathUserDetailsFactory(
+        GroupGrantedAuthorityConverter authorityConverter,
+        Client client,
+        int pageSize
+    ) {
+        super(authorityConverter);
+        if (pageSize <= 0 || pageSize > MAXIMUM_PAGE_SIZE) {
+            throw new IllegalArgumentException(
+                "The group page size must be between 1 and " + MAXIMUM_PAGE_SIZE + " inclusive."
+            );
+        }
+        this.client = client;
+        this.pageSize = pageSize;
+    }
+
+    @Override
+    protected Account account(AuthenticationResult result) {
+        return client.getResource(
+            result.getAccount().getHref(),
+            Account.class,
+            Accounts.options().withGroups(pageSize)
+        );
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2016 Karl Bennett
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package shiver.me.timbers.spring.security;
+
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A size bounded cache of successfully authenticated user details. Only a salted hash of the password is kept so a
+ * leaked cache cannot be used to recover any passwords, and an entry is removed as soon as a different password is
+ * presented for its username.
+ *
+ * @author Karl Bennett
+ */
+public class HashedPasswordUserDetailsCache implements UserDetailsCache {
+
+    private final PasswordEncoder passwordEncoder;
+    private final long timeToLive;
+    private final Map<String, Entry> entries;
+
+    public HashedPasswordUserDetailsCache(
+        PasswordEncoder passwordEncoder,
+        final int maximumSize,
+        long timeToLiveDuration,
+        TimeUnit timeToLiveUnit
+    ) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("The cache maximum size must be greater than zero.");
+        }
+        this.passwordEncoder = passwordEncoder;
+        this.timeToLive = timeToLiveUnit.toMillis(timeToLiveDuration);
+        this.entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maximumSize;
+            }
+        };
+    }
+
+    @Override
+    public AccountUserDetails get(String username, String password) {
+        final Entry entry;
+        synchronized (entries) {
+            entry = entries.get(username);
+        }
+        if (entry == null) {
+            return null;
+        }
+
+        // The password is checked outside of the lock because the hash is deliberately slow.
+        if (entry.isExpired(System.currentTimeMillis()) || !passwordEncoder.matches(password, entry.passwordHash)) {
+            remove(username, entry);
+            return null;
+        }
+
+        return entry.userDetails;
+    }
+
+    @Override
+    public void put(String username, String password, AccountUserDetails userDetails) {
+        final Entry entry = new Entry(
+            passwordEncoder.encode(password),
+            userDetails,
+            System.currentTimeMillis() + timeToLive
+        );
+        synchronized (entries) {
+            entries.put(username, entry);
+        }
+    }
+
+    int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private void remove(String username, Entry entry) {
+        synchronized (entries) {
+            if (entries.get(username) == entry) {
+                entries.remove(username);
+            }
+        }
+    }
+
+    private static class Entry {
+
+        private final String passwordHash;
+        private final AccountUserDetails userDetails;
+        private final long expiry;
+
+        private Entry(String passwordHash, AccountUserDetails userDetails, long expiry) {
+            this.passwordHash = passwordHash;
+            this.userDetails = userDetails;
+            this.expiry = expiry;
+        }
+
+        private boolean isExpired(long now) {
+            return expiry <= now;
+        }
+    }
+}
@@ -0,0 +1,185 @@
+/*
+ * Copyright 2016 Karl Bennett
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package shiver.me.timbers.spring.security;
+
+import com.stormpath.sdk.client.Client;
+import com.stormpath.sdk.impl.http.httpclient.HttpClientRequestExecutor;
+import org.apache.http.HttpResponse;
+import org.apache.http.conn.ClientConnectionManager;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.DefaultHttpClient;
+import org.apache.http.impl.conn.PoolingClientConnectionManager;
+import org.apache.http.params.HttpConnectionParams;
+import org.apache.http.params.HttpParams;
+import org.apache.http.protocol.HttpContext;
+import org.springframework.util.ReflectionUtils;
+
+import java.io.Closeable;
+import java.lang.reflect.Field;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Configures the connection pool and timeouts of the HTTP client that the Stormpath SDK builds for itself. The SDK does
+ * not expose these settings so the HTTP client is found by reflection. Any setting that is negative is left as the SDK
+ * default.
+ *
+ * @author Karl Bennett
+ */
+@SuppressWarnings("deprecation")
+public class PoolingClientConnectionConfigurer implements ClientConnectionConfigurer, Closeable {
+
+    private final int maxTotal;
+    private final int maxPerRoute;
+    private final int connectTimeout;
+    private final int readTimeout;
+    private final long keepAlive;
+    private final long idleTimeout;
+    private final ScheduledExecutorService evictor;
+
+    public PoolingClientConnectionConfigurer(
+        int maxTotal,
+        int maxPerRoute,
+        int connectTimeout,
+        int readTimeout,
+        long keepAlive,
+        long idleTimeout
+    ) {
+        this.maxTotal = maxTotal;
+        this.maxPerRoute = maxPerRoute;
+        this.connectTimeout = connectTimeout;
+        this.readTimeout = readTimeout;
+        this.keepAlive = keepAlive;
+        this.idleTimeout = idleTimeout;
+        this.evictor = idleTimeout > 0 ? Executors.newSingleThreadScheduledExecutor(new EvictorThreadFactory()) : null;
+    }
+
+    @Override
+    public void configure(Client client) {
+        if (maxTotal < 0 && maxPerRoute < 0 && connectTimeout < 0 && readTimeout < 0 && keepAlive < 0
+            && idleTimeout <= 0) {
+            return;
+        }
+
+        final DefaultHttpClient httpClient = httpClient(client);
+
+        final ClientConnectionManager connectionManager = httpClient.getConnectionManager();
+        if (connectionManager instanceof PoolingClientConnectionManager) {
+            final PoolingClientConnectionManager pool = (PoolingClientConnectionManager) connectionManager;
+            if (maxTotal >= 0) {
+                pool.setMaxTotal(maxTotal);
+            }
+            if (maxPerRoute >= 0) {
+                pool.setDefaultMaxPerRoute(maxPerRoute);
+            }
+        }
+
+        final HttpParams params = httpClient.getParams();
+        if (connectTimeout >= 0) {
+            HttpConnectionParams.setConnectionTimeout(params, connectTimeout);
+        }
+        if (readTimeout >= 0) {
+            HttpConnectionParams.setSoTimeout(params, readTimeout);
+        }
+
+        if (keepAlive >= 0) {
+            httpClient.setKeepAliveStrategy(new MaximumKeepAliveStrategy(keepAlive));
+        }
+
+        if (evictor != null) {
+            evictor.scheduleWithFixedDelay(
+                new IdleConnectionEvictor(connectionManager, idleTimeout),
+                idleTimeout,
+                idleTimeout,
+                MILLISECONDS
+            );
+        }
+    }
+
+    @Override
+    public void close() {
+        if (evictor != null) {
+            evictor.shutdownNow();
+        }
+    }
+
+    private static DefaultHttpClient httpClient(Client client) {
+        final Object requestExecutor = field(client.getDataStore(), "requestExecutor");
+        if (!(requestExecutor instanceof HttpClientRequestExecutor)) {
+            throw new IllegalStateException("The Stormpath client is not using the Apache HTTP client.");
+        }
+        return (DefaultHttpClient) field(requestExecutor, "httpClient");
+    }
+
+    private static Object field(Object object, String name) {
+        final Field field = ReflectionUtils.findField(object.getClass(), name);
+        if (field == null) {
+            throw new IllegalStateException(
+                "Could not find the (" + name + ") field in the Stormpath (" + object.getClass().getName() + ")."
+            );
+        }
+        ReflectionUtils.makeAccessible(field);
+        return ReflectionUtils.getField(field, object);
+    }
+
+    private static class MaximumKeepAliveStrategy implements ConnectionKeepAliveStrategy {
+
+        private final long keepAlive;
+
+        private MaximumKeepAliveStrategy(long keepAlive) {
+            this.keepAlive = keepAlive;
+        }
+
+        @Override
+        public long getKeepAliveDuration(HttpResponse response, HttpContext context) {
+            final long serverKeepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE
+                .getKeepAliveDuration(response, context);
+            return serverKeepAlive > 0 ? Math.min(serverKeepAlive, keepAlive) : keepAlive;
+        }
+    }
+
+    private static class IdleConnectionEvictor implements Runnable {
+
+        private final ClientConnectionManager connectionManager;
+        private final long idleTimeout;
+
+        private IdleConnectionEvictor(ClientConnectionManager connectionManager, long idleTimeout) {
+            this.connectionManager = connectionManager;
+            this.idleTimeout = idleTimeout;
+        }
+
+        @Override
+        public void run() {
+            connectionManager.closeExpiredConnections();
+            connectionManager.closeIdleConnections(idleTimeout, MILLISECONDS);
+        }
+    }
+
+    private static class EvictorThreadFactory implements ThreadFactory {
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            final Thread thread = new Thread(runnable, "smt-stormpath-idle-connection-evictor");
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright 2016 Karl Bennett
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package shiver.me.timbers.spring.security;
+
+import com.stormpath.sdk.authc.AuthenticationRequest;
+import com.stormpath.sdk.authc.AuthenticationResult;
+
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An {@link AccountAuthenticator} that only lets one of any identical concurrent logins through to Stormpath, the
+ * others wait for it to finish and share its result or failure. Nothing is kept once the login has finished so a
+ * failed login is always tried again. Logins are matched on their username and a digest of their password so the
+ * password itself is never held on to. The identical logins only wait for the max wait time so that they can't hold on
+ * to any more threads than the login they are waiting for.
+ *
+ * @author Karl Bennett
+ */
+public class SingleFlightAccountAuthenticator implements AccountAuthenticator {
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private final AccountAuthenticator authenticator;
+    private final long maxWait;
+    private final TimeUnit unit;
+    private final ConcurrentMap<Key, Flight> flights = new ConcurrentHashMap<>();
+
+    public SingleFlightAccountAuthenticator(AccountAuthenticator authenticator, long maxWait, TimeUnit unit) {
+        this.authenticator = authenticator;
+        this.maxWait = maxWait;
+        this.unit = unit;
+    }
+
+    @Override
+    public AuthenticationResult authenticate(AuthenticationRequest request) {
+        final Object principals = request.getPrincipals();
+        final Object credentials = request.getCredentials();
+        if (!(principals instanceof String) || !(credentials instanceof char[])) {
+            return authenticator.authenticate(request);
+        }
+
+        final Key key = new Key((String) principals, digest((char[]) credentials));
+        final Flight flight = new Flight();
+        final Flight existing = flights.putIfAbsent(key, flight);
+        if (existing != null) {
+            return existing.await(maxWait, unit);
+        }
+
+        try {
+            flight.result = authenticator.authenticate(request);
+            return flight.result;
+        } catch (RuntimeException e) {
+            flight.failure = e;
+            throw e;
+        } finally {
+            flights.remove(key, flight);
+            flight.done.countDown();
+        }
+    }
+
+    int inFlight() {
+        return flights.size();
+    }
+
+    private static byte[] digest(char[] password) {
+        try {
+            final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(UTF_8.encode(CharBuffer.wrap(password)));
+            return digest.digest();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static class Key {
+
+        private final String username;
+        private final byte[] digest;
+
+        private Key(String username, byte[] digest) {
+            this.username = username;
+            this.digest = digest;
+        }
+
+        @Override
+        public boolean equals(Object object) {
+            if (this == object) {
+                return true;
+            }
+            if (!(object instanceof Key)) {
+                return false;
+            }
+            final Key that = (Key) object;
+            return username.equals(that.username) && Arrays.equals(digest, that.digest);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * username.hashCode() + Arrays.hashCode(digest);
+        }
+    }
+
+    private static class Flight {
+
+        private final CountDownLatch done = new CountDownLatch(1);
+        private AuthenticationResult result;
+        private RuntimeException failure;
+
+        private AuthenticationResult await(long maxWait, TimeUnit unit) {
+            try {
+                if (!done.await(maxWait, unit)) {
+                    throw new StormpathUnavailableException("Timed out waiting for an identical Stormpath login.");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new StormpathUnavailableException("Interrupted waiting for an identical Stormpath login.", e);
+            }
+            if (failure != null) {
+                throw failure;
+            }
+            if (result == null) {
+                throw new StormpathUnavailableException("The identical Stormpath login did not finish.");
+            }
+            return result;
+        }
+    }
+}
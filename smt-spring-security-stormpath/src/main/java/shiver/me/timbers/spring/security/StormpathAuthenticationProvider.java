@@ -29,7 +29,7 @@ import org.springframework.security.core.userdetails.UserDetails;
  */
 public class StormpathAuthenticationProvider extends AbstractUserDetailsAuthenticationProvider {
 
-    private final Application application;
+    private final AccountAuthenticator authenticator;
     private final StormpathAuthenticationRequestFactory requests;
     private final UserDetailsFactory converter;
 
@@ -38,7 +38,15 @@ public class StormpathAuthenticationProvider extends AbstractUserDetailsAuthenti
         StormpathAuthenticationRequestFactory requests,
         UserDetailsFactory converter
     ) {
-        this.application = application;
+        this(new ApplicationAccountAuthenticator(application), requests, converter);
+    }
+
+    public StormpathAuthenticationProvider(
+        AccountAuthenticator authenticator,
+        StormpathAuthenticationRequestFactory requests,
+        UserDetailsFactory converter
+    ) {
+        this.authenticator = authenticator;
         this.requests = requests;
         this.converter = converter;
     }
@@ -51,14 +59,16 @@ public class StormpathAuthenticationProvider extends AbstractUserDetailsAuthenti
     }
 
     @Override
-    protected UserDetails retrieveUser(
+    protected AccountUserDetails retrieveUser(
         String username,
         UsernamePasswordAuthenticationToken authentication
     ) throws AuthenticationException {
         try {
-            return converter.create(application.authenticateAccount(requests.create(username, authentication)));
+            return converter.create(authenticator.authenticate(requests.create(username, authentication)));
         } catch (ResourceException e) {
             throw new BadCredentialsException("Invalid credentials for " + username, e);
+        } catch (ApplicationUnavailableException e) {
+            throw new StormpathUnavailableException("Could not authenticate " + username, e);
         }
     }
 }
@@ -19,11 +19,23 @@ package shiver.me.timbers.spring.security;
 import com.stormpath.sdk.api.ApiKeys;
 import com.stormpath.sdk.application.Application;
 import com.stormpath.sdk.client.Client;
+import com.stormpath.sdk.client.ClientBuilder;
 import com.stormpath.sdk.client.Clients;
+import com.stormpath.sdk.client.Proxy;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import shiver.me.timbers.spring.security.authority.GrantedAuthorityRegistry;
+import shiver.me.timbers.spring.security.authority.InterningGrantedAuthorityRegistry;
+import shiver.me.timbers.spring.security.metrics.MetricsAccountAuthenticator;
+import shiver.me.timbers.spring.security.metrics.StormpathMetrics;
+
+import java.util.concurrent.TimeUnit;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 
 /**
  * @author Karl Bennett
@@ -31,18 +43,177 @@ import org.springframework.context.annotation.Configuration;
 @Configuration
 public class StormpathConfiguration {
 
+    private static final CircuitBreakerListener NO_CIRCUIT_BREAKER_LISTENER = new CircuitBreakerListener() {
+        @Override
+        public void stateChanged(CircuitState state) {
+        }
+    };
+
     @Value("${smt.spring.security.stormpath.client.apiKey.id:}")
     private String apiKeyId;
 
     @Value("${smt.spring.security.stormpath.client.apiKey.secret:}")
     private String apiKeySecret;
 
+    @Value("${smt.spring.security.stormpath.client.connection.maxTotal:-1}")
+    private int connectionMaxTotal;
+
+    @Value("${smt.spring.security.stormpath.client.connection.maxPerRoute:-1}")
+    private int connectionMaxPerRoute;
+
+    @Value("${smt.spring.security.stormpath.client.connection.connectTimeout:-1}")
+    private int connectionConnectTimeout;
+
+    @Value("${smt.spring.security.stormpath.client.connection.readTimeout:-1}")
+    private int connectionReadTimeout;
+
+    @Value("${smt.spring.security.stormpath.client.connection.keepAlive:-1}")
+    private long connectionKeepAlive;
+
+    @Value("${smt.spring.security.stormpath.client.connection.idleTimeout:-1}")
+    private long connectionIdleTimeout;
+
+    @Value("${smt.spring.security.stormpath.client.proxy.host:}")
+    private String proxyHost;
+
+    @Value("${smt.spring.security.stormpath.client.proxy.port:80}")
+    private int proxyPort;
+
+    @Value("${smt.spring.security.stormpath.client.proxy.username:}")
+    private String proxyUsername;
+
+    @Value("${smt.spring.security.stormpath.client.proxy.password:}")
+    private String proxyPassword;
+
     @Value("${smt.spring.security.stormpath.application.name:}")
     private String applicationName;
 
     @Value("${smt.spring.security.stormpath.application.href:}")
     private String applicationHref;
 
+    @Value("${smt.spring.security.stormpath.application.background.enabled:false}")
+    private boolean backgroundEnabled;
+
+    @Value("${smt.spring.security.stormpath.application.background.retryDelay:1000}")
+    private long backgroundRetryDelay;
+
+    @Value("${smt.spring.security.stormpath.application.background.maximumRetryDelay:60000}")
+    private long backgroundMaximumRetryDelay;
+
+    @Value("${smt.spring.security.stormpath.application.background.waitTimeout:30000}")
+    private long backgroundWaitTimeout;
+
+    @Value("${smt.spring.security.stormpath.application.background.unit:MILLISECONDS}")
+    private TimeUnit backgroundUnit;
+
+    @Value("${smt.spring.security.stormpath.bulkhead.enabled:false}")
+    private boolean bulkheadEnabled;
+
+    @Value("${smt.spring.security.stormpath.bulkhead.maxConcurrent:20}")
+    private int bulkheadMaxConcurrent;
+
+    @Value("${smt.spring.security.stormpath.bulkhead.maxWait:0}")
+    private long bulkheadMaxWait;
+
+    @Value("${smt.spring.security.stormpath.circuitBreaker.enabled:false}")
+    private boolean circuitBreakerEnabled;
+
+    @Value("${smt.spring.security.stormpath.circuitBreaker.failureThreshold:5}")
+    private int circuitBreakerFailureThreshold;
+
+    @Value("${smt.spring.security.stormpath.circuitBreaker.openDuration:30000}")
+    private long circuitBreakerOpenDuration;
+
+    @Value("${smt.spring.security.stormpath.singleFlight.enabled:false}")
+    private boolean singleFlightEnabled;
+
+    @Value("${smt.spring.security.stormpath.singleFlight.maxWait:5000}")
+    private long singleFlightMaxWait;
+
+    @Value("${smt.spring.security.stormpath.cache.enabled:false}")
+    private boolean cacheEnabled;
+
+    @Value("${smt.spring.security.stormpath.cache.maximumSize:1000}")
+    private int cacheMaximumSize;
+
+    @Value("${smt.spring.security.stormpath.cache.timeToLiveDuration:5}")
+    private long cacheTimeToLiveDuration;
+
+    @Value("${smt.spring.security.stormpath.cache.timeToLiveUnit:MINUTES}")
+    private TimeUnit cacheTimeToLiveUnit;
+
+    @Value("${smt.spring.security.stormpath.cache.hashStrength:10}")
+    private int cacheHashStrength;
+
+    @Value("${smt.spring.security.stormpath.groups.expand:false}")
+    private boolean groupsExpand;
+
+    @Value("${smt.spring.security.stormpath.groups.pageSize:100}")
+    private int groupsPageSize;
+
+    @Value("${smt.spring.security.stormpath.authorities.maximumSize:1000}")
+    private int authoritiesMaximumSize;
+
+    @Autowired(required = false)
+    private StormpathMetrics metrics;
+
+    @Bean
+    @ConditionalOnMissingBean(StormpathAuthenticationProvider.class)
+    public StormpathAuthenticationProvider stormpathAuthenticationProvider(
+        AccountAuthenticator authenticator,
+        StormpathAuthenticationRequestFactory requests,
+        UserDetailsFactory converter,
+        UserDetailsCache cache
+    ) {
+        if (cacheEnabled) {
+            return new CachingStormpathAuthenticationProvider(authenticator, requests, converter, cache);
+        }
+        return new StormpathAuthenticationProvider(authenticator, requests, converter);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(AccountAuthenticator.class)
+    public AccountAuthenticator accountAuthenticator(Application application) {
+        AccountAuthenticator authenticator = new ApplicationAccountAuthenticator(application);
+        if (bulkheadEnabled) {
+            authenticator = new BulkheadAccountAuthenticator(
+                authenticator,
+                bulkheadMaxConcurrent,
+                bulkheadMaxWait,
+                MILLISECONDS
+            );
+        }
+        if (circuitBreakerEnabled) {
+            authenticator = new CircuitBreakerAccountAuthenticator(
+                authenticator,
+                circuitBreakerFailureThreshold,
+                circuitBreakerOpenDuration,
+                MILLISECONDS,
+                metrics == null ? NO_CIRCUIT_BREAKER_LISTENER : metrics
+            );
+        }
+        if (singleFlightEnabled) {
+            authenticator = new SingleFlightAccountAuthenticator(authenticator, singleFlightMaxWait, MILLISECONDS);
+        }
+        if (metrics != null) {
+            return new MetricsAccountAuthenticator(authenticator, metrics);
+        }
+        return authenticator;
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(UserDetailsCache.class)
+    public UserDetailsCache userDetailsCache() {
+        // Creating the password encoder here so that this library doesn't pollute the Spring context with a password
+        // encoder that could be picked up for some other purpose.
+        return new HashedPasswordUserDetailsCache(
+            new BCryptPasswordEncoder(cacheHashStrength),
+            cacheMaximumSize,
+            cacheTimeToLiveDuration,
+            cacheTimeToLiveUnit
+        );
+    }
+
     @Bean
     @ConditionalOnMissingBean(Application.class)
     public Application application(ApplicationFactory applicationFactory, Client client) {
@@ -52,13 +223,47 @@ public class StormpathConfiguration {
     @Bean
     @ConditionalOnMissingBean(ApplicationFactory.class)
     public ApplicationFactory applicationFactory(ApplicationCriteriaFactory applicationCriteriaFactory) {
-        return new StormpathApplicationFactory(applicationCriteriaFactory);
+        final ApplicationFactory applicationFactory = new StormpathApplicationFactory(applicationCriteriaFactory);
+        if (backgroundEnabled) {
+            return new BackgroundApplicationFactory(
+                applicationFactory,
+                backgroundRetryDelay,
+                backgroundMaximumRetryDelay,
+                backgroundWaitTimeout,
+                backgroundUnit
+            );
+        }
+        return applicationFactory;
     }
 
     @Bean
     @ConditionalOnMissingBean(Client.class)
-    public Client client() {
-        return Clients.builder().setApiKey(ApiKeys.builder().setId(apiKeyId).setSecret(apiKeySecret).build()).build();
+    public Client client(ClientConnectionConfigurer connectionConfigurer) {
+        final ClientBuilder builder = Clients.builder()
+            .setApiKey(ApiKeys.builder().setId(apiKeyId).setSecret(apiKeySecret).build());
+        if (!proxyHost.isEmpty()) {
+            builder.setProxy(
+                proxyUsername.isEmpty()
+                    ? new Proxy(proxyHost, proxyPort)
+                    : new Proxy(proxyHost, proxyPort, proxyUsername, proxyPassword)
+            );
+        }
+        final Client client = builder.build();
+        connectionConfigurer.configure(client);
+        return client;
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(ClientConnectionConfigurer.class)
+    public ClientConnectionConfigurer clientConnectionConfigurer() {
+        return new PoolingClientConnectionConfigurer(
+            connectionMaxTotal,
+            connectionMaxPerRoute,
+            connectionConnectTimeout,
+            connectionReadTimeout,
+            connectionKeepAlive,
+            connectionIdleTimeout
+        );
     }
 
     @Bean
@@ -72,12 +277,16 @@ public class StormpathConfiguration {
     public StormpathAuthenticationRequestFactory stormpathAuthenticationRequestFactory(
         StormpathRequestBuilderFactory builderFactory
     ) {
-        return new UsernamePasswordStormpathAuthenticationRequestFactory(builderFactory);
+        // The expanded groups are fetched with the account so there is no point also returning it with the login.
+        return new UsernamePasswordStormpathAuthenticationRequestFactory(builderFactory, !groupsExpand);
     }
 
     @Bean
     @ConditionalOnMissingBean(UserDetailsFactory.class)
-    public UserDetailsFactory userDetailsConverter(GroupGrantedAuthorityConverter authorityConverter) {
+    public UserDetailsFactory userDetailsConverter(GroupGrantedAuthorityConverter authorityConverter, Client client) {
+        if (groupsExpand) {
+            return new ExpandedGroupsStormpathUserDetailsFactory(authorityConverter, client, groupsPageSize);
+        }
         return new StormpathUserDetailsFactory(authorityConverter);
     }
 
@@ -89,7 +298,13 @@ public class StormpathConfiguration {
 
     @Bean
     @ConditionalOnMissingBean(GroupGrantedAuthorityConverter.class)
-    public GroupGrantedAuthorityConverter groupGrantedAuthorityConverter() {
-        return new StormpathGroupGrantedAuthorityConverter();
+    public GroupGrantedAuthorityConverter groupGrantedAuthorityConverter(GrantedAuthorityRegistry authorityRegistry) {
+        return new StormpathGroupGrantedAuthorityConverter(authorityRegistry);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(GrantedAuthorityRegistry.class)
+    public GrantedAuthorityRegistry stormpathGrantedAuthorityRegistry() {
+        return new InterningGrantedAuthorityRegistry(authoritiesMaximumSize);
     }
 }
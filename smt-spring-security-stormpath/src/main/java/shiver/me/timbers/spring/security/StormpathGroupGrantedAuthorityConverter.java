@@ -19,10 +19,12 @@ package shiver.me.timbers.spring.security;
 import com.stormpath.sdk.group.Group;
 import com.stormpath.sdk.group.GroupList;
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import shiver.me.timbers.spring.security.authority.GrantedAuthorityRegistry;
+import shiver.me.timbers.spring.security.authority.InterningGrantedAuthorityRegistry;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 
 import static com.stormpath.sdk.group.GroupStatus.ENABLED;
 
@@ -31,14 +33,30 @@ import static com.stormpath.sdk.group.GroupStatus.ENABLED;
  */
 public class StormpathGroupGrantedAuthorityConverter implements GroupGrantedAuthorityConverter {
 
+    static final int DEFAULT_MAXIMUM_SIZE = 1000;
+
+    // Shared so that converters created without a registry still intern their authorities in one place.
+    private static final GrantedAuthorityRegistry DEFAULT_REGISTRY =
+        new InterningGrantedAuthorityRegistry(DEFAULT_MAXIMUM_SIZE);
+
+    private final GrantedAuthorityRegistry authorityRegistry;
+
+    public StormpathGroupGrantedAuthorityConverter() {
+        this(DEFAULT_REGISTRY);
+    }
+
+    public StormpathGroupGrantedAuthorityConverter(GrantedAuthorityRegistry authorityRegistry) {
+        this.authorityRegistry = authorityRegistry;
+    }
+
     @Override
     public Collection<? extends GrantedAuthority> convert(GroupList groups) {
-        final Collection<GrantedAuthority> authorities = new ArrayList<>(groups.getSize());
+        final List<String> groupNames = new ArrayList<>(groups.getSize());
         for (Group group : groups) {
             if (ENABLED.equals(group.getStatus())) {
-                authorities.add(new SimpleGrantedAuthority(group.getName()));
+                groupNames.add(group.getName());
             }
         }
-        return authorities;
+        return authorityRegistry.authorities(groupNames);
     }
 }
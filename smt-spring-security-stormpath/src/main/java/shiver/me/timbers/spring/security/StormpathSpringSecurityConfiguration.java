@@ -16,7 +16,6 @@
 
 package shiver.me.timbers.spring.security;
 
-import com.stormpath.sdk.application.Application;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Import;
 import org.springframework.security.config.annotation.authentication.builders.AuthenticationManagerBuilder;
@@ -32,10 +31,8 @@ public class StormpathSpringSecurityConfiguration {
     @Autowired
     public void configureGlobal(
         AuthenticationManagerBuilder auth,
-        Application application,
-        StormpathAuthenticationRequestFactory requests,
-        UserDetailsFactory converter
+        StormpathAuthenticationProvider authenticationProvider
     ) throws Exception {
-        auth.authenticationProvider(new StormpathAuthenticationProvider(application, requests, converter));
+        auth.authenticationProvider(authenticationProvider);
     }
 }
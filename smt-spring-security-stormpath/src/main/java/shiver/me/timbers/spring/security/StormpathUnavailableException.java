@@ -0,0 +1,35 @@
+/*
+ * Copyright 2016 Karl Bennett
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package shiver.me.timbers.spring.security;
+
+import org.springframework.security.authentication.AuthenticationServiceException;
+
+/**
+ * Thrown when a login could not be checked with Stormpath, as opposed to the credentials being wrong.
+ *
+ * @author Karl Bennett
+ */
+public class StormpathUnavailableException extends AuthenticationServiceException {
+
+    public StormpathUnavailableException(String message) {
+        super(message);
+    }
+
+    public StormpathUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -37,11 +37,15 @@ public class StormpathUserDetailsFactory implements UserDetailsFactory {
 
     @Override
     public AccountUserDetails create(AuthenticationResult result) {
-        final Account account = result.getAccount();
+        final Account account = account(result);
         final Collection<? extends GrantedAuthority> authorities = authorityConverter.convert(account.getGroups());
         return new StormpathAccountUserDetails(authorities, account);
     }
 
+    protected Account account(AuthenticationResult result) {
+        return result.getAccount();
+    }
+
     private static class StormpathAccountUserDetails implements AccountUserDetails {
 
         private final Collection<? extends GrantedAuthority> authorities;
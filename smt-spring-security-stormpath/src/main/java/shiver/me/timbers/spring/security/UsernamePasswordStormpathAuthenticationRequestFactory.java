@@ -17,6 +17,7 @@
 package shiver.me.timbers.spring.security;
 
 import com.stormpath.sdk.authc.AuthenticationRequest;
+import com.stormpath.sdk.authc.UsernamePasswordRequestBuilder;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 
 /**
@@ -25,17 +26,32 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 public class UsernamePasswordStormpathAuthenticationRequestFactory implements StormpathAuthenticationRequestFactory {
 
     private final StormpathRequestBuilderFactory builderFactory;
+    private final boolean expandAccount;
 
     public UsernamePasswordStormpathAuthenticationRequestFactory(StormpathRequestBuilderFactory builderFactory) {
+        this(builderFactory, true);
+    }
+
+    /**
+     * @param expandAccount whether the account should be returned with the authentication result, this is only a waste
+     *                      if the account is going to be fetched again anyway.
+     */
+    public UsernamePasswordStormpathAuthenticationRequestFactory(
+        StormpathRequestBuilderFactory builderFactory,
+        boolean expandAccount
+    ) {
         this.builderFactory = builderFactory;
+        this.expandAccount = expandAccount;
     }
 
     @Override
     public AuthenticationRequest create(String username, UsernamePasswordAuthenticationToken authentication) {
-        return builderFactory.builder()
+        final UsernamePasswordRequestBuilder builder = builderFactory.builder()
             .setUsernameOrEmail(username)
-            .setPassword(authentication.getCredentials().toString())
-            .withResponseOptions(builderFactory.options().withAccount())
-            .build();
+            .setPassword(authentication.getCredentials().toString());
+        if (expandAccount) {
+            return builder.withResponseOptions(builderFactory.options().withAccount()).build();
+        }
+        return builder.build();
     }
 }
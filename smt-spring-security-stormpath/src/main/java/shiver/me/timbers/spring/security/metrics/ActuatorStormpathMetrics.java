@@ -0,0 +1,69 @@
+/*
+ * Copyright 2016 Karl Bennett
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package shiver.me.timbers.spring.security.metrics;
+
+import org.springframework.boot.actuate.metrics.CounterService;
+import org.springframework.boot.actuate.metrics.GaugeService;
+import shiver.me.timbers.spring.security.CircuitState;
+
+import static java.util.Locale.ENGLISH;
+
+/**
+ * Records the Stormpath metrics with the Spring Boot Actuator. The circuit state is recorded as a count of each state
+ * change and as a gauge of the current state where closed is 0, half open is 1, and open is 2.
+ *
+ * @author Karl Bennett
+ */
+public class ActuatorStormpathMetrics implements StormpathMetrics {
+
+    private static final String PREFIX = "smt.spring.security.stormpath.";
+
+    private final CounterService counterService;
+    private final GaugeService gaugeService;
+
+    public ActuatorStormpathMetrics(CounterService counterService, GaugeService gaugeService) {
+        this.counterService = counterService;
+        this.gaugeService = gaugeService;
+    }
+
+    @Override
+    public void bulkheadRejected() {
+        counterService.increment("counter." + PREFIX + "bulkhead.rejected");
+    }
+
+    @Override
+    public void circuitRejected() {
+        counterService.increment("counter." + PREFIX + "circuit.rejected");
+    }
+
+    @Override
+    public void stateChanged(CircuitState state) {
+        counterService.increment("counter." + PREFIX + "circuit." + state.name().toLowerCase(ENGLISH));
+        gaugeService.submit("gauge." + PREFIX + "circuit.state", gauge(state));
+    }
+
+    private static double gauge(CircuitState state) {
+        switch (state) {
+            case OPEN:
+                return 2;
+            case HALF_OPEN:
+                return 1;
+            default:
+                return 0;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2016 Karl Bennett
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package shiver.me.timbers.spring.security.metrics;
+
+import com.stormpath.sdk.authc.AuthenticationRequest;
+import com.stormpath.sdk.authc.AuthenticationResult;
+import shiver.me.timbers.spring.security.AccountAuthenticator;
+import shiver.me.timbers.spring.security.StormpathBulkheadFullException;
+import shiver.me.timbers.spring.security.StormpathCircuitOpenException;
+
+/**
+ * @author Karl Bennett
+ */
+public class MetricsAccountAuthenticator implements AccountAuthenticator {
+
+    private final AccountAuthenticator authenticator;
+    private final StormpathMetrics metrics;
+
+    public MetricsAccountAuthenticator(AccountAuthenticator authenticator, StormpathMetrics metrics) {
+        this.authenticator = authenticator;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public AuthenticationResult authenticate(AuthenticationRequest request) {
+        try {
+            return authenticator.authenticate(request);
+        } catch (StormpathCircuitOpenException e) {
+            metrics.circuitRejected();
+            throw e;
+        } catch (StormpathBulkheadFullException e) {
+            metrics.bulkheadRejected();
+            throw e;
+        }
+    }
+}
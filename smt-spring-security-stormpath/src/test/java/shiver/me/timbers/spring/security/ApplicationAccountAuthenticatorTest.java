@@ -0,0 +1,48 @@
+/*
+ * Copyright 2016 Karl Bennett
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package shiver.me.timbers.spring.security;
+
+import com.stormpath.sdk.application.Application;
+import com.stormpath.sdk.authc.AuthenticationRequest;
+import com.stormpath.sdk.authc.AuthenticationResult;
+import org.junit.Test;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+public class ApplicationAccountAuthenticatorTest {
+
+    @Test
+    public void Can_authenticate_an_account_with_the_application() {
+
+        final Application application = mock(Application.class);
+        final AuthenticationRequest request = mock(AuthenticationRequest.class);
+
+        final AuthenticationResult expected = mock(AuthenticationResult.class);
+
+        // Given
+        given(application.authenticateAccount(request)).willReturn(expected);
+
+        // When
+        final AuthenticationResult actual = new ApplicationAccountAuthenticator(application).authenticate(request);
+
+        // Then
+        assertThat(actual, is(expected));
+    }
+}
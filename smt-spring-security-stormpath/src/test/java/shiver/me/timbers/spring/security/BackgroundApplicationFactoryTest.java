@@ -0,0 +1,164 @@
+/*
+ * Copyright 2016 Karl Bennett
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package shiver.me.timbers.spring.security;
+
+import com.stormpath.sdk.application.Application;
+import com.stormpath.sdk.authc.AuthenticationRequest;
+import com.stormpath.sdk.authc.AuthenticationResult;
+import com.stormpath.sdk.client.Client;
+import com.stormpath.sdk.resource.ResourceException;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.junit.Assert.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static shiver.me.timbers.data.random.RandomStrings.someString;
+
+public class BackgroundApplicationFactoryTest {
+
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+
+    private ApplicationResolver resolver;
+    private ResolvingApplication application;
+
+    @Before
+    public void setUp() {
+        resolver = mock(ApplicationResolver.class);
+        application = BackgroundApplicationFactory.proxy(resolver);
+    }
+
+    @Test
+    public void Can_create_an_application_that_is_resolved_in_the_background() {
+
+        final ApplicationFactory applicationFactory = mock(ApplicationFactory.class);
+        final Client client = mock(Client.class);
+        final String applicationHref = someString();
+        final String applicationName = someString();
+        final Application expected = mock(Application.class);
+        final String name = someString();
+
+        // Given
+        given(applicationFactory.create(client, applicationHref, applicationName)).willReturn(expected);
+        given(expected.getName()).willReturn(name);
+
+        // When
+        final Application actual = new BackgroundApplicationFactory(applicationFactory, 1, 2, 5000, MILLISECONDS)
+            .create(client, applicationHref, applicationName);
+
+        // Then
+        assertThat(actual.getName(), is(name));
+        assertThat(((ResolvingApplication) actual).isReady(), is(true));
+    }
+
+    @Test
+    public void Can_stop_resolving_applications_once_closed() {
+
+        final ApplicationFactory applicationFactory = mock(ApplicationFactory.class);
+        final Client client = mock(Client.class);
+        final String applicationHref = someString();
+        final String applicationName = someString();
+
+        // Given
+        given(applicationFactory.create(client, applicationHref, applicationName))
+            .willThrow(new IllegalStateException());
+        final BackgroundApplicationFactory factory = new BackgroundApplicationFactory(
+            applicationFactory, 1, 1, 1, MINUTES
+        );
+        final Application actual = factory.create(client, applicationHref, applicationName);
+        expectedException.expect(ApplicationUnavailableException.class);
+        expectedException.expectMessage("Could not resolve the Stormpath application.");
+
+        // When
+        factory.close();
+
+        // Then
+        actual.getName();
+    }
+
+    @Test
+    public void Can_delegate_to_the_resolved_application() {
+
+        final Application resolved = mock(Application.class);
+        final AuthenticationRequest request = mock(AuthenticationRequest.class);
+        final AuthenticationResult expected = mock(AuthenticationResult.class);
+
+        // Given
+        given(resolver.resolve()).willReturn(resolved);
+        given(resolved.authenticateAccount(request)).willReturn(expected);
+
+        // When
+        final AuthenticationResult actual = application.authenticateAccount(request);
+
+        // Then
+        assertThat(actual, is(expected));
+    }
+
+    @Test
+    public void Can_throw_the_resolved_applications_exceptions() {
+
+        final Application resolved = mock(Application.class);
+        final AuthenticationRequest request = mock(AuthenticationRequest.class);
+        final ResourceException exception = mock(ResourceException.class);
+
+        // Given
+        given(resolver.resolve()).willReturn(resolved);
+        given(resolved.authenticateAccount(request)).willThrow(exception);
+        expectedException.expect(is(exception));
+
+        // When
+        application.authenticateAccount(request);
+    }
+
+    @Test
+    public void Can_check_if_the_application_is_ready() {
+
+        final Boolean expected = true;
+
+        // Given
+        given(resolver.isReady()).willReturn(expected);
+
+        // When
+        final boolean actual = application.isReady();
+
+        // Then
+        assertThat(actual, is(expected));
+    }
+
+    @Test
+    public void Object_methods_do_not_wait_for_the_application() {
+
+        // When
+        application.toString();
+        application.hashCode();
+        final boolean actual = application.equals(application);
+
+        // Then
+        assertThat(actual, is(true));
+        assertThat(application.equals(mock(Application.class)), not(true));
+        verify(resolver, never()).resolve();
+    }
+}
@@ -0,0 +1,236 @@
+/*
+ * Copyright 2016 Karl Bennett
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package shiver.me.timbers.spring.security;
+
+import com.stormpath.sdk.application.Application;
+import com.stormpath.sdk.client.Client;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.NoSuchElementException;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static shiver.me.timbers.data.random.RandomStrings.someString;
+
+public class BackgroundApplicationResolverTest {
+
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+
+    private ApplicationFactory applicationFactory;
+    private Client client;
+    private String applicationHref;
+    private String applicationName;
+    private BackgroundApplicationResolver resolver;
+
+    @Before
+    public void setUp() {
+        applicationFactory = mock(ApplicationFactory.class);
+        client = mock(Client.class);
+        applicationHref = someString();
+        applicationName = someString();
+        resolver = new BackgroundApplicationResolver(
+            applicationFactory,
+            client,
+            applicationHref,
+            applicationName,
+            1,
+            2,
+            5000,
+            MILLISECONDS
+        );
+    }
+
+    @Test
+    public void Can_resolve_an_application_in_the_background() {
+
+        final Application expected = mock(Application.class);
+
+        // Given
+        given(applicationFactory.create(client, applicationHref, applicationName)).willReturn(expected);
+
+        // When
+        resolver.start();
+        final Application actual = resolver.resolve();
+
+        // Then
+        assertThat(actual, is(expected));
+        assertThat(resolver.isReady(), is(true));
+    }
+
+    @Test
+    public void Will_retry_resolving_an_application_that_fails_to_resolve() {
+
+        final Application expected = mock(Application.class);
+
+        // Given
+        given(applicationFactory.create(client, applicationHref, applicationName))
+            .willThrow(new IllegalStateException()).willThrow(new IllegalStateException()).willReturn(expected);
+
+        // When
+        resolver.run();
+
+        // Then
+        verify(applicationFactory, times(3)).create(client, applicationHref, applicationName);
+        assertThat(resolver.resolve(), is(expected));
+    }
+
+    @Test
+    public void Will_not_retry_resolving_a_misconfigured_application() {
+
+        final IllegalArgumentException exception = new IllegalArgumentException();
+
+        // Given
+        given(applicationFactory.create(client, applicationHref, applicationName)).willThrow(exception);
+        expectedException.expect(ApplicationUnavailableException.class);
+        expectedException.expectMessage("Could not resolve the Stormpath application.");
+        expectedException.expectCause(is(exception));
+
+        // When
+        resolver.run();
+        resolver.resolve();
+    }
+
+    @Test
+    public void Will_not_retry_resolving_an_application_that_does_not_exist() {
+
+        final NoSuchElementException exception = new NoSuchElementException();
+
+        // Given
+        given(applicationFactory.create(client, applicationHref, applicationName)).willThrow(exception);
+        expectedException.expect(ApplicationUnavailableException.class);
+        expectedException.expectMessage("Could not resolve the Stormpath application.");
+        expectedException.expectCause(is(exception));
+
+        // When
+        resolver.run();
+        resolver.resolve();
+    }
+
+    @Test
+    public void Can_stop_retrying_once_closed() {
+
+        final BackgroundApplicationResolver resolver = new BackgroundApplicationResolver(
+            applicationFactory,
+            client,
+            applicationHref,
+            applicationName,
+            1,
+            1,
+            1,
+            MINUTES
+        );
+
+        // Given
+        given(applicationFactory.create(client, applicationHref, applicationName))
+            .willThrow(new IllegalStateException());
+        resolver.start();
+        expectedException.expect(ApplicationUnavailableException.class);
+        expectedException.expectMessage("Could not resolve the Stormpath application.");
+
+        // When
+        resolver.close();
+
+        // Then
+        resolver.resolve();
+    }
+
+    @Test
+    public void Can_close_a_resolver_that_has_not_been_started() {
+
+        // When
+        resolver.close();
+
+        // Then
+        assertThat(resolver.isReady(), is(false));
+    }
+
+    @Test
+    public void Is_not_ready_before_the_application_has_been_resolved() {
+
+        // When
+        final boolean actual = resolver.isReady();
+
+        // Then
+        assertThat(actual, is(false));
+    }
+
+    @Test
+    public void Can_time_out_waiting_for_the_application() {
+
+        // Given
+        expectedException.expect(ApplicationUnavailableException.class);
+        expectedException.expectMessage("Timed out waiting for the Stormpath application.");
+
+        // When
+        new BackgroundApplicationResolver(
+            applicationFactory,
+            client,
+            applicationHref,
+            applicationName,
+            1,
+            2,
+            1,
+            MILLISECONDS
+        ).resolve();
+    }
+
+    @Test
+    public void Can_be_interrupted_waiting_for_the_application() {
+
+        // Given
+        Thread.currentThread().interrupt();
+
+        // When
+        try {
+            resolver.resolve();
+        } catch (ApplicationUnavailableException e) {
+            // Then
+            assertThat(e.getCause(), instanceOf(InterruptedException.class));
+            assertThat(Thread.interrupted(), is(true));
+        }
+    }
+
+    @Test
+    public void Cannot_create_a_resolver_with_no_retry_delay() {
+
+        // Given
+        expectedException.expect(IllegalArgumentException.class);
+
+        // When
+        new BackgroundApplicationResolver(
+            applicationFactory,
+            client,
+            applicationHref,
+            applicationName,
+            0,
+            2,
+            1,
+            MILLISECONDS
+        );
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2016 Karl Bennett
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package shiver.me.timbers.spring.security;
+
+import com.stormpath.sdk.authc.AuthenticationRequest;
+import com.stormpath.sdk.authc.AuthenticationResult;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+public class BulkheadAccountAuthenticatorTest {
+
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+
+    private AccountAuthenticator authenticator;
+    private BulkheadAccountAuthenticator bulkhead;
+
+    @Before
+    public void setUp() {
+        authenticator = mock(AccountAuthenticator.class);
+        bulkhead = new BulkheadAccountAuthenticator(authenticator, 1, 0, MILLISECONDS);
+    }
+
+    @Test
+    public void Can_authenticate_within_the_bulkhead() {
+
+        final AuthenticationRequest request = mock(AuthenticationRequest.class);
+
+        final AuthenticationResult expected = mock(AuthenticationResult.class);
+
+        // Given
+        given(authenticator.authenticate(request)).willReturn(expected);
+
+        // When
+        final AuthenticationResult first = bulkhead.authenticate(request);
+        final AuthenticationResult second = bulkhead.authenticate(request);
+
+        // Then
+        assertThat(first, is(expected));
+        assertThat(second, is(expected));
+    }
+
+    @Test
+    public void Will_release_the_bulkhead_if_the_authentication_fails() {
+
+        final AuthenticationRequest request = mock(AuthenticationRequest.class);
+
+        final AuthenticationResult expected = mock(AuthenticationResult.class);
+
+        // Given
+        given(authenticator.authenticate(request)).willThrow(new IllegalStateException()).willReturn(expected);
+        try {
+            bulkhead.authenticate(request);
+        } catch (IllegalStateException e) {
+            // Expected.
+        }
+
+        // When
+        final AuthenticationResult actual = bulkhead.authenticate(request);
+
+        // Then
+        assertThat(actual, is(expected));
+    }
+
+    @Test
+    public void Will_reject_authentications_when_the_bulkhead_is_full() throws Exception {
+
+        final AuthenticationRequest request = mock(AuthenticationRequest.class);
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch finish = new CountDownLatch(1);
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        // Given
+        given(authenticator.authenticate(request)).willAnswer(new Answer<AuthenticationResult>() {
+            @Override
+            public AuthenticationResult answer(InvocationOnMock invocation) throws Throwable {
+                started.countDown();
+                finish.await(10, SECONDS);
+                return null;
+            }
+        });
+        executor.submit(new Runnable() {
+            @Override
+            public void run() {
+                bulkhead.authenticate(request);
+            }
+        });
+        started.await(10, SECONDS);
+        expectedException.expect(StormpathBulkheadFullException.class);
+        expectedException.expectMessage("Too many logins are already waiting on Stormpath.");
+
+        // When
+        try {
+            bulkhead.authenticate(request);
+        } finally {
+            finish.countDown();
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void Cannot_create_a_bulkhead_with_no_room() {
+
+        // Given
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("The bulkhead maximum concurrent logins must be greater than zero.");
+
+        // When
+        new BulkheadAccountAuthenticator(authenticator, 0, 0, MILLISECONDS);
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright 2016 Karl Bennett
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package shiver.me.timbers.spring.security;
+
+import com.stormpath.sdk.application.Application;
+import com.stormpath.sdk.authc.AuthenticationRequest;
+import com.stormpath.sdk.authc.AuthenticationResult;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static shiver.me.timbers.data.random.RandomStrings.someString;
+
+public class CachingStormpathAuthenticationProviderTest {
+
+    private Application application;
+    private StormpathAuthenticationRequestFactory requests;
+    private UserDetailsFactory converter;
+    private UserDetailsCache cache;
+    private CachingStormpathAuthenticationProvider provider;
+
+    @Before
+    public void setUp() {
+        application = mock(Application.class);
+        requests = mock(StormpathAuthenticationRequestFactory.class);
+        converter = mock(UserDetailsFactory.class);
+        cache = mock(UserDetailsCache.class);
+        provider = new CachingStormpathAuthenticationProvider(
+            new ApplicationAccountAuthenticator(application),
+            requests,
+            converter,
+            cache
+        );
+    }
+
+    @Test
+    public void Can_retrieve_cached_user_details_without_calling_stormpath() {
+
+        final String username = someString();
+        final String password = someString();
+        final UsernamePasswordAuthenticationToken authentication = mock(UsernamePasswordAuthenticationToken.class);
+
+        final AccountUserDetails expected = mock(AccountUserDetails.class);
+
+        // Given
+        given(authentication.getCredentials()).willReturn(password);
+        given(cache.get(username, password)).willReturn(expected);
+
+        // When
+        final AccountUserDetails actual = provider.retrieveUser(username, authentication);
+
+        // Then
+        assertThat(actual, is(expected));
+        verifyZeroInteractions(application, requests, converter);
+    }
+
+    @Test
+    public void Can_cache_user_details_retrieved_from_stormpath() {
+
+        final String username = someString();
+        final String password = someString();
+        final UsernamePasswordAuthenticationToken authentication = mock(UsernamePasswordAuthenticationToken.class);
+
+        final AuthenticationRequest request = mock(AuthenticationRequest.class);
+        final AuthenticationResult result = mock(AuthenticationResult.class);
+        final AccountUserDetails expected = mock(AccountUserDetails.class);
+
+        // Given
+        given(authentication.getCredentials()).willReturn(password);
+        given(requests.create(username, authentication)).willReturn(request);
+        given(application.authenticateAccount(request)).willReturn(result);
+        given(converter.create(result)).willReturn(expected);
+
+        // When
+        final AccountUserDetails actual = provider.retrieveUser(username, authentication);
+
+        // Then
+        assertThat(actual, is(expected));
+        verify(cache).put(username, password, expected);
+    }
+
+    @Test
+    public void Will_not_cache_user_details_that_have_no_credentials() {
+
+        final String username = someString();
+        final UsernamePasswordAuthenticationToken authentication = mock(UsernamePasswordAuthenticationToken.class);
+
+        final AuthenticationRequest request = mock(AuthenticationRequest.class);
+        final AuthenticationResult result = mock(AuthenticationResult.class);
+        final AccountUserDetails expected = mock(AccountUserDetails.class);
+
+        // Given
+        given(authentication.getCredentials()).willReturn(null);
+        given(requests.create(username, authentication)).willReturn(request);
+        given(application.authenticateAccount(request)).willReturn(result);
+        given(converter.create(result)).willReturn(expected);
+
+        // When
+        final AccountUserDetails actual = provider.retrieveUser(username, authentication);
+
+        // Then
+        assertThat(actual, is(expected));
+        verifyZeroInteractions(cache);
+    }
+}
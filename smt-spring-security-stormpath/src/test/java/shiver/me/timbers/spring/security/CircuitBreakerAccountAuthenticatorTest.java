@@ -0,0 +1,224 @@
+/*
+ * Copyright 2016 Karl Bennett
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package shiver.me.timbers.spring.security;
+
+import com.stormpath.sdk.authc.AuthenticationRequest;
+import com.stormpath.sdk.authc.AuthenticationResult;
+import com.stormpath.sdk.resource.ResourceException;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static shiver.me.timbers.spring.security.CircuitState.CLOSED;
+import static shiver.me.timbers.spring.security.CircuitState.HALF_OPEN;
+import static shiver.me.timbers.spring.security.CircuitState.OPEN;
+
+public class CircuitBreakerAccountAuthenticatorTest {
+
+    private AccountAuthenticator authenticator;
+    private CircuitBreakerListener listener;
+    private AuthenticationRequest request;
+
+    @Before
+    public void setUp() {
+        authenticator = mock(AccountAuthenticator.class);
+        listener = mock(CircuitBreakerListener.class);
+        request = mock(AuthenticationRequest.class);
+    }
+
+    @Test
+    public void Can_authenticate_through_a_closed_circuit() {
+
+        final AuthenticationResult expected = mock(AuthenticationResult.class);
+
+        // Given
+        given(authenticator.authenticate(request)).willReturn(expected);
+
+        // When
+        final AuthenticationResult actual = breaker(1, 1, MINUTES).authenticate(request);
+
+        // Then
+        assertThat(actual, is(expected));
+        verifyZeroInteractions(listener);
+    }
+
+    @Test
+    public void Will_open_the_circuit_after_the_failure_threshold_and_fail_fast() {
+
+        final CircuitBreakerAccountAuthenticator breaker = breaker(2, 1, MINUTES);
+
+        // Given
+        given(authenticator.authenticate(request)).willThrow(new IllegalStateException());
+        failTwice(breaker, IllegalStateException.class);
+
+        // When
+        try {
+            breaker.authenticate(request);
+            fail("The circuit should be open.");
+        } catch (StormpathCircuitOpenException e) {
+            // Then
+            assertThat(breaker.getState(), is(OPEN));
+            verify(authenticator, times(2)).authenticate(request);
+            verify(listener).stateChanged(OPEN);
+        }
+    }
+
+    @Test
+    public void Will_not_open_the_circuit_for_rejected_credentials() {
+
+        final CircuitBreakerAccountAuthenticator breaker = breaker(2, 1, MINUTES);
+        final ResourceException exception = mock(ResourceException.class);
+
+        // Given
+        given(exception.getStatus()).willReturn(400);
+        given(authenticator.authenticate(request)).willThrow(exception);
+
+        // When
+        failTwice(breaker, ResourceException.class);
+
+        // Then
+        assertThat(breaker.getState(), is(CLOSED));
+        verifyZeroInteractions(listener);
+    }
+
+    @Test
+    public void Will_open_the_circuit_for_stormpath_server_errors() {
+
+        final CircuitBreakerAccountAuthenticator breaker = breaker(2, 1, MINUTES);
+        final ResourceException exception = mock(ResourceException.class);
+
+        // Given
+        given(exception.getStatus()).willReturn(503);
+        given(authenticator.authenticate(request)).willThrow(exception);
+
+        // When
+        failTwice(breaker, ResourceException.class);
+
+        // Then
+        assertThat(breaker.getState(), is(OPEN));
+    }
+
+    @Test
+    public void A_success_resets_the_failure_count() {
+
+        final CircuitBreakerAccountAuthenticator breaker = breaker(2, 1, MINUTES);
+
+        // Given
+        given(authenticator.authenticate(request))
+            .willThrow(new IllegalStateException())
+            .willReturn(mock(AuthenticationResult.class))
+            .willThrow(new IllegalStateException());
+
+        // When
+        failOnce(breaker, IllegalStateException.class);
+        breaker.authenticate(request);
+        failOnce(breaker, IllegalStateException.class);
+
+        // Then
+        assertThat(breaker.getState(), is(CLOSED));
+    }
+
+    @Test
+    public void Will_close_the_circuit_after_a_successful_trial() {
+
+        final CircuitBreakerAccountAuthenticator breaker = breaker(1, 0, MILLISECONDS);
+        final AuthenticationResult expected = mock(AuthenticationResult.class);
+
+        // Given
+        given(authenticator.authenticate(request)).willThrow(new IllegalStateException()).willReturn(expected);
+        failOnce(breaker, IllegalStateException.class);
+
+        // When
+        final AuthenticationResult actual = breaker.authenticate(request);
+
+        // Then
+        assertThat(actual, is(expected));
+        assertThat(breaker.getState(), is(CLOSED));
+        verify(listener).stateChanged(OPEN);
+        verify(listener).stateChanged(HALF_OPEN);
+        verify(listener).stateChanged(CLOSED);
+    }
+
+    @Test
+    public void Will_reopen_the_circuit_after_a_failed_trial() {
+
+        final CircuitBreakerAccountAuthenticator breaker = breaker(1, 0, MILLISECONDS);
+
+        // Given
+        given(authenticator.authenticate(request)).willThrow(new IllegalStateException());
+        failOnce(breaker, IllegalStateException.class);
+
+        // When
+        failOnce(breaker, IllegalStateException.class);
+
+        // Then
+        assertThat(breaker.getState(), is(OPEN));
+        verify(listener, times(2)).stateChanged(OPEN);
+        verify(listener).stateChanged(HALF_OPEN);
+    }
+
+    @Test
+    public void A_full_bulkhead_does_not_count_as_a_failure() {
+
+        final CircuitBreakerAccountAuthenticator breaker = breaker(1, 1, MINUTES);
+
+        // Given
+        given(authenticator.authenticate(request)).willThrow(new StormpathBulkheadFullException("full"));
+
+        // When
+        failTwice(breaker, StormpathBulkheadFullException.class);
+
+        // Then
+        assertThat(breaker.getState(), is(CLOSED));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void Cannot_create_a_circuit_breaker_with_no_failure_threshold() {
+
+        // When
+        breaker(0, 1, MINUTES);
+    }
+
+    private CircuitBreakerAccountAuthenticator breaker(int failureThreshold, long openDuration, TimeUnit unit) {
+        return new CircuitBreakerAccountAuthenticator(authenticator, failureThreshold, openDuration, unit, listener);
+    }
+
+    private void failTwice(CircuitBreakerAccountAuthenticator breaker, Class<? extends RuntimeException> type) {
+        failOnce(breaker, type);
+        failOnce(breaker, type);
+    }
+
+    private void failOnce(CircuitBreakerAccountAuthenticator breaker, Class<? extends RuntimeException> type) {
+        try {
+            breaker.authenticate(request);
+            fail("The authentication should have failed.");
+        } catch (RuntimeException e) {
+            assertThat(type.isInstance(e), is(true));
+        }
+    }
+}
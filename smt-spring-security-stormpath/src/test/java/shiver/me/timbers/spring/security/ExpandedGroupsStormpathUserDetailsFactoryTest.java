@@ -0,0 +1,117 @@
+/*
+ * Copyright 2016 Karl Bennett
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package shiver.me.timbers.spring.security;
+
+import com.stormpath.sdk.account.Account;
+import com.stormpath.sdk.account.AccountOptions;
+import com.stormpath.sdk.authc.AuthenticationResult;
+import com.stormpath.sdk.client.Client;
+import com.stormpath.sdk.group.GroupList;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.Collection;
+
+import static com.stormpath.sdk.account.AccountStatus.ENABLED;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static shiver.me.timbers.data.random.RandomIntegers.someIntegerBetween;
+import static shiver.me.timbers.data.random.RandomStrings.someString;
+import static shiver.me.timbers.spring.security.ExpandedGroupsStormpathUserDetailsFactory.MAXIMUM_PAGE_SIZE;
+
+public class ExpandedGroupsStormpathUserDetailsFactoryTest {
+
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+
+    private GroupGrantedAuthorityConverter authorityConverter;
+    private Client client;
+    private ExpandedGroupsStormpathUserDetailsFactory factory;
+
+    @Before
+    public void setUp() {
+        authorityConverter = mock(GroupGrantedAuthorityConverter.class);
+        client = mock(Client.class);
+        factory = new ExpandedGroupsStormpathUserDetailsFactory(
+            authorityConverter,
+            client,
+            someIntegerBetween(1, MAXIMUM_PAGE_SIZE + 1)
+        );
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void Can_create_user_details_from_an_account_with_expanded_groups() {
+
+        final AuthenticationResult result = mock(AuthenticationResult.class);
+
+        final Account authenticatedAccount = mock(Account.class);
+        final String href = someString();
+        final Account account = mock(Account.class);
+        final String username = someString();
+        final GroupList groups = mock(GroupList.class);
+        final Collection authorities = mock(Collection.class);
+
+        // Given
+        given(result.getAccount()).willReturn(authenticatedAccount);
+        given(authenticatedAccount.getHref()).willReturn(href);
+        given(client.getResource(eq(href), eq(Account.class), any(AccountOptions.class))).willReturn(account);
+        given(account.getUsername()).willReturn(username);
+        given(account.getStatus()).willReturn(ENABLED);
+        given(account.getGroups()).willReturn(groups);
+        given(authorityConverter.convert(groups)).willReturn(authorities);
+
+        // When
+        final AccountUserDetails actual = factory.create(result);
+
+        // Then
+        verify(client).getResource(eq(href), eq(Account.class), any(AccountOptions.class));
+        assertThat(actual.getUsername(), is(username));
+        assertThat(actual.getAuthorities(), is(authorities));
+        assertThat(actual.isEnabled(), is(true));
+        assertThat(actual.getAccount(), is(account));
+    }
+
+    @Test
+    public void Cannot_create_a_factory_with_a_page_size_that_is_too_small() {
+
+        // Given
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("The group page size must be between 1 and 100 inclusive.");
+
+        // When
+        new ExpandedGroupsStormpathUserDetailsFactory(authorityConverter, client, 0);
+    }
+
+    @Test
+    public void Cannot_create_a_factory_with_a_page_size_that_is_too_large() {
+
+        // Given
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("The group page size must be between 1 and 100 inclusive.");
+
+        // When
+        new ExpandedGroupsStormpathUserDetailsFactory(authorityConverter, client, MAXIMUM_PAGE_SIZE + 1);
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright 2016 Karl Bennett
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package shiver.me.timbers.spring.security;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static shiver.me.timbers.data.random.RandomStrings.someString;
+
+public class HashedPasswordUserDetailsCacheTest {
+
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+
+    private PasswordEncoder passwordEncoder;
+    private HashedPasswordUserDetailsCache cache;
+
+    @Before
+    public void setUp() {
+        passwordEncoder = mock(PasswordEncoder.class);
+        cache = new HashedPasswordUserDetailsCache(passwordEncoder, 2, 1, MINUTES);
+    }
+
+    @Test
+    public void Can_get_cached_user_details_with_a_matching_password() {
+
+        final String username = someString();
+        final String password = someString();
+        final String hash = someString();
+        final AccountUserDetails expected = mock(AccountUserDetails.class);
+
+        // Given
+        given(passwordEncoder.encode(password)).willReturn(hash);
+        given(passwordEncoder.matches(password, hash)).willReturn(true);
+        cache.put(username, password, expected);
+
+        // When
+        final AccountUserDetails actual = cache.get(username, password);
+
+        // Then
+        assertThat(actual, is(expected));
+    }
+
+    @Test
+    public void Cannot_get_user_details_that_have_not_been_cached() {
+
+        // When
+        final AccountUserDetails actual = cache.get(someString(), someString());
+
+        // Then
+        assertThat(actual, nullValue());
+        verifyZeroInteractions(passwordEncoder);
+    }
+
+    @Test
+    public void Cached_user_details_are_removed_if_the_password_does_not_match() {
+
+        final String username = someString();
+        final String password = someString();
+        final String otherPassword = someString();
+        final String hash = someString();
+
+        // Given
+        given(passwordEncoder.encode(password)).willReturn(hash);
+        given(passwordEncoder.matches(otherPassword, hash)).willReturn(false);
+        given(passwordEncoder.matches(password, hash)).willReturn(true);
+        cache.put(username, password, mock(AccountUserDetails.class));
+
+        // When
+        final AccountUserDetails actual = cache.get(username, otherPassword);
+
+        // Then
+        assertThat(actual, nullValue());
+        assertThat(cache.get(username, password), nullValue());
+        assertThat(cache.size(), is(0));
+    }
+
+    @Test
+    public void Cached_user_details_expire() {
+
+        final String username = someString();
+        final String password = someString();
+        final String hash = someString();
+        final HashedPasswordUserDetailsCache cache = new HashedPasswordUserDetailsCache(passwordEncoder, 2, 0, MINUTES);
+
+        // Given
+        given(passwordEncoder.encode(password)).willReturn(hash);
+        given(passwordEncoder.matches(password, hash)).willReturn(true);
+        cache.put(username, password, mock(AccountUserDetails.class));
+
+        // When
+        final AccountUserDetails actual = cache.get(username, password);
+
+        // Then
+        assertThat(actual, nullValue());
+        assertThat(cache.size(), is(0));
+    }
+
+    @Test
+    public void The_least_recently_used_user_details_are_removed_when_the_cache_is_full() {
+
+        final String username1 = someString();
+        final String username2 = someString();
+        final String username3 = someString();
+        final String password = someString();
+        final String hash = someString();
+        final AccountUserDetails userDetails = mock(AccountUserDetails.class);
+
+        // Given
+        given(passwordEncoder.encode(password)).willReturn(hash);
+        given(passwordEncoder.matches(password, hash)).willReturn(true);
+        cache.put(username1, password, userDetails);
+        cache.put(username2, password, userDetails);
+        cache.get(username1, password);
+
+        // When
+        cache.put(username3, password, userDetails);
+
+        // Then
+        assertThat(cache.size(), is(2));
+        assertThat(cache.get(username1, password), is(userDetails));
+        assertThat(cache.get(username2, password), nullValue());
+        assertThat(cache.get(username3, password), is(userDetails));
+    }
+
+    @Test
+    public void Cannot_create_a_cache_with_no_room() {
+
+        // Given
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("The cache maximum size must be greater than zero.");
+
+        // When
+        new HashedPasswordUserDetailsCache(passwordEncoder, 0, 1, MINUTES);
+    }
+}
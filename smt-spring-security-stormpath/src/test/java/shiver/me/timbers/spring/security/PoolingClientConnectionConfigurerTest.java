@@ -0,0 +1,151 @@
+/*
+ * Copyright 2016 Karl Bennett
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package shiver.me.timbers.spring.security;
+
+import com.stormpath.sdk.api.ApiKeys;
+import com.stormpath.sdk.client.Client;
+import com.stormpath.sdk.client.Clients;
+import com.stormpath.sdk.ds.DataStore;
+import org.apache.http.impl.client.DefaultHttpClient;
+import org.apache.http.impl.conn.PoolingClientConnectionManager;
+import org.apache.http.message.BasicHttpResponse;
+import org.apache.http.params.HttpConnectionParams;
+import org.apache.http.protocol.BasicHttpContext;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Field;
+
+import static org.apache.http.HttpVersion.HTTP_1_1;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static shiver.me.timbers.data.random.RandomIntegers.someIntegerBetween;
+import static shiver.me.timbers.data.random.RandomStrings.someAlphaNumericString;
+
+@SuppressWarnings("deprecation")
+public class PoolingClientConnectionConfigurerTest {
+
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+
+    private Client client;
+    private PoolingClientConnectionConfigurer configurer;
+
+    @Before
+    public void setUp() {
+        client = Clients.builder()
+            .setApiKey(ApiKeys.builder().setId(someAlphaNumericString(8)).setSecret(someAlphaNumericString(8)).build())
+            .build();
+    }
+
+    @After
+    public void tearDown() {
+        if (configurer != null) {
+            configurer.close();
+        }
+    }
+
+    @Test
+    public void Can_configure_the_stormpath_connection_pool() {
+
+        final int maxTotal = someIntegerBetween(10, 100);
+        final int maxPerRoute = someIntegerBetween(1, 10);
+        final int connectTimeout = someIntegerBetween(1, 1000);
+        final int readTimeout = someIntegerBetween(1, 1000);
+        final long keepAlive = someIntegerBetween(1, 1000);
+
+        // Given
+        configurer = new PoolingClientConnectionConfigurer(
+            maxTotal,
+            maxPerRoute,
+            connectTimeout,
+            readTimeout,
+            keepAlive,
+            someIntegerBetween(1000, 2000)
+        );
+
+        // When
+        configurer.configure(client);
+
+        // Then
+        final DefaultHttpClient httpClient = httpClient(client);
+        final PoolingClientConnectionManager pool = (PoolingClientConnectionManager) httpClient.getConnectionManager();
+        assertThat(pool.getMaxTotal(), is(maxTotal));
+        assertThat(pool.getDefaultMaxPerRoute(), is(maxPerRoute));
+        assertThat(HttpConnectionParams.getConnectionTimeout(httpClient.getParams()), is(connectTimeout));
+        assertThat(HttpConnectionParams.getSoTimeout(httpClient.getParams()), is(readTimeout));
+        assertThat(
+            httpClient.getConnectionKeepAliveStrategy()
+                .getKeepAliveDuration(new BasicHttpResponse(HTTP_1_1, 200, "OK"), new BasicHttpContext()),
+            is(keepAlive)
+        );
+    }
+
+    @Test
+    public void Will_leave_the_stormpath_defaults_for_negative_settings() {
+
+        final DefaultHttpClient httpClient = httpClient(client);
+        final PoolingClientConnectionManager pool = (PoolingClientConnectionManager) httpClient.getConnectionManager();
+        final int maxTotal = pool.getMaxTotal();
+        final int maxPerRoute = pool.getDefaultMaxPerRoute();
+        final int connectTimeout = HttpConnectionParams.getConnectionTimeout(httpClient.getParams());
+        final int readTimeout = HttpConnectionParams.getSoTimeout(httpClient.getParams());
+
+        // Given
+        configurer = new PoolingClientConnectionConfigurer(-1, -1, -1, -1, -1, -1);
+
+        // When
+        configurer.configure(client);
+
+        // Then
+        assertThat(pool.getMaxTotal(), is(maxTotal));
+        assertThat(pool.getDefaultMaxPerRoute(), is(maxPerRoute));
+        assertThat(HttpConnectionParams.getConnectionTimeout(httpClient.getParams()), is(connectTimeout));
+        assertThat(HttpConnectionParams.getSoTimeout(httpClient.getParams()), is(readTimeout));
+    }
+
+    @Test
+    public void Cannot_configure_a_client_that_is_not_using_the_apache_http_client() {
+
+        final Client client = mock(Client.class);
+
+        // Given
+        given(client.getDataStore()).willReturn(mock(DataStore.class));
+        configurer = new PoolingClientConnectionConfigurer(1, -1, -1, -1, -1, -1);
+        expectedException.expect(IllegalStateException.class);
+        expectedException.expectMessage("Could not find the (requestExecutor) field in the Stormpath");
+
+        // When
+        configurer.configure(client);
+    }
+
+    private static DefaultHttpClient httpClient(Client client) {
+        return (DefaultHttpClient) field(field(client.getDataStore(), "requestExecutor"), "httpClient");
+    }
+
+    private static Object field(Object object, String name) {
+        final Field field = ReflectionUtils.findField(object.getClass(), name);
+        ReflectionUtils.makeAccessible(field);
+        return ReflectionUtils.getField(field, object);
+    }
+}
@@ -0,0 +1,305 @@
+/*
+ * Copyright 2016 Karl Bennett
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package shiver.me.timbers.spring.security;
+
+import com.stormpath.sdk.authc.AuthenticationRequest;
+import com.stormpath.sdk.authc.AuthenticationResult;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willReturn;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static shiver.me.timbers.data.random.RandomStrings.someString;
+
+public class SingleFlightAccountAuthenticatorTest {
+
+    private AccountAuthenticator authenticator;
+    private SingleFlightAccountAuthenticator singleFlight;
+    private ExecutorService executor;
+    private CountDownLatch started;
+    private CountDownLatch finish;
+
+    @Before
+    public void setUp() {
+        authenticator = mock(AccountAuthenticator.class);
+        singleFlight = new SingleFlightAccountAuthenticator(authenticator, 10, SECONDS);
+        executor = Executors.newSingleThreadExecutor();
+        started = new CountDownLatch(1);
+        finish = new CountDownLatch(1);
+    }
+
+    @After
+    public void tearDown() {
+        finish.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void Can_share_the_result_of_an_identical_login_that_is_in_flight() throws Exception {
+
+        final String username = someString();
+        final String password = someString();
+
+        final AuthenticationResult expected = mock(AuthenticationResult.class);
+
+        // Given
+        given(authenticator.authenticate(any(AuthenticationRequest.class))).willAnswer(blockThenReturn(expected));
+        final Future<AuthenticationResult> first = inFlight(request(username, password));
+        finishWhenWaiting();
+
+        // When
+        final AuthenticationResult actual = singleFlight.authenticate(request(username, password));
+
+        // Then
+        assertThat(actual, sameInstance(expected));
+        assertThat(first.get(10, SECONDS), sameInstance(expected));
+        verify(authenticator).authenticate(any(AuthenticationRequest.class));
+        assertThat(singleFlight.inFlight(), is(0));
+    }
+
+    @Test
+    public void Can_share_the_failure_of_an_identical_login_that_is_in_flight() throws Exception {
+
+        final String username = someString();
+        final String password = someString();
+
+        final IllegalStateException exception = new IllegalStateException();
+
+        // Given
+        given(authenticator.authenticate(any(AuthenticationRequest.class))).willAnswer(blockThenThrow(exception));
+        final Future<AuthenticationResult> first = inFlight(request(username, password));
+        finishWhenWaiting();
+
+        // When
+        try {
+            singleFlight.authenticate(request(username, password));
+            fail("The shared failure should have been thrown.");
+        } catch (IllegalStateException e) {
+            // Then
+            assertThat(e, sameInstance(exception));
+        }
+        try {
+            first.get(10, SECONDS);
+            fail("The first login should have failed.");
+        } catch (ExecutionException e) {
+            assertThat(e.getCause(), sameInstance((Throwable) exception));
+        }
+        verify(authenticator).authenticate(any(AuthenticationRequest.class));
+    }
+
+    @Test
+    public void Will_not_share_a_login_with_a_different_password() throws Exception {
+
+        final String username = someString();
+
+        final AuthenticationResult first = mock(AuthenticationResult.class);
+        final AuthenticationResult expected = mock(AuthenticationResult.class);
+        final AuthenticationRequest request = request(username, someString());
+
+        // Given
+        given(authenticator.authenticate(any(AuthenticationRequest.class))).willAnswer(blockThenReturn(first));
+        willReturn(expected).given(authenticator).authenticate(request);
+        inFlight(request(username, someString()));
+        started.await(10, SECONDS);
+
+        // When
+        final AuthenticationResult actual = singleFlight.authenticate(request);
+
+        // Then
+        assertThat(actual, sameInstance(expected));
+        assertThat(singleFlight.inFlight(), is(1));
+    }
+
+    @Test
+    public void Will_not_keep_a_failed_login() {
+
+        final String username = someString();
+        final String password = someString();
+
+        final AuthenticationResult expected = mock(AuthenticationResult.class);
+
+        // Given
+        given(authenticator.authenticate(any(AuthenticationRequest.class)))
+            .willThrow(new IllegalStateException())
+            .willReturn(expected);
+        try {
+            singleFlight.authenticate(request(username, password));
+        } catch (IllegalStateException e) {
+            // Expected.
+        }
+
+        // When
+        final AuthenticationResult actual = singleFlight.authenticate(request(username, password));
+
+        // Then
+        assertThat(actual, sameInstance(expected));
+        verify(authenticator, times(2)).authenticate(any(AuthenticationRequest.class));
+        assertThat(singleFlight.inFlight(), is(0));
+    }
+
+    @Test
+    public void Can_authenticate_a_request_that_does_not_have_a_password() {
+
+        final AuthenticationRequest request = mock(AuthenticationRequest.class);
+
+        final AuthenticationResult expected = mock(AuthenticationResult.class);
+
+        // Given
+        given(request.getPrincipals()).willReturn(someString());
+        given(request.getCredentials()).willReturn(new Object());
+        given(authenticator.authenticate(request)).willReturn(expected);
+
+        // When
+        final AuthenticationResult actual = singleFlight.authenticate(request);
+
+        // Then
+        assertThat(actual, sameInstance(expected));
+        assertThat(singleFlight.inFlight(), is(0));
+    }
+
+    @Test
+    public void Waiting_for_an_identical_login_can_be_interrupted() throws Exception {
+
+        final String username = someString();
+        final String password = someString();
+
+        // Given
+        given(authenticator.authenticate(any(AuthenticationRequest.class)))
+            .willAnswer(blockThenReturn(mock(AuthenticationResult.class)));
+        inFlight(request(username, password));
+        started.await(10, SECONDS);
+        Thread.currentThread().interrupt();
+
+        // When
+        try {
+            singleFlight.authenticate(request(username, password));
+            fail("The wait should have been interrupted.");
+        } catch (StormpathUnavailableException e) {
+            // Then
+            assertThat(e.getCause(), instanceOf(InterruptedException.class));
+            assertThat(Thread.interrupted(), is(true));
+        }
+    }
+
+    @Test
+    public void Will_only_wait_for_an_identical_login_for_the_max_wait() throws Exception {
+
+        final String username = someString();
+        final String password = someString();
+
+        // Given
+        given(authenticator.authenticate(any(AuthenticationRequest.class)))
+            .willAnswer(blockThenReturn(mock(AuthenticationResult.class)));
+        final SingleFlightAccountAuthenticator singleFlight = new SingleFlightAccountAuthenticator(
+            authenticator,
+            10,
+            MILLISECONDS
+        );
+        inFlight(singleFlight, request(username, password));
+        started.await(10, SECONDS);
+
+        // When
+        try {
+            singleFlight.authenticate(request(username, password));
+            fail("The wait should have timed out.");
+        } catch (StormpathUnavailableException e) {
+            // Then
+            assertThat(e.getMessage(), is("Timed out waiting for an identical Stormpath login."));
+        }
+        verify(authenticator).authenticate(any(AuthenticationRequest.class));
+    }
+
+    private static AuthenticationRequest request(String username, String password) {
+        final AuthenticationRequest request = mock(AuthenticationRequest.class);
+        given(request.getPrincipals()).willReturn(username);
+        given(request.getCredentials()).willReturn(password.toCharArray());
+        return request;
+    }
+
+    private Future<AuthenticationResult> inFlight(AuthenticationRequest request) {
+        return inFlight(singleFlight, request);
+    }
+
+    private Future<AuthenticationResult> inFlight(
+        final SingleFlightAccountAuthenticator singleFlight,
+        final AuthenticationRequest request
+    ) {
+        return executor.submit(new Callable<AuthenticationResult>() {
+            @Override
+            public AuthenticationResult call() {
+                return singleFlight.authenticate(request);
+            }
+        });
+    }
+
+    private void finishWhenWaiting() throws InterruptedException {
+        started.await(10, SECONDS);
+        final Thread waiter = Thread.currentThread();
+        new Thread(new Runnable() {
+            @Override
+            public void run() {
+                while (waiter.getState() != Thread.State.TIMED_WAITING) {
+                    Thread.yield();
+                }
+                finish.countDown();
+            }
+        }).start();
+    }
+
+    private Answer<AuthenticationResult> blockThenReturn(final AuthenticationResult result) {
+        return new Answer<AuthenticationResult>() {
+            @Override
+            public AuthenticationResult answer(InvocationOnMock invocation) throws Throwable {
+                started.countDown();
+                finish.await(10, SECONDS);
+                return result;
+            }
+        };
+    }
+
+    private Answer<AuthenticationResult> blockThenThrow(final RuntimeException exception) {
+        return new Answer<AuthenticationResult>() {
+            @Override
+            public AuthenticationResult answer(InvocationOnMock invocation) throws Throwable {
+                started.countDown();
+                finish.await(10, SECONDS);
+                throw exception;
+            }
+        };
+    }
+}
@@ -25,6 +25,7 @@ import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
+import org.springframework.security.authentication.AuthenticationServiceException;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -105,4 +106,24 @@ public class StormpathAuthenticationProviderTest {
         // When
         provider.retrieveUser(username, authentication);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void Can_fail_to_retrieve_the_user_details_if_the_application_is_unavailable() {
+
+        final String username = someString();
+        final UsernamePasswordAuthenticationToken authentication = mock(UsernamePasswordAuthenticationToken.class);
+
+        final AuthenticationRequest request = mock(AuthenticationRequest.class);
+        final ApplicationUnavailableException exception = new ApplicationUnavailableException(someString());
+
+        // Given
+        given(requests.create(username, authentication)).willReturn(request);
+        given(application.authenticateAccount(request)).willThrow(exception);
+        expectedException.expect(AuthenticationServiceException.class);
+        expectedException.expectMessage("Could not authenticate " + username);
+        expectedException.expectCause(is(exception));
+
+        // When
+        provider.retrieveUser(username, authentication);
+    }
+}
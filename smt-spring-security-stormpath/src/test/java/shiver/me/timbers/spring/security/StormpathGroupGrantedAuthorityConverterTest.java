@@ -20,13 +20,17 @@ import com.stormpath.sdk.group.Group;
 import com.stormpath.sdk.group.GroupList;
 import org.junit.Test;
 import org.springframework.security.core.GrantedAuthority;
+import shiver.me.timbers.spring.security.authority.GrantedAuthorityRegistry;
 
 import java.util.Collection;
+import java.util.List;
 
 import static com.stormpath.sdk.group.GroupStatus.DISABLED;
 import static com.stormpath.sdk.group.GroupStatus.ENABLED;
 import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
 import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.junit.Assert.assertThat;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.mock;
@@ -61,4 +65,48 @@ public class StormpathGroupGrantedAuthorityConverterTest {
         // Then
         assertThat(actual, contains(hasField("role", groupName1), hasField("role", groupName3)));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void Can_share_the_default_authority_registry_between_converters() {
+
+        final GroupList groups = mock(GroupList.class);
+        final Group group = mock(Group.class);
+
+        // Given
+        given(groups.iterator()).willReturn(singletonList(group).iterator(), singletonList(group).iterator());
+        given(group.getStatus()).willReturn(ENABLED);
+        given(group.getName()).willReturn(someString());
+
+        // When
+        final Collection<? extends GrantedAuthority> actual = new StormpathGroupGrantedAuthorityConverter().convert(groups);
+
+        // Then
+        assertThat(actual, sameInstance((Collection) new StormpathGroupGrantedAuthorityConverter().convert(groups)));
+    }
+
+    @Test
+    public void Can_convert_groups_with_an_authority_registry() {
+
+        final GrantedAuthorityRegistry authorityRegistry = mock(GrantedAuthorityRegistry.class);
+        final GroupList groups = mock(GroupList.class);
+
+        final Group group = mock(Group.class);
+        final String groupName = someString();
+
+        final List<GrantedAuthority> expected = singletonList(mock(GrantedAuthority.class));
+
+        // Given
+        given(groups.iterator()).willReturn(singletonList(group).iterator());
+        given(group.getStatus()).willReturn(ENABLED);
+        given(group.getName()).willReturn(groupName);
+        given(authorityRegistry.authorities(singletonList(groupName))).willReturn(expected);
+
+        // When
+        final Collection<? extends GrantedAuthority> actual = new StormpathGroupGrantedAuthorityConverter(
+            authorityRegistry
+        ).convert(groups);
+
+        // Then
+        assertThat(actual, sameInstance((Collection) expected));
+    }
+}
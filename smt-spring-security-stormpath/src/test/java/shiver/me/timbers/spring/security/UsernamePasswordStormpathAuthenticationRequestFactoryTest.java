@@ -26,6 +26,8 @@ import static org.hamcrest.Matchers.is;
 import static org.junit.Assert.assertThat;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static shiver.me.timbers.data.random.RandomStrings.someString;
 
 public class UsernamePasswordStormpathAuthenticationRequestFactoryTest {
@@ -64,4 +66,36 @@ public class UsernamePasswordStormpathAuthenticationRequestFactoryTest {
         // Then
         assertThat(actual, is(expected));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void Can_create_a_stormpath_authentication_request_that_does_not_return_the_account() {
+
+        final StormpathRequestBuilderFactory builderFactory = mock(StormpathRequestBuilderFactory.class);
+        final String username = someString();
+        final UsernamePasswordAuthenticationToken authentication = mock(UsernamePasswordAuthenticationToken.class);
+
+        final String password = someString();
+        final UsernamePasswordRequestBuilder builder = mock(UsernamePasswordRequestBuilder.class);
+        final UsernamePasswordRequestBuilder usernameBuilder = mock(UsernamePasswordRequestBuilder.class);
+        final UsernamePasswordRequestBuilder passwordBuilder = mock(UsernamePasswordRequestBuilder.class);
+
+        final AuthenticationRequest expected = mock(AuthenticationRequest.class);
+
+        // Given
+        given(authentication.getCredentials()).willReturn(password);
+        given(builderFactory.builder()).willReturn(builder);
+        given(builder.setUsernameOrEmail(username)).willReturn(usernameBuilder);
+        given(usernameBuilder.setPassword(password)).willReturn(passwordBuilder);
+        given(passwordBuilder.build()).willReturn(expected);
+
+        // When
+        final AuthenticationRequest actual = new UsernamePasswordStormpathAuthenticationRequestFactory(
+            builderFactory,
+            false
+        ).create(username, authentication);
+
+        // Then
+        verify(builderFactory, never()).options();
+        assertThat(actual, is(expected));
+    }
+}
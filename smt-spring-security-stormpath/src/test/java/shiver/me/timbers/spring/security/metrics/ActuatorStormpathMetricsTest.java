@@ -0,0 +1,79 @@
+/*
+ * Copyright 2016 Karl Bennett
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package shiver.me.timbers.spring.security.metrics;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.boot.actuate.metrics.CounterService;
+import org.springframework.boot.actuate.metrics.GaugeService;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static shiver.me.timbers.spring.security.CircuitState.CLOSED;
+import static shiver.me.timbers.spring.security.CircuitState.HALF_OPEN;
+import static shiver.me.timbers.spring.security.CircuitState.OPEN;
+
+public class ActuatorStormpathMetricsTest {
+
+    private CounterService counterService;
+    private GaugeService gaugeService;
+    private ActuatorStormpathMetrics metrics;
+
+    @Before
+    public void setUp() {
+        counterService = mock(CounterService.class);
+        gaugeService = mock(GaugeService.class);
+        metrics = new ActuatorStormpathMetrics(counterService, gaugeService);
+    }
+
+    @Test
+    public void Can_record_a_bulkhead_rejection() {
+
+        // When
+        metrics.bulkheadRejected();
+
+        // Then
+        verify(counterService).increment("counter.smt.spring.security.stormpath.bulkhead.rejected");
+    }
+
+    @Test
+    public void Can_record_a_circuit_rejection() {
+
+        // When
+        metrics.circuitRejected();
+
+        // Then
+        verify(counterService).increment("counter.smt.spring.security.stormpath.circuit.rejected");
+    }
+
+    @Test
+    public void Can_record_the_circuit_state_changes() {
+
+        // When
+        metrics.stateChanged(OPEN);
+        metrics.stateChanged(HALF_OPEN);
+        metrics.stateChanged(CLOSED);
+
+        // Then
+        verify(counterService).increment("counter.smt.spring.security.stormpath.circuit.open");
+        verify(counterService).increment("counter.smt.spring.security.stormpath.circuit.half_open");
+        verify(counterService).increment("counter.smt.spring.security.stormpath.circuit.closed");
+        verify(gaugeService).submit("gauge.smt.spring.security.stormpath.circuit.state", 2);
+        verify(gaugeService).submit("gauge.smt.spring.security.stormpath.circuit.state", 1);
+        verify(gaugeService).submit("gauge.smt.spring.security.stormpath.circuit.state", 0);
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2016 Karl Bennett
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package shiver.me.timbers.spring.security.metrics;
+
+import com.stormpath.sdk.authc.AuthenticationRequest;
+import com.stormpath.sdk.authc.AuthenticationResult;
+import org.junit.Before;
+import org.junit.Test;
+import shiver.me.timbers.spring.security.AccountAuthenticator;
+import shiver.me.timbers.spring.security.StormpathBulkheadFullException;
+import shiver.me.timbers.spring.security.StormpathCircuitOpenException;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static shiver.me.timbers.data.random.RandomStrings.someString;
+
+public class MetricsAccountAuthenticatorTest {
+
+    private AccountAuthenticator authenticator;
+    private StormpathMetrics metrics;
+    private MetricsAccountAuthenticator metricsAuthenticator;
+
+    @Before
+    public void setUp() {
+        authenticator = mock(AccountAuthenticator.class);
+        metrics = mock(StormpathMetrics.class);
+        metricsAuthenticator = new MetricsAccountAuthenticator(authenticator, metrics);
+    }
+
+    @Test
+    public void Can_authenticate_without_recording_anything() {
+
+        final AuthenticationRequest request = mock(AuthenticationRequest.class);
+
+        final AuthenticationResult expected = mock(AuthenticationResult.class);
+
+        // Given
+        given(authenticator.authenticate(request)).willReturn(expected);
+
+        // When
+        final AuthenticationResult actual = metricsAuthenticator.authenticate(request);
+
+        // Then
+        assertThat(actual, is(expected));
+        verifyZeroInteractions(metrics);
+    }
+
+    @Test
+    public void Can_record_a_circuit_rejection() {
+
+        final AuthenticationRequest request = mock(AuthenticationRequest.class);
+
+        // Given
+        given(authenticator.authenticate(request)).willThrow(new StormpathCircuitOpenException(someString()));
+
+        // When
+        try {
+            metricsAuthenticator.authenticate(request);
+            fail("The circuit open exception should have been re-thrown.");
+        } catch (StormpathCircuitOpenException e) {
+            // Then
+            verify(metrics).circuitRejected();
+        }
+    }
+
+    @Test
+    public void Can_record_a_bulkhead_rejection() {
+
+        final AuthenticationRequest request = mock(AuthenticationRequest.class);
+
+        // Given
+        given(authenticator.authenticate(request)).willThrow(new StormpathBulkheadFullException(someString()));
+
+        // When
+        try {
+            metricsAuthenticator.authenticate(request);
+            fail("The bulkhead full exception should have been re-thrown.");
+        } catch (StormpathBulkheadFullException e) {
+            // Then
+            verify(metrics).bulkheadRejected();
+        }
+    }
+}
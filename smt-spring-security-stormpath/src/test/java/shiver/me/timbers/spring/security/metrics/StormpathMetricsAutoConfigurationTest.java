@@ -0,0 +1,87 @@
+/*
+ * Copyright 2016 Karl Bennett
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package shiver.me.timbers.spring.security.metrics;
+
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.boot.actuate.metrics.CounterService;
+import org.springframework.boot.actuate.metrics.GaugeService;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+
+public class StormpathMetricsAutoConfigurationTest {
+
+    private AnnotationConfigApplicationContext context;
+
+    @After
+    public void tearDown() {
+        if (context != null) {
+            context.close();
+        }
+    }
+
+    @Test
+    public void Can_register_the_stormpath_metrics_when_the_actuator_metrics_exist() {
+
+        // Given
+        context = new AnnotationConfigApplicationContext(
+            MetricServicesConfiguration.class,
+            StormpathMetricsAutoConfiguration.class
+        );
+
+        // When
+        final StormpathMetrics actual = context.getBean(StormpathMetrics.class);
+
+        // Then
+        assertThat(actual, instanceOf(ActuatorStormpathMetrics.class));
+    }
+
+    @Test
+    public void Will_not_register_the_stormpath_metrics_when_there_are_no_actuator_metrics() {
+
+        // Given
+        context = new AnnotationConfigApplicationContext(StormpathMetricsAutoConfiguration.class);
+
+        // When
+        final String[] actual = context.getBeanNamesForType(StormpathMetrics.class);
+
+        // Then
+        assertThat(asList(actual), is(empty()));
+    }
+
+    @Configuration
+    static class MetricServicesConfiguration {
+
+        @Bean
+        public CounterService counterService() {
+            return mock(CounterService.class);
+        }
+
+        @Bean
+        public GaugeService gaugeService() {
+            return mock(GaugeService.class);
+        }
+    }
+}
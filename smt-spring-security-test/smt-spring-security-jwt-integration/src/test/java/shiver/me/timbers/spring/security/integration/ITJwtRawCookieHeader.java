@@ -0,0 +1,61 @@
+/*
+ * Copyright 2016 Karl Bennett
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package shiver.me.timbers.spring.security.integration;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.SpringApplicationConfiguration;
+import org.springframework.boot.test.WebIntegrationTest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import shiver.me.timbers.spring.security.jwt.JwtTokenFinder;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@SpringApplicationConfiguration(classes = JwtAnnotationSecurityConfiguration.class)
+@WebIntegrationTest
+@DirtiesContext
+public class ITJwtRawCookieHeader {
+
+    @Value("${smt.spring.security.jwt.tokenName}")
+    private String tokenName;
+
+    @Autowired
+    private JwtTokenFinder tokenFinder;
+
+    @Test
+    public void Can_find_the_token_in_the_raw_cookie_header() {
+
+        final MockHttpServletRequest request = new MockHttpServletRequest();
+        final String token = "some.jwt.token";
+
+        // Given
+        // The mock request doesn't parse this header into servlet cookies, so only the raw header finder can see it.
+        request.addHeader("Cookie", "first=one; " + tokenName + "=" + token + "; last=two");
+
+        // When
+        final String actual = tokenFinder.find(request);
+
+        // Then
+        assertThat(actual, equalTo(token));
+    }
+}
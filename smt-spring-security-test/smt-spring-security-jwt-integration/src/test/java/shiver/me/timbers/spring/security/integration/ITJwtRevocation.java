@@ -0,0 +1,91 @@
+/*
+ * Copyright 2016 Karl Bennett
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package shiver.me.timbers.spring.security.integration;
+
+import org.glassfish.jersey.client.ClientProperties;
+import org.glassfish.jersey.client.JerseyClient;
+import org.glassfish.jersey.client.JerseyClientBuilder;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.SpringApplicationConfiguration;
+import org.springframework.boot.test.WebIntegrationTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+import javax.ws.rs.client.WebTarget;
+import javax.ws.rs.core.Form;
+import javax.ws.rs.core.Response;
+
+import static java.lang.String.format;
+import static javax.ws.rs.client.Entity.form;
+import static javax.ws.rs.client.Entity.text;
+import static javax.ws.rs.core.Response.Status.FORBIDDEN;
+import static javax.ws.rs.core.Response.Status.OK;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static shiver.me.timbers.spring.security.integration.Users.PASSWORD;
+import static shiver.me.timbers.spring.security.integration.Users.USERNAME;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@SpringApplicationConfiguration(classes = JwtApplySecurityConfiguration.class)
+@WebIntegrationTest({
+    "smt.spring.security.jwt.token.expiryDuration=30",
+    "smt.spring.security.jwt.token.expiryUnit=SECONDS",
+    "smt.spring.security.jwt.revocation.enabled=true",
+    "smt.spring.security.jwt.revocation.file=target/smt-spring-security-jwt.revocations"
+})
+@DirtiesContext
+public class ITJwtRevocation {
+
+    @Value("${local.server.port}")
+    private int port;
+
+    @Value("${smt.spring.security.jwt.tokenName}")
+    private String tokenName;
+
+    private WebTarget target;
+
+    @Before
+    public void setUp() {
+        final JerseyClient client = JerseyClientBuilder.createClient();
+        client.property(ClientProperties.FOLLOW_REDIRECTS, false);
+        target = client.target(format("http://localhost:%d/jwt", port));
+    }
+
+    @Test
+    public void Cannot_use_a_token_after_signing_out_with_it() {
+
+        final Form form = new Form();
+
+        // Given
+        form.param("username", USERNAME);
+        form.param("password", PASSWORD);
+        final String token = target.path("signIn").request().post(form(form)).getHeaderString(tokenName);
+        final Response signedIn = target.request().header(tokenName, token).get();
+
+        // When
+        final Response signOut = target.path("signOut").request().header(tokenName, token).post(text(null));
+        final Response revoked = target.request().header(tokenName, token).get();
+
+        // Then
+        assertThat(signedIn.getStatus(), is(OK.getStatusCode()));
+        assertThat(signOut.getStatus(), is(OK.getStatusCode()));
+        assertThat(revoked.getStatus(), is(FORBIDDEN.getStatusCode()));
+    }
+}